@@ -0,0 +1,252 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.introspector;
+
+import jodd.core.JavaBridge;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Factory of getter and setter accessors, as defined by the {@link AccessorStrategy}.
+ * When reflection has to be used, <code>null</code> is returned instead.
+ */
+final class Accessors {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private Accessors() {
+	}
+
+	// ---------------------------------------------------------------- method
+
+	/**
+	 * Creates getter accessor for a method without arguments or
+	 * returns <code>null</code> if reflection has to be used.
+	 */
+	@SuppressWarnings("unchecked")
+	static Function<Object, Object> createGetter(Method method, AccessorStrategy strategy) {
+		if (strategy == AccessorStrategy.REFLECTION
+			|| Modifier.isStatic(method.getModifiers())
+			|| method.getParameterCount() != 0) {
+			return null;
+		}
+
+		try {
+			MethodHandles.Lookup lookup = privateLookupIn(method.getDeclaringClass());
+			MethodHandle methodHandle = lookup(lookup).unreflect(method);
+
+			if (strategy == AccessorStrategy.LAMBDA && lookup != null) {
+				try {
+					CallSite callSite = LambdaMetafactory.metafactory(
+						lookup, "apply",
+						MethodType.methodType(Function.class),
+						GETTER_TYPE,
+						methodHandle,
+						methodHandle.type().wrap());
+
+					return (Function<Object, Object>) callSite.getTarget().invoke();
+				}
+				catch (Throwable ignore) {
+					// use method handle
+				}
+			}
+			return new MethodHandleGetter(methodHandle.asType(GETTER_TYPE));
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates setter accessor for a method with single argument or
+	 * returns <code>null</code> if reflection has to be used.
+	 */
+	@SuppressWarnings("unchecked")
+	static BiConsumer<Object, Object> createSetter(Method method, AccessorStrategy strategy) {
+		if (strategy == AccessorStrategy.REFLECTION
+			|| Modifier.isStatic(method.getModifiers())
+			|| method.getParameterCount() != 1) {
+			return null;
+		}
+
+		try {
+			MethodHandles.Lookup lookup = privateLookupIn(method.getDeclaringClass());
+			MethodHandle methodHandle = lookup(lookup).unreflect(method);
+
+			if (strategy == AccessorStrategy.LAMBDA && lookup != null) {
+				try {
+					CallSite callSite = LambdaMetafactory.metafactory(
+						lookup, "accept",
+						MethodType.methodType(BiConsumer.class),
+						SETTER_TYPE,
+						methodHandle,
+						methodHandle.type().wrap().changeReturnType(void.class));
+
+					return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+				}
+				catch (Throwable ignore) {
+					// use method handle
+				}
+			}
+			return new MethodHandleSetter(methodHandle.asType(SETTER_TYPE));
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	// ---------------------------------------------------------------- field
+
+	/**
+	 * Creates getter accessor for a field or returns <code>null</code>
+	 * if reflection has to be used.
+	 */
+	static Function<Object, Object> createGetter(Field field, AccessorStrategy strategy) {
+		if (strategy == AccessorStrategy.REFLECTION || Modifier.isStatic(field.getModifiers())) {
+			return null;
+		}
+		try {
+			MethodHandles.Lookup lookup = lookup(privateLookupIn(field.getDeclaringClass()));
+			return new MethodHandleGetter(lookup.unreflectGetter(field).asType(GETTER_TYPE));
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates setter accessor for a field or returns <code>null</code>
+	 * if reflection has to be used. Final fields are set using reflection.
+	 */
+	static BiConsumer<Object, Object> createSetter(Field field, AccessorStrategy strategy) {
+		int modifiers = field.getModifiers();
+
+		if (strategy == AccessorStrategy.REFLECTION || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+			return null;
+		}
+		try {
+			MethodHandles.Lookup lookup = lookup(privateLookupIn(field.getDeclaringClass()));
+			return new MethodHandleSetter(lookup.unreflectSetter(field).asType(SETTER_TYPE));
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	// ---------------------------------------------------------------- util
+
+	/**
+	 * Returns lookup with private access to given type, required for
+	 * generating lambdas. Returns <code>null</code> if platform
+	 * does not allow it.
+	 */
+	private static MethodHandles.Lookup privateLookupIn(Class type) {
+		try {
+			return JavaBridge.privateLookupIn(type);
+		}
+		catch (Throwable ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns lookup for creating method handles. Members of descriptors
+	 * are always accessible, so any lookup may be used.
+	 */
+	private static MethodHandles.Lookup lookup(MethodHandles.Lookup privateLookup) {
+		if (privateLookup != null) {
+			return privateLookup;
+		}
+		return MethodHandles.lookup();
+	}
+
+	/**
+	 * Returns <code>true</code> if value can be passed to the accessor of given type
+	 * without conversion. Accessors fail on incompatible values before the
+	 * actual invocation, so reflection is then used to repeat the call and get
+	 * the same behaviour, i.e. conversion or exception.
+	 */
+	static boolean isCompatible(Class type, Object value) {
+		if (value == null) {
+			return !type.isPrimitive();
+		}
+		if (type.isPrimitive()) {
+			type = MethodType.methodType(type).wrap().returnType();
+		}
+		return type.isInstance(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Throwable> RuntimeException sneakyThrow(Throwable throwable) throws T {
+		throw (T) throwable;
+	}
+
+	private static final class MethodHandleGetter implements Function<Object, Object> {
+		private final MethodHandle methodHandle;
+
+		private MethodHandleGetter(MethodHandle methodHandle) {
+			this.methodHandle = methodHandle;
+		}
+
+		@Override
+		public Object apply(Object target) {
+			try {
+				return methodHandle.invokeExact(target);
+			}
+			catch (Throwable throwable) {
+				throw Accessors.<RuntimeException>sneakyThrow(throwable);
+			}
+		}
+	}
+
+	private static final class MethodHandleSetter implements BiConsumer<Object, Object> {
+		private final MethodHandle methodHandle;
+
+		private MethodHandleSetter(MethodHandle methodHandle) {
+			this.methodHandle = methodHandle;
+		}
+
+		@Override
+		public void accept(Object target, Object value) {
+			try {
+				methodHandle.invokeExact(target, value);
+			}
+			catch (Throwable throwable) {
+				throw Accessors.<RuntimeException>sneakyThrow(throwable);
+			}
+		}
+	}
+}
@@ -25,22 +25,58 @@
 
 package jodd.introspector;
 
-import java.util.HashMap;
-import java.util.Map;
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
+import jodd.exception.UncheckedException;
+import jodd.io.findfile.ClassScanner;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Default {@link jodd.introspector.ClassIntrospector introspector} that caches all class descriptors.
  * It can examine either <b>accessible</b> or <b>supported</b> fields/methods/constructors.
  * <p>
- * It simply caches <b>all</b> class descriptors.
+ * Introspector is thread-safe. By default, it simply caches <b>all</b> class
+ * descriptors. Descriptors of classes loaded by the introspector class loader,
+ * or by its child class loaders, are attached to the classes themselves, using
+ * <code>ClassValue</code>, and do not prevent their class loaders from being
+ * unloaded. Descriptors of all other classes, e.g. JDK classes when Jodd is
+ * loaded by the web application class loader, are kept in the bounded cache
+ * of the introspector; otherwise they would pin the introspector class loader.
+ * When cache size is set, all descriptors are kept in the bounded
+ * {@link ConcurrentCache} instead, that holds class references
+ * until they get evicted or introspector is {@link #reset()}.
  */
 public class CachingIntrospector implements ClassIntrospector {
 
-	protected final Map<Class, ClassDescriptor> cache;
 	protected final boolean scanAccessible;
 	protected final boolean enhancedProperties;
 	protected final boolean includeFieldsAsProperties;
 	protected final String[] propertyFieldPrefix;
+	protected final int cacheSize;
+	protected AccessorStrategy accessorStrategy = AccessorStrategy.REFLECTION;
+
+	/**
+	 * Max number of cached descriptors of classes
+	 * outside of the introspector class loader hierarchy.
+	 */
+	public static final int FOREIGN_CACHE_SIZE = 1024;
+
+	protected final Cache<Class, ClassDescriptor> cache;
+	protected final Cache<Class, ClassDescriptor> foreignCache;
+	protected final ClassValue<AtomicReference<ClassDescriptor>> classDescriptors;
+	private final Set<Class> attachedTypes = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private final ClassLoader classLoader = CachingIntrospector.class.getClassLoader();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder describeTime = new LongAdder();
 
 	/**
 	 * Default constructor.
@@ -55,11 +91,76 @@ public class CachingIntrospector implements ClassIntrospector {
 	 * constructors.
 	 */
 	public CachingIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
-		this.cache = new HashMap<>();
+		this(scanAccessible, enhancedProperties, includeFieldsAsProperties, propertyFieldPrefix, 0);
+	}
+
+	/**
+	 * Creates new caching {@link ClassIntrospector} that keeps at most
+	 * given number of class descriptors. Zero cache size means the
+	 * cache is not bounded.
+	 */
+	public CachingIntrospector(boolean scanAccessible, boolean enhancedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix, int cacheSize) {
 		this.scanAccessible = scanAccessible;
 		this.enhancedProperties = enhancedProperties;
 		this.includeFieldsAsProperties = includeFieldsAsProperties;
 		this.propertyFieldPrefix = propertyFieldPrefix;
+		this.cacheSize = cacheSize;
+
+		if (cacheSize > 0) {
+			this.cache = new ConcurrentCache<>(cacheSize);
+			this.foreignCache = null;
+			this.classDescriptors = null;
+		} else {
+			this.cache = null;
+			this.foreignCache = new ConcurrentCache<>(FOREIGN_CACHE_SIZE);
+			this.classDescriptors = createClassDescriptors();
+		}
+	}
+
+	/**
+	 * Creates class value that holds descriptor references. Classes
+	 * that are not {@link #isAttachable(Class) attachable} get <code>null</code>,
+	 * so nothing of the introspector is attached to them.
+	 */
+	protected ClassValue<AtomicReference<ClassDescriptor>> createClassDescriptors() {
+		return new ClassValue<AtomicReference<ClassDescriptor>>() {
+			@Override
+			protected AtomicReference<ClassDescriptor> computeValue(Class<?> type) {
+				return isAttachable(type) ? new AtomicReference<>() : null;
+			}
+		};
+	}
+
+	/**
+	 * Returns <code>true</code> if class descriptor may be attached to the
+	 * class, i.e. when class is loaded by the introspector class loader
+	 * or by one of its child class loaders.
+	 */
+	protected boolean isAttachable(Class type) {
+		if (classLoader == null) {
+			return true;
+		}
+		ClassLoader loader = type.getClassLoader();
+
+		while (loader != null) {
+			if (loader == classLoader) {
+				return true;
+			}
+			loader = loader.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Defines {@link AccessorStrategy strategy} of invoking getters and setters
+	 * for all classes described from now on. Default is reflection.
+	 * Already cached class descriptors are {@link #reset() removed}.
+	 */
+	public CachingIntrospector accessorStrategy(AccessorStrategy accessorStrategy) {
+		Objects.requireNonNull(accessorStrategy);
+		this.accessorStrategy = accessorStrategy;
+		reset();
+		return this;
 	}
 
 	/**
@@ -67,12 +168,40 @@ public class CachingIntrospector implements ClassIntrospector {
 	 */
 	@Override
 	public ClassDescriptor lookup(Class type) {
+		if (cache != null) {
+			return lookup(cache, type);
+		}
+
+		AtomicReference<ClassDescriptor> ref = classDescriptors.get(type);
+		if (ref == null) {
+			return lookup(foreignCache, type);
+		}
+
+		ClassDescriptor cd = ref.get();
+		if (cd != null) {
+			hitCount.increment();
+			cd.increaseUsageCount();
+			return cd;
+		}
+		missCount.increment();
+		cd = describe(type);
+		attachedTypes.add(type);
+		if (!ref.compareAndSet(null, cd)) {
+			// described concurrently, use the first one
+			cd = ref.get();
+		}
+		return cd;
+	}
+
+	private ClassDescriptor lookup(Cache<Class, ClassDescriptor> cache, Class type) {
 		ClassDescriptor cd = cache.get(type);
 		if (cd != null) {
+			hitCount.increment();
 			cd.increaseUsageCount();
 			return cd;
 		}
-		cd = describeClass(type);
+		missCount.increment();
+		cd = describe(type);
 		cache.put(type, cd);
 		return cd;
 	}
@@ -82,17 +211,73 @@ public class CachingIntrospector implements ClassIntrospector {
 	 */
 	@Override
 	public ClassDescriptor register(Class type) {
-		ClassDescriptor cd = describeClass(type);
-		cache.put(type, cd);
+		ClassDescriptor cd = describe(type);
+		if (cache != null) {
+			cache.put(type, cd);
+			return cd;
+		}
+
+		AtomicReference<ClassDescriptor> ref = classDescriptors.get(type);
+		if (ref == null) {
+			foreignCache.put(type, cd);
+		} else {
+			attachedTypes.add(type);
+			ref.set(cd);
+		}
 		return cd;
 	}
 
+	/**
+	 * Describes all classes from given packages found on the
+	 * {@link jodd.util.ClassLoaderUtil#getDefaultClasspath() class path}, so the first lookups
+	 * do not pay the describing cost. Package names may contain wildcards.
+	 * Classes that can not be loaded are skipped. Returns the number
+	 * of described classes.
+	 */
+	public int preload(String... packageNames) {
+		String[] entries = new String[packageNames.length];
+		for (int i = 0; i < packageNames.length; i++) {
+			entries[i] = packageNames[i] + ".*";
+		}
+
+		AtomicInteger count = new AtomicInteger();
+
+		ClassScanner classScanner = ClassScanner.get();
+		classScanner
+			.onEntry(entryData -> {
+				Class type = UncheckedException.callAndWrapException(() -> classScanner.loadClass(entryData.name()));
+				if (type != null) {
+					register(type);
+					count.incrementAndGet();
+				}
+			})
+			.ignoreException(true)
+			.excludeAllEntries(true)
+			.includeEntries(entries)
+			.scanDefaultClasspath();
+
+		return count.get();
+	}
+
+	/**
+	 * Describes a class and measures the describing time.
+	 */
+	protected ClassDescriptor describe(Class type) {
+		long start = System.nanoTime();
+		try {
+			return describeClass(type);
+		}
+		finally {
+			describeTime.add(System.nanoTime() - start);
+		}
+	}
+
 	/**
 	 * Describes a class by creating a new instance of {@link ClassDescriptor}
 	 * that examines all accessible methods and fields.
 	 */
 	protected ClassDescriptor describeClass(Class type) {
-		return new ClassDescriptor(type, scanAccessible, enhancedProperties, includeFieldsAsProperties, propertyFieldPrefix);
+		return new ClassDescriptor(type, scanAccessible, enhancedProperties, includeFieldsAsProperties, propertyFieldPrefix, accessorStrategy);
 	}
 
 	/**
@@ -100,7 +285,43 @@ public class CachingIntrospector implements ClassIntrospector {
 	 */
 	@Override
 	public void reset() {
-		cache.clear();
+		if (cache != null) {
+			cache.clear();
+			return;
+		}
+
+		foreignCache.clear();
+
+		// removes descriptors attached to the classes
+		synchronized (attachedTypes) {
+			for (Class type : attachedTypes) {
+				classDescriptors.remove(type);
+			}
+			attachedTypes.clear();
+		}
+	}
+
+	// ---------------------------------------------------------------- metrics
+
+	/**
+	 * Returns number of lookups resolved from the cache.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns number of lookups that had to describe the class.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Returns total time spent in describing classes, in nanoseconds.
+	 */
+	public long getDescribeTime() {
+		return describeTime.sum();
 	}
 
-}
\ No newline at end of file
+}
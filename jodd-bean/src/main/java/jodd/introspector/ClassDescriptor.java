@@ -56,16 +56,22 @@ public class ClassDescriptor {
 	protected final boolean extendedProperties;
 	protected final boolean includeFieldsAsProperties;
 	protected final String[] propertyFieldPrefix;
+	protected final AccessorStrategy accessorStrategy;
 	protected final Class[] interfaces;
 	protected final Class[] superclasses;
 	protected int usageCount;
 
 	public ClassDescriptor(Class type, boolean scanAccessible, boolean extendedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix) {
+		this(type, scanAccessible, extendedProperties, includeFieldsAsProperties, propertyFieldPrefix, AccessorStrategy.REFLECTION);
+	}
+
+	public ClassDescriptor(Class type, boolean scanAccessible, boolean extendedProperties, boolean includeFieldsAsProperties, String[] propertyFieldPrefix, AccessorStrategy accessorStrategy) {
 		this.type = type;
 		this.scanAccessible = scanAccessible;
 		this.extendedProperties = extendedProperties;
 		this.includeFieldsAsProperties = includeFieldsAsProperties;
 		this.propertyFieldPrefix = propertyFieldPrefix;
+		this.accessorStrategy = accessorStrategy;
 
 		isArray = type.isArray();
 		isMap = ClassUtil.isTypeOf(type, Map.class);
@@ -117,6 +123,13 @@ public class ClassDescriptor {
 		return propertyFieldPrefix;
 	}
 
+	/**
+	 * Returns {@link AccessorStrategy strategy} of invoking getters and setters.
+	 */
+	public AccessorStrategy getAccessorStrategy() {
+		return accessorStrategy;
+	}
+
 	/**
 	 * Increases usage count.
 	 */
@@ -30,6 +30,8 @@ import jodd.util.ClassUtil;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Field descriptor. Holds additional field data,
@@ -112,7 +114,31 @@ public class FieldDescriptor extends Descriptor implements Getter, Setter {
 
 	// ---------------------------------------------------------------- getter/setter
 
+	/**
+	 * Getter and setter accessors, <code>null</code> when reflection is used.
+	 * Accessors are created on the first use, as marked by the flags.
+	 */
+	protected Function<Object, Object> getterAccessor;
+	protected BiConsumer<Object, Object> setterAccessor;
+	protected boolean getterAccessorCreated;
+	protected boolean setterAccessorCreated;
+
 	public Object invokeGetter(Object target) throws InvocationTargetException, IllegalAccessException {
+		if (!getterAccessorCreated) {
+			getterAccessor = Accessors.createGetter(field, classDescriptor.getAccessorStrategy());
+			getterAccessorCreated = true;
+		}
+
+		Function<Object, Object> getter = getterAccessor;
+
+		if (getter != null) {
+			try {
+				return getter.apply(target);
+			}
+			catch (RuntimeException ignore) {
+				// field access fails only on incompatible target, reflection reports it
+			}
+		}
 		return field.get(target);
 	}
 
@@ -129,6 +155,22 @@ public class FieldDescriptor extends Descriptor implements Getter, Setter {
 	}
 
 	public void invokeSetter(Object target, Object argument) throws IllegalAccessException {
+		if (!setterAccessorCreated) {
+			setterAccessor = Accessors.createSetter(field, classDescriptor.getAccessorStrategy());
+			setterAccessorCreated = true;
+		}
+
+		BiConsumer<Object, Object> setter = setterAccessor;
+
+		if (setter != null) {
+			try {
+				setter.accept(target, argument);
+				return;
+			}
+			catch (RuntimeException ignore) {
+				// incompatible target or argument, reflection converts or reports it
+			}
+		}
 		field.set(target, argument);
 	}
 
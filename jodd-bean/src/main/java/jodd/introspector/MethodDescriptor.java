@@ -30,6 +30,8 @@ import jodd.util.ClassUtil;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Method descriptor. Holds additional method data,
@@ -141,8 +143,36 @@ public class MethodDescriptor extends Descriptor implements Getter, Setter {
 
 	// ---------------------------------------------------------------- getter/setter
 
+	/**
+	 * Getter and setter accessors, <code>null</code> when reflection is used.
+	 * Accessors are created on the first use, as marked by the flags.
+	 */
+	protected Function<Object, Object> getterAccessor;
+	protected BiConsumer<Object, Object> setterAccessor;
+	protected boolean getterAccessorCreated;
+	protected boolean setterAccessorCreated;
+
 	public Object invokeGetter(Object target) throws InvocationTargetException, IllegalAccessException {
-		return method.invoke(target, null);
+		if (!getterAccessorCreated) {
+			getterAccessor = Accessors.createGetter(method, classDescriptor.getAccessorStrategy());
+			getterAccessorCreated = true;
+		}
+
+		Function<Object, Object> getter = getterAccessor;
+
+		if (getter == null) {
+			return method.invoke(target, (Object[]) null);
+		}
+
+		try {
+			return getter.apply(target);
+		}
+		catch (Throwable throwable) {
+			if (!method.getDeclaringClass().isInstance(target)) {
+				return method.invoke(target, (Object[]) null);
+			}
+			throw new InvocationTargetException(throwable);
+		}
 	}
 
 	public Class getGetterRawType() {
@@ -158,7 +188,29 @@ public class MethodDescriptor extends Descriptor implements Getter, Setter {
 	}
 
 	public void invokeSetter(Object target, Object argument) throws IllegalAccessException, InvocationTargetException {
-		method.invoke(target, argument);
+		if (!setterAccessorCreated) {
+			setterAccessor = Accessors.createSetter(method, classDescriptor.getAccessorStrategy());
+			setterAccessorCreated = true;
+		}
+
+		BiConsumer<Object, Object> setter = setterAccessor;
+
+		if (setter == null) {
+			method.invoke(target, argument);
+			return;
+		}
+
+		try {
+			setter.accept(target, argument);
+		}
+		catch (Throwable throwable) {
+			if (!method.getDeclaringClass().isInstance(target)
+				|| !Accessors.isCompatible(method.getParameterTypes()[0], argument)) {
+				method.invoke(target, argument);
+				return;
+			}
+			throw new InvocationTargetException(throwable);
+		}
 	}
 
 	public Class getSetterRawType() {
@@ -42,12 +42,16 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IntrospectorTest {
@@ -427,6 +431,194 @@ class IntrospectorTest {
 	}
 
 
+
+	@Test
+	void testCachingIntrospectorMetrics() {
+		CachingIntrospector introspector = new CachingIntrospector();
+
+		ClassDescriptor cd = introspector.lookup(Abean.class);
+		assertTrue(cd == introspector.lookup(Abean.class));
+		assertEquals(1, introspector.getHitCount());
+		assertEquals(1, introspector.getMissCount());
+		assertTrue(introspector.getDescribeTime() > 0);
+
+		ClassDescriptor cd2 = introspector.register(Abean.class);
+		assertNotEquals(cd, cd2);
+		assertTrue(cd2 == introspector.lookup(Abean.class));
+
+		introspector.reset();
+		assertNotEquals(cd2, introspector.lookup(Abean.class));
+		assertEquals(2, introspector.getMissCount());
+	}
+
+	@Test
+	void testCachingIntrospectorForeignClasses() {
+		CachingIntrospector introspector = new CachingIntrospector();
+
+		// JDK classes are not in the introspector class loader hierarchy
+		assertFalse(introspector.isAttachable(String.class));
+		assertTrue(introspector.isAttachable(Abean.class));
+
+		ClassDescriptor stringCd = introspector.lookup(String.class);
+		assertSame(stringCd, introspector.lookup(String.class));
+		assertNull(introspector.classDescriptors.get(String.class));
+		assertSame(stringCd, introspector.foreignCache.get(String.class));
+
+		ClassDescriptor abeanCd = introspector.lookup(Abean.class);
+		assertSame(abeanCd, introspector.classDescriptors.get(Abean.class).get());
+
+		introspector.reset();
+
+		assertNull(introspector.classDescriptors.get(Abean.class).get());
+		assertNull(introspector.foreignCache.get(String.class));
+		assertNotSame(abeanCd, introspector.lookup(Abean.class));
+		assertNotSame(stringCd, introspector.lookup(String.class));
+	}
+
+	@Test
+	void testBoundedCachingIntrospector() {
+		CachingIntrospector introspector = new CachingIntrospector(true, true, true, null, 2);
+
+		Class[] types = new Class[] {Abean.class, Bbean.class, Cbean.class, One.class, TwoSub.class};
+		for (int i = 0; i < 10; i++) {
+			for (Class type : types) {
+				assertEquals(type, introspector.lookup(type).getType());
+			}
+		}
+		assertTrue(introspector.cache.size() <= 2);
+		assertEquals(50, introspector.getHitCount() + introspector.getMissCount());
+
+		introspector.reset();
+		assertEquals(0, introspector.cache.size());
+	}
+
+	@Test
+	void testConcurrentLookup() throws InterruptedException {
+		CachingIntrospector introspector = new CachingIntrospector();
+
+		Class[] types = new Class[] {Abean.class, Bbean.class, Cbean.class, One.class, OneSub.class, TwoSub.class, Mojo.class};
+		ClassDescriptor[][] results = new ClassDescriptor[8][types.length];
+		CountDownLatch start = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[results.length];
+		for (int t = 0; t < threads.length; t++) {
+			final int threadNdx = t;
+			threads[t] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException ignore) {
+				}
+				for (int i = 0; i < types.length; i++) {
+					results[threadNdx][i] = introspector.lookup(types[i]);
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		for (int i = 0; i < types.length; i++) {
+			for (ClassDescriptor[] result : results) {
+				assertTrue(results[0][i] == result[i]);
+			}
+		}
+		assertEquals(threads.length * types.length, introspector.getHitCount() + introspector.getMissCount());
+	}
+
+	@Test
+	void testPreload() {
+		CachingIntrospector introspector = new CachingIntrospector();
+
+		int count = introspector.preload("jodd.introspector.fixtures");
+		assertTrue(count >= 10);
+
+		introspector.lookup(Abean.class);
+		introspector.lookup(Overload.class);
+
+		assertEquals(2, introspector.getHitCount());
+		assertEquals(0, introspector.getMissCount());
+	}
+
+
+	static class Accessed {
+		private int number;
+		private String text;
+		protected long counter;
+		private final String fixed = "fixed";
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(int number) {
+			this.number = number;
+		}
+
+		String getText() {
+			return text;
+		}
+
+		Accessed setText(String text) {
+			this.text = text;
+			return this;
+		}
+
+		public String getFail() {
+			throw new IllegalStateException("fail");
+		}
+	}
+
+	@Test
+	void testAccessorStrategies() throws Exception {
+		for (AccessorStrategy accessorStrategy : AccessorStrategy.values()) {
+			CachingIntrospector introspector = new CachingIntrospector(false, true, true, null).accessorStrategy(accessorStrategy);
+			ClassDescriptor cd = introspector.lookup(Accessed.class);
+			assertEquals(accessorStrategy, cd.getAccessorStrategy());
+
+			Accessed accessed = new Accessed();
+
+			for (int i = 0; i < 2; i++) {
+				Setter setter = cd.getPropertyDescriptor("number", true).getSetter(true);
+				setter.invokeSetter(accessed, Integer.valueOf(173 + i));
+				Getter getter = cd.getPropertyDescriptor("number", true).getGetter(true);
+				assertEquals(Integer.valueOf(173 + i), getter.invokeGetter(accessed));
+
+				setter = cd.getPropertyDescriptor("text", true).getSetter(true);
+				setter.invokeSetter(accessed, "jodd" + i);
+				getter = cd.getPropertyDescriptor("text", true).getGetter(true);
+				assertEquals("jodd" + i, getter.invokeGetter(accessed));
+
+				FieldDescriptor fd = cd.getFieldDescriptor("counter", true);
+				fd.invokeSetter(accessed, Long.valueOf(i));
+				assertEquals(Long.valueOf(i), fd.invokeGetter(accessed));
+
+				// widening is done by reflection
+				fd.invokeSetter(accessed, Integer.valueOf(7));
+				assertEquals(Long.valueOf(7), fd.invokeGetter(accessed));
+
+				fd = cd.getFieldDescriptor("fixed", true);
+				assertEquals("fixed", fd.invokeGetter(accessed));
+			}
+
+			// exceptions are the same as with reflection
+
+			Getter failGetter = cd.getPropertyDescriptor("fail", true).getGetter(true);
+			InvocationTargetException itex = assertThrows(InvocationTargetException.class, () -> failGetter.invokeGetter(accessed));
+			assertEquals("fail", itex.getCause().getMessage());
+
+			Setter numberSetter = cd.getPropertyDescriptor("number", true).getSetter(true);
+			assertThrows(IllegalArgumentException.class, () -> numberSetter.invokeSetter(accessed, null));
+			assertThrows(IllegalArgumentException.class, () -> numberSetter.invokeSetter(accessed, "173"));
+			assertThrows(IllegalArgumentException.class, () -> numberSetter.invokeSetter("accessed", 1));
+			assertThrows(NullPointerException.class, () -> numberSetter.invokeSetter(null, 1));
+
+			Getter numberGetter = cd.getPropertyDescriptor("number", true).getGetter(true);
+			assertThrows(NullPointerException.class, () -> numberGetter.invokeGetter(null));
+		}
+	}
+
 	MethodDescriptor getPropertySetterDescriptor(ClassDescriptor cd, String name, boolean declared) {
 		PropertyDescriptor propertyDescriptor = cd.getPropertyDescriptor(name, true);
 
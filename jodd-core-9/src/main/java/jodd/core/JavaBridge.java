@@ -25,6 +25,7 @@
 
 package jodd.core;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.module.ModuleDescriptor;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -90,6 +91,15 @@ public class JavaBridge {
 		}
 	}
 
+	/**
+	 * Returns lookup object with full access to the given class, including
+	 * private members. Lambdas created with such lookup are defined in the
+	 * target class, so they are visible to its class loader.
+	 */
+	public static MethodHandles.Lookup privateLookupIn(Class type) throws ReflectiveOperationException {
+		return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+	}
+
 	private static URL currentModuleURL() {
 		URL url = JavaBridge.class.getClassLoader().getResource(RESOURCE);
 
@@ -0,0 +1,673 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Segmented cache for highly concurrent access.
+ *
+ * <p>
+ * Keys are spread over independent segments; each segment has its own
+ * concurrent map, its own lock and its own eviction policy. Reading is lock-free:
+ * the value is taken from the concurrent map and the access is only recorded in a
+ * small, lossy per-segment buffer. Buffered accesses are replayed on the eviction
+ * structures later, by whichever thread manages to acquire the segment lock.
+ * Therefore the recency information is approximate, which is fine for a cache.
+ * <p>
+ * Eviction policy is W-TinyLFU. New objects enter a small LRU <i>window</i>.
+ * Objects evicted from the window are admitted to the <i>main</i> LRU region
+ * only if they are accessed more frequently than the object that would be
+ * evicted from the main region instead. Access frequency is estimated with
+ * a compact count-min sketch that is periodically aged.
+ * <p>
+ * Hits and misses are counted with <code>LongAdder</code>s.
+ * Keys must not be <code>null</code>.
+ * <p>
+ * Summary for this cache: fast under contention, captures both recency and
+ * frequency, scan resistant.
+ */
+public class ConcurrentCache<K, V> implements Cache<K, V> {
+
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+
+	protected final int cacheSize;
+	protected final long timeout;
+
+	private final Segment[] segments;
+	private final int segmentMask;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	public ConcurrentCache(int cacheSize) {
+		this(cacheSize, 0);
+	}
+
+	public ConcurrentCache(int cacheSize, long timeout) {
+		this(cacheSize, timeout, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Creates a new concurrent cache. Concurrency level is an estimated number
+	 * of concurrently updating threads and it defines the number of segments.
+	 * Small caches are not split, so each segment holds some reasonable number
+	 * of objects.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentCache(int cacheSize, long timeout, int concurrencyLevel) {
+		this.cacheSize = cacheSize;
+		this.timeout = timeout;
+
+		int segmentsCount = 1;
+		while (segmentsCount < concurrencyLevel) {
+			if (cacheSize != 0 && (segmentsCount << 1) * MIN_SEGMENT_CAPACITY > cacheSize) {
+				break;
+			}
+			segmentsCount <<= 1;
+		}
+
+		this.segmentMask = segmentsCount - 1;
+		this.segments = new ConcurrentCache.Segment[segmentsCount];
+
+		final int segmentCapacity = cacheSize / segmentsCount;
+		final int remainder = cacheSize % segmentsCount;
+
+		for (int i = 0; i < segmentsCount; i++) {
+			segments[i] = new Segment(segmentCapacity + (i < remainder ? 1 : 0));
+		}
+	}
+
+	// ---------------------------------------------------------------- properties
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int limit() {
+		return cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long timeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns hit count.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Returns miss count.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	// ---------------------------------------------------------------- cache
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(K key, V object) {
+		put(key, object, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void put(K key, V object, long timeout) {
+		final int hash = hash(key);
+		segmentFor(hash).put(key, hash, object, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V get(K key) {
+		final int hash = hash(key);
+		final CacheNode<K, V> node = segmentFor(hash).get(key);
+
+		if (node == null) {
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return node.value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int prune() {
+		int count = 0;
+		for (Segment segment : segments) {
+			count += segment.prune();
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFull() {
+		if (cacheSize == 0) {
+			return false;
+		}
+		return size() >= cacheSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void remove(K key) {
+		final int hash = hash(key);
+		segmentFor(hash).remove(key);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.data.size();
+		}
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		for (Segment segment : segments) {
+			if (!segment.data.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Segments are locked one by one.
+	 */
+	@Override
+	public Map<K, V> snapshot() {
+		final Map<K, V> map = new HashMap<>(size());
+
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				segment.data.forEach((key, node) -> map.put(key, node.value));
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return map;
+	}
+
+	// ---------------------------------------------------------------- protected
+
+	/**
+	 * Callback called on item removal. The segment of the item is still locked.
+	 */
+	protected void onRemove(K key, V cachedObject) {
+	}
+
+	// ---------------------------------------------------------------- segments
+
+	/**
+	 * Spreads the hash code, so both segment selection and
+	 * the frequency sketch get well-distributed bits.
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		h = ((h >>> 16) ^ h) * 0x45d9f3b;
+		h = ((h >>> 16) ^ h) * 0x45d9f3b;
+		return (h >>> 16) ^ h;
+	}
+
+	private Segment segmentFor(int hash) {
+		return segments[(hash >>> 16) & segmentMask];
+	}
+
+	private static final int READ_BUFFER_SIZE = 16;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+	/**
+	 * Cache segment. Map is read without locking, while the eviction
+	 * structures are guarded by the segment lock.
+	 */
+	@SuppressWarnings("serial")
+	final class Segment extends ReentrantLock {
+
+		final ConcurrentHashMap<K, CacheNode<K, V>> data;
+		final int capacity;
+		final int windowCapacity;
+		final int mainCapacity;
+
+		final AccessQueue<K, V> window = new AccessQueue<>();
+		final AccessQueue<K, V> main = new AccessQueue<>();
+		final FrequencySketch sketch;
+
+		final AtomicReferenceArray<CacheNode<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+		final AtomicLong readCounter = new AtomicLong();
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+			this.windowCapacity = capacity > 1 ? Math.max(1, capacity / 100) : capacity;
+			this.mainCapacity = capacity - windowCapacity;
+			this.data = new ConcurrentHashMap<>(capacity == 0 ? 16 : capacity + 1);
+			this.sketch = capacity == 0 ? null : new FrequencySketch(capacity);
+		}
+
+		/**
+		 * Returns cache node that is not expired. Lock is acquired only
+		 * when expired node has to be removed.
+		 */
+		CacheNode<K, V> get(K key) {
+			final CacheNode<K, V> node = data.get(key);
+			if (node == null) {
+				return null;
+			}
+
+			if (node.ttl != 0) {
+				final long now = System.currentTimeMillis();
+
+				if (node.lastAccess + node.ttl < now) {
+					lock();
+					try {
+						if (data.remove(key, node)) {
+							unlink(node);
+							onRemove(node.key, node.value);
+						}
+					}
+					finally {
+						unlock();
+					}
+					return null;
+				}
+				node.lastAccess = now;
+			}
+
+			if (capacity != 0) {
+				recordRead(node);
+			}
+			return node;
+		}
+
+		/**
+		 * Records read in the lossy buffer. When the buffer is full, the thread
+		 * that manages to lock the segment drains it; others simply continue.
+		 */
+		private void recordRead(CacheNode<K, V> node) {
+			final long index = readCounter.getAndIncrement() & READ_BUFFER_MASK;
+
+			readBuffer.lazySet((int) index, node);
+
+			if (index == READ_BUFFER_MASK && tryLock()) {
+				try {
+					drainReadBuffer();
+				}
+				finally {
+					unlock();
+				}
+			}
+		}
+
+		/**
+		 * Replays buffered reads on the eviction structures.
+		 * Must be called under the lock.
+		 */
+		private void drainReadBuffer() {
+			for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+				final CacheNode<K, V> node = readBuffer.getAndSet(i, null);
+
+				if (node == null) {
+					continue;
+				}
+				sketch.increment(node.hash);
+
+				if (node.queue == CacheNode.WINDOW) {
+					window.moveToTail(node);
+				}
+				else if (node.queue == CacheNode.MAIN) {
+					main.moveToTail(node);
+				}
+			}
+		}
+
+		void put(K key, int hash, V value, long ttl) {
+			final CacheNode<K, V> node = new CacheNode<>(key, hash, value, ttl);
+
+			lock();
+			try {
+				final CacheNode<K, V> old = data.put(key, node);
+				if (old != null) {
+					unlink(old);
+				}
+
+				if (capacity == 0) {
+					return;
+				}
+
+				drainReadBuffer();
+				sketch.increment(hash);
+
+				node.queue = CacheNode.WINDOW;
+				window.addTail(node);
+
+				evict();
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * Moves overflowing window objects to the main region. When the main region
+		 * is full as well, the more frequent of the window candidate and the
+		 * main region victim is kept.
+		 */
+		private void evict() {
+			while (window.size > windowCapacity) {
+				final CacheNode<K, V> candidate = window.head.next;
+				window.remove(candidate);
+
+				if (main.size < mainCapacity) {
+					candidate.queue = CacheNode.MAIN;
+					main.addTail(candidate);
+					continue;
+				}
+
+				if (mainCapacity == 0) {
+					evictNode(candidate);
+					continue;
+				}
+
+				final CacheNode<K, V> victim = main.head.next;
+
+				if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+					main.remove(victim);
+					evictNode(victim);
+
+					candidate.queue = CacheNode.MAIN;
+					main.addTail(candidate);
+				}
+				else {
+					evictNode(candidate);
+				}
+			}
+		}
+
+		private void evictNode(CacheNode<K, V> node) {
+			node.queue = CacheNode.REMOVED;
+			if (data.remove(node.key, node)) {
+				onRemove(node.key, node.value);
+			}
+		}
+
+		/**
+		 * Unlinks a node from its eviction queue. Must be called under the lock.
+		 */
+		private void unlink(CacheNode<K, V> node) {
+			if (node.queue == CacheNode.WINDOW) {
+				window.remove(node);
+			}
+			else if (node.queue == CacheNode.MAIN) {
+				main.remove(node);
+			}
+			node.queue = CacheNode.REMOVED;
+		}
+
+		void remove(K key) {
+			lock();
+			try {
+				final CacheNode<K, V> node = data.remove(key);
+				if (node != null) {
+					unlink(node);
+					onRemove(node.key, node.value);
+				}
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		int prune() {
+			int count = 0;
+
+			lock();
+			try {
+				final long now = System.currentTimeMillis();
+				final Iterator<CacheNode<K, V>> values = data.values().iterator();
+
+				while (values.hasNext()) {
+					final CacheNode<K, V> node = values.next();
+
+					if (node.ttl != 0 && node.lastAccess + node.ttl < now) {
+						values.remove();
+						unlink(node);
+						onRemove(node.key, node.value);
+						count++;
+					}
+				}
+			}
+			finally {
+				unlock();
+			}
+			return count;
+		}
+
+		void clear() {
+			lock();
+			try {
+				data.clear();
+				window.clear();
+				main.clear();
+				for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+					readBuffer.lazySet(i, null);
+				}
+			}
+			finally {
+				unlock();
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- nodes
+
+	/**
+	 * Cached object and its position in the eviction queues.
+	 */
+	static final class CacheNode<K, V> {
+		static final byte NONE = 0;
+		static final byte WINDOW = 1;
+		static final byte MAIN = 2;
+		static final byte REMOVED = 3;
+
+		CacheNode(K key, int hash, V value, long ttl) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+			this.ttl = ttl;
+			this.lastAccess = ttl != 0 ? System.currentTimeMillis() : 0;
+		}
+
+		final K key;
+		final int hash;
+		final V value;
+		final long ttl;			// objects timeout (time-to-live), 0 = no timeout
+		volatile long lastAccess;
+
+		// guarded by the segment lock
+		byte queue;
+		CacheNode<K, V> prev;
+		CacheNode<K, V> next;
+	}
+
+	/**
+	 * Simple doubly-linked access-ordered queue with a sentinel;
+	 * head is the least recently used node.
+	 */
+	static final class AccessQueue<K, V> {
+		final CacheNode<K, V> head = new CacheNode<>(null, 0, null, 0);
+		int size;
+
+		AccessQueue() {
+			head.prev = head;
+			head.next = head;
+		}
+
+		void addTail(CacheNode<K, V> node) {
+			node.prev = head.prev;
+			node.next = head;
+			head.prev.next = node;
+			head.prev = node;
+			size++;
+		}
+
+		void remove(CacheNode<K, V> node) {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = null;
+			node.next = null;
+			size--;
+		}
+
+		void moveToTail(CacheNode<K, V> node) {
+			if (head.prev == node) {
+				return;
+			}
+			remove(node);
+			addTail(node);
+		}
+
+		void clear() {
+			head.prev = head;
+			head.next = head;
+			size = 0;
+		}
+	}
+
+	/**
+	 * Count-min sketch with four 4-bit counters per object, packed in longs.
+	 * Counters are halved when the number of increments reaches the sample size,
+	 * so the old history fades away.
+	 */
+	static final class FrequencySketch {
+		private static final long[] SEED = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final long[] table;
+		private final int tableMask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int capacity) {
+			int length = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+			this.table = new long[length];
+			this.tableMask = length - 1;
+			this.sampleSize = 10 * capacity;
+		}
+
+		int frequency(int hash) {
+			final int start = (hash & 3) << 2;
+			int frequency = 15;
+
+			for (int i = 0; i < 4; i++) {
+				final int index = indexOf(hash, i);
+				final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(int hash) {
+			final int start = (hash & 3) << 2;
+			boolean added = false;
+
+			for (int i = 0; i < 4; i++) {
+				final int index = indexOf(hash, i);
+				final int offset = (start + i) << 2;
+				final long mask = 0xFL << offset;
+
+				if ((table[index] & mask) != mask) {
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if (added && ++additions == sampleSize) {
+				for (int i = 0; i < table.length; i++) {
+					table[i] = (table[i] >>> 1) & RESET_MASK;
+				}
+				additions >>>= 1;
+			}
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEED[i]) * SEED[i];
+			h += h >>> 32;
+			return ((int) h) & tableMask;
+		}
+	}
+}
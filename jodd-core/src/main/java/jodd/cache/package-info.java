@@ -24,6 +24,6 @@
 // POSSIBILITY OF SUCH DAMAGE.
 
 /**
- * Some useful caches: LRU, LFU, FIFO.
+ * Some useful caches: LRU, LFU, FIFO and concurrent W-TinyLFU.
  */
 package jodd.cache;
\ No newline at end of file
@@ -25,6 +25,8 @@
 
 package jodd.core;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -57,6 +59,23 @@ public class JavaBridge {
 		return new URL[] {url};
 	}
 
+	/**
+	 * Returns lookup object with full access to the given class, including
+	 * private members. Lambdas created with such lookup are defined in the
+	 * target class, so they are visible to its class loader.
+	 */
+	public static MethodHandles.Lookup privateLookupIn(Class type) throws ReflectiveOperationException {
+		Constructor<MethodHandles.Lookup> ctor = lookupCtor;
+		if (ctor == null) {
+			ctor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+			ctor.setAccessible(true);
+			lookupCtor = ctor;
+		}
+		return ctor.newInstance(type);
+	}
+
+	private static Constructor<MethodHandles.Lookup> lookupCtor;
+
 	private static URL currentModuleURL() {
 		URL url = JavaBridge.class.getClassLoader().getResource(RESOURCE);
 
@@ -143,8 +143,8 @@ public class StreamUtil {
 			return copy(input, output);
 		}
 
-		int numToRead = bufferSize(count);
-		char[] buffer = new char[numToRead];
+		int numToRead = count;
+		char[] buffer = new char[bufferSize(numToRead)];
 
 		int totalRead = ZERO;
 		int read;
@@ -179,8 +179,8 @@ public class StreamUtil {
 			return copy(input, output);
 		}
 
-		int numToRead = bufferSize(count);
-		byte[] buffer = new byte[numToRead];
+		int numToRead = count;
+		byte[] buffer = new byte[bufferSize(numToRead)];
 
 		int totalRead = ZERO;
 		int read;
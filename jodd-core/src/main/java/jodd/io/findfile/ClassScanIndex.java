@@ -0,0 +1,340 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.findfile;
+
+import jodd.io.StreamUtil;
+import jodd.util.ArraysUtil;
+import jodd.util.StringPool;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Index of type signatures used by classes inside of archives. Index remembers,
+ * for each examined archive entry, which of the registered type signatures
+ * are used by the class, so class content is read only once, no matter how
+ * many {@link ClassScanner scanners} share the index. Index is thread-safe.
+ * <p>
+ * Index may be {@link #save(File) saved} and {@link #load(File) loaded}, so
+ * unchanged archives are not read again on restart. Archives are identified by
+ * their path, length and last modification time; if archive is changed, its
+ * index is discarded. Class folders are never indexed.
+ * <p>
+ * Register all type signatures before the scanning for a single pass over
+ * archives; signatures registered later are resolved by reading the
+ * classes again.
+ */
+public class ClassScanIndex {
+
+	private static final String HEADER = "#jodd-class-scan-index:1";
+	private static final int MAX_SIGNATURES = 64;
+
+	protected volatile byte[][] signatures = new byte[0][];
+	protected final Map<String, ArchiveIndex> archives = new ConcurrentHashMap<>();
+	protected volatile boolean modified;
+
+	/**
+	 * Registers type signature of a class.
+	 */
+	public ClassScanIndex addSignature(Class type) {
+		signatureIndex(ClassScanner.bytecodeSignatureOfType(type));
+		return this;
+	}
+
+	/**
+	 * Registers type signature bytes.
+	 * @see ClassScanner#bytecodeSignatureOfType(Class)
+	 */
+	public ClassScanIndex addSignature(byte[] signature) {
+		signatureIndex(signature);
+		return this;
+	}
+
+	/**
+	 * Returns the index of the type signature, registers it if needed.
+	 */
+	protected int signatureIndex(byte[] signature) {
+		int ndx = findSignature(signatures, signature);
+		if (ndx != -1) {
+			return ndx;
+		}
+
+		synchronized (this) {
+			byte[][] current = signatures;
+
+			ndx = findSignature(current, signature);
+			if (ndx != -1) {
+				return ndx;
+			}
+			if (current.length == MAX_SIGNATURES) {
+				throw new FindFileException("Too many signatures in class scan index");
+			}
+			signatures = ArraysUtil.append(current, signature.clone());
+			return current.length;
+		}
+	}
+
+	private static int findSignature(byte[][] signatures, byte[] signature) {
+		for (int i = 0; i < signatures.length; i++) {
+			if (Arrays.equals(signatures[i], signature)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns <code>true</code> if class inside of an archive uses the type signature.
+	 * Class content is read from the supplier only if index doesn't have the answer;
+	 * then all registered signatures are resolved at once.
+	 */
+	public boolean isTypeSignatureInUse(File archive, String entryName, byte[] signature, Supplier<byte[]> classBytesSupplier) {
+		int ndx = signatureIndex(signature);
+		long bit = 1L << ndx;
+
+		ArchiveIndex archiveIndex = lookupArchive(archive);
+		EntryIndex entryIndex = archiveIndex.entries.get(entryName);
+
+		if (entryIndex != null && (entryIndex.known & bit) != 0) {
+			return (entryIndex.used & bit) != 0;
+		}
+
+		byte[] data = classBytesSupplier.get();
+		byte[][] allSignatures = signatures;
+
+		long known = 0;
+		long used = 0;
+		for (int i = 0; i < allSignatures.length; i++) {
+			known |= 1L << i;
+			if (ArraysUtil.indexOf(data, allSignatures[i]) != -1) {
+				used |= 1L << i;
+			}
+		}
+
+		archiveIndex.entries.put(entryName, new EntryIndex(known, used));
+		modified = true;
+
+		return (used & bit) != 0;
+	}
+
+	/**
+	 * Lookups index of an archive. Index is verified against the archive
+	 * on first access and discarded if archive has been changed.
+	 */
+	protected ArchiveIndex lookupArchive(File archive) {
+		String path = archive.getAbsolutePath();
+
+		ArchiveIndex archiveIndex = archives.get(path);
+		if (archiveIndex != null && archiveIndex.verified) {
+			return archiveIndex;
+		}
+
+		synchronized (archives) {
+			archiveIndex = archives.get(path);
+			if (archiveIndex != null && archiveIndex.verified) {
+				return archiveIndex;
+			}
+
+			long length = archive.length();
+			long lastModified = archive.lastModified();
+
+			if (archiveIndex == null || archiveIndex.length != length || archiveIndex.lastModified != lastModified) {
+				archiveIndex = new ArchiveIndex(length, lastModified);
+				archives.put(path, archiveIndex);
+				modified = true;
+			}
+			archiveIndex.verified = true;
+		}
+		return archiveIndex;
+	}
+
+	// ---------------------------------------------------------------- stats
+
+	/**
+	 * Returns <code>true</code> if index has been modified since
+	 * it was loaded or saved.
+	 */
+	public boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * Returns number of indexed archives.
+	 */
+	public int archivesCount() {
+		return archives.size();
+	}
+
+	/**
+	 * Clears the index.
+	 */
+	public void clear() {
+		archives.clear();
+		modified = true;
+	}
+
+	// ---------------------------------------------------------------- persistence
+
+	/**
+	 * Saves index to a file.
+	 */
+	public synchronized void save(File file) throws IOException {
+		byte[][] allSignatures = signatures;
+
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+		try {
+			out.write(HEADER);
+			out.write('\n');
+
+			for (byte[] signature : allSignatures) {
+				out.write("S " + new String(signature, StandardCharsets.UTF_8) + '\n');
+			}
+
+			for (Map.Entry<String, ArchiveIndex> archiveEntry : archives.entrySet()) {
+				ArchiveIndex archiveIndex = archiveEntry.getValue();
+
+				out.write("A " + archiveIndex.length + ' ' + archiveIndex.lastModified + ' ' + archiveEntry.getKey() + '\n');
+
+				for (Map.Entry<String, EntryIndex> entry : archiveIndex.entries.entrySet()) {
+					EntryIndex entryIndex = entry.getValue();
+					out.write("E " + Long.toHexString(entryIndex.known) + ' ' + Long.toHexString(entryIndex.used) + ' ' + entry.getKey() + '\n');
+				}
+			}
+		}
+		finally {
+			StreamUtil.close(out);
+		}
+		modified = false;
+	}
+
+	/**
+	 * Loads index from a file and adds it to this index.
+	 * Signatures of the loaded index are registered, if needed.
+	 * Loaded archives are verified on first access.
+	 */
+	public synchronized void load(File file) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line = in.readLine();
+			if (!HEADER.equals(line)) {
+				throw new FindFileException("Invalid class scan index: " + file.getAbsolutePath());
+			}
+
+			int[] signatureIndexes = new int[0];
+			ArchiveIndex archiveIndex = null;
+
+			while ((line = in.readLine()) != null) {
+				if (line.length() < 2) {
+					continue;
+				}
+				String value = line.substring(2);
+
+				switch (line.charAt(0)) {
+					case 'S':
+						signatureIndexes = ArraysUtil.append(signatureIndexes, signatureIndex(value.getBytes(StandardCharsets.UTF_8)));
+						break;
+					case 'A': {
+						String[] tokens = value.split(StringPool.SPACE, 3);
+						archiveIndex = new ArchiveIndex(Long.parseLong(tokens[0]), Long.parseLong(tokens[1]));
+						archives.put(tokens[2], archiveIndex);
+						break;
+					}
+					case 'E': {
+						if (archiveIndex == null) {
+							break;
+						}
+						String[] tokens = value.split(StringPool.SPACE, 3);
+						long known = remap(Long.parseUnsignedLong(tokens[0], 16), signatureIndexes);
+						long used = remap(Long.parseUnsignedLong(tokens[1], 16), signatureIndexes);
+						archiveIndex.entries.put(tokens[2], new EntryIndex(known, used));
+						break;
+					}
+				}
+			}
+		}
+		catch (RuntimeException rex) {
+			throw new FindFileException("Invalid class scan index: " + file.getAbsolutePath(), rex);
+		}
+		finally {
+			StreamUtil.close(in);
+		}
+	}
+
+	/**
+	 * Remaps signature bits of a loaded index to the signatures of this index.
+	 */
+	private static long remap(long mask, int[] signatureIndexes) {
+		long result = 0;
+		for (int i = 0; i < signatureIndexes.length; i++) {
+			if ((mask & (1L << i)) != 0) {
+				result |= 1L << signatureIndexes[i];
+			}
+		}
+		return result;
+	}
+
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Index of a single archive.
+	 */
+	protected static class ArchiveIndex {
+		protected final long length;
+		protected final long lastModified;
+		protected final Map<String, EntryIndex> entries = new ConcurrentHashMap<>();
+		protected volatile boolean verified;
+
+		protected ArchiveIndex(long length, long lastModified) {
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * Index of a single class: bits of resolved and bits of used signatures.
+	 */
+	protected static class EntryIndex {
+		protected final long known;
+		protected final long used;
+
+		protected EntryIndex(long known, long used) {
+			this.known = known;
+			this.used = used;
+		}
+	}
+}
@@ -41,7 +41,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -217,6 +221,48 @@ public class ClassScanner {
 		return this;
 	}
 
+	/**
+	 * If set to <code>true</code>, paths are scanned in parallel.
+	 */
+	protected boolean parallel;
+	/**
+	 * Pool used for parallel scanning, common pool when <code>null</code>.
+	 */
+	protected ForkJoinPool forkJoinPool;
+
+	/**
+	 * Enables parallel scanning: each jar and each folder is scanned in
+	 * a separate task of the {@link #forkJoinPool(ForkJoinPool) fork-join pool}.
+	 * Callbacks are then invoked concurrently, so they must be thread-safe.
+	 */
+	public ClassScanner parallel(boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+
+	/**
+	 * Specifies the pool for parallel scanning. By default, common pool is used.
+	 */
+	public ClassScanner forkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+		return this;
+	}
+
+	/**
+	 * Index of type signatures used in archives, may be <code>null</code>.
+	 */
+	protected ClassScanIndex index;
+
+	/**
+	 * Specifies {@link ClassScanIndex index} used when checking type signatures
+	 * of classes inside of archives. Index may be shared between many scanners,
+	 * so classes are read just once.
+	 */
+	public ClassScanner index(ClassScanIndex index) {
+		this.index = index;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- scan
 
 
@@ -241,6 +287,7 @@ public class ClassScanner {
 			if (!ignoreException) {
 				throw new FindFileException("URL is not a valid file: " + url);
 			}
+			return;
 		}
 		scanPath(file);
 	}
@@ -284,7 +331,7 @@ public class ClassScanner {
 			try {
 				if (StringUtil.endsWithIgnoreCase(zipEntryName, CLASS_FILE_EXT)) {
 					String entryName = prepareEntryName(zipEntryName, true);
-					EntryData entryData = new EntryData(entryName, zipFile, zipEntry);
+					EntryData entryData = new EntryData(entryName, file, zipFile, zipEntry, index);
 					try {
 						scanEntry(entryData);
 					} finally {
@@ -292,7 +339,7 @@ public class ClassScanner {
 					}
 				} else if (includeResources) {
 					String entryName = prepareEntryName(zipEntryName, false);
-					EntryData entryData = new EntryData(entryName, zipFile, zipEntry);
+					EntryData entryData = new EntryData(entryName, file, zipFile, zipEntry, index);
 					try {
 						scanEntry(entryData);
 					} finally {
@@ -449,12 +496,14 @@ public class ClassScanner {
 		private final ZipFile zipFile;
 		private final ZipEntry zipEntry;
 		private final String name;
+		private final ClassScanIndex index;
 
-		EntryData(String name, ZipFile zipFile, ZipEntry zipEntry) {
+		EntryData(String name, File archive, ZipFile zipFile, ZipEntry zipEntry, ClassScanIndex index) {
 			this.name = name;
 			this.zipFile = zipFile;
 			this.zipEntry = zipEntry;
-			this.file = null;
+			this.file = archive;
+			this.index = index;
 			inputStream = null;
 		}
 		EntryData(String name, File file) {
@@ -462,6 +511,7 @@ public class ClassScanner {
 			this.file = file;
 			this.zipEntry = null;
 			this.zipFile = null;
+			this.index = null;
 			inputStream = null;
 		}
 
@@ -496,14 +546,26 @@ public class ClassScanner {
 		 * It searches the class content for bytecode signature. This is the fastest way of finding if come
 		 * class uses some type. Please note that if signature exists it still doesn't means that class uses
 		 * it in expected way, therefore, class should be loaded to complete the scan.
+		 * <p>
+		 * If scanner uses {@link ClassScanIndex index}, archived classes are looked up
+		 * in the index first.
 		 */
 		public boolean isTypeSignatureInUse(byte[] bytes) {
+			if (index != null && zipEntry != null) {
+				return index.isTypeSignatureInUse(file, zipEntry.getName(), bytes, this::readBytes);
+			}
+
+			return ArraysUtil.indexOf(readBytes(), bytes) != -1;
+		}
+
+		/**
+		 * Reads the whole content of the entry.
+		 */
+		protected byte[] readBytes() {
 			openInputStream();
 
 			try {
-				byte[] data = StreamUtil.readBytes(inputStream);
-				int index = ArraysUtil.indexOf(data, bytes);
-				return index != -1;
+				return StreamUtil.readBytes(inputStream);
 			} catch (IOException ioex) {
 				throw new FindFileException("Read error", ioex);
 			}
@@ -525,7 +587,7 @@ public class ClassScanner {
 						+ "', entry: '" + zipEntry.getName() + "'." , ioex);
 				}
 			}
-			if (file != null) {
+			if (file != null && zipFile == null) {
 				try {
 					inputStream = new FileInputStream(file);
 					return inputStream;
@@ -560,6 +622,14 @@ public class ClassScanner {
 	 * per one URL will be ignored and loops continues.
 	 */
 	public void scan(URL... urls) {
+		if (parallel) {
+			List<Runnable> scans = new ArrayList<>(urls.length);
+			for (URL url : urls) {
+				scans.add(() -> scanUrl(url));
+			}
+			scanInParallel(scans);
+			return;
+		}
 		for (URL path : urls) {
 			scanUrl(path);
 		}
@@ -576,6 +646,14 @@ public class ClassScanner {
 	 * Scans provided paths.
 	 */
 	public void scan(File... paths) {
+		if (parallel) {
+			List<Runnable> scans = new ArrayList<>(paths.length);
+			for (File path : paths) {
+				scans.add(() -> scanPath(path));
+			}
+			scanInParallel(scans);
+			return;
+		}
 		for (File path : paths) {
 			scanPath(path);
 		}
@@ -585,8 +663,41 @@ public class ClassScanner {
 	 * Scans provided paths.
 	 */
 	public void scan(String... paths) {
-		for (String path : paths) {
-			scanPath(new File(path));
+		File[] files = new File[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			files[i] = new File(paths[i]);
+		}
+		scan(files);
+	}
+
+	/**
+	 * Runs scans of the paths in parallel and waits for all of them to finish.
+	 * The first failure is rethrown.
+	 */
+	protected void scanInParallel(List<Runnable> scans) {
+		ForkJoinPool pool = forkJoinPool != null ? forkJoinPool : ForkJoinPool.commonPool();
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(scans.size());
+		for (Runnable scan : scans) {
+			tasks.add(pool.submit(scan));
+		}
+
+		Throwable failure = null;
+		for (ForkJoinTask<?> task : tasks) {
+			task.quietlyJoin();
+			if (failure == null && task.isCompletedAbnormally()) {
+				failure = task.getException();
+			}
+		}
+
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new FindFileException("Scan error", failure);
 		}
 	}
 
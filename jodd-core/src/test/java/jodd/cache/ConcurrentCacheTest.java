@@ -0,0 +1,174 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.cache;
+
+import jodd.util.ThreadUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCacheTest extends BaseCacheTest {
+
+	@Test
+	void testCache() {
+		Cache<String, String> cache = new ConcurrentCache<>(3);
+		cache.put("1", "1");
+		cache.put("2", "2");
+		assertFalse(cache.isFull());
+		cache.put("3", "3");
+		assertTrue(cache.isFull());
+		assertEquals(3, cache.size());
+
+		assertEquals("1", cache.get("1"));
+		assertEquals("2", cache.get("2"));
+		assertEquals("3", cache.get("3"));
+
+		cache.put("4", "4");
+		assertEquals(3, cache.size());
+		assertEquals("4", cache.get("4"));
+
+		cache.remove("4");
+		assertNull(cache.get("4"));
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	void testReplace() {
+		Cache<String, String> cache = new ConcurrentCache<>(3);
+		cache.put("1", "1");
+		cache.put("1", "one");
+		assertEquals(1, cache.size());
+		assertEquals("one", cache.get("1"));
+	}
+
+	@Test
+	void testScanResistance() {
+		Cache<Integer, Integer> cache = new ConcurrentCache<>(100, 0, 1);
+
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, i);
+		}
+		for (int j = 0; j < 5; j++) {
+			for (int i = 0; i < 50; i++) {
+				assertEquals(i, cache.get(i).intValue());
+			}
+		}
+
+		// scan with many new keys, used just once
+		for (int i = 1000; i < 2000; i++) {
+			cache.put(i, i);
+		}
+
+		assertEquals(100, cache.size());
+
+		List<Integer> missing = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			if (cache.get(i) == null) {
+				missing.add(i);
+			}
+		}
+		assertTrue(missing.isEmpty(), missing.toString());
+	}
+
+	@Test
+	void testSegments() {
+		Cache<Integer, Integer> cache = new ConcurrentCache<>(1000, 0, 8);
+
+		for (int i = 0; i < 10000; i++) {
+			cache.put(i, i);
+		}
+
+		assertEquals(1000, cache.size());
+		assertTrue(cache.isFull());
+	}
+
+	@Test
+	void testCacheTime() {
+		Cache<String, String> cache = new ConcurrentCache<>(3);
+		cache.put("3", "3");
+		cache.put("2", "2");
+		assertNotNull(cache.get("2"));
+		cache.put("1", "1", 50);
+		assertNotNull(cache.get("1"));
+		assertTrue(cache.isFull());
+
+		ThreadUtil.sleep(100);
+		assertNull(cache.get("1"));     // expired
+		assertFalse(cache.isFull());
+	}
+
+	@Test
+	void testPrune() {
+		Cache<String, String> cache = new ConcurrentCache<>(3);
+		cache.put("1", "1");
+		cache.put("2", "2", 50);
+		cache.put("3", "3", 50);
+
+		assertEquals(0, cache.prune());
+		assertEquals(3, cache.size());
+
+		ThreadUtil.sleep(100);
+		assertEquals(2, cache.prune());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void testEndless() {
+		Cache<String, String> cache = new ConcurrentCache<>(0);
+		assertFalse(cache.isFull());
+		cache.put("1", "1");
+		assertEquals(1, cache.size());
+		assertFalse(cache.isFull());
+
+		cache.put("2", "2");
+		assertEquals(2, cache.size());
+		assertFalse(cache.isFull());
+	}
+
+	@Test
+	void testHitMissCount() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(3);
+		cache.put("1", "1");
+
+		cache.get("1");
+		cache.get("1");
+		cache.get("2");
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Override
+	protected final <K,V> Cache<K,V> createCache(int size) {
+		return new ConcurrentCache<>(size);
+	}
+}
@@ -53,6 +53,7 @@ import java.nio.charset.Charset;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.stream.Stream;
 
@@ -584,6 +585,44 @@ class StreamUtilTest {
 
         }
 
+        @Test
+        void testCopy_Inputstream_Outputstream_ByteCount_LargerThanBuffer() throws Exception {
+            final int count = JoddCore.get().defaults().getIoBufferSize() * 2 + 17;
+            final byte[] data = new byte[count + 100];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+
+            try (ByteArrayInputStream in = new ByteArrayInputStream(data);
+                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+
+                final int copied = StreamUtil.copy(in, out, count);
+
+                // asserts
+                assertEquals(count, copied);
+                assertArrayEquals(Arrays.copyOf(data, count), out.toByteArray());
+            }
+        }
+
+        @Test
+        void testCopy_Reader_Writer_CharCount_LargerThanBuffer() throws Exception {
+            final int count = JoddCore.get().defaults().getIoBufferSize() * 2 + 17;
+            final char[] data = new char[count + 100];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (char) ('a' + i % 26);
+            }
+
+            try (StringReader in = new StringReader(new String(data));
+                 StringWriter out = new StringWriter()) {
+
+                final int copied = StreamUtil.copy(in, out, count);
+
+                // asserts
+                assertEquals(count, copied);
+                assertEquals(new String(data, 0, count), out.toString());
+            }
+        }
+
         @ParameterizedTest
         @MethodSource("testdata_testCopy_Inputstream_Outputstream_ByteCount")
         void testCopy_Inputstream_Outputstream_ByteCount(String expected, String text, int byteCount) throws Exception {
@@ -0,0 +1,174 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.findfile;
+
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import jodd.io.ZipUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassScannerTest {
+
+	private static final byte[] SIGNATURE = ClassScanner.bytecodeSignatureOfType(ClassScannerTest.class);
+
+	private File tempDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		tempDir = FileUtil.createTempDirectory("jodd", "scan");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		FileUtil.deleteDir(tempDir);
+	}
+
+	private File createJar(String name, String pkg, int count) throws IOException {
+		File jar = new File(tempDir, name);
+		ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			for (int i = 0; i < count; i++) {
+				String content = "class" + (i % 2 == 0 ? new String(SIGNATURE, StandardCharsets.UTF_8) : "Ljava/lang/Object;");
+				ZipUtil.addToZip(zos, content.getBytes(StandardCharsets.UTF_8), pkg + "/C" + i + ".class", null);
+			}
+		}
+		finally {
+			StreamUtil.close(zos);
+		}
+		return jar;
+	}
+
+	private Set<String> scan(ClassScanner classScanner, File... paths) {
+		Set<String> found = ConcurrentHashMap.newKeySet();
+
+		classScanner.onEntry(entryData -> {
+			if (entryData.isTypeSignatureInUse(SIGNATURE)) {
+				found.add(entryData.name());
+			}
+		});
+		classScanner.scan(paths);
+
+		return found;
+	}
+
+	@Test
+	void testParallelScan() throws IOException {
+		File[] jars = new File[8];
+		Set<String> expected = new HashSet<>();
+
+		for (int i = 0; i < jars.length; i++) {
+			jars[i] = createJar("lib" + i + ".jar", "p" + i, 10);
+			for (int j = 0; j < 10; j += 2) {
+				expected.add("p" + i + ".C" + j);
+			}
+		}
+
+		assertEquals(expected, scan(new ClassScanner(), jars));
+		assertEquals(expected, scan(new ClassScanner().parallel(true), jars));
+	}
+
+	@Test
+	void testParallelScanFailure() throws IOException {
+		File jar = createJar("lib.jar", "p", 4);
+
+		ClassScanner classScanner = new ClassScanner().parallel(true);
+		classScanner.onEntry(entryData -> {
+			throw new IllegalStateException(entryData.name());
+		});
+
+		assertThrows(FindFileException.class, () -> classScanner.scan(jar, jar));
+	}
+
+	@Test
+	void testIndex() throws IOException {
+		File jar1 = createJar("lib1.jar", "p1", 4);
+		File jar2 = createJar("lib2.jar", "p2", 6);
+
+		ClassScanIndex index = new ClassScanIndex();
+
+		Set<String> found = scan(new ClassScanner().parallel(true).index(index), jar1, jar2);
+
+		assertEquals(new HashSet<>(Arrays.asList("p1.C0", "p1.C2", "p2.C0", "p2.C2", "p2.C4")), found);
+		assertEquals(2, index.archivesCount());
+		assertTrue(index.isModified());
+
+		// second scanner shares the index
+		AtomicInteger reads = new AtomicInteger();
+		assertTrue(index.isTypeSignatureInUse(jar1, "p1/C0.class", SIGNATURE, () -> {
+			reads.incrementAndGet();
+			return new byte[0];
+		}));
+		assertEquals(0, reads.get());
+
+		// persist
+		File indexFile = new File(tempDir, "scan.idx");
+		index.save(indexFile);
+		assertFalse(index.isModified());
+
+		ClassScanIndex index2 = new ClassScanIndex();
+		index2.addSignature(Object.class);
+		index2.load(indexFile);
+
+		assertTrue(index2.isTypeSignatureInUse(jar2, "p2/C4.class", SIGNATURE, () -> {
+			reads.incrementAndGet();
+			return new byte[0];
+		}));
+		assertFalse(index2.isTypeSignatureInUse(jar2, "p2/C5.class", SIGNATURE, () -> {
+			reads.incrementAndGet();
+			return new byte[0];
+		}));
+		assertEquals(0, reads.get());
+
+		// changed jar is read again
+		FileOutputStream fos = new FileOutputStream(jar1, true);
+		fos.write(new byte[] {1, 2, 3});
+		fos.close();
+
+		assertFalse(index2.isTypeSignatureInUse(jar1, "p1/C0.class", SIGNATURE, () -> {
+			reads.incrementAndGet();
+			return new byte[0];
+		}));
+		assertEquals(1, reads.get());
+	}
+}
@@ -28,6 +28,7 @@ package jodd.db;
 import jodd.db.debug.LogabbleStatementFactory;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
+import jodd.util.collection.IntArrayList;
 
 import java.sql.CallableStatement;
 import java.sql.Connection;
@@ -61,6 +62,7 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		this.debug = debug;
 		this.fetchSize = dbQueryConfig.getFetchSize();
 		this.maxRows = dbQueryConfig.getMaxRows();
+		this.batchSize = dbQueryConfig.getBatchSize();
 	}
 
 	// ---------------------------------------------------------------- query states
@@ -232,7 +234,7 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 			connection = session.getConnection();
 		}
 
-		this.query = new DbQueryParser(sqlString);
+		this.query = DbQueryParser.parse(sqlString);
 
 		// callable statement
 
@@ -282,17 +284,23 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 						}
 					}
 				} else {
-					if (generatedColumns != null) {
-						if (generatedColumns.length == 0) {
-							preparedStatement = connection.prepareStatement(query.sql, Statement.RETURN_GENERATED_KEYS);
-						} else {
-							preparedStatement = connection.prepareStatement(query.sql, generatedColumns);
-						}
-					} else {
-						if (holdability != DEFAULT_HOLDABILITY) {
-							preparedStatement = connection.prepareStatement(query.sql, type, concurrencyType, holdability);
+					if (session != null && session.getStatementCacheSize() != 0) {
+						statementCacheKey = createStatementCacheKey();
+						preparedStatement = session.lookupStatement(statementCacheKey);
+					}
+					if (preparedStatement == null) {
+						if (generatedColumns != null) {
+							if (generatedColumns.length == 0) {
+								preparedStatement = connection.prepareStatement(query.sql, Statement.RETURN_GENERATED_KEYS);
+							} else {
+								preparedStatement = connection.prepareStatement(query.sql, generatedColumns);
+							}
 						} else {
-							preparedStatement = connection.prepareStatement(query.sql, type, concurrencyType);
+							if (holdability != DEFAULT_HOLDABILITY) {
+								preparedStatement = connection.prepareStatement(query.sql, type, concurrencyType, holdability);
+							} else {
+								preparedStatement = connection.prepareStatement(query.sql, type, concurrencyType);
+							}
 						}
 					}
 				}
@@ -319,6 +327,60 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		}
 	}
 
+	// ---------------------------------------------------------------- statement cache
+
+	/**
+	 * Key of the prepared statement in the {@link DbSession#setStatementCacheSize(int) session
+	 * statement cache}, or <code>null</code> when statement is not cached.
+	 */
+	protected String statementCacheKey;
+
+	/**
+	 * Creates key of the prepared statement for the session statement cache.
+	 * Statement may be reused only by the queries with the same SQL and the same
+	 * statement settings.
+	 */
+	protected String createStatementCacheKey() {
+		StringBuilder key = new StringBuilder(query.sql.length() + 16);
+		key.append(type).append(':')
+			.append(concurrencyType).append(':')
+			.append(holdability).append(':');
+		if (generatedColumns != null) {
+			key.append('[');
+			for (String generatedColumn : generatedColumns) {
+				key.append(generatedColumn).append(',');
+			}
+			key.append(']');
+		}
+		key.append(':').append(query.sql);
+		return key.toString();
+	}
+
+	/**
+	 * Resets cached prepared statement and returns it to the session statement cache.
+	 * Returns <code>false</code> if statement is not cached and has to be closed.
+	 */
+	protected boolean releaseCachedStatement() {
+		if (statementCacheKey == null || session == null || session.isSessionClosed()) {
+			return false;
+		}
+		try {
+			preparedStatement.clearParameters();
+			if (batchCount != 0) {
+				preparedStatement.clearBatch();
+			}
+			if (fetchSize != 0) {
+				preparedStatement.setFetchSize(0);
+			}
+			if (maxRows != 0) {
+				preparedStatement.setMaxRows(0);
+			}
+		} catch (SQLException ignore) {
+			return false;
+		}
+		return session.releaseStatement(statementCacheKey, preparedStatement);
+	}
+
 	/**
 	 * Prepares the query just after the initialization.
 	 * Query is fully set and ready.
@@ -391,18 +453,23 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 	protected SQLException closeQuery() {
 		SQLException sqlException = closeQueryResultSets();
 		if (statement != null) {
-			try {
-				statement.close();
-			} catch (SQLException sex) {
-				if (sqlException == null) {
-					sqlException = sex;
-				} else {
-					sqlException.setNextException(sex);
+			if (!releaseCachedStatement()) {
+				try {
+					statement.close();
+				} catch (SQLException sex) {
+					if (sqlException == null) {
+						sqlException = sex;
+					} else {
+						sqlException.setNextException(sex);
+					}
 				}
 			}
 			statement = null;
 		}
+		statementCacheKey = null;
 		query = null;
+		batchCount = 0;
+		batchResults = null;
 		queryState = CLOSED;
 		return sqlException;
 	}
@@ -788,6 +855,127 @@ abstract class DbQueryBase<Q extends DbQueryBase> implements AutoCloseable {
 		return result;
 	}
 
+	// ---------------------------------------------------------------- batch
+
+	protected int batchSize;
+	protected int batchCount;
+	protected IntArrayList batchResults;
+
+	/**
+	 * Returns batch size.
+	 * @see #setBatchSize(int)
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the number of commands after which the batch is automatically
+	 * executed, so the batch does not grow without limit. Zero means
+	 * the batch is executed only {@link #executeBatch() explicitly}.
+	 */
+	public Q setBatchSize(int batchSize) {
+		checkNotClosed();
+		this.batchSize = batchSize;
+		return (Q) this;
+	}
+
+	/**
+	 * Returns number of commands added to the batch and not yet executed.
+	 */
+	public int getBatchCount() {
+		return batchCount;
+	}
+
+	/**
+	 * Adds current set of parameters to the batch of commands. For non-prepared
+	 * queries, the query string is added. When {@link #setBatchSize(int) batch size}
+	 * is reached, the batch is executed.
+	 * @see Statement#addBatch(String)
+	 * @see PreparedStatement#addBatch()
+	 */
+	public Q addBatch() {
+		init();
+		try {
+			if (preparedStatement == null) {
+				statement.addBatch(query.sql);
+			} else {
+				preparedStatement.addBatch();
+			}
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Adding to batch failed", sex);
+		}
+		batchCount++;
+
+		if (batchSize > 0 && batchCount >= batchSize) {
+			flushBatch();
+		}
+		return (Q) this;
+	}
+
+	/**
+	 * Executes the batch of commands, including the remaining commands of the last
+	 * incomplete batch. Returns update counts of all commands added to the batch since
+	 * the last call of this method, including the ones executed automatically.
+	 * Query is not closed afterwards unless {@link #autoClose() auto close mode} is set.
+	 * @see Statement#executeBatch()
+	 */
+	public int[] executeBatch() {
+		return executeBatch(autoClose);
+	}
+
+	/**
+	 * Executes the batch of commands and optionally closes the query.
+	 */
+	protected int[] executeBatch(boolean closeQuery) {
+		init();
+
+		int[] result;
+		try {
+			flushBatch();
+			result = batchResults == null ? new int[0] : batchResults.toArray();
+			batchResults = null;
+		} finally {
+			if (closeQuery) {
+				close();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Executes pending commands of the batch and collects update counts.
+	 */
+	protected void flushBatch() {
+		if (batchCount == 0) {
+			return;
+		}
+		start = System.currentTimeMillis();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Executing batch of " + batchCount + ": " + getQueryString());
+		}
+
+		int[] result;
+		try {
+			result = statement.executeBatch();
+		} catch (SQLException sex) {
+			throw new DbSqlException(this, "Batch execution failed", sex);
+		} finally {
+			batchCount = 0;
+		}
+
+		if (batchResults == null) {
+			batchResults = new IntArrayList(result.length);
+		}
+		batchResults.addAll(result);
+
+		elapsed = System.currentTimeMillis() - start;
+		if (log.isDebugEnabled()) {
+			log.debug("execution time: " + elapsed + "ms");
+		}
+	}
+
 	/**
 	 * Special execute() for 'select count(*)' queries. Query is not closed after the execution
 	 * unless {@link #autoClose() auto-close mode} is set.
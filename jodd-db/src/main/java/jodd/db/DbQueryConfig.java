@@ -36,6 +36,7 @@ public class DbQueryConfig {
 	protected int holdability = DbQuery.DEFAULT_HOLDABILITY;
 	protected int fetchSize = 0;
 	protected int maxRows = 0;
+	protected int batchSize = 0;
 
 	public boolean isForcePreparedStatement() {
 		return forcePreparedStatement;
@@ -111,4 +112,19 @@ public class DbQueryConfig {
 		this.maxRows = maxRows;
 	}
 
+	/**
+	 * Returns default batch size.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets default batch size, zero for no automatic batch execution.
+	 * @see DbQuery#setBatchSize(int)
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
 }
\ No newline at end of file
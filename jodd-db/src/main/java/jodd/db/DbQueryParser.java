@@ -25,6 +25,8 @@
 
 package jodd.db;
 
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
 import jodd.util.CharUtil;
 import jodd.util.StringUtil;
 import jodd.util.collection.IntArrayList;
@@ -35,6 +37,8 @@ import java.util.Iterator;
 
 /**
  * SQL parameters parser that recognizes named and ordinal parameters.
+ * Parsed queries are not modified after parsing, so they are cached
+ * and shared between all queries with the same SQL string.
  */
 class DbQueryParser {
 
@@ -50,6 +54,22 @@ class DbQueryParser {
 		parseSql(sql);
 	}
 
+	// ---------------------------------------------------------------- cache
+
+	private static final Cache<String, DbQueryParser> cache = new ConcurrentCache<>(1024);
+
+	/**
+	 * Returns parsed query for given SQL string, from the cache if possible.
+	 */
+	static DbQueryParser parse(String sql) {
+		DbQueryParser query = cache.get(sql);
+		if (query == null) {
+			query = new DbQueryParser(sql);
+			cache.put(sql, query);
+		}
+		return query;
+	}
+
 	// ---------------------------------------------------------------- parameters
 
 	private Map<String, IntArrayList> namedParameterLocationMap;
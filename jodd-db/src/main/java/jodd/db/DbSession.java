@@ -30,8 +30,11 @@ import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Set;
 
 /**
@@ -76,6 +79,7 @@ public class DbSession implements AutoCloseable {
 		this.connectionProvider = connectionProvider;
 		this.txActive = false;
 		this.txMode = JoddDb.get().defaults().getTransactionMode();
+		this.statementCacheSize = JoddDb.get().defaults().getStatementCacheSize();
 		this.queries = new HashSet<>();
 	}
 
@@ -103,6 +107,14 @@ public class DbSession implements AutoCloseable {
 				}
 			}
 		}
+		SQLException sex = closeCachedStatements();
+		if (sex != null) {
+			if (sqlException == null) {
+				sqlException = sex;
+			} else {
+				sqlException.setNextException(sex);
+			}
+		}
 		if (connection != null) {
 			if (txActive) {
 				throw new DbSqlException("TX was not closed before closing the session");
@@ -195,6 +207,107 @@ public class DbSession implements AutoCloseable {
 		}
 	}
 
+	// ---------------------------------------------------------------- statement cache
+
+	protected int statementCacheSize;
+	protected LinkedHashMap<String, PreparedStatement> statementCache;
+
+	/**
+	 * Returns the size of prepared statements cache.
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Defines the size of prepared statements cache. Prepared statements of closed queries
+	 * are kept open in the cache, and reused by the next queries with the same SQL,
+	 * as long as the session (and its connection) is open. When set to <code>0</code>,
+	 * statements are not cached.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Returns number of cached prepared statements.
+	 */
+	public int getTotalCachedStatements() {
+		if (statementCache == null) {
+			return 0;
+		}
+		return statementCache.size();
+	}
+
+	/**
+	 * Takes the prepared statement out of the cache, so it is used by just one query.
+	 * Returns <code>null</code> if statement is not cached.
+	 */
+	protected PreparedStatement lookupStatement(String key) {
+		if (statementCache == null) {
+			return null;
+		}
+		return statementCache.remove(key);
+	}
+
+	/**
+	 * Returns prepared statement to the cache. The least recently used statement
+	 * is closed when cache is full. Returns <code>false</code> if statement
+	 * can not be cached.
+	 */
+	protected boolean releaseStatement(String key, PreparedStatement preparedStatement) {
+		if (statementCacheSize <= 0 || connection == null) {
+			return false;
+		}
+		if (statementCache == null) {
+			statementCache = new LinkedHashMap<>(16, 0.75f, true);
+		}
+
+		PreparedStatement existing = statementCache.put(key, preparedStatement);
+		if (existing != null) {
+			closeStatement(existing);
+		}
+
+		Iterator<PreparedStatement> iterator = statementCache.values().iterator();
+		while (statementCache.size() > statementCacheSize) {
+			PreparedStatement eldest = iterator.next();
+			iterator.remove();
+			closeStatement(eldest);
+		}
+		return true;
+	}
+
+	/**
+	 * Closes all cached prepared statements.
+	 */
+	protected SQLException closeCachedStatements() {
+		if (statementCache == null) {
+			return null;
+		}
+		SQLException sqlException = null;
+		for (PreparedStatement preparedStatement : statementCache.values()) {
+			try {
+				preparedStatement.close();
+			} catch (SQLException sex) {
+				if (sqlException == null) {
+					sqlException = sex;
+				} else {
+					sqlException.setNextException(sex);
+				}
+			}
+		}
+		statementCache = null;
+		return sqlException;
+	}
+
+	private void closeStatement(PreparedStatement preparedStatement) {
+		try {
+			preparedStatement.close();
+		} catch (SQLException sex) {
+			log.warn("Closing cached statement failed", sex);
+		}
+	}
+
 	// ---------------------------------------------------------------- transaction
 
 	protected boolean txActive;
@@ -57,6 +57,22 @@ public class JoddDbDefaults {
 		this.transactionMode = transactionMode;
 	}
 
+	// ---------------------------------------------------------------- session
+
+	protected int statementCacheSize = 0;
+
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Defines default size of the {@link DbSession#setStatementCacheSize(int) prepared statements cache}
+	 * of each session. Statements are not cached by default.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
 	// ---------------------------------------------------------------- query
 
 	protected DbQueryConfig queryConfig = new DbQueryConfig();
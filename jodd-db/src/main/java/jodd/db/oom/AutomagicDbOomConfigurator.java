@@ -102,7 +102,7 @@ public class AutomagicDbOomConfigurator {
 	/**
 	 * Scans all classes and registers only those annotated with {@link DbTable}.
 	 * Because of performance purposes, classes are not dynamically loaded; instead, their
-	 * file content is examined.
+	 * file content is examined. Registration is synchronized, as the scanner may be parallel.
 	 */
 	private Consumer<ClassScanner.EntryData> ENTRY_CONSUMER = new Consumer<ClassScanner.EntryData>() {
 	@Override
@@ -127,10 +127,12 @@ public class AutomagicDbOomConfigurator {
 		if (dbTable == null) {
 			return;
 		}
-		if (registerAsEntities) {
-			dbEntityManager.registerEntity(beanClass);
-		} else {
-			dbEntityManager.registerType(beanClass);
+		synchronized (dbEntityManager) {
+			if (registerAsEntities) {
+				dbEntityManager.registerEntity(beanClass);
+			} else {
+				dbEntityManager.registerType(beanClass);
+			}
 		}
 	}};
 
@@ -25,7 +25,10 @@
 
 package jodd.db.oom;
 
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
 import jodd.db.JoddDb;
+import jodd.db.oom.mapper.ResultSetMappingPlan;
 import jodd.db.oom.naming.ColumnNamingStrategy;
 import jodd.db.oom.naming.TableNamingStrategy;
 import jodd.log.Logger;
@@ -134,6 +137,7 @@ public class DbEntityManager {
 	public <E> DbEntityDescriptor<E> registerType(Class<E> type) {
 		DbEntityDescriptor<E> ded = createDbEntityDescriptor(type);
 		DbEntityDescriptor<E> existing = descriptorsMap.put(type, ded);
+		mappingPlans.clear();
 
 		if (log.isDebugEnabled()) {
 			log.debug("Register " + type.getName() + " as " + ded.getTableName());
@@ -160,6 +164,7 @@ public class DbEntityManager {
 	public <E> DbEntityDescriptor<E> registerEntity(Class<E> type) {
 		DbEntityDescriptor<E> ded = registerType(type);
 		DbEntityDescriptor existing = tableNamesMap.put(ded.getTableName(), ded);
+		mappingPlans.clear();
 
 		if (existing != null) {
 			if (ded.getType() == type) {
@@ -190,6 +195,7 @@ public class DbEntityManager {
 		}
 		entityNamesMap.remove(ded.getEntityName());
 		tableNamesMap.remove(ded.getTableName());
+		mappingPlans.clear();
 		return ded;
 	}
 
@@ -204,6 +210,34 @@ public class DbEntityManager {
 		return new DbEntityDescriptor<>(type, schemaName, tableNames, columnNames);
 	}
 
+	// ---------------------------------------------------------------- mapping plans
+
+	protected final Cache<ResultSetMappingPlan.Key, ResultSetMappingPlan> mappingPlans = new ConcurrentCache<>(256);
+
+	/**
+	 * Lookups for cached {@link ResultSetMappingPlan result set mapping plan}.
+	 * Returns <code>null</code> if plan is not cached.
+	 */
+	public ResultSetMappingPlan lookupMappingPlan(ResultSetMappingPlan.Key key) {
+		return mappingPlans.get(key);
+	}
+
+	/**
+	 * Caches {@link ResultSetMappingPlan result set mapping plan}. Plans are
+	 * evicted when entities are registered or removed, as they depend on
+	 * entity descriptors.
+	 */
+	public void registerMappingPlan(ResultSetMappingPlan.Key key, ResultSetMappingPlan plan) {
+		mappingPlans.put(key, plan);
+	}
+
+	/**
+	 * Returns total number of cached result set mapping plans.
+	 */
+	public int getTotalMappingPlans() {
+		return mappingPlans.size();
+	}
+
 	// ---------------------------------------------------------------- stats
 
 	/**
@@ -234,6 +268,7 @@ public class DbEntityManager {
 		descriptorsMap.clear();
 		entityNamesMap.clear();
 		tableNamesMap.clear();
+		mappingPlans.clear();
 	}
 
 	/**
@@ -66,6 +66,23 @@ public class DbOomConfig {
 		this.cacheEntitiesInResultSet = cacheEntitiesInResultSet;
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	protected int streamFetchSize = 1000;
+
+	public int getStreamFetchSize() {
+		return streamFetchSize;
+	}
+
+	/**
+	 * Defines fetch size of {@link DbOomQuery#stream(Class[]) streamed} queries,
+	 * when query does not define one. Some drivers (like MySQL) stream rows
+	 * only with a special value, like <code>Integer.MIN_VALUE</code>.
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
 	// ---------------------------------------------------------------- db list
 
 	protected boolean entityAwareMode = false;
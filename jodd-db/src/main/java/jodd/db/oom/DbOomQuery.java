@@ -48,6 +48,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static jodd.db.oom.DbOomUtil.initialCollectionSize;
 
@@ -137,7 +142,13 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 				withHints(joinHints);
 			}
 		}
-		// insert parameters
+		setQueryParameters();
+	}
+
+	/**
+	 * Sets query parameters of the sql generator.
+	 */
+	protected void setQueryParameters() {
 		Map<String, ParameterValue> parameters = sqlgen.getQueryParameters();
 		if (parameters == null) {
 			return;
@@ -155,6 +166,31 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 		}
 	}
 
+	// ---------------------------------------------------------------- batch
+
+	/**
+	 * Adds parameters of given sql generator to the batch. Generator must produce
+	 * the same SQL as this query, so the single prepared statement is reused
+	 * for the whole batch. Usually, the query is created with the first generator,
+	 * and then the generators of all entities are added.
+	 */
+	public DbOomQuery addBatch(DbSqlGenerator sqlgen) {
+		if (sqlgen != this.sqlgen) {
+			String sql = sqlgen.generateQuery();
+
+			if (!sql.equals(sqlString)) {
+				throw new DbOomException("Batched query differs from the query: " + sql);
+			}
+			this.sqlgen = sqlgen;
+
+			if (isInitialized()) {
+				setQueryParameters();
+			}
+		}
+		addBatch();
+		return this;
+	}
+
 	/**
 	 * Resolves column db sql type and populates it in column descriptor if missing.
 	 */
@@ -276,6 +312,86 @@ public class DbOomQuery extends DbQuery<DbOomQuery> {
 		return new DbListIterator<>(this, types, close);
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	protected int streamFetchSize = JoddDb.get().defaults().getDbOomConfig().getStreamFetchSize();
+
+	/**
+	 * Returns a stream of mapped rows. Rows are read from the database and mapped
+	 * one by one, using forward-only, read-only cursor, so the memory consumption
+	 * does not depend on the number of rows. Query is closed when the stream is
+	 * fully consumed or when the stream is closed, so use the stream in the
+	 * <code>try-with-resources</code> block when it may not be fully consumed.
+	 * <p>
+	 * Entities are not cached and the {@link #entityAwareMode(boolean) entity-aware mode}
+	 * is ignored, as it would keep the rows in memory.
+	 */
+	public <T> Stream<T> stream(Class... types) {
+		Iterator<T> iterator = streamIterator(types);
+
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			if (!isClosed()) {
+				close();
+			}
+		});
+	}
+
+	/**
+	 * Streams mapped rows in chunks of given size. Next chunk is read only
+	 * after the consumer processes the previous one, so just one chunk
+	 * is kept in memory. Query is closed at the end.
+	 * @see #stream(Class[])
+	 */
+	public <T> void forEachChunk(int size, Consumer<List<T>> consumer, Class... types) {
+		if (size <= 0) {
+			throw new DbOomException("Invalid chunk size: " + size);
+		}
+		try {
+			Iterator<T> iterator = streamIterator(types);
+
+			List<T> chunk = new ArrayList<>(size);
+
+			while (iterator.hasNext()) {
+				chunk.add(iterator.next());
+
+				if (chunk.size() == size) {
+					consumer.accept(chunk);
+					chunk = new ArrayList<>(size);
+				}
+			}
+
+			if (!chunk.isEmpty()) {
+				consumer.accept(chunk);
+			}
+		}
+		finally {
+			if (!isClosed()) {
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Prepares the query for streaming and returns the iterator
+	 * that closes the query at the end.
+	 */
+	protected <T> Iterator<T> streamIterator(Class[] types) {
+		if (getQueryState() == State.CREATED) {
+			typeForwardOnly();
+			concurrentReadOnly();
+		}
+		if (fetchSize == 0 && streamFetchSize != 0) {
+			setFetchSize(streamFetchSize);
+		}
+
+		cacheEntities = false;
+		entityAwareMode = false;
+
+		return new DbListIterator<>(this, types, true);
+	}
+
 	// ---------------------------------------------------------------- list
 
 	public <T> List<T> list(Class... types) {
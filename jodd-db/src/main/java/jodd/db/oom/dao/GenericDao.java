@@ -30,10 +30,15 @@ import jodd.db.DbQuery;
 import jodd.db.oom.DbEntityDescriptor;
 import jodd.db.oom.DbEntityManager;
 import jodd.db.oom.DbOomException;
+import jodd.db.oom.DbOomQuery;
+import jodd.db.oom.DbSqlGenerator;
 import jodd.db.oom.sqlgen.DbEntitySql;
 
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import static jodd.db.oom.DbOomQuery.query;
 import static jodd.db.oom.sqlgen.DbEntitySql.findByColumn;
@@ -63,6 +68,71 @@ public class GenericDao {
 		this.keysGeneratedByDatabase = keysGeneratedByDatabase;
 	}
 
+	protected int batchSize = 1000;
+
+	/**
+	 * Returns the batch size of bulk operations.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Specifies the number of entities sent to the database in a single
+	 * batch by the bulk operations, like {@link #saveAll(Collection)}.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	// ---------------------------------------------------------------- batch
+
+	/**
+	 * Executes queries of all entities in batches. Consecutive entities with
+	 * the same generated SQL share a single prepared statement.
+	 * Returns update counts, one for each entity.
+	 */
+	protected int[] executeBatch(Collection entities, Function<Object, DbSqlGenerator> sqlGenerator) {
+		int[] result = new int[entities.size()];
+		int count = 0;
+
+		DbOomQuery q = null;
+		String sql = null;
+
+		try {
+			for (Object entity : entities) {
+				DbSqlGenerator sqlgen = sqlGenerator.apply(entity);
+				String entitySql = sqlgen.generateQuery();
+
+				if (q != null && !entitySql.equals(sql)) {
+					count = copyResults(q.executeBatch(), result, count);
+					q.close();
+					q = null;
+				}
+				if (q == null) {
+					q = query(sqlgen);
+					q.setBatchSize(batchSize);
+					sql = entitySql;
+				}
+				q.addBatch(sqlgen);
+			}
+			if (q != null) {
+				copyResults(q.executeBatch(), result, count);
+			}
+		}
+		finally {
+			if (q != null) {
+				q.close();
+			}
+		}
+		return result;
+	}
+
+	private int copyResults(int[] batchResult, int[] result, int offset) {
+		System.arraycopy(batchResult, 0, result, offset, batchResult.length);
+		return offset + batchResult.length;
+	}
+
 	// ---------------------------------------------------------------- store
 
 	/**
@@ -140,13 +210,12 @@ public class GenericDao {
 	}
 
 	/**
-	 * Inserts bunch of objects into the database.
+	 * Inserts bunch of objects into the database, in batches.
 	 * @see #save(Object)
+	 * @see #setBatchSize(int)
 	 */
 	public void saveAll(Collection entities) {
-		for (Object entity: entities) {
-			save(entity);
-		}
+		executeBatch(entities, DbEntitySql::insert);
 	}
 
 	// ---------------------------------------------------------------- update
@@ -159,13 +228,12 @@ public class GenericDao {
 	}
 
 	/**
-	 * Updates all entities.
+	 * Updates all entities, in batches.
 	 * @see #update(Object)
+	 * @see #setBatchSize(int)
 	 */
 	public void updateAll(Collection entities) {
-		for (Object entity : entities) {
-			update(entity);
-		}
+		executeBatch(entities, DbEntitySql::updateAll);
 	}
 
 	/**
@@ -253,11 +321,29 @@ public class GenericDao {
 	}
 
 	/**
-	 * Deletes all objects by their id.
+	 * Deletes all objects by their id, in batches. Resets ID values.
+	 * @see #deleteById(Object)
 	 */
 	public void deleteAllById(Collection objects) {
+		List<Object> entities = new ArrayList<>(objects.size());
 		for (Object entity : objects) {
-			deleteById(entity);
+			if (entity != null) {
+				entities.add(entity);
+			}
+		}
+
+		int[] result = executeBatch(entities, DbEntitySql::deleteById);
+
+		DbEntityManager dboom = DbEntityManager.get();
+
+		for (int i = 0; i < result.length; i++) {
+			if (result[i] != 0 && result[i] != Statement.EXECUTE_FAILED) {
+				// now reset the ID value
+				Object entity = entities.get(i);
+				DbEntityDescriptor ded = dboom.lookupType(entity.getClass());
+
+				setEntityId(ded, entity, 0);
+			}
 		}
 	}
 
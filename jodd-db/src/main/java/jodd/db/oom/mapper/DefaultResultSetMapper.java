@@ -35,12 +35,18 @@ import jodd.db.oom.DbOomException;
 import jodd.db.oom.DbOomQuery;
 import jodd.db.type.SqlType;
 import jodd.db.type.SqlTypeManager;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
 import jodd.typeconverter.TypeConverterManager;
+import jodd.util.ClassUtil;
+import jodd.util.StringUtil;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -319,46 +325,157 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 	 * Reads column value from result set. Since this method may be called more then once for
 	 * the same column, it caches column values.
 	 */
-	@SuppressWarnings({"unchecked"})
 	protected Object readColumnValue(int colNdx, Class destinationType, Class<? extends SqlType> sqlTypeClass, int columnDbSqlType) {
 		if (colNdx != cachedColumnNdx) {
-			try {
-				SqlType sqlType;
-				if (sqlTypeClass != null) {
-					sqlType = SqlTypeManager.lookupSqlType(sqlTypeClass);
-				} else {
-					sqlType = SqlTypeManager.lookup(destinationType);
-				}
-				if (sqlType != null) {
-					cachedColumnValue = sqlType.readValue(resultSet, colNdx + 1, destinationType, columnDbSqlType);
-				} else {
-					cachedColumnValue = resultSet.getObject(colNdx + 1);
-					cachedColumnValue = TypeConverterManager.get().convertType(cachedColumnValue, destinationType);
-				}
-			} catch (SQLException sex) {
-				throw new DbOomException(dbOomQuery, "Invalid value for column #" + (colNdx + 1), sex);
+			SqlType sqlType;
+			if (sqlTypeClass != null) {
+				sqlType = SqlTypeManager.lookupSqlType(sqlTypeClass);
+			} else {
+				sqlType = SqlTypeManager.lookup(destinationType);
 			}
+			cachedColumnValue = readColumnValue(colNdx, destinationType, sqlType, columnDbSqlType);
 			cachedColumnNdx = colNdx;
 		}
 		return cachedColumnValue;
 	}
 
+	/**
+	 * Reads column value from result set using resolved {@link SqlType}.
+	 * When sql type is <code>null</code>, value is converted to the destination type.
+	 */
+	@SuppressWarnings({"unchecked"})
+	protected Object readColumnValue(int colNdx, Class destinationType, SqlType sqlType, int columnDbSqlType) {
+		try {
+			if (sqlType != null) {
+				return sqlType.readValue(resultSet, colNdx + 1, destinationType, columnDbSqlType);
+			}
+			Object value = resultSet.getObject(colNdx + 1);
+			return TypeConverterManager.get().convertType(value, destinationType);
+		} catch (SQLException sex) {
+			throw new DbOomException(dbOomQuery, "Invalid value for column #" + (colNdx + 1), sex);
+		}
+	}
+
+	/**
+	 * Injects column value into the entity property. Resolved setter is used
+	 * when available, otherwise value is set by <code>BeanUtil</code>.
+	 * Value that does not match the setter type is converted first,
+	 * so the setter is invoked just once.
+	 */
+	protected void injectValue(Object entity, String propertyName, Setter setter, Object value) {
+		if (setter == null) {
+			BeanUtil.declared.setProperty(entity, propertyName, value);
+			return;
+		}
+		try {
+			Class type = setter.getSetterRawType();
+			if (!type.isInstance(value)) {
+				value = TypeConverterManager.get().convertType(value, type);
+			}
+			setter.invokeSetter(entity, value);
+		} catch (Exception ex) {
+			throw new DbOomException(dbOomQuery, "Setter failed: " + propertyName, ex);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Object[] parseObjects(Class... types) {
-		resultColumns.clear();
+		ResultSetMappingPlan plan = resolveMappingPlan(types);
 
 		int totalTypes = types.length;
 		Object[] result = new Object[totalTypes];
 		boolean[] resultUsage = new boolean[totalTypes];
+
+		for (int i = 0; i < plan.size; i++) {
+			int currentResult = plan.resultIndexes[i];
+			Object value = readColumnValue(plan.columnIndexes[i], plan.destinationTypes[i], plan.sqlTypes[i], plan.columnDbSqlTypes[i]);
+
+			String propertyName = plan.propertyNames[i];
+
+			if (propertyName == null) {
+				// simple type
+				result[currentResult] = value;
+				resultUsage[currentResult] = true;
+				continue;
+			}
+
+			// if current entity instance does not exist (i.e. we are at the first column
+			// of some entity), create the instance and store it
+			if (result[currentResult] == null) {
+				result[currentResult] = DbEntityManager.get().createEntityInstance(types[currentResult]);
+			}
+			if (value != null) {
+				// inject column value into existing entity
+				injectValue(result[currentResult], propertyName, plan.setters[i], value);
+				resultUsage[currentResult] = true;
+			}
+		}
+
+		for (int i = 0; i < resultUsage.length; i++) {
+			if (!resultUsage[i]) {
+				result[i] = null;
+			}
+		}
+
+		if (cacheEntities) {
+			cacheResultSetEntities(result);
+		}
+
+		return result;
+	}
+
+	// ---------------------------------------------------------------- plan
+
+	protected Class[] mappingPlanTypes;
+	protected ResultSetMappingPlan mappingPlan;
+
+	/**
+	 * Resolves {@link ResultSetMappingPlan mapping plan} for given types. Plan is cached
+	 * in the {@link DbEntityManager} for the shape of this result set, so it is created
+	 * only once for all the rows and all the queries with the same columns.
+	 */
+	protected ResultSetMappingPlan resolveMappingPlan(Class[] types) {
+		if (types == mappingPlanTypes) {
+			return mappingPlan;
+		}
+
+		DbEntityManager dbEntityManager = DbEntityManager.get();
+		ResultSetMappingPlan.Key key = new ResultSetMappingPlan.Key(columnNames, tableNames, columnDbSqlTypes, types);
+
+		ResultSetMappingPlan plan = dbEntityManager.lookupMappingPlan(key);
+		if (plan == null) {
+			plan = createMappingPlan(types);
+			dbEntityManager.registerMappingPlan(key, plan);
+		}
+
+		cachedDbEntityDescriptors = plan.getDbEntityDescriptors();
+		mappingPlanTypes = types;
+		mappingPlan = plan;
+		return plan;
+	}
+
+	/**
+	 * Creates {@link ResultSetMappingPlan mapping plan} by matching columns
+	 * to the results, as described in the class documentation. Plan does not
+	 * depend on the row values, so this is done just once for the result set shape.
+	 */
+	protected ResultSetMappingPlan createMappingPlan(Class[] types) {
+		resultColumns.clear();
+		cachedDbEntityDescriptors = null;
+		cachedMappedNames = null;
+
+		int totalTypes = types.length;
 		DbEntityDescriptor[] dbEntityDescriptors = resolveDbEntityDescriptors(types);
 		String[] typesTableNames = resolveTypesTableNames(types);
 		String[][] mappedNames = resolveMappedTypesTableNames(types);
+		Object[] entities = new Object[totalTypes];
+
+		ResultSetMappingPlan plan = new ResultSetMappingPlan(totalColumns, dbEntityDescriptors);
 
 		int currentResult = 0;
-		cachedColumnNdx = -1;
 		int colNdx = 0;
 		while (colNdx < totalColumns) {
 
@@ -379,12 +496,11 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 			String columnName = columnNames[colNdx];
 			int columnDbSqlType = columnDbSqlTypes[colNdx];
 			String tableName = tableNames[colNdx];
-			String resultTableName = typesTableNames[currentResult];			
+			String resultTableName = typesTableNames[currentResult];
 
 			if (resultTableName == null) {
 				// match: simple type
-				result[currentResult] = readColumnValue(colNdx, currentType, null, columnDbSqlType);
-				resultUsage[currentResult] = true;
+				plan.addColumn(colNdx, currentResult, columnDbSqlType, currentType, SqlTypeManager.lookup(currentType));
 				colNdx++;
 				currentResult++; resultColumns.clear();
 				continue;
@@ -411,7 +527,6 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 
 			if (tableMatched) {
 				if (!resultColumns.contains(columnName)) {
-					//DbEntityDescriptor ded = dbEntityManager.lookupType(currentType);
 					DbEntityDescriptor ded = dbEntityDescriptors[currentResult];
 
 					DbEntityColumnDescriptor dec = ded.findByColumnName(columnName);
@@ -420,28 +535,21 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 					// check if a property that matches column name exist
 					if (propertyName != null) {
 
-						// if current entity instance does not exist (i.e. we are at the first column
-						// of some entity), create the instance and store it
-						if (result[currentResult] == null) {
-							result[currentResult] = DbEntityManager.get().createEntityInstance(currentType);
+						// sample instance, just for resolving the property type
+						if (entities[currentResult] == null) {
+							entities[currentResult] = DbEntityManager.get().createEntityInstance(currentType);
 						}
-/*
-						boolean success = value != null ?
-										BeanUtil.setDeclaredPropertySilent(result[currentResult], propertyName, value) :
-										BeanUtil.hasDeclaredProperty(result[currentResult], propertyName);
-*/
-						Class type = BeanUtil.declared.getPropertyType(result[currentResult], propertyName);
+
+						Class type = BeanUtil.declared.getPropertyType(entities[currentResult], propertyName);
 						if (type != null) {
 							// match: entity
 							dec.updateDbSqlType(columnDbSqlType);	// updates column db sql type information for the entity!!!
 							Class<? extends SqlType> sqlTypeClass = dec.getSqlTypeClass();
-							Object value = readColumnValue(colNdx, type, sqlTypeClass, columnDbSqlType);
+							SqlType sqlType = sqlTypeClass != null ?
+								SqlTypeManager.lookupSqlType(sqlTypeClass) : SqlTypeManager.lookup(type);
 
-							if (value != null) {
-								// inject column value into existing entity
-								BeanUtil.declared.setProperty(result[currentResult], propertyName, value);
-								resultUsage[currentResult] = true;
-							}
+							plan.addProperty(colNdx, currentResult, columnDbSqlType, type, sqlType,
+								propertyName, resolveSetter(currentType, propertyName, type));
 							colNdx++;
 							resultColumns.add(columnName);
 							continue;
@@ -455,20 +563,32 @@ public class DefaultResultSetMapper extends BaseResultSetMapper {
 		}
 
 		resultColumns.clear();
-		for (int i = 0; i < resultUsage.length; i++) {
-			if (!resultUsage[i]) {
-				result[i] = null;
-			}
-		}
+		return plan;
+	}
 
-		if (cacheEntities) {
-			cacheResultSetEntities(result);
+	/**
+	 * Resolves setter that can be invoked directly with the column value of given type.
+	 * Returns <code>null</code> when value has to be set by <code>BeanUtil</code>,
+	 * e.g. for nested properties or when type conversion may be needed.
+	 */
+	protected Setter resolveSetter(Class entityType, String propertyName, Class type) {
+		if (StringUtil.indexOfChars(propertyName, ".[") != -1) {
+			return null;
 		}
-
-		return result;
+		if (ClassUtil.isTypeOf(type, Collection.class)) {
+			return null;
+		}
+		PropertyDescriptor pd = ClassIntrospector.get().lookup(entityType).getPropertyDescriptor(propertyName, true);
+		if (pd == null) {
+			return null;
+		}
+		Setter setter = pd.getSetter(true);
+		if (setter == null || setter.getSetterRawType() != type) {
+			return null;
+		}
+		return setter;
 	}
 
-
 	// ---------------------------------------------------------------- cache
 
 	protected HashMap<Object, Object> entitiesCache;
@@ -0,0 +1,149 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.oom.mapper;
+
+import jodd.db.oom.DbEntityDescriptor;
+import jodd.db.type.SqlType;
+import jodd.introspector.Setter;
+
+import java.util.Arrays;
+
+/**
+ * Precompiled mapping of result set columns to the results. Plan is resolved
+ * once per result set shape, by {@link DefaultResultSetMapper#createMappingPlan(Class[])},
+ * and then just executed for each row: column indexes, {@link SqlType sql types},
+ * destination types and setters are all known in advance.
+ * <p>
+ * Plans are immutable and shared between threads. They are cached by
+ * the {@link jodd.db.oom.DbEntityManager}, under the {@link Key}.
+ */
+public class ResultSetMappingPlan {
+
+	final DbEntityDescriptor[] dbEntityDescriptors;
+	final int[] columnIndexes;
+	final int[] resultIndexes;
+	final int[] columnDbSqlTypes;
+	final Class[] destinationTypes;
+	final SqlType[] sqlTypes;
+	final String[] propertyNames;	// null for simple types
+	final Setter[] setters;			// null when value has to be injected by BeanUtil
+	int size;
+
+	ResultSetMappingPlan(int totalColumns, DbEntityDescriptor[] dbEntityDescriptors) {
+		this.dbEntityDescriptors = dbEntityDescriptors;
+		this.columnIndexes = new int[totalColumns];
+		this.resultIndexes = new int[totalColumns];
+		this.columnDbSqlTypes = new int[totalColumns];
+		this.destinationTypes = new Class[totalColumns];
+		this.sqlTypes = new SqlType[totalColumns];
+		this.propertyNames = new String[totalColumns];
+		this.setters = new Setter[totalColumns];
+	}
+
+	/**
+	 * Adds column mapped to a simple type.
+	 */
+	void addColumn(int colNdx, int resultNdx, int columnDbSqlType, Class type, SqlType sqlType) {
+		addProperty(colNdx, resultNdx, columnDbSqlType, type, sqlType, null, null);
+	}
+
+	/**
+	 * Adds column mapped to the entity property.
+	 */
+	void addProperty(int colNdx, int resultNdx, int columnDbSqlType, Class type, SqlType sqlType, String propertyName, Setter setter) {
+		columnIndexes[size] = colNdx;
+		resultIndexes[size] = resultNdx;
+		columnDbSqlTypes[size] = columnDbSqlType;
+		destinationTypes[size] = type;
+		sqlTypes[size] = sqlType;
+		propertyNames[size] = propertyName;
+		setters[size] = setter;
+		size++;
+	}
+
+	/**
+	 * Returns resolved entity descriptors of the results.
+	 */
+	public DbEntityDescriptor[] getDbEntityDescriptors() {
+		return dbEntityDescriptors;
+	}
+
+	/**
+	 * Returns number of mapped columns.
+	 */
+	public int getMappedColumnsCount() {
+		return size;
+	}
+
+	// ---------------------------------------------------------------- key
+
+	/**
+	 * Plan key: the shape of the result set and the requested types.
+	 */
+	public static class Key {
+
+		private final String[] columnNames;
+		private final String[] tableNames;
+		private final int[] columnDbSqlTypes;
+		private final Class[] types;
+		private final int hashCode;
+
+		public Key(String[] columnNames, String[] tableNames, int[] columnDbSqlTypes, Class[] types) {
+			this.columnNames = columnNames;
+			this.tableNames = tableNames;
+			this.columnDbSqlTypes = columnDbSqlTypes;
+			this.types = types.clone();
+
+			int h = Arrays.hashCode(columnNames);
+			h = 31 * h + Arrays.hashCode(tableNames);
+			h = 31 * h + Arrays.hashCode(columnDbSqlTypes);
+			h = 31 * h + Arrays.hashCode(this.types);
+			this.hashCode = h;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+
+			return hashCode == key.hashCode
+				&& Arrays.equals(types, key.types)
+				&& Arrays.equals(columnDbSqlTypes, key.columnDbSqlTypes)
+				&& Arrays.equals(columnNames, key.columnNames)
+				&& Arrays.equals(tableNames, key.tableNames);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -39,6 +39,8 @@ import jodd.db.oom.sqlgen.chunks.ReferenceChunk;
 import jodd.db.oom.sqlgen.chunks.ValueChunk;
 import jodd.db.oom.sqlgen.chunks.UpdateSetChunk;
 import jodd.db.oom.sqlgen.chunks.MatchChunk;
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
 import jodd.db.DbSession;
 import jodd.util.StringPool;
 
@@ -140,6 +142,7 @@ public class DbSqlBuilder extends TemplateData implements DbSqlGenerator {
 	protected SqlChunk lastChunk;
 	protected int totalChunks;
 	protected static final TemplateParser templateParser = new TemplateParser();
+	protected static final Cache<String, SqlChunk[]> templateCache = new ConcurrentCache<>(1024);
 
 	/**
 	 * Appends chunk to the list. Chunks <b>must</b> be added using this method.
@@ -159,9 +162,34 @@ public class DbSqlBuilder extends TemplateData implements DbSqlGenerator {
 
 	/**
 	 * Parses provided text into the list of chunks and appends them to the list.
+	 * Parsed chunks of a template are cached, so each template text is parsed
+	 * only once; builder appends the copies of cached chunks.
 	 */
 	public DbSqlBuilder append(String text) {
-		templateParser.parse(this, text);
+		if (getClass() != DbSqlBuilder.class) {
+			// subclasses may create different chunks
+			templateParser.parse(this, text);
+			return this;
+		}
+
+		SqlChunk[] chunks = templateCache.get(text);
+
+		if (chunks == null) {
+			DbSqlBuilder template = new DbSqlBuilder();
+			templateParser.parse(template, text);
+
+			chunks = new SqlChunk[template.totalChunks];
+			SqlChunk chunk = template.firstChunk;
+			for (int i = 0; i < chunks.length; i++) {
+				chunks[i] = chunk;
+				chunk = chunk.getNextChunk();
+			}
+			templateCache.put(text, chunks);
+		}
+
+		for (SqlChunk chunk : chunks) {
+			addChunk(chunk.copy());
+		}
 		return this;
 	}
 
@@ -35,7 +35,7 @@ import jodd.util.CharUtil;
 /**
  * SQL chunk defines part of the SQL query that can be processed.
  */
-public abstract class SqlChunk {
+public abstract class SqlChunk implements Cloneable {
 
 	public static final int COLS_NA = 0;                // using explicit reference.
 	public static final int COLS_ONLY_EXISTING = 1;     // using only existing columns i.e. that are not-null
@@ -133,6 +133,24 @@ public abstract class SqlChunk {
 
 	// ---------------------------------------------------------------- process
 
+	/**
+	 * Creates a copy of this chunk, detached from the chunks list and from the template.
+	 * Chunks are copied before the {@link #init(TemplateData) initialization}, so copies
+	 * share just the parsed chunk definition.
+	 */
+	public SqlChunk copy() {
+		SqlChunk chunk;
+		try {
+			chunk = (SqlChunk) clone();
+		} catch (CloneNotSupportedException cnsex) {
+			throw new DbSqlBuilderException(cnsex.toString());
+		}
+		chunk.previousChunk = null;
+		chunk.nextChunk = null;
+		chunk.templateData = null;
+		return chunk;
+	}
+
 	protected TemplateData templateData;      // working template context
 
 	/**
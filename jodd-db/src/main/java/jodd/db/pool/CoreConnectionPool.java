@@ -35,12 +35,30 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A class for pre-allocating, recycling, and managing JDBC connections.
  * <p>
- * It uses threads for opening a new connection. When no connection
- * available it will wait until a connection is released.
+ * Connections are kept in a lock-free bag: free connection is claimed
+ * with a single CAS, trying first the connections recently used by the
+ * current thread. When no connection is available, new one is opened
+ * (up to the max number of connections) or the thread waits, in a fair
+ * order, until a connection is released. Validation runs in the borrowing
+ * thread, so a slow validation never blocks other threads.
+ * <p>
+ * Background {@link #run() housekeeping} validates and evicts idle
+ * connections and reports connections that are leaked, i.e. used longer
+ * than the leak detection threshold.
  */
 public class CoreConnectionPool implements Runnable, ConnectionProvider {
 
@@ -60,6 +78,10 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 	private boolean validateConnection = true;
 	private long validationTimeout = 18000000L;		// 5 hours
 	private String validationQuery;
+	private long waitTimeout;
+	private long idleTimeout = 600000L;				// 10 minutes
+	private long housekeepingPeriod = 30000L;
+	private long leakDetectionThreshold;
 
 	public String getDriver() {
 		return driver;
@@ -183,11 +205,70 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 		this.validateConnection = validateConnection;
 	}
 
+	public long getWaitTimeout() {
+		return waitTimeout;
+	}
+
+	/**
+	 * Specifies max number of milliseconds to {@link #setWaitIfBusy(boolean) wait}
+	 * for the connection. Zero means waiting without the limit.
+	 */
+	public void setWaitTimeout(long waitTimeout) {
+		this.waitTimeout = waitTimeout;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Specifies number of milliseconds after which an idle connection
+	 * is closed, as long as there are more than minimum connections.
+	 * Zero disables the eviction.
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getHousekeepingPeriod() {
+		return housekeepingPeriod;
+	}
+
+	/**
+	 * Specifies period, in milliseconds, of the background validation
+	 * and eviction of idle connections. Zero disables the housekeeping.
+	 */
+	public void setHousekeepingPeriod(long housekeepingPeriod) {
+		this.housekeepingPeriod = housekeepingPeriod;
+	}
+
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * Specifies number of milliseconds a connection may be used before
+	 * it is reported as a possible leak, together with the stack trace
+	 * of the code that borrowed it. Zero disables the leak detection.
+	 */
+	public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
 	// ---------------------------------------------------------------- init
 
-	private ArrayList<ConnectionData> availableConnections, busyConnections;
-	private boolean connectionPending;
-	private boolean initialised;
+	private static final int THREAD_LOCAL_MAX_SIZE = 16;
+
+	private final CopyOnWriteArrayList<ConnectionData> connections = new CopyOnWriteArrayList<>();
+	private final Map<Connection, ConnectionData> borrowed = new ConcurrentHashMap<>();
+	private final ThreadLocal<List<ConnectionData>> threadConnections = ThreadLocal.withInitial(ArrayList::new);
+	private final SynchronousQueue<ConnectionData> handoffQueue = new SynchronousQueue<>(true);
+	private final AtomicInteger totalCount = new AtomicInteger();
+	private final AtomicInteger waitersCount = new AtomicInteger();
+	private final AtomicLong waitCount = new AtomicLong();
+	private final AtomicLong waitTimeTotal = new AtomicLong();
+	private ScheduledExecutorService housekeeper;
+	private volatile boolean initialised;
 
 	/**
 	 * {@inheritDoc}
@@ -210,76 +291,182 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 		if (minConnections > maxConnections) {
 			minConnections = maxConnections;
 		}
-		availableConnections = new ArrayList<>(maxConnections);
-		busyConnections = new ArrayList<>(maxConnections);
 
 		for (int i = 0; i < minConnections; i++) {
-			try {
-				Connection conn = DriverManager.getConnection(url, user, password); 
-				availableConnections.add(new ConnectionData(conn));
-			} catch (SQLException sex) {
-				throw new DbSqlException("No database connection", sex);
-			}
+			totalCount.incrementAndGet();
+			connections.add(new ConnectionData(openConnection()));
 		}
+
+		if (housekeepingPeriod > 0) {
+			housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "jodd-db-pool-housekeeper");
+				thread.setDaemon(true);
+				return thread;
+			});
+			housekeeper.scheduleWithFixedDelay(this, housekeepingPeriod, housekeepingPeriod, TimeUnit.MILLISECONDS);
+		}
+
 		initialised = true;
 	}
 
+	/**
+	 * Opens new database connection. On failure, frees the reserved slot.
+	 */
+	private Connection openConnection() {
+		try {
+			return DriverManager.getConnection(url, user, password);
+		} catch (SQLException sex) {
+			totalCount.decrementAndGet();
+			throw new DbSqlException("No database connection", sex);
+		}
+	}
+
 	// ---------------------------------------------------------------- get/close
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized Connection getConnection() {
-		if (availableConnections == null) {
-			throw new DbSqlException("Connection pool is not initialized");
-		}
-		if (!availableConnections.isEmpty()) {
-			int lastIndex = availableConnections.size() - 1;
-			ConnectionData existingConnection = availableConnections.get(lastIndex);
-			availableConnections.remove(lastIndex);
-			
-			// If conn on available list is closed (e.g., it timed out), then remove it from available list
-			// and repeat the process of obtaining a conn. Also wake up threads that were waiting for a
-			// conn because maxConnection limit was reached.
+	public Connection getConnection() {
+		if (!initialised) {
+			// pool is closed, but may be used again
+			init();
+		}
+
+		long start = 0;
+		long deadline = 0;
+
+		while (true) {
+			ConnectionData connectionData = claimConnection();
+
+			if (connectionData == null) {
+				connectionData = createConnection();
+			}
+
+			if (connectionData == null) {
+				if (!waitIfBusy) {
+					throw new DbSqlException("Connection limit reached: " + maxConnections);
+				}
+
+				if (start == 0) {
+					start = System.nanoTime();
+					deadline = waitTimeout > 0 ? start + TimeUnit.MILLISECONDS.toNanos(waitTimeout) : Long.MAX_VALUE;
+				}
+
+				connectionData = awaitConnection(deadline);
+
+				if (connectionData == null) {
+					continue;
+				}
+			}
+
+			// validation happens out of any lock, so it does not block other threads
+
 			long now = System.currentTimeMillis();
-			boolean isValid = isConnectionValid(existingConnection, now);
-			if (!isValid) {
+
+			if (!isConnectionValid(connectionData, now)) {
 				if (log.isDebugEnabled()) {
 					log.debug("Pooled connection not valid, resetting");
 				}
+				removeConnection(connectionData);
+				continue;
+			}
 
-				notifyAll();				 // freed up a spot for anybody waiting
-				return getConnection();
-			} else {
-				if (log.isDebugEnabled()) {
-					log.debug("Returning valid pooled connection");
-				}
+			if (start != 0) {
+				waitCount.incrementAndGet();
+				waitTimeTotal.addAndGet(System.nanoTime() - start);
+			}
+
+			return borrow(connectionData, now);
+		}
+	}
 
-				busyConnections.add(existingConnection);
-				existingConnection.lastUsed = now;
-				return existingConnection.connection;
+	/**
+	 * Claims available connection, trying recently used connections
+	 * of the current thread first. Returns <code>null</code> if there
+	 * is no available connection.
+	 */
+	private ConnectionData claimConnection() {
+		List<ConnectionData> recent = threadConnections.get();
+
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			ConnectionData connectionData = recent.remove(i);
+			if (connectionData.claim()) {
+				return connectionData;
 			}
 		}
-		if (log.isDebugEnabled()) {
-			log.debug("No more available connections");
+
+		for (ConnectionData connectionData : connections) {
+			if (connectionData.claim()) {
+				return connectionData;
+			}
 		}
+		return null;
+	}
 
-		// no available connections
-		if (((availableConnections.size() + busyConnections.size()) < maxConnections) && !connectionPending) {
-			makeBackgroundConnection();
-		} else if (!waitIfBusy) {
-			throw new DbSqlException("Connection limit reached: " + maxConnections);
+	/**
+	 * Opens new connection in current thread, if limit is not reached.
+	 */
+	private ConnectionData createConnection() {
+		while (true) {
+			int total = totalCount.get();
+			if (total >= maxConnections) {
+				return null;
+			}
+			if (totalCount.compareAndSet(total, total + 1)) {
+				break;
+			}
 		}
-		// wait for either a new conn to be established (if you called makeBackgroundConnection) or for
-		// an existing conn to be freed up.
+
+		ConnectionData connectionData = new ConnectionData(openConnection());
+		connectionData.state.set(ConnectionData.STATE_IN_USE);
+		connections.add(connectionData);
+
+		return connectionData;
+	}
+
+	/**
+	 * Waits for the connection to be released, in the fair order. Returns
+	 * <code>null</code> when it is time to look for connection again.
+	 */
+	private ConnectionData awaitConnection(long deadline) {
+		long remaining = deadline - System.nanoTime();
+
+		if (remaining <= 0) {
+			throw new DbSqlException("Timeout waiting for connection: " + waitTimeout + "ms");
+		}
+
+		waitersCount.incrementAndGet();
 		try {
-			wait();
-		} catch (InterruptedException ie) {
-			// ignore
+			// waiting in slices, since slot may be freed without the hand-off
+			ConnectionData connectionData = handoffQueue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+
+			if (connectionData != null && connectionData.claim()) {
+				return connectionData;
+			}
+			return null;
+		}
+		catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new DbSqlException("Interrupted while waiting for connection", iex);
+		}
+		finally {
+			waitersCount.decrementAndGet();
+		}
+	}
+
+	private Connection borrow(ConnectionData connectionData, long now) {
+		connectionData.lastUsed = now;
+		connectionData.borrowedAt = now;
+		connectionData.leaked = false;
+
+		if (leakDetectionThreshold > 0) {
+			connectionData.borrowStackTrace = new Exception("Connection borrowed here");
 		}
-		// someone freed up a conn, so try again.
-		return getConnection();
+
+		borrowed.put(connectionData.connection, connectionData);
+
+		return connectionData.connection;
 	}
 
 	/**
@@ -324,40 +511,146 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 		return valid;
 	}
 
+	@Override
+	public void closeConnection(Connection connection) {
+		ConnectionData connectionData = borrowed.remove(connection);
+
+		if (connectionData == null) {
+			// not borrowed from this pool, or pool is closed
+			closeQuietly(connection);
+			return;
+		}
+
+		connectionData.lastUsed = System.currentTimeMillis();
+		connectionData.borrowStackTrace = null;
+
+		release(connectionData);
+
+		List<ConnectionData> recent = threadConnections.get();
+		if (recent.size() < THREAD_LOCAL_MAX_SIZE) {
+			recent.add(connectionData);
+		}
+	}
+
 	/**
-	 * You can't just make a new conn in the foreground when none are
-	 * available, since this can take several seconds with a slow network
-	 * conn. Instead, start a thread that establishes a new conn,
-	 * then wait. You get woken up either when the new conn is established
-	 * or if someone finishes with an existing conn.
+	 * Makes connection available and hands it off to waiting threads, if there are any.
 	 */
-	private void makeBackgroundConnection() {
-		connectionPending = true;
-		Thread connectThread = new Thread(this);
-		connectThread.start();
+	private void release(ConnectionData connectionData) {
+		connectionData.state.set(ConnectionData.STATE_NOT_IN_USE);
+
+		while (waitersCount.get() > 0) {
+			if (connectionData.state.get() != ConnectionData.STATE_NOT_IN_USE || handoffQueue.offer(connectionData)) {
+				return;
+			}
+			Thread.yield();
+		}
 	}
 
-	public void run() {
+	/**
+	 * Removes claimed connection from the pool and closes it.
+	 */
+	private void removeConnection(ConnectionData connectionData) {
+		connectionData.state.set(ConnectionData.STATE_REMOVED);
+
+		if (connections.remove(connectionData)) {
+			totalCount.decrementAndGet();
+		}
+		borrowed.remove(connectionData.connection);
+
+		closeQuietly(connectionData.connection);
+	}
+
+	private void closeQuietly(Connection connection) {
 		try {
-			Connection connection = DriverManager.getConnection(url, user, password);
-			synchronized(this) {
-				availableConnections.add(new ConnectionData(connection));
-				connectionPending = false;
-				notifyAll();
+			if (!connection.isClosed()) {
+				connection.close();
 			}
-		} catch (Exception ex) {
-			// give up on new conn and wait for existing one to free up.
+		} catch (SQLException ignore) {
+			// Ignore errors; garbage collect anyhow
 		}
 	}
 
+	// ---------------------------------------------------------------- housekeeping
+
+	/**
+	 * Performs the housekeeping: evicts connections idle longer than the
+	 * {@link #setIdleTimeout(long) idle timeout}, validates idle connections,
+	 * reports possibly leaked connections and fills the pool up to the minimum
+	 * number of connections. Invoked periodically in a background thread.
+	 */
 	@Override
-	public synchronized void closeConnection(Connection connection) {
-		ConnectionData connectionData = new ConnectionData(connection);
-		busyConnections.remove(connectionData);
-		availableConnections.add(connectionData);
-		notifyAll();		// wake up threads that are waiting for a conn
+	public void run() {
+		long now = System.currentTimeMillis();
+
+		for (ConnectionData connectionData : connections) {
+			if (connectionData.state.get() == ConnectionData.STATE_IN_USE) {
+				detectLeak(connectionData, now);
+				continue;
+			}
+
+			if (!connectionData.reserve()) {
+				continue;
+			}
+
+			boolean evict = idleTimeout > 0 &&
+				now - connectionData.lastUsed > idleTimeout &&
+				totalCount.get() > minConnections;
+
+			if (evict || !isConnectionValid(connectionData, now)) {
+				if (log.isDebugEnabled()) {
+					log.debug("Evicting pooled connection");
+				}
+				removeConnection(connectionData);
+			}
+			else {
+				release(connectionData);
+			}
+		}
+
+		fillPool();
+	}
+
+	private void detectLeak(ConnectionData connectionData, long now) {
+		Exception borrowStackTrace = connectionData.borrowStackTrace;
+
+		if (leakDetectionThreshold <= 0 || borrowStackTrace == null) {
+			return;
+		}
+
+		if (now - connectionData.borrowedAt > leakDetectionThreshold) {
+			// report only once
+			connectionData.borrowStackTrace = null;
+			connectionData.leaked = true;
+
+			log.warn("Connection possibly leaked, used for more than " + leakDetectionThreshold + "ms", borrowStackTrace);
+		}
 	}
 
+	/**
+	 * Opens connections until there is minimum number of them.
+	 */
+	private void fillPool() {
+		while (initialised) {
+			int total = totalCount.get();
+			if (total >= minConnections) {
+				return;
+			}
+			if (!totalCount.compareAndSet(total, total + 1)) {
+				continue;
+			}
+
+			ConnectionData connectionData;
+			try {
+				connectionData = new ConnectionData(openConnection());
+			}
+			catch (DbSqlException dsex) {
+				log.warn("Failed to open pooled connection", dsex);
+				return;
+			}
+			connections.add(connectionData);
+			release(connectionData);
+		}
+	}
 
 	// ---------------------------------------------------------------- close
 
@@ -366,61 +659,63 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 	 * use before calling. Note that you are not <i>required</i> to call this
 	 * when done with a ConnectionPool, since connections are guaranteed to be
 	 * closed when garbage collected. But this method gives more control
-	 * regarding when the connections are closed.
+	 * regarding when the connections are closed. Closed pool is not
+	 * disabled: it is initialized again on the next connection request.
 	 */
 	@Override
 	public synchronized void close() {
 		if (log.isInfoEnabled()) {
 			log.info("Core connection pool shutdown");
 		}
-		closeConnections(availableConnections);
-		availableConnections = new ArrayList<>(maxConnections);
-		closeConnections(busyConnections);
-		busyConnections = new ArrayList<>(maxConnections);
-	}
+		initialised = false;
 
-	private void closeConnections(ArrayList<ConnectionData> connections) {
-		try {
-			for (ConnectionData connectionData : connections) {
-				Connection connection = connectionData.connection;
-				if (!connection.isClosed()) {
-					connection.close();
-				}
-			}
-		} catch (SQLException sex) {
-			// Ignore errors; garbage collect anyhow
+		if (housekeeper != null) {
+			housekeeper.shutdownNow();
+			housekeeper = null;
+		}
+
+		for (ConnectionData connectionData : connections) {
+			removeConnection(connectionData);
 		}
+		borrowed.clear();
 	}
 
 	// ---------------------------------------------------------------- conn data
 
 	/**
-	 * Connection data with last used timestamp.
+	 * Connection data with last used timestamp and the state,
+	 * that is changed atomically when connection is claimed.
 	 */
-	class ConnectionData {
+	static class ConnectionData {
+		static final int STATE_NOT_IN_USE = 0;
+		static final int STATE_IN_USE = 1;
+		static final int STATE_RESERVED = 2;
+		static final int STATE_REMOVED = -1;
+
 		final Connection connection;
-		long lastUsed;
+		final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
+		volatile long lastUsed;
+		volatile long borrowedAt;
+		volatile Exception borrowStackTrace;
+		volatile boolean leaked;
 
 		ConnectionData(Connection connection) {
 			this.connection = connection;
 			this.lastUsed = System.currentTimeMillis();
 		}
 
-		@Override
-		public boolean equals(Object o) {
-			if (this == o) {
-				return true;
-			}
-			if (o == null || getClass() != o.getClass()) {
-				return false;
-			}
-			ConnectionData that = (ConnectionData) o;
-			return connection.equals(that.connection);
+		/**
+		 * Claims available connection for use.
+		 */
+		boolean claim() {
+			return state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE);
 		}
 
-		@Override
-		public int hashCode() {
-			return connection.hashCode();
+		/**
+		 * Reserves available connection for housekeeping.
+		 */
+		boolean reserve() {
+			return state.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED);
 		}
 	}
 
@@ -429,8 +724,71 @@ public class CoreConnectionPool implements Runnable, ConnectionProvider {
 	/**
 	 * Returns connection stats.
 	 */
-	public synchronized SizeSnapshot getConnectionsCount() {
-		return new SizeSnapshot(availableConnections.size(), busyConnections.size());
+	public SizeSnapshot getConnectionsCount() {
+		int total = totalCount.get();
+		int busy = borrowed.size();
+		return new SizeSnapshot(Math.max(total - busy, 0), busy);
+	}
+
+	/**
+	 * Returns number of connections in use.
+	 */
+	public int getActiveConnections() {
+		return borrowed.size();
+	}
+
+	/**
+	 * Returns number of idle connections.
+	 */
+	public int getIdleConnections() {
+		int idle = 0;
+		for (ConnectionData connectionData : connections) {
+			if (connectionData.state.get() == ConnectionData.STATE_NOT_IN_USE) {
+				idle++;
+			}
+		}
+		return idle;
+	}
+
+	/**
+	 * Returns total number of connections.
+	 */
+	public int getTotalConnections() {
+		return totalCount.get();
+	}
+
+	/**
+	 * Returns number of threads waiting for a connection.
+	 */
+	public int getThreadsAwaitingConnection() {
+		return waitersCount.get();
+	}
+
+	/**
+	 * Returns number of connections that were reported as leaked.
+	 */
+	public int getLeakedConnections() {
+		int leaked = 0;
+		for (ConnectionData connectionData : borrowed.values()) {
+			if (connectionData.leaked) {
+				leaked++;
+			}
+		}
+		return leaked;
+	}
+
+	/**
+	 * Returns number of times threads had to wait for a connection.
+	 */
+	public long getWaitCount() {
+		return waitCount.get();
+	}
+
+	/**
+	 * Returns total time, in milliseconds, threads waited for connections.
+	 */
+	public long getWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(waitTimeTotal.get());
 	}
 
 	/**
@@ -27,6 +27,9 @@ package jodd.db;
 import jodd.db.fixtures.DbH2TestCase;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class DbStatementTest extends DbH2TestCase {
@@ -46,4 +49,40 @@ class DbStatementTest extends DbH2TestCase {
 
 		dbSession.close();
 	}
+
+	@Test
+	void testStatementCache() throws Exception {
+		DbSession dbSession = createDbSession();
+		dbSession.setStatementCacheSize(2);
+
+		DbQuery q1 = new DbQuery(dbSession, "select :value from dual");
+		q1.setInteger("value", 1);
+		assertEquals(1, q1.executeCount());
+		Object statement = q1.preparedStatement;
+		q1.close();
+
+		assertEquals(1, dbSession.getTotalCachedStatements());
+
+		DbQuery q2 = new DbQuery(dbSession, "select :value from dual");
+		q2.setInteger("value", 2);
+		DbQuery q3 = new DbQuery(dbSession, "select :value from dual");
+		q3.setInteger("value", 3);
+
+		assertEquals(2, q2.executeCount());
+		assertEquals(3, q3.executeCount());
+		assertSame(statement, q2.preparedStatement);
+		assertNotSame(statement, q3.preparedStatement);
+		assertEquals(0, dbSession.getTotalCachedStatements());
+
+		q2.close();
+		q3.close();
+		assertEquals(1, dbSession.getTotalCachedStatements());
+
+		new DbQuery(dbSession, "select :value + 1 from dual").setInteger("value", 1).autoClose().executeCount();
+		new DbQuery(dbSession, "select :value + 2 from dual").setInteger("value", 1).autoClose().executeCount();
+		assertEquals(2, dbSession.getTotalCachedStatements());
+
+		dbSession.close();
+		assertEquals(0, dbSession.getTotalCachedStatements());
+	}
 }
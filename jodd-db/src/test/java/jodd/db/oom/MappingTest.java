@@ -37,15 +37,20 @@ import jodd.db.oom.fixtures.Foo;
 import jodd.db.oom.fixtures.FooColor;
 import jodd.db.oom.fixtures.FooWeight;
 import jodd.db.oom.fixtures.FooWeigthSqlType;
+import jodd.db.oom.mapper.DefaultResultSetMapper;
+import jodd.db.oom.mapper.ResultSetMapper;
+import jodd.db.oom.mapper.ResultSetMappingPlan;
 import jodd.db.oom.sqlgen.DbEntitySql;
 import jodd.db.type.SqlTypeManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -59,10 +64,7 @@ class MappingTest extends DbHsqldbTestCase {
 		DbTestUtil.resetAll();
 	}
 
-	@Test
-	void testMapping() throws SQLException {
-		DbSession session = new DbThreadSession(cp);
-
+	private void createFooTable(DbSession session) {
 		executeUpdate(session, "drop table FOO if exists");
 		String sql = "create table FOO (" +
 				"ID			integer		not null," +
@@ -86,6 +88,13 @@ class MappingTest extends DbHsqldbTestCase {
 
 		sql = "insert into FOO values (1, 555, 173, 7, 999, 'red', 1, '2009-08-07 06:05:04.3333', '2010-01-20 01:02:03.4444', 'W173', 'ABCDEF', 1.01, '-7.17', 0, '0')";
 		executeUpdate(session, sql);
+	}
+
+	@Test
+	void testMapping() throws SQLException {
+		DbSession session = new DbThreadSession(cp);
+
+		createFooTable(session);
 
 		DbEntityManager dbOom = JoddDb.get().dbEntityManager();
 
@@ -145,6 +154,7 @@ class MappingTest extends DbHsqldbTestCase {
 		doq.executeUpdate();
 
 		foos = new DbOomQuery("select * from FOO").list(Foo.class);
+		assertEquals(1, dbOom.getTotalMappingPlans());
 		assertEquals(1, foos.size());
 		foo = foos.get(0);
 		assertEquals(1, foo.id);
@@ -169,4 +179,56 @@ class MappingTest extends DbHsqldbTestCase {
 		executeUpdate(session, "drop table FOO if exists");
 		session.closeSession();
 	}
+
+	@Test
+	void testMappingWithoutPlanCache() throws SQLException {
+		DbSession session = new DbThreadSession(cp);
+
+		createFooTable(session);
+
+		DbEntityManager dbOom = JoddDb.get().dbEntityManager();
+
+		dbOom.registerEntity(Foo.class);
+		SqlTypeManager.register(Boo.class, BooSqlType.class);
+		SqlTypeManager.register(FooWeight.class, FooWeigthSqlType.class);
+
+		Foo first = new DbOomQuery("select * from FOO").<Foo>list(Foo.class).get(0);
+		Foo cached = new DbOomQuery("select * from FOO").<Foo>list(Foo.class).get(0);
+		assertEquals(1, dbOom.getTotalMappingPlans());
+
+		Foo uncached = new DbOomQuery("select * from FOO") {
+			@Override
+			protected ResultSetMapper createResultSetMapper(ResultSet resultSet) {
+				return new DefaultResultSetMapper(resultSet, null, cacheEntities, this) {
+					@Override
+					protected ResultSetMappingPlan resolveMappingPlan(Class[] types) {
+						ResultSetMappingPlan plan = createMappingPlan(types);
+						cachedDbEntityDescriptors = plan.getDbEntityDescriptors();
+						return plan;
+					}
+				};
+			}
+		}.<Foo>list(Foo.class).get(0);
+
+		for (Foo foo : new Foo[] {cached, uncached}) {
+			assertEquals(first.id, foo.id);
+			assertEquals(first.number.value, foo.number.value);
+			assertEquals(first.string, foo.string);
+			assertEquals(first.string2, foo.string2);
+			assertEquals(first.boo.value, foo.boo.value);
+			assertEquals(first.color, foo.color);
+			assertEquals(first.weight, foo.weight);
+			assertEquals(first.timestamp, foo.timestamp);
+			assertEquals(first.timestamp2, foo.timestamp2);
+			assertEquals(first.clob.getSubString(1, 4), foo.clob.getSubString(1, 4));
+			assertArrayEquals(first.blob.getBytes(1, 3), foo.blob.getBytes(1, 3));
+			assertEquals(first.decimal, foo.decimal);
+			assertEquals(first.decimal2, foo.decimal2);
+			assertEquals(first.jdt1, foo.jdt1);
+			assertEquals(first.jdt2, foo.jdt2);
+		}
+
+		executeUpdate(session, "drop table FOO if exists");
+		session.closeSession();
+	}
 }
@@ -31,15 +31,21 @@ import jodd.db.JoddDb;
 import jodd.db.ThreadDbSessionHolder;
 import jodd.db.fixtures.DbHsqldbTestCase;
 import jodd.db.oom.DbEntityManager;
+import jodd.db.oom.DbOomQuery;
+import jodd.db.oom.sqlgen.DbEntitySql;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
+import static jodd.db.oom.sqlgen.DbSqlBuilder.sql;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GenericDaoTest extends DbHsqldbTestCase {
 
@@ -195,4 +201,78 @@ class GenericDaoTest extends DbHsqldbTestCase {
 		session.closeSession();
 		ThreadDbSessionHolder.remove();
 	}
-}
+
+	@Test
+	void testBatch() {
+		DbSession session = new DbSession(cp);
+		ThreadDbSessionHolder.set(session);
+
+		GenericDao dao = new GenericDao();
+		dao.setBatchSize(10);
+
+		List<Girl> girls = new ArrayList<>();
+		for (int i = 1; i <= 25; i++) {
+			Girl girl = new Girl();
+			girl.setId(Long.valueOf(i));
+			girl.setName("Girl" + i);
+			girl.setSpeciality("none");
+			girls.add(girl);
+		}
+
+		dao.saveAll(girls);
+		assertEquals(25, dao.count(Girl.class));
+
+		for (Girl girl : girls) {
+			girl.setSpeciality("batch");
+		}
+		dao.updateAll(girls);
+
+		Girl match = new Girl();
+		match.setSpeciality("batch");
+		assertEquals(25, dao.find(match).size());
+
+		dao.deleteAllById(girls);
+		assertEquals(0, dao.count(Girl.class));
+		assertEquals(0, girls.get(24).getId().longValue());
+
+		session.closeSession();
+		ThreadDbSessionHolder.remove();
+	}
+
+	@Test
+	void testStream() {
+		DbSession session = new DbSession(cp);
+		ThreadDbSessionHolder.set(session);
+
+		GenericDao dao = new GenericDao();
+
+		List<Girl> girls = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			Girl girl = new Girl();
+			girl.setId(Long.valueOf(i));
+			girl.setName("Girl" + i);
+			girls.add(girl);
+		}
+		dao.saveAll(girls);
+
+		DbOomQuery q = DbOomQuery.query(sql("select $C{g.*} from $T{Girl g} order by $g.id"));
+
+		try (Stream<Girl> stream = q.stream(Girl.class)) {
+			assertEquals(55, stream.mapToLong(Girl::getId).sum());
+		}
+		assertTrue(q.isClosed());
+
+		q = DbOomQuery.query(sql("select $C{g.*} from $T{Girl g} order by $g.id"));
+		try (Stream<Girl> stream = q.stream(Girl.class)) {
+			assertEquals("Girl1", stream.findFirst().get().getName());
+		}
+		assertTrue(q.isClosed());
+
+		List<Integer> chunkSizes = new ArrayList<>();
+		DbOomQuery.query(DbEntitySql.from(Girl.class)).<Girl>forEachChunk(4, chunk -> chunkSizes.add(chunk.size()), Girl.class);
+		assertEquals(Arrays.asList(4, 4, 2), chunkSizes);
+
+		session.closeSession();
+		ThreadDbSessionHolder.remove();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,318 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.db.pool;
+
+import jodd.db.DbSqlException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoreConnectionPoolTest {
+
+	/**
+	 * Driver of fake connections; connection is invalid once it is marked as broken.
+	 */
+	public static class FakeDriver implements Driver {
+		static final AtomicInteger opened = new AtomicInteger();
+		static final List<Connection> broken = new ArrayList<>();
+
+		static {
+			try {
+				DriverManager.registerDriver(new FakeDriver());
+			}
+			catch (SQLException sex) {
+				throw new IllegalStateException(sex);
+			}
+		}
+
+		@Override
+		public Connection connect(String url, Properties info) {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			opened.incrementAndGet();
+
+			boolean[] closed = new boolean[1];
+
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Connection.class},
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "close":
+							closed[0] = true;
+							return null;
+						case "isClosed":
+							return closed[0];
+						case "createStatement":
+							return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Statement.class},
+								(p, m, a) -> {
+									if (m.getName().equals("execute") && broken.contains(proxy)) {
+										throw new SQLException("broken");
+									}
+									return m.getReturnType() == boolean.class ? Boolean.TRUE : null;
+								});
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						default:
+							return null;
+					}
+				});
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith("jdbc:fake:");
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() {
+			return Logger.getGlobal();
+		}
+	}
+
+	private CoreConnectionPool cp;
+
+	@BeforeEach
+	void setUp() {
+		FakeDriver.opened.set(0);
+		FakeDriver.broken.clear();
+
+		cp = new CoreConnectionPool();
+		cp.setDriver(FakeDriver.class.getName());
+		cp.setUrl("jdbc:fake:test");
+		cp.setMinConnections(1);
+		cp.setMaxConnections(3);
+		cp.setHousekeepingPeriod(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		cp.close();
+	}
+
+	@Test
+	void testGetAndClose() {
+		cp.init();
+
+		assertEquals(1, cp.getTotalConnections());
+		assertEquals(1, cp.getIdleConnections());
+
+		Connection c1 = cp.getConnection();
+		Connection c2 = cp.getConnection();
+
+		assertNotSame(c1, c2);
+		assertEquals(2, cp.getActiveConnections());
+		assertEquals(2, cp.getConnectionsCount().getBusyCount());
+		assertEquals(0, cp.getIdleConnections());
+
+		cp.closeConnection(c2);
+
+		// recently used connection of the same thread is reused
+		assertSame(c2, cp.getConnection());
+
+		cp.closeConnection(c1);
+		cp.closeConnection(c2);
+
+		assertEquals(0, cp.getActiveConnections());
+		assertEquals(2, cp.getIdleConnections());
+		assertEquals(2, FakeDriver.opened.get());
+	}
+
+	@Test
+	void testLimitAndWaitTimeout() {
+		cp.init();
+
+		List<Connection> list = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			list.add(cp.getConnection());
+		}
+
+		DbSqlException dbSqlException = assertThrows(DbSqlException.class, () -> cp.getConnection());
+		assertTrue(dbSqlException.getMessage().contains("Connection limit reached"));
+
+		cp.setWaitIfBusy(true);
+		cp.setWaitTimeout(50);
+
+		dbSqlException = assertThrows(DbSqlException.class, () -> cp.getConnection());
+		assertTrue(dbSqlException.getMessage().contains("Timeout waiting for connection"));
+
+		for (Connection connection : list) {
+			cp.closeConnection(connection);
+		}
+	}
+
+	@Test
+	void testWaitForReleasedConnection() throws Exception {
+		cp.setWaitIfBusy(true);
+		cp.setWaitTimeout(5000);
+		cp.init();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger maxActive = new AtomicInteger();
+
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(executorService.submit(() -> {
+				start.await();
+				for (int j = 0; j < 200; j++) {
+					Connection connection = cp.getConnection();
+					maxActive.accumulateAndGet(cp.getActiveConnections(), Math::max);
+					cp.closeConnection(connection);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		executorService.shutdown();
+
+		assertTrue(maxActive.get() <= 3);
+		assertTrue(cp.getTotalConnections() <= 3);
+		assertEquals(0, cp.getActiveConnections());
+		assertEquals(0, cp.getThreadsAwaitingConnection());
+	}
+
+	@Test
+	void testValidationAndHousekeeping() {
+		cp.setValidationTimeout(0);
+		cp.setDefaultValidationQuery();
+		cp.setIdleTimeout(0);
+		cp.init();
+
+		Connection connection = cp.getConnection();
+		cp.closeConnection(connection);
+
+		FakeDriver.broken.add(connection);
+
+		// broken connection is replaced
+		Connection connection2 = cp.getConnection();
+		assertNotSame(connection, connection2);
+		assertEquals(1, cp.getTotalConnections());
+
+		// housekeeping evicts broken idle connection and fills the pool
+		cp.closeConnection(connection2);
+		FakeDriver.broken.add(connection2);
+
+		cp.run();
+
+		assertEquals(1, cp.getTotalConnections());
+		assertEquals(1, cp.getIdleConnections());
+		assertEquals(3, FakeDriver.opened.get());
+	}
+
+	@Test
+	void testIdleEvictionAndLeakDetection() throws InterruptedException {
+		cp.setMinConnections(0);
+		cp.setIdleTimeout(10);
+		cp.setLeakDetectionThreshold(10);
+		cp.init();
+
+		Connection c1 = cp.getConnection();
+		Connection c2 = cp.getConnection();
+		cp.closeConnection(c2);
+
+		Thread.sleep(50);
+		cp.run();
+
+		assertEquals(1, cp.getTotalConnections());
+		assertEquals(1, cp.getLeakedConnections());
+
+		cp.closeConnection(c1);
+
+		assertEquals(0, cp.getLeakedConnections());
+		assertFalse(cp.getActiveConnections() > 0);
+	}
+
+	@Test
+	void testReuseAfterClose() {
+		cp.init();
+
+		Connection c1 = cp.getConnection();
+		cp.closeConnection(c1);
+
+		cp.close();
+
+		assertEquals(0, cp.getTotalConnections());
+
+		// closed pool is initialized again
+		Connection c2 = cp.getConnection();
+
+		assertNotSame(c1, c2);
+		assertEquals(1, cp.getActiveConnections());
+
+		cp.closeConnection(c2);
+	}
+}
@@ -173,7 +173,7 @@ public class DecoraServletFilter implements Filter {
 
 			Writer writer = servletResponse.getWriter();
 
-			decoraParser.decorate(writer, pageContent, decoraContent);
+			decoraParser.decorate(writer, pageContent, decoratorPath, decoraContent);
 
 			writer.flush();
 
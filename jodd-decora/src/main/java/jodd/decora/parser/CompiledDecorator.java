@@ -0,0 +1,71 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.decora.parser;
+
+import java.util.Arrays;
+
+/**
+ * Decorator parsed once into the template: its content and
+ * positions of the {@link DecoraTag Decora tags} in it.
+ * Compiled decorator is immutable and it is shared between requests.
+ */
+public class CompiledDecorator {
+
+	private final char[] decoraContent;
+	private final DecoraTag[] decoraTags;
+
+	public CompiledDecorator(char[] decoraContent, DecoraTag[] decoraTags) {
+		this.decoraContent = decoraContent;
+		this.decoraTags = decoraTags;
+	}
+
+	/**
+	 * Returns <code>true</code> if this decorator is compiled
+	 * from the given content.
+	 */
+	public boolean matches(char[] content) {
+		return Arrays.equals(decoraContent, content);
+	}
+
+	/**
+	 * Returns decorator content.
+	 */
+	public char[] getDecoraContent() {
+		return decoraContent;
+	}
+
+	/**
+	 * Returns new copy of Decora tags, ready for page region extraction.
+	 */
+	public DecoraTag[] createDecoraTags() {
+		DecoraTag[] tags = new DecoraTag[decoraTags.length];
+
+		for (int i = 0; i < decoraTags.length; i++) {
+			tags[i] = decoraTags[i].duplicate();
+		}
+		return tags;
+	}
+}
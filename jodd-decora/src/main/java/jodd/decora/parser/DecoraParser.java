@@ -25,6 +25,8 @@
 
 package jodd.decora.parser;
 
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
 import jodd.lagarto.LagartoParser;
 
 import java.io.IOException;
@@ -37,17 +39,71 @@ import java.io.Writer;
  */
 public class DecoraParser {
 
+	public static final int DEFAULT_CACHE_SIZE = 64;
+
+	protected final Cache<String, CompiledDecorator> compiledDecorators;
+
+	public DecoraParser() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates Decora parser with the cache of compiled decorators of given size.
+	 * Caching is disabled when size is 0.
+	 */
+	public DecoraParser(int cacheSize) {
+		this.compiledDecorators = cacheSize > 0 ? new ConcurrentCache<>(cacheSize) : null;
+	}
+
 	/**
 	 * Decorates page content with decorator template and outputs the result.
 	 */
 	public void decorate(Writer writer, char[] pageContent, char[] decoraContent) throws IOException {
-		DecoraTag[] decoraTags = parseDecorator(decoraContent);
+		decorate(writer, pageContent, null, decoraContent);
+	}
+
+	/**
+	 * Decorates page content with decorator template and outputs the result.
+	 * Decorator is parsed once and cached by its path, for as long as
+	 * its content does not change.
+	 */
+	public void decorate(Writer writer, char[] pageContent, String decoratorPath, char[] decoraContent) throws IOException {
+		DecoraTag[] decoraTags = resolveDecoraTags(decoratorPath, decoraContent);
 
 		parsePage(pageContent, decoraTags);
 
 		writeDecoratedPage(writer, decoraContent, pageContent, decoraTags);
 	}
 
+	/**
+	 * Resolves Decora tags of the decorator, either from the cache of
+	 * {@link CompiledDecorator compiled decorators} or by parsing it.
+	 */
+	protected DecoraTag[] resolveDecoraTags(String decoratorPath, char[] decoraContent) {
+		if (decoratorPath == null || compiledDecorators == null) {
+			return parseDecorator(decoraContent);
+		}
+
+		CompiledDecorator compiledDecorator = compiledDecorators.get(decoratorPath);
+
+		if (compiledDecorator == null || !compiledDecorator.matches(decoraContent)) {
+			compiledDecorator = new CompiledDecorator(decoraContent, parseDecorator(decoraContent));
+
+			compiledDecorators.put(decoratorPath, compiledDecorator);
+		}
+
+		return compiledDecorator.createDecoraTags();
+	}
+
+	/**
+	 * Clears the cache of compiled decorators.
+	 */
+	public void clearCache() {
+		if (compiledDecorators != null) {
+			compiledDecorators.clear();
+		}
+	}
+
 	/**
 	 * Parses decorator file and collects {@link jodd.decora.parser.DecoraTag Decora tags}
 	 * used in template. Returned Decora tags have start and end index set,
@@ -40,6 +40,10 @@ import java.io.IOException;
 import java.net.URL;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class DecoraParserTest {
 
@@ -83,6 +87,38 @@ class DecoraParserTest {
 		}
 	}
 
+	@Test
+	void testCompiledDecoratorsCache() throws IOException {
+		DecoraParser decoraParser = new DecoraParser();
+
+		char[] decorator = "<html><title><decora:title/></title><decora:body/></html>".toCharArray();
+		char[] page1 = "<html><title>One</title><body>1</body></html>".toCharArray();
+		char[] page2 = "<html><title>Two</title><body>2</body></html>".toCharArray();
+
+		FastCharArrayWriter writer = new FastCharArrayWriter();
+		decoraParser.decorate(writer, page1, "/decora.jsp", decorator);
+		assertEquals("<html><title>One</title>1</html>", writer.toString());
+
+		CompiledDecorator compiledDecorator = decoraParser.compiledDecorators.get("/decora.jsp");
+		assertNotNull(compiledDecorator);
+
+		writer = new FastCharArrayWriter();
+		decoraParser.decorate(writer, page2, "/decora.jsp", decorator.clone());
+		assertEquals("<html><title>Two</title>2</html>", writer.toString());
+		assertSame(compiledDecorator, decoraParser.compiledDecorators.get("/decora.jsp"));
+
+		// changed decorator content is parsed again
+
+		char[] decorator2 = "<div><decora:body/></div>".toCharArray();
+
+		writer = new FastCharArrayWriter();
+		decoraParser.decorate(writer, page1, "/decora.jsp", decorator2);
+		assertEquals("<div>1</div>", writer.toString());
+		assertNotSame(compiledDecorator, decoraParser.compiledDecorators.get("/decora.jsp"));
+
+		decoraParser.clearCache();
+		assertNull(decoraParser.compiledDecorators.get("/decora.jsp"));
+	}
 
 	private String trimLines(String string) throws IOException {
 		BufferedReader in = new BufferedReader(new CharArrayReader(string.toCharArray()));
@@ -857,17 +857,28 @@ public abstract class HttpBase<T> {
 				throw new HttpException(ioex);
 			}
 
-			if (StringUtil.isBlank(line)) {
+			if (!parseHeaderLine(line)) {
 				break;
 			}
+		}
+	}
 
-			int ndx = line.indexOf(':');
-			if (ndx != -1) {
-				header(line.substring(0, ndx), line.substring(ndx + 1));
-			} else {
-				throw new HttpException("Invalid header: " + line);
-			}
+	/**
+	 * Parses single header line. Returns <code>false</code> when
+	 * the blank line is reached, i.e. on the end of headers.
+	 */
+	protected boolean parseHeaderLine(String line) {
+		if (StringUtil.isBlank(line)) {
+			return false;
 		}
+
+		int ndx = line.indexOf(':');
+		if (ndx != -1) {
+			header(line.substring(0, ndx), line.substring(ndx + 1));
+		} else {
+			throw new HttpException("Invalid header: " + line);
+		}
+		return true;
 	}
 
 	/**
@@ -913,7 +924,13 @@ public abstract class HttpBase<T> {
 				while (true) {
 					String line = reader.readLine();
 
-					int len = Integer.parseInt(line, 16);
+					// ignore chunk extensions
+					int extNdx = line.indexOf(';');
+					if (extNdx != -1) {
+						line = line.substring(0, extNdx);
+					}
+
+					int len = Integer.parseInt(line.trim(), 16);
 
 					if (len > 0) {
 						StreamUtil.copy(reader, fastCharArrayWriter, len);
@@ -944,6 +961,14 @@ public abstract class HttpBase<T> {
 		}
 
 		// BODY READY - PARSE BODY
+		parseBody(bodyString);
+	}
+
+	/**
+	 * Sets the raw body string, that has been read, and parses
+	 * the form parameters, if body contains them.
+	 */
+	protected void parseBody(String bodyString) {
 		String charset = this.charset;
 		if (charset == null) {
 			charset = StringPool.ISO_8859_1;
@@ -0,0 +1,230 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream of the response body, as sent on the wire. Reads exactly
+ * the content length, decodes chunked transfer encoding, or reads until
+ * the connection is closed. Trailing headers of the chunked body are added
+ * to the response. When the body ends or the stream is closed, the
+ * response is {@link HttpResponse#bodyEnded(boolean) notified}, so the
+ * connection is either closed or left ready for the next request.
+ */
+class HttpBodyInputStream extends InputStream {
+
+	private final LineInputStream in;
+	private final HttpResponse httpResponse;
+	private final boolean chunked;
+	private final byte[] single = new byte[1];
+	private long remaining;
+	private boolean firstChunk = true;
+	private boolean eof;
+	private boolean ended;
+	private boolean closed;
+
+	/**
+	 * Creates body stream.
+	 * @param contentLength content length or <code>-1</code> if body
+	 *                      ends when the connection is closed.
+	 */
+	HttpBodyInputStream(LineInputStream in, HttpResponse httpResponse, boolean chunked, long contentLength) {
+		this.in = in;
+		this.httpResponse = httpResponse;
+		this.chunked = chunked;
+		this.remaining = chunked ? 0 : contentLength;
+		this.eof = !chunked && contentLength == 0;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int n = read(single, 0, 1);
+		return n == -1 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (eof) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+
+		if (chunked && remaining == 0) {
+			nextChunk();
+			if (eof) {
+				return -1;
+			}
+		}
+
+		if (remaining > 0) {
+			len = (int) Math.min(len, remaining);
+		}
+
+		int n = in.read(b, off, len);
+
+		if (n == -1) {
+			if (remaining > 0) {
+				throw new EOFException("Unexpected end of the body");
+			}
+			end();
+			return -1;
+		}
+
+		if (remaining > 0) {
+			remaining -= n;
+
+			if (remaining == 0 && !chunked) {
+				end();
+			}
+		}
+
+		return n;
+	}
+
+	/**
+	 * Reads the size of the next chunk. On the last chunk, reads trailing headers.
+	 */
+	private void nextChunk() throws IOException {
+		if (!firstChunk) {
+			// CRLF after the chunk data
+			in.readLine();
+		}
+		firstChunk = false;
+
+		String line = in.readLine();
+
+		if (line == null) {
+			throw new EOFException("Unexpected end of the chunked body");
+		}
+
+		int ndx = line.indexOf(';');
+		if (ndx != -1) {
+			line = line.substring(0, ndx);
+		}
+
+		long size;
+		try {
+			size = Long.parseLong(line.trim(), 16);
+		}
+		catch (NumberFormatException nfex) {
+			throw new IOException("Invalid chunk size: " + line);
+		}
+
+		if (size > 0) {
+			remaining = size;
+			return;
+		}
+
+		// last chunk, read trailing headers, if there is any
+
+		while (httpResponse.parseHeaderLine(in.readLine())) {
+			// continue
+		}
+
+		end();
+	}
+
+	private void end() {
+		eof = true;
+		notifyEnded(true);
+	}
+
+	/**
+	 * Notifies the response that the body is known to be empty,
+	 * so the connection is released without reading the stream.
+	 */
+	void endIfEmpty() {
+		if (eof) {
+			notifyEnded(true);
+		}
+	}
+
+	private void notifyEnded(boolean complete) {
+		if (!ended) {
+			ended = true;
+			httpResponse.bodyEnded(complete);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the end of the body is reached.
+	 */
+	boolean isEof() {
+		return eof;
+	}
+
+	/**
+	 * Returns <code>true</code> if stream has been closed.
+	 */
+	boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (eof || closed) {
+			return 0;
+		}
+		int available = in.available();
+		if (remaining > 0) {
+			available = (int) Math.min(available, remaining);
+		}
+		return available;
+	}
+
+	/**
+	 * Closes the body stream. When connection is persistent,
+	 * the rest of the body is skipped, so the connection can be reused.
+	 * Otherwise, the connection is closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		if (!eof && httpResponse.isConnectionPersistent()) {
+			byte[] skipBuffer = new byte[8192];
+			while (read(skipBuffer, 0, skipBuffer.length) != -1) {
+				// skip the rest of the body
+			}
+		}
+
+		closed = true;
+
+		boolean complete = eof;
+		eof = true;
+		notifyEnded(complete);
+	}
+}
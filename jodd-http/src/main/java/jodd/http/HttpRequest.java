@@ -25,6 +25,8 @@
 
 package jodd.http;
 
+import jodd.http.net.PooledHttpConnection;
+import jodd.io.StreamUtil;
 import jodd.util.Base64;
 import jodd.util.StringBand;
 import jodd.util.StringPool;
@@ -38,6 +40,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static jodd.util.StringPool.CRLF;
 import static jodd.util.StringPool.SPACE;
@@ -622,6 +625,7 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 	protected int timeout = -1;
 	protected int connectTimeout = -1;
 	protected boolean followRedirects = false;
+	protected boolean streamResponseBody = false;
 
 	/**
 	 * Defines the socket timeout (SO_TIMEOUT) in milliseconds, which is the timeout for waiting for data or,
@@ -684,6 +688,25 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		return this.followRedirects;
 	}
 
+	/**
+	 * Defines if response body should be streamed. When enabled, only the
+	 * status line and headers are read on {@link #send()}, and the body is left
+	 * in the connection, available as the {@link HttpResponse#bodyStream() body stream}.
+	 * Large bodies may be {@link HttpResponse#transferTo(OutputStream) transferred}
+	 * without being held in the memory. Body stream must be consumed or closed.
+	 */
+	public HttpRequest streamResponseBody(boolean streamResponseBody) {
+		this.streamResponseBody = streamResponseBody;
+		return this;
+	}
+
+	/**
+	 * Returns {@code true} if response body is streamed.
+	 */
+	public boolean isStreamResponseBody() {
+		return this.streamResponseBody;
+	}
+
 	// ---------------------------------------------------------------- send
 
 	protected HttpConnection httpConnection;
@@ -826,6 +849,10 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 			int statusCode = httpResponse.statusCode();
 
 			if (HttpStatus.isRedirect(statusCode)) {
+				if (streamResponseBody) {
+					// discard the body of the redirection
+					StreamUtil.close(httpResponse.bodyStream());
+				}
 				_reset();
 				set(httpResponse.location());
 				continue;
@@ -835,6 +862,44 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 		}
 	}
 
+	/**
+	 * Sends the request asynchronously and returns the future response.
+	 * When connection provider is {@link AsyncHttpConnectionProvider asynchronous},
+	 * i.e. {@link jodd.http.net.NioHttpConnectionProvider}, no thread is blocked
+	 * while waiting for the response. Otherwise, request is {@link #send() sent}
+	 * in the common fork-join pool. Response body is always fully read, regardless
+	 * of the {@link #streamResponseBody(boolean) streaming} flag.
+	 */
+	public CompletableFuture<HttpResponse> sendAsync() {
+		final HttpConnectionProvider connectionProvider =
+			httpConnectionProvider != null ? httpConnectionProvider : HttpConnectionProvider.get();
+
+		if (httpConnection != null || !(connectionProvider instanceof AsyncHttpConnectionProvider)) {
+			return CompletableFuture.supplyAsync(() -> {
+				final HttpResponse httpResponse = send();
+
+				// streaming flag of this request is not changed, body is read instead
+				httpResponse.bufferBody();
+
+				return httpResponse;
+			});
+		}
+
+		this.httpConnectionProvider = connectionProvider;
+
+		return ((AsyncHttpConnectionProvider) connectionProvider).sendAsync(this).thenCompose(httpResponse -> {
+			httpResponse.assignHttpRequest(this);
+
+			if (followRedirects && HttpStatus.isRedirect(httpResponse.statusCode())) {
+				_reset();
+				set(httpResponse.location());
+				return sendAsync();
+			}
+
+			return CompletableFuture.completedFuture(httpResponse);
+		});
+	}
+
 	/**
 	 * Resets the request by resetting all additional values
 	 * added during the sending.
@@ -857,13 +922,23 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 
 			InputStream inputStream = httpConnection.getInputStream();
 
-			httpResponse = HttpResponse.readFrom(inputStream);
+			httpResponse = HttpResponse.readFrom(inputStream, streamResponseBody);
 
 			httpResponse.assignHttpRequest(this);
 		} catch (IOException ioex) {
+			// broken connection can't be reused
+			httpConnection.close();
+			httpConnection = null;
+
 			throw new HttpException(ioex);
 		}
 
+		if (httpResponse.isBodyStreamed()) {
+			// connection is released when the body stream ends
+			httpResponse.endEmptyBodyStream();
+			return httpResponse;
+		}
+
 		boolean keepAlive = httpResponse.isConnectionPersistent();
 
 		if (!keepAlive) {
@@ -871,10 +946,24 @@ public class HttpRequest extends HttpBase<HttpRequest> {
 			httpConnection.close();
 			httpConnection = null;
 		}
+		else {
+			releaseConnection();
+		}
 
 		return httpResponse;
 	}
 
+	/**
+	 * Returns {@link PooledHttpConnection pooled connection} back to the pool,
+	 * once the response of the persistent connection is completely read.
+	 */
+	void releaseConnection() {
+		if (httpConnection instanceof PooledHttpConnection) {
+			((PooledHttpConnection) httpConnection).release();
+			httpConnection = null;
+		}
+	}
+
 	// ---------------------------------------------------------------- buffer
 
 	/**
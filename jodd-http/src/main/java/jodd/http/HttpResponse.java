@@ -25,6 +25,8 @@
 
 package jodd.http;
 
+import jodd.core.JoddCore;
+import jodd.io.FastByteArrayOutputStream;
 import jodd.io.StreamUtil;
 import jodd.util.StringPool;
 
@@ -34,7 +36,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
@@ -137,6 +142,8 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	 * and sets the new content-length value.
 	 */
 	public HttpResponse unzip() {
+		bufferBody();
+
 		String contentEncoding = contentEncoding();
 
 		if (contentEncoding != null && contentEncoding().equals("gzip")) {
@@ -159,6 +166,247 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 		return this;
 	}
 
+	// ---------------------------------------------------------------- body stream
+
+	private LineInputStream lineInputStream;
+	private HttpBodyInputStream rawBodyStream;
+	private InputStream bodyStream;
+	private boolean bodyStreamUnzipped;
+
+	/**
+	 * Returns <code>true</code> if the body is not read yet and
+	 * it is available as a {@link #bodyStream() stream}.
+	 */
+	public boolean isBodyStreamed() {
+		return lineInputStream != null;
+	}
+
+	/**
+	 * Returns the body as an input stream. When the response is
+	 * {@link HttpRequest#streamResponseBody(boolean) streamed}, body is read
+	 * directly from the connection: chunked transfer encoding and GZip content
+	 * encoding are decoded on the fly. The stream must be consumed or closed,
+	 * which releases the connection. Once the stream is used, body is not
+	 * available as a string anymore. When the body has been already read,
+	 * returns the stream of the {@link #bodyBytes() raw body bytes}.
+	 */
+	public InputStream bodyStream() {
+		if (lineInputStream == null) {
+			byte[] bytes = bodyBytes();
+			return new ByteArrayInputStream(bytes == null ? new byte[0] : bytes);
+		}
+
+		if (bodyStream != null) {
+			return bodyStream;
+		}
+
+		if (rawBodyStream == null) {
+			rawBodyStream = createRawBodyStream();
+		}
+		rawBodyStream.endIfEmpty();
+		bodyStream = rawBodyStream;
+
+		String contentEncoding = contentEncoding();
+
+		if (contentEncoding != null && contentEncoding.equals("gzip") && !rawBodyStream.isEof()) {
+			removeHeader(HEADER_CONTENT_ENCODING);
+			removeHeader(HEADER_CONTENT_LENGTH);
+
+			try {
+				bodyStream = new GZIPInputStream(rawBodyStream);
+			}
+			catch (IOException ioex) {
+				throw new HttpException(ioex);
+			}
+			bodyStreamUnzipped = true;
+		}
+
+		return bodyStream;
+	}
+
+	/**
+	 * Ends the streamed body right away when it is known to be empty
+	 * (no content, not modified, HEAD response...), so the connection
+	 * is released even if the body stream is never used.
+	 */
+	void endEmptyBodyStream() {
+		if (lineInputStream == null) {
+			return;
+		}
+		if (rawBodyStream == null) {
+			rawBodyStream = createRawBodyStream();
+		}
+		rawBodyStream.endIfEmpty();
+	}
+
+	/**
+	 * Creates the stream of the body as it is sent, without
+	 * the transfer encoding.
+	 */
+	private HttpBodyInputStream createRawBodyStream() {
+		String transferEncoding = header("Transfer-Encoding");
+		boolean chunked = transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked");
+
+		long contentLength = -1;
+
+		if (!chunked) {
+			String contentLen = contentLength();
+			if (contentLen != null) {
+				contentLength = Long.parseLong(contentLen);
+			}
+		}
+
+		// responses without the body
+
+		if ((statusCode >= 100 && statusCode < 200) || statusCode == 204 || statusCode == 304
+			|| (httpRequest != null && httpRequest.method().equals("HEAD"))) {
+			chunked = false;
+			contentLength = 0;
+		}
+
+		return new HttpBodyInputStream(lineInputStream, this, chunked, contentLength);
+	}
+
+	/**
+	 * Writes the body to the output stream and closes the body stream.
+	 * Body is copied through a single buffer, without the intermediate string.
+	 * Returns the number of written bytes.
+	 */
+	public long transferTo(OutputStream out) {
+		byte[] buffer = new byte[JoddCore.get().defaults().getIoBufferSize()];
+		long total = 0;
+
+		InputStream in = bodyStream();
+		try {
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				out.write(buffer, 0, n);
+				total += n;
+			}
+		}
+		catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+		finally {
+			StreamUtil.close(in);
+		}
+		return total;
+	}
+
+	/**
+	 * Writes the body to the channel and closes the body stream.
+	 * Returns the number of written bytes.
+	 * @see #transferTo(OutputStream)
+	 */
+	public long transferTo(WritableByteChannel channel) {
+		byte[] buffer = new byte[JoddCore.get().defaults().getIoBufferSize()];
+		ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+		long total = 0;
+
+		InputStream in = bodyStream();
+		try {
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				byteBuffer.clear().limit(n);
+				while (byteBuffer.hasRemaining()) {
+					channel.write(byteBuffer);
+				}
+				total += n;
+			}
+		}
+		catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+		finally {
+			StreamUtil.close(in);
+		}
+		return total;
+	}
+
+	/**
+	 * Reads the streamed body into the raw body string.
+	 * Does nothing if body has been already read.
+	 */
+	protected void bufferBody() {
+		if (lineInputStream == null) {
+			return;
+		}
+
+		InputStream in = bodyStream();
+
+		lineInputStream = null;
+
+		if (rawBodyStream.isClosed()) {
+			return;
+		}
+
+		FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+
+		try {
+			StreamUtil.copy(in, out);
+		}
+		catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+		finally {
+			StreamUtil.close(in);
+		}
+
+		String bodyString;
+		try {
+			bodyString = new String(out.toByteArray(), StringPool.ISO_8859_1);
+		}
+		catch (UnsupportedEncodingException ueex) {
+			throw new HttpException(ueex);
+		}
+
+		if (bodyStreamUnzipped) {
+			contentLength(bodyString.length());
+		}
+
+		parseBody(bodyString);
+	}
+
+	/**
+	 * Invoked when streamed body ends, either when it is
+	 * completely read or when the stream is closed before.
+	 */
+	void bodyEnded(boolean complete) {
+		if (httpRequest == null) {
+			return;
+		}
+		if (!complete || !isConnectionPersistent()) {
+			close();
+		}
+		else {
+			httpRequest.releaseConnection();
+		}
+	}
+
+	@Override
+	public String body() {
+		bufferBody();
+		return super.body();
+	}
+
+	@Override
+	public byte[] bodyBytes() {
+		bufferBody();
+		return super.bodyBytes();
+	}
+
+	@Override
+	public String bodyText() {
+		bufferBody();
+		return super.bodyText();
+	}
+
+	@Override
+	public HttpMultiMap<?> form() {
+		bufferBody();
+		return super.form();
+	}
+
 	// ---------------------------------------------------------------- buffer
 
 
@@ -167,6 +415,10 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 	 */
 	@Override
 	protected Buffer buffer(boolean fullResponse) {
+		if (fullResponse) {
+			bufferBody();
+		}
+
 		// form
 
 		Buffer formBuffer = formBuffer();
@@ -212,42 +464,79 @@ public class HttpResponse extends HttpBase<HttpResponse> {
 			throw new HttpException(ioex);
 		}
 
-		if (line != null) {
+		httpResponse.readStatusLine(line);
+		httpResponse.readHeaders(reader);
+		httpResponse.readBody(reader);
+
+		return httpResponse;
+	}
 
-			line = line.trim();
+	/**
+	 * Reads response input stream and returns {@link HttpResponse response}.
+	 * If <code>streamBody</code> is set, only the status line and headers are read,
+	 * and the body is left in the input stream, available as the
+	 * {@link #bodyStream() body stream}.
+	 */
+	public static HttpResponse readFrom(InputStream in, boolean streamBody) {
+		if (!streamBody) {
+			return readFrom(in);
+		}
 
-			int ndx = line.indexOf(' ');
-			int ndx2;
+		LineInputStream lineInputStream = new LineInputStream(in);
 
-			if (ndx > -1) {
-				httpResponse.httpVersion(line.substring(0, ndx));
+		HttpResponse httpResponse = new HttpResponse();
 
-				ndx2 = line.indexOf(' ', ndx + 1);
-			}
-			else {
-				httpResponse.httpVersion(HTTP_1_1);
-				ndx2 = -1;
-				ndx = 0;
-			}
+		try {
+			httpResponse.readStatusLine(lineInputStream.readLine());
 
-			if (ndx2 == -1) {
-				ndx2 = line.length();
+			while (httpResponse.parseHeaderLine(lineInputStream.readLine())) {
+				// continue
 			}
+		} catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
 
-			try {
-				httpResponse.statusCode(Integer.parseInt(line.substring(ndx, ndx2).trim()));
-			}
-			catch (NumberFormatException nfex) {
-				httpResponse.statusCode(-1);
-			}
+		httpResponse.lineInputStream = lineInputStream;
 
-			httpResponse.statusPhrase(line.substring(ndx2).trim());
+		return httpResponse;
+	}
+
+	/**
+	 * Parses the status line.
+	 */
+	protected void readStatusLine(String line) {
+		if (line == null) {
+			return;
 		}
 
-		httpResponse.readHeaders(reader);
-		httpResponse.readBody(reader);
+		line = line.trim();
 
-		return httpResponse;
+		int ndx = line.indexOf(' ');
+		int ndx2;
+
+		if (ndx > -1) {
+			httpVersion(line.substring(0, ndx));
+
+			ndx2 = line.indexOf(' ', ndx + 1);
+		}
+		else {
+			httpVersion(HTTP_1_1);
+			ndx2 = -1;
+			ndx = 0;
+		}
+
+		if (ndx2 == -1) {
+			ndx2 = line.length();
+		}
+
+		try {
+			statusCode(Integer.parseInt(line.substring(ndx, ndx2).trim()));
+		}
+		catch (NumberFormatException nfex) {
+			statusCode(-1);
+		}
+
+		statusPhrase(line.substring(ndx2).trim());
 	}
 
 	// ---------------------------------------------------------------- request
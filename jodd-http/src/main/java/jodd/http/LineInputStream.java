@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Buffered input stream that reads both the lines of the HTTP head and
+ * the raw bytes of the body. Unlike a <code>BufferedReader</code>, it never
+ * consumes more bytes than it returns, so the body may be streamed after
+ * the headers are read. Lines are decoded as ISO-8859-1.
+ */
+class LineInputStream extends InputStream {
+
+	private final InputStream in;
+	private final byte[] buffer;
+	private int pos;
+	private int count;
+
+	LineInputStream(InputStream in) {
+		this.in = in;
+		this.buffer = new byte[8192];
+	}
+
+	/**
+	 * Reads a line terminated by LF or CRLF, without the terminator.
+	 * Returns <code>null</code> at the end of the stream.
+	 */
+	public String readLine() throws IOException {
+		StringBuilder line = null;
+
+		while (true) {
+			if (pos == count && fill() == -1) {
+				return line == null ? null : line.toString();
+			}
+
+			if (line == null) {
+				line = new StringBuilder(64);
+			}
+
+			int start = pos;
+			while (pos < count) {
+				byte b = buffer[pos++];
+				if (b == '\n') {
+					appendLatin1(line, start, pos - 1);
+					int len = line.length();
+					if (len > 0 && line.charAt(len - 1) == '\r') {
+						line.setLength(len - 1);
+					}
+					return line.toString();
+				}
+			}
+			appendLatin1(line, start, pos);
+		}
+	}
+
+	private void appendLatin1(StringBuilder sb, int from, int to) {
+		for (int i = from; i < to; i++) {
+			sb.append((char) (buffer[i] & 0xFF));
+		}
+	}
+
+	private int fill() throws IOException {
+		int n = in.read(buffer, 0, buffer.length);
+		pos = 0;
+		count = n == -1 ? 0 : n;
+		return n;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (pos == count && fill() == -1) {
+			return -1;
+		}
+		return buffer[pos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int available = count - pos;
+
+		if (available == 0) {
+			if (len >= buffer.length) {
+				// large reads bypass the buffer
+				return in.read(b, off, len);
+			}
+			if (fill() == -1) {
+				return -1;
+			}
+			available = count;
+		}
+
+		int n = Math.min(available, len);
+		System.arraycopy(buffer, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (count - pos) + in.available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
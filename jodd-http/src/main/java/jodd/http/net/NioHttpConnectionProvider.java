@@ -0,0 +1,264 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.AsyncHttpConnectionProvider;
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.HttpResponse;
+import jodd.http.JoddHttp;
+import jodd.http.ProxyInfo;
+import jodd.io.FastByteArrayOutputStream;
+import jodd.util.StringUtil;
+import jodd.util.net.HttpMethod;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection provider that sends requests {@link HttpRequest#sendAsync() asynchronously}
+ * over non-blocking <code>SocketChannel</code>s. Channels are driven by a small
+ * pool of selector threads, so thousands of requests may be in flight at once.
+ * HTTPS is supported with the <code>SSLEngine</code>. Each request uses its own
+ * connection, that is closed once the response is read.
+ * <p>
+ * Requests that go through the proxy are sent with the blocking sockets,
+ * on the provider's own pool of daemon threads. Blocking {@link HttpRequest#send()} is supported, too, as this provider
+ * is also a regular {@link SocketHttpConnectionProvider}.
+ * <p>
+ * Futures are completed on the selector threads; use <code>*Async</code>
+ * methods of the <code>CompletableFuture</code> for long-running work.
+ * Selector threads are daemons; {@link #shutdown()} stops them.
+ */
+public class NioHttpConnectionProvider extends SocketHttpConnectionProvider implements AsyncHttpConnectionProvider {
+
+	private static final AtomicInteger providerCount = new AtomicInteger();
+
+	private final NioSelectorThread[] selectorThreads;
+	private final AtomicInteger next = new AtomicInteger();
+	private final AtomicInteger proxyThreadCount = new AtomicInteger();
+	private ExecutorService proxyExecutor;
+	private final int providerNo = providerCount.incrementAndGet();
+	private volatile boolean started;
+
+	/**
+	 * Creates provider with one selector thread.
+	 */
+	public NioHttpConnectionProvider() {
+		this(1);
+	}
+
+	/**
+	 * Creates provider with given number of selector threads.
+	 */
+	public NioHttpConnectionProvider(final int selectorThreadsCount) {
+		if (selectorThreadsCount < 1) {
+			throw new IllegalArgumentException("Invalid number of selector threads: " + selectorThreadsCount);
+		}
+		this.selectorThreads = new NioSelectorThread[selectorThreadsCount];
+	}
+
+	/**
+	 * Sends the request over the non-blocking channel.
+	 */
+	@Override
+	public CompletableFuture<HttpResponse> sendAsync(final HttpRequest httpRequest) {
+		if (proxy.getProxyType() != ProxyInfo.ProxyType.NONE) {
+			return CompletableFuture.supplyAsync(() -> {
+				httpRequest.connectionKeepAlive(false);
+				return httpRequest.open(this).send();
+			}, proxyExecutor());
+		}
+
+		final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+
+		final NioHttpExchange exchange;
+		try {
+			exchange = createExchange(httpRequest, future);
+		}
+		catch (Exception ex) {
+			future.completeExceptionally(ex instanceof HttpException ? ex : new HttpException(ex));
+			return future;
+		}
+
+		selectorThread().submit(exchange);
+
+		return future;
+	}
+
+	/**
+	 * Creates the exchange: serializes the request, opens the
+	 * channel and, for HTTPS, creates the SSL engine.
+	 */
+	private NioHttpExchange createExchange(final HttpRequest httpRequest, final CompletableFuture<HttpResponse> future) throws IOException {
+		// connection is not reused
+		httpRequest.connectionKeepAlive(false);
+
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		httpRequest.sendTo(out);
+
+		final String host = httpRequest.host();
+		final int port = httpRequest.port();
+
+		SSLEngine sslEngine = null;
+
+		if (httpRequest.protocol().equalsIgnoreCase("https")) {
+			sslEngine = createSSLEngine(host, port, httpRequest.trustAllCertificates(), httpRequest.verifyHttpsHost());
+		}
+
+		final SocketChannel channel = SocketChannel.open();
+		try {
+			channel.configureBlocking(false);
+			channel.connect(new InetSocketAddress(host, port));
+		}
+		catch (IOException ioex) {
+			channel.close();
+			throw ioex;
+		}
+
+		return new NioHttpExchange(
+			channel, future, out.toByteArray(), sslEngine,
+			HttpMethod.HEAD.name().equalsIgnoreCase(httpRequest.method()),
+			httpRequest.connectionTimeout(), httpRequest.timeout());
+	}
+
+	/**
+	 * Creates client SSL engine. Enables default secure enabled protocols if specified.
+	 */
+	protected SSLEngine createSSLEngine(final String host, final int port, final boolean trustAll, final boolean verifyHttpsHost) throws IOException {
+		final SSLContext sslContext;
+
+		try {
+			if (trustAll) {
+				sslContext = SSLContext.getInstance("TLS");
+				sslContext.init(null, TrustManagers.TRUST_ALL_CERTS, new java.security.SecureRandom());
+			}
+			else {
+				sslContext = SSLContext.getDefault();
+			}
+		}
+		catch (NoSuchAlgorithmException | KeyManagementException e) {
+			throw new IOException(e);
+		}
+
+		final SSLEngine sslEngine = sslContext.createSSLEngine(host, port);
+
+		sslEngine.setUseClientMode(true);
+
+		final String enabledProtocols = JoddHttp.get().defaults().getSecureEnabledProtocols();
+
+		if (enabledProtocols != null) {
+			final String[] values = StringUtil.splitc(enabledProtocols, ',');
+
+			StringUtil.trimAll(values);
+
+			sslEngine.setEnabledProtocols(values);
+		}
+
+		if (verifyHttpsHost) {
+			final SSLParameters sslParams = sslEngine.getSSLParameters();
+
+			sslParams.setEndpointIdentificationAlgorithm("HTTPS");
+
+			sslEngine.setSSLParameters(sslParams);
+		}
+
+		return sslEngine;
+	}
+
+	/**
+	 * Returns next selector thread, starting them on the first use.
+	 */
+	private NioSelectorThread selectorThread() {
+		if (!started) {
+			startSelectorThreads();
+		}
+		final int ndx = Math.floorMod(next.getAndIncrement(), selectorThreads.length);
+
+		return selectorThreads[ndx];
+	}
+
+	private synchronized void startSelectorThreads() {
+		if (started) {
+			return;
+		}
+		try {
+			for (int i = 0; i < selectorThreads.length; i++) {
+				selectorThreads[i] = new NioSelectorThread("jodd-http-nio-" + providerNo + '-' + (i + 1));
+				selectorThreads[i].start();
+			}
+		}
+		catch (IOException ioex) {
+			throw new HttpException(ioex);
+		}
+		started = true;
+	}
+
+	/**
+	 * Returns executor of the requests that go through the proxy,
+	 * creating it on the first use.
+	 */
+	private synchronized ExecutorService proxyExecutor() {
+		if (proxyExecutor == null) {
+			proxyExecutor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "jodd-http-proxy-" + providerNo + '-' + proxyThreadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return proxyExecutor;
+	}
+
+	/**
+	 * Stops the selector threads. Requests in progress are failed, except
+	 * requests that go through the proxy, which are completed first.
+	 * New threads are started with the next request.
+	 */
+	public synchronized void shutdown() {
+		if (proxyExecutor != null) {
+			proxyExecutor.shutdown();
+			proxyExecutor = null;
+		}
+		if (!started) {
+			return;
+		}
+		for (final NioSelectorThread selectorThread : selectorThreads) {
+			selectorThread.shutdown();
+		}
+		// new threads are started on the next request
+		started = false;
+	}
+}
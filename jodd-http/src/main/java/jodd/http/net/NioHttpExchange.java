@@ -0,0 +1,600 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpException;
+import jodd.http.HttpResponse;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single request-response exchange over the non-blocking channel. Request
+ * is written, then the response is read until it is complete, as framed by
+ * the content length, chunked encoding or the end of the stream. Complete
+ * response is parsed by the {@link HttpResponse}. Exchange is driven by
+ * the {@link NioSelectorThread} and is not thread-safe.
+ */
+final class NioHttpExchange {
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private static final int NO_BODY = 0;
+	private static final int LENGTH = 1;
+	private static final int CHUNKED = 2;
+	private static final int UNTIL_EOF = 3;
+
+	private final SocketChannel channel;
+	private final CompletableFuture<HttpResponse> future;
+	private final ByteBuffer out;
+	private final SSLEngine sslEngine;
+	private final boolean headRequest;
+	private final int connectionTimeout;
+	private final int timeout;
+
+	private volatile SelectionKey key;
+	private long deadline = Long.MAX_VALUE;
+	long scheduledDeadline = Long.MAX_VALUE;
+	private boolean connected;
+
+	private ByteBuffer netIn;
+	private ByteBuffer netOut;
+	private ByteBuffer appIn;
+
+	private byte[] in = new byte[8192];
+	private int inLength;
+	private int headersEnd = -1;
+	private int bodyMode;
+	private long contentLength;
+	private int chunkPos;
+
+	NioHttpExchange(
+			final SocketChannel channel, final CompletableFuture<HttpResponse> future, final byte[] request,
+			final SSLEngine sslEngine, final boolean headRequest, final int connectionTimeout, final int timeout) {
+
+		this.channel = channel;
+		this.future = future;
+		this.out = ByteBuffer.wrap(request);
+		this.sslEngine = sslEngine;
+		this.headRequest = headRequest;
+		this.connectionTimeout = connectionTimeout;
+		this.timeout = timeout;
+
+		// cancelled futures are not waiting for the selector
+		future.whenComplete((response, throwable) -> {
+			if (future.isCancelled()) {
+				close();
+			}
+		});
+
+		if (sslEngine != null) {
+			final int packetSize = sslEngine.getSession().getPacketBufferSize();
+			netIn = ByteBuffer.allocate(packetSize);
+			netOut = ByteBuffer.allocate(packetSize);
+			appIn = ByteBuffer.allocate(sslEngine.getSession().getApplicationBufferSize());
+		}
+	}
+
+	/**
+	 * Registers the channel and starts the exchange. Read buffer is
+	 * used when the channel is already connected.
+	 */
+	void start(final Selector selector, final ByteBuffer readBuffer) throws IOException {
+		this.key = channel.register(selector, 0, this);
+
+		if (channel.isConnectionPending()) {
+			resetDeadline(connectionTimeout);
+			key.interestOps(SelectionKey.OP_CONNECT);
+		}
+		else {
+			process(readBuffer);
+		}
+	}
+
+	// ---------------------------------------------------------------- process
+
+	/**
+	 * Continues the exchange when channel is ready.
+	 */
+	void process(final ByteBuffer readBuffer) throws IOException {
+		if (!connected) {
+			if (!channel.finishConnect()) {
+				return;
+			}
+			connected = true;
+			resetDeadline(timeout);
+
+			if (sslEngine != null) {
+				sslEngine.beginHandshake();
+			}
+		}
+
+		if (sslEngine == null) {
+			processPlain(readBuffer);
+		}
+		else {
+			processSecure();
+		}
+	}
+
+	private void processPlain(final ByteBuffer readBuffer) throws IOException {
+		while (out.hasRemaining()) {
+			if (channel.write(out) == 0) {
+				key.interestOps(SelectionKey.OP_WRITE);
+				return;
+			}
+		}
+
+		while (true) {
+			readBuffer.clear();
+
+			final int read = channel.read(readBuffer);
+
+			if (read == -1) {
+				endOfStream();
+				return;
+			}
+			if (read == 0) {
+				key.interestOps(SelectionKey.OP_READ);
+				return;
+			}
+
+			resetDeadline(timeout);
+
+			readBuffer.flip();
+
+			if (received(readBuffer)) {
+				return;
+			}
+		}
+	}
+
+	private void processSecure() throws IOException {
+		while (!future.isDone()) {
+			// flush encrypted output first
+			if (netOut.position() > 0) {
+				netOut.flip();
+				channel.write(netOut);
+				netOut.compact();
+
+				if (netOut.position() > 0) {
+					key.interestOps(SelectionKey.OP_WRITE);
+					return;
+				}
+			}
+
+			switch (sslEngine.getHandshakeStatus()) {
+				case NEED_TASK:
+					Runnable task;
+					while ((task = sslEngine.getDelegatedTask()) != null) {
+						task.run();
+					}
+					continue;
+				case NEED_WRAP:
+					wrap(EMPTY);
+					continue;
+				case NEED_UNWRAP:
+					if (!unwrap()) {
+						return;
+					}
+					continue;
+				default:
+			}
+
+			if (out.hasRemaining()) {
+				wrap(out);
+				continue;
+			}
+
+			if (!unwrap()) {
+				return;
+			}
+		}
+	}
+
+	private void wrap(final ByteBuffer src) throws SSLException {
+		final SSLEngineResult result = sslEngine.wrap(src, netOut);
+
+		if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+			netOut = enlarge(netOut, sslEngine.getSession().getPacketBufferSize());
+		}
+		else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+			throw new SSLException("SSL engine closed");
+		}
+	}
+
+	/**
+	 * Reads and decrypts available data. Returns <code>false</code>
+	 * when there is nothing more to do until the channel is readable.
+	 */
+	private boolean unwrap() throws IOException {
+		final int read = channel.read(netIn);
+
+		if (read > 0) {
+			resetDeadline(timeout);
+		}
+
+		netIn.flip();
+		final SSLEngineResult result = sslEngine.unwrap(netIn, appIn);
+		netIn.compact();
+
+		if (appIn.position() > 0) {
+			appIn.flip();
+			final boolean done = received(appIn);
+			appIn.clear();
+
+			if (done) {
+				return false;
+			}
+		}
+
+		switch (result.getStatus()) {
+			case BUFFER_OVERFLOW:
+				appIn = enlarge(appIn, sslEngine.getSession().getApplicationBufferSize());
+				return true;
+			case BUFFER_UNDERFLOW:
+				if (netIn.remaining() == 0) {
+					netIn = enlarge(netIn, sslEngine.getSession().getPacketBufferSize());
+				}
+				break;
+			case CLOSED:
+				endOfStream();
+				return false;
+			default:
+				if (result.bytesConsumed() > 0 || result.bytesProduced() > 0) {
+					return true;
+				}
+		}
+
+		if (read == -1) {
+			endOfStream();
+			return false;
+		}
+
+		key.interestOps(SelectionKey.OP_READ);
+		return false;
+	}
+
+	private static ByteBuffer enlarge(final ByteBuffer buffer, final int size) {
+		final ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() << 1));
+		buffer.flip();
+		newBuffer.put(buffer);
+		return newBuffer;
+	}
+
+	// ---------------------------------------------------------------- response
+
+	/**
+	 * Appends received bytes and returns <code>true</code> if the response is complete.
+	 */
+	private boolean received(final ByteBuffer buffer) {
+		final int len = buffer.remaining();
+
+		if (inLength + len > in.length) {
+			final byte[] newIn = new byte[Math.max(inLength + len, in.length << 1)];
+			System.arraycopy(in, 0, newIn, 0, inLength);
+			in = newIn;
+		}
+
+		buffer.get(in, inLength, len);
+		inLength += len;
+
+		if (isResponseComplete()) {
+			complete();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Handles the end of the stream. Response is complete only
+	 * when its body ends with the stream.
+	 */
+	private void endOfStream() {
+		if (headersEnd != -1 && bodyMode == UNTIL_EOF) {
+			complete();
+		}
+		else {
+			fail(new EOFException("Unexpected end of response"));
+		}
+	}
+
+	private boolean isResponseComplete() {
+		if (headersEnd == -1) {
+			if (!parseHeaders()) {
+				return false;
+			}
+		}
+
+		switch (bodyMode) {
+			case NO_BODY:
+				return true;
+			case LENGTH:
+				return inLength - headersEnd >= contentLength;
+			case CHUNKED:
+				return isLastChunkReceived();
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Parses status line and headers, when they are received,
+	 * to find out how the body is framed.
+	 */
+	private boolean parseHeaders() {
+		while (true) {
+			final int end = indexOfEmptyLine(0);
+
+			if (end == -1) {
+				return false;
+			}
+
+			final String[] lines = new String(in, 0, end, StandardCharsets.ISO_8859_1).split("\r?\n");
+
+			final int statusCode = parseStatusCode(lines[0]);
+
+			if (statusCode >= 100 && statusCode < 200 && statusCode != 101) {
+				// skip informational response
+				inLength -= end;
+				System.arraycopy(in, end, in, 0, inLength);
+				continue;
+			}
+
+			String transferEncoding = null;
+			String contentLengthValue = null;
+
+			for (int i = 1; i < lines.length; i++) {
+				final String line = lines[i];
+				final int colonNdx = line.indexOf(':');
+				if (colonNdx == -1) {
+					continue;
+				}
+				final String name = line.substring(0, colonNdx).trim();
+				final String value = line.substring(colonNdx + 1).trim();
+
+				if (name.equalsIgnoreCase("Transfer-Encoding")) {
+					transferEncoding = value;
+				}
+				else if (name.equalsIgnoreCase("Content-Length")) {
+					contentLengthValue = value;
+				}
+			}
+
+			headersEnd = end;
+
+			if (headRequest || statusCode == 204 || statusCode == 304) {
+				bodyMode = NO_BODY;
+			}
+			else if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+				bodyMode = CHUNKED;
+				chunkPos = end;
+			}
+			else if (contentLengthValue != null) {
+				bodyMode = LENGTH;
+				try {
+					contentLength = Long.parseLong(contentLengthValue);
+				}
+				catch (NumberFormatException nfex) {
+					throw new HttpException("Invalid content length: " + contentLengthValue);
+				}
+			}
+			else {
+				bodyMode = UNTIL_EOF;
+			}
+			return true;
+		}
+	}
+
+	private static int parseStatusCode(final String statusLine) {
+		final int ndx = statusLine.indexOf(' ');
+		if (ndx != -1) {
+			int end = statusLine.indexOf(' ', ndx + 1);
+			if (end == -1) {
+				end = statusLine.length();
+			}
+			try {
+				return Integer.parseInt(statusLine.substring(ndx + 1, end).trim());
+			}
+			catch (NumberFormatException ignore) {
+			}
+		}
+		throw new HttpException("Invalid status line: " + statusLine);
+	}
+
+	/**
+	 * Skips all received chunks and returns <code>true</code>
+	 * when the last chunk and the trailers are received.
+	 */
+	private boolean isLastChunkReceived() {
+		while (true) {
+			final int lineEnd = indexOfLineEnd(chunkPos);
+			if (lineEnd == -1) {
+				return false;
+			}
+
+			String sizeLine = new String(in, chunkPos, lineEnd - chunkPos, StandardCharsets.ISO_8859_1);
+			final int extNdx = sizeLine.indexOf(';');
+			if (extNdx != -1) {
+				sizeLine = sizeLine.substring(0, extNdx);
+			}
+
+			final int chunkSize;
+			try {
+				chunkSize = Integer.parseInt(sizeLine.trim(), 16);
+			}
+			catch (NumberFormatException nfex) {
+				throw new HttpException("Invalid chunk size: " + sizeLine);
+			}
+
+			final int dataStart = lineEnd + (in[lineEnd] == '\r' ? 2 : 1);
+
+			if (chunkSize == 0) {
+				// trailers end with an empty line
+				if (dataStart < inLength && in[dataStart] == '\n') {
+					return true;
+				}
+				if (dataStart + 1 < inLength && in[dataStart] == '\r' && in[dataStart + 1] == '\n') {
+					return true;
+				}
+				return indexOfEmptyLine(dataStart) != -1;
+			}
+
+			// chunk data is followed by CRLF
+			final int next = dataStart + chunkSize + 2;
+
+			if (next > inLength) {
+				return false;
+			}
+			chunkPos = next;
+		}
+	}
+
+	/**
+	 * Returns index of the first CR or LF at or after given position.
+	 */
+	private int indexOfLineEnd(final int from) {
+		for (int i = from; i < inLength; i++) {
+			if (in[i] == '\r' && i + 1 < inLength) {
+				return i;
+			}
+			if (in[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns index after the first empty line, i.e. after <code>CRLFCRLF</code>
+	 * or <code>LFLF</code>, or <code>-1</code> if not found.
+	 */
+	private int indexOfEmptyLine(final int from) {
+		for (int i = from; i < inLength; i++) {
+			if (in[i] != '\n') {
+				continue;
+			}
+			if (i + 1 < inLength && in[i + 1] == '\n') {
+				return i + 2;
+			}
+			if (i + 2 < inLength && in[i + 1] == '\r' && in[i + 2] == '\n') {
+				return i + 3;
+			}
+		}
+		return -1;
+	}
+
+	// ---------------------------------------------------------------- complete
+
+	private void complete() {
+		close();
+
+		final HttpResponse httpResponse;
+		try {
+			httpResponse = HttpResponse.readFrom(new ByteArrayInputStream(in, 0, inLength));
+		}
+		catch (Exception ex) {
+			fail(ex);
+			return;
+		}
+
+		future.complete(httpResponse);
+	}
+
+	/**
+	 * Fails the exchange and closes the channel.
+	 */
+	void fail(final Throwable throwable) {
+		close();
+
+		if (throwable instanceof HttpException) {
+			future.completeExceptionally(throwable);
+		}
+		else {
+			future.completeExceptionally(new HttpException(throwable));
+		}
+	}
+
+	/**
+	 * Fails the exchange if the deadline has passed.
+	 * Returns <code>true</code> if the exchange is timed out.
+	 */
+	boolean checkTimeout(final long now) {
+		if (deadline != Long.MAX_VALUE && now - deadline >= 0) {
+			fail(new SocketTimeoutException(connected ? "Read timed out" : "Connect timed out"));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns current deadline, in nanoseconds, or <code>Long.MAX_VALUE</code>
+	 * if there is none.
+	 */
+	long deadline() {
+		return deadline;
+	}
+
+	private void resetDeadline(final int timeout) {
+		if (timeout <= 0) {
+			deadline = Long.MAX_VALUE;
+		}
+		else {
+			deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		}
+	}
+
+	/**
+	 * Closes the channel.
+	 */
+	void close() {
+		final SelectionKey key = this.key;
+		if (key != null) {
+			key.cancel();
+		}
+		try {
+			channel.close();
+		}
+		catch (IOException ignore) {
+		}
+	}
+
+	boolean isDone() {
+		return future.isDone();
+	}
+}
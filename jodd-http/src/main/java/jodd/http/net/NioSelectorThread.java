@@ -0,0 +1,241 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selector thread that drives many {@link NioHttpExchange exchanges}.
+ * New exchanges are queued and registered by the thread itself,
+ * so the selector is never accessed concurrently. Deadlines of the
+ * exchanges are kept in a queue ordered by time, so the thread wakes
+ * up only when the earliest deadline passes.
+ */
+final class NioSelectorThread extends Thread {
+
+	private final Selector selector;
+	private final Queue<NioHttpExchange> pending = new ConcurrentLinkedQueue<>();
+	private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+	private final ByteBuffer readBuffer = ByteBuffer.allocate(16 * 1024);
+	private volatile boolean running = true;
+
+	NioSelectorThread(final String name) throws IOException {
+		super(name);
+		setDaemon(true);
+		this.selector = Selector.open();
+	}
+
+	/**
+	 * Submits the exchange.
+	 */
+	void submit(final NioHttpExchange exchange) {
+		if (!running) {
+			exchange.fail(new IOException("Selector is shut down"));
+			return;
+		}
+		pending.add(exchange);
+
+		if (!running && pending.remove(exchange)) {
+			exchange.fail(new IOException("Selector is shut down"));
+			return;
+		}
+		selector.wakeup();
+	}
+
+	/**
+	 * Stops the thread and fails all exchanges in progress.
+	 */
+	void shutdown() {
+		running = false;
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (running) {
+				selector.select(selectTimeout());
+
+				registerPending();
+
+				final Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+
+				while (iterator.hasNext()) {
+					final SelectionKey key = iterator.next();
+					iterator.remove();
+
+					final NioHttpExchange exchange = (NioHttpExchange) key.attachment();
+
+					if (!key.isValid() || exchange.isDone()) {
+						exchange.close();
+						continue;
+					}
+
+					try {
+						exchange.process(readBuffer);
+						schedule(exchange);
+					}
+					catch (Exception ex) {
+						exchange.fail(ex);
+					}
+				}
+
+				checkTimeouts();
+			}
+		}
+		catch (IOException | ClosedSelectorException ignore) {
+		}
+		finally {
+			closeAll();
+		}
+	}
+
+	private void registerPending() {
+		NioHttpExchange exchange;
+
+		while ((exchange = pending.poll()) != null) {
+			try {
+				exchange.start(selector, readBuffer);
+				schedule(exchange);
+			}
+			catch (Exception ex) {
+				exchange.fail(ex);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- deadlines
+
+	/**
+	 * Deadline of the exchange. Exchange deadline is moved on every
+	 * read, so entries are re-checked when they expire.
+	 */
+	private static final class Deadline implements Comparable<Deadline> {
+		private final long time;
+		private final NioHttpExchange exchange;
+
+		private Deadline(final long time, final NioHttpExchange exchange) {
+			this.time = time;
+			this.exchange = exchange;
+		}
+
+		@Override
+		public int compareTo(final Deadline other) {
+			return Long.signum(time - other.time);
+		}
+	}
+
+	/**
+	 * Schedules the exchange deadline, unless it is already
+	 * scheduled for the same or earlier time.
+	 */
+	private void schedule(final NioHttpExchange exchange) {
+		if (exchange.isDone()) {
+			return;
+		}
+		final long deadline = exchange.deadline();
+
+		if (deadline == Long.MAX_VALUE) {
+			return;
+		}
+		if (exchange.scheduledDeadline != Long.MAX_VALUE && exchange.scheduledDeadline - deadline <= 0) {
+			return;
+		}
+		exchange.scheduledDeadline = deadline;
+		deadlines.add(new Deadline(deadline, exchange));
+	}
+
+	/**
+	 * Returns select timeout in milliseconds, until the earliest deadline.
+	 */
+	private long selectTimeout() {
+		final Deadline first = deadlines.peek();
+
+		if (first == null) {
+			return 0;
+		}
+		final long millis = TimeUnit.NANOSECONDS.toMillis(first.time - System.nanoTime());
+
+		return Math.max(1, millis + 1);
+	}
+
+	/**
+	 * Fails exchanges with expired deadlines. Exchanges that are still
+	 * active are rescheduled to their new deadline.
+	 */
+	private void checkTimeouts() {
+		final long now = System.nanoTime();
+
+		Deadline first;
+
+		while ((first = deadlines.peek()) != null && now - first.time >= 0) {
+			deadlines.poll();
+
+			final NioHttpExchange exchange = first.exchange;
+
+			if (exchange.scheduledDeadline != first.time) {
+				// replaced by the earlier deadline
+				continue;
+			}
+			exchange.scheduledDeadline = Long.MAX_VALUE;
+
+			if (exchange.isDone()) {
+				exchange.close();
+				continue;
+			}
+			if (!exchange.checkTimeout(now)) {
+				schedule(exchange);
+			}
+		}
+	}
+
+	private void closeAll() {
+		NioHttpExchange exchange;
+		while ((exchange = pending.poll()) != null) {
+			exchange.fail(new IOException("Selector is shut down"));
+		}
+
+		deadlines.clear();
+
+		try {
+			for (final SelectionKey key : selector.keys()) {
+				((NioHttpExchange) key.attachment()).fail(new IOException("Selector is shut down"));
+			}
+			selector.close();
+		}
+		catch (IOException | ClosedSelectorException ignore) {
+		}
+	}
+}
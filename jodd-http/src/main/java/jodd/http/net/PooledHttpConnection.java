@@ -0,0 +1,120 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpConnection;
+import jodd.http.HttpException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketException;
+
+/**
+ * Connection leased from the {@link PooledHttpConnectionProvider}.
+ * When the response is completely read from the persistent connection,
+ * connection is {@link #release() released} back to the pool.
+ * {@link #close() Closing} the connection closes the underlying
+ * connection and removes it from the pool.
+ */
+public class PooledHttpConnection implements HttpConnection {
+
+	private final PooledHttpConnectionProvider pool;
+	private final HttpConnection connection;
+	final Object route;
+	long lastUsed;
+	boolean idle;
+	boolean closed;
+
+	PooledHttpConnection(PooledHttpConnectionProvider pool, Object route, HttpConnection connection) {
+		this.pool = pool;
+		this.route = route;
+		this.connection = connection;
+	}
+
+	/**
+	 * Returns the underlying connection.
+	 */
+	public HttpConnection getConnection() {
+		return connection;
+	}
+
+	@Override
+	public void init() throws IOException {
+		connection.init();
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		return connection.getOutputStream();
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return connection.getInputStream();
+	}
+
+	/**
+	 * Closes the underlying connection and removes it from the pool.
+	 */
+	@Override
+	public void close() {
+		pool.discard(this);
+	}
+
+	/**
+	 * Returns the connection to the pool, so it can be reused.
+	 */
+	public void release() {
+		pool.release(this);
+	}
+
+	/**
+	 * Sets the timeout of the connection. Since connection is reused,
+	 * timeout is applied on the existing socket, too; negative value
+	 * resets the socket to the infinite timeout.
+	 */
+	@Override
+	public void setTimeout(int milliseconds) {
+		connection.setTimeout(milliseconds);
+
+		if (connection instanceof SocketHttpConnection) {
+			try {
+				((SocketHttpConnection) connection).getSocket().setSoTimeout(Math.max(milliseconds, 0));
+			}
+			catch (SocketException sex) {
+				throw new HttpException(sex);
+			}
+		}
+	}
+
+	/**
+	 * Closes the underlying connection.
+	 */
+	void closeConnection() {
+		connection.close();
+	}
+}
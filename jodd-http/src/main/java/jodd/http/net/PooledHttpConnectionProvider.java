@@ -0,0 +1,531 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpConnection;
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.ProxyInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe connection provider that pools persistent connections per route,
+ * i.e. per protocol, host, port, proxy and SSL settings. Pooling is transparent
+ * to the {@link HttpRequest#send()}: connection is leased from the pool when
+ * request is sent and released back when the response of the persistent connection
+ * is completely read. Just set this provider on the request (or globally in
+ * {@link jodd.http.JoddHttp}) and share it between threads.
+ * <p>
+ * Number of connections is limited per route and in total. When the limit
+ * is reached, request waits for the free connection, up to the lease timeout.
+ * Idle connections are closed after the max idle time. Connections that were
+ * idle for some time are checked if they are closed by the server, before they
+ * are reused.
+ */
+public class PooledHttpConnectionProvider extends SocketHttpConnectionProvider {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final Map<Route, RoutePool> routes = new HashMap<>();
+	private int totalCount;
+	private int idleCount;
+	private boolean shutdown;
+
+	protected int maxPerRoute = 20;
+	protected int maxTotal = 200;
+	protected long leaseTimeout = 30000;
+	protected long maxIdleTime = 60000;
+	protected long staleCheckTime = 2000;
+
+	/**
+	 * Sets max number of connections per route. Default: 20.
+	 */
+	public PooledHttpConnectionProvider maxPerRoute(final int maxPerRoute) {
+		this.maxPerRoute = maxPerRoute;
+		return this;
+	}
+
+	/**
+	 * Sets max number of connections in total. Default: 200.
+	 */
+	public PooledHttpConnectionProvider maxTotal(final int maxTotal) {
+		this.maxTotal = maxTotal;
+		return this;
+	}
+
+	/**
+	 * Sets how long (in milliseconds) request waits for the free connection
+	 * when the limit is reached. Negative value means waiting forever.
+	 * Default: 30 seconds.
+	 */
+	public PooledHttpConnectionProvider leaseTimeout(final long leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets max time (in milliseconds) connection may stay idle in the pool
+	 * before it is closed. Default: 60 seconds.
+	 */
+	public PooledHttpConnectionProvider maxIdleTime(final long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+		return this;
+	}
+
+	/**
+	 * Sets the idle time (in milliseconds) after which connection is checked
+	 * if it is still alive, before it is reused. Zero checks the connection
+	 * every time, negative value disables the check. Default: 2 seconds.
+	 */
+	public PooledHttpConnectionProvider staleCheckTime(final long staleCheckTime) {
+		this.staleCheckTime = staleCheckTime;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- lease
+
+	/**
+	 * Leases a connection from the pool. Idle connection of the same route is reused,
+	 * otherwise new connection is created, if limits allow. Since pooled connections
+	 * are persistent, request is switched to the keep-alive mode.
+	 */
+	@Override
+	public HttpConnection createHttpConnection(final HttpRequest httpRequest) throws IOException {
+		httpRequest.connectionKeepAlive(true);
+
+		final Route route = new Route(httpRequest, proxy);
+
+		final long deadline = leaseTimeout < 0 ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeout);
+
+		while (true) {
+			final PooledHttpConnection pooledConnection = acquire(route, deadline);
+
+			if (pooledConnection == null) {
+				// free slot was reserved, create new connection
+				final HttpConnection httpConnection;
+				try {
+					httpConnection = super.createHttpConnection(httpRequest);
+				}
+				catch (IOException | RuntimeException | Error ex) {
+					free(route);
+					throw ex;
+				}
+				return new PooledHttpConnection(this, route, httpConnection);
+			}
+
+			if (isStale(pooledConnection)) {
+				pooledConnection.close();
+				continue;
+			}
+
+			pooledConnection.setTimeout(httpRequest.timeout());
+
+			return pooledConnection;
+		}
+	}
+
+	/**
+	 * Returns idle connection of given route, or <code>null</code> when a slot
+	 * for the new connection is reserved. Waits when there are no free slots.
+	 */
+	private PooledHttpConnection acquire(final Route route, final long deadline) {
+		lock.lock();
+		try {
+			while (true) {
+				if (shutdown) {
+					throw new HttpException("Connection pool is shut down");
+				}
+
+				final long now = System.currentTimeMillis();
+
+				RoutePool routePool = routes.computeIfAbsent(route, r -> new RoutePool());
+
+				PooledHttpConnection pooledConnection;
+
+				while ((pooledConnection = routePool.idle.pollFirst()) != null) {
+					idleCount--;
+					pooledConnection.idle = false;
+
+					if (isExpired(pooledConnection, now)) {
+						remove(pooledConnection);
+						continue;
+					}
+					return pooledConnection;
+				}
+
+				// route pool is removed when its last connection is removed
+				routePool = routes.computeIfAbsent(route, r -> new RoutePool());
+
+				if (routePool.count < maxPerRoute) {
+					if (totalCount >= maxTotal && idleCount > 0) {
+						// make room by closing the least recently used idle connection of other route
+						removeOldestIdle();
+					}
+					if (totalCount < maxTotal) {
+						routePool.count++;
+						totalCount++;
+						return null;
+					}
+				}
+
+				final long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0) {
+					throw new HttpException("Timeout waiting for connection: " + route);
+				}
+
+				try {
+					released.awaitNanos(remaining);
+				}
+				catch (InterruptedException iex) {
+					Thread.currentThread().interrupt();
+					throw new HttpException(iex);
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Frees the slot of the connection that failed to be created.
+	 */
+	private void free(final Route route) {
+		lock.lock();
+		try {
+			routes.get(route).count--;
+			totalCount--;
+			released.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	// ---------------------------------------------------------------- release
+
+	/**
+	 * Returns connection to the pool.
+	 */
+	void release(final PooledHttpConnection pooledConnection) {
+		lock.lock();
+		try {
+			if (pooledConnection.closed || pooledConnection.idle) {
+				return;
+			}
+			if (shutdown) {
+				remove(pooledConnection);
+				return;
+			}
+
+			final long now = System.currentTimeMillis();
+
+			pooledConnection.lastUsed = now;
+			pooledConnection.idle = true;
+
+			routes.get(pooledConnection.route).idle.addFirst(pooledConnection);
+			idleCount++;
+
+			released.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the connection and removes it from the pool.
+	 */
+	void discard(final PooledHttpConnection pooledConnection) {
+		lock.lock();
+		try {
+			if (pooledConnection.closed) {
+				return;
+			}
+			if (pooledConnection.idle) {
+				routes.get(pooledConnection.route).idle.remove(pooledConnection);
+				idleCount--;
+			}
+			remove(pooledConnection);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes idle connection, that is not in the idle queue anymore,
+	 * and frees its slot. Must be called under the lock.
+	 */
+	private void remove(final PooledHttpConnection pooledConnection) {
+		pooledConnection.closed = true;
+		pooledConnection.idle = false;
+
+		final RoutePool routePool = routes.get(pooledConnection.route);
+
+		routePool.count--;
+		totalCount--;
+
+		if (routePool.count == 0) {
+			routes.remove(pooledConnection.route);
+		}
+
+		pooledConnection.closeConnection();
+
+		released.signalAll();
+	}
+
+	/**
+	 * Removes least recently used idle connection. Must be called under the lock.
+	 */
+	private void removeOldestIdle() {
+		PooledHttpConnection oldest = null;
+
+		for (final RoutePool routePool : routes.values()) {
+			final PooledHttpConnection last = routePool.idle.peekLast();
+			if (last != null && (oldest == null || last.lastUsed < oldest.lastUsed)) {
+				oldest = last;
+			}
+		}
+
+		if (oldest != null) {
+			routes.get(oldest.route).idle.removeLast();
+			idleCount--;
+			remove(oldest);
+		}
+	}
+
+	// ---------------------------------------------------------------- eviction
+
+	/**
+	 * Closes all connections that are idle longer than the max idle time.
+	 * Expired connections are evicted lazily on lease; this method may be
+	 * called periodically to close them sooner.
+	 */
+	public void closeExpiredConnections() {
+		lock.lock();
+		try {
+			final long now = System.currentTimeMillis();
+
+			for (final PooledHttpConnection pooledConnection : idleConnections()) {
+				if (isExpired(pooledConnection, now)) {
+					discard(pooledConnection);
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes all idle connections and rejects further leases.
+	 * Leased connections are closed when released.
+	 */
+	public void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+
+			for (final PooledHttpConnection pooledConnection : idleConnections()) {
+				discard(pooledConnection);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private List<PooledHttpConnection> idleConnections() {
+		final List<PooledHttpConnection> list = new ArrayList<>(idleCount);
+		for (final RoutePool routePool : routes.values()) {
+			list.addAll(routePool.idle);
+		}
+		return list;
+	}
+
+	private boolean isExpired(final PooledHttpConnection pooledConnection, final long now) {
+		return maxIdleTime >= 0 && now - pooledConnection.lastUsed > maxIdleTime;
+	}
+
+	/**
+	 * Returns <code>true</code> if connection was idle long enough to be checked
+	 * and it is closed by the server. Connection is stale when the quick read
+	 * returns anything, as there should be no data on the idle connection.
+	 */
+	protected boolean isStale(final PooledHttpConnection pooledConnection) {
+		if (staleCheckTime < 0 || System.currentTimeMillis() - pooledConnection.lastUsed < staleCheckTime) {
+			return false;
+		}
+
+		final HttpConnection httpConnection = pooledConnection.getConnection();
+
+		if (!(httpConnection instanceof SocketHttpConnection)) {
+			return false;
+		}
+
+		final Socket socket = ((SocketHttpConnection) httpConnection).getSocket();
+
+		if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+			return true;
+		}
+
+		try {
+			final int soTimeout = socket.getSoTimeout();
+			socket.setSoTimeout(1);
+			try {
+				final InputStream inputStream = socket.getInputStream();
+
+				inputStream.read();
+
+				return true;
+			}
+			catch (SocketTimeoutException ignore) {
+				return false;
+			}
+			finally {
+				socket.setSoTimeout(soTimeout);
+			}
+		}
+		catch (IOException ioex) {
+			return true;
+		}
+	}
+
+	// ---------------------------------------------------------------- stats
+
+	/**
+	 * Returns total number of connections, both leased and idle.
+	 */
+	public int getTotalConnections() {
+		lock.lock();
+		try {
+			return totalCount;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns number of idle connections in the pool.
+	 */
+	public int getIdleConnections() {
+		lock.lock();
+		try {
+			return idleCount;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns number of leased connections.
+	 */
+	public int getLeasedConnections() {
+		lock.lock();
+		try {
+			return totalCount - idleCount;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	// ---------------------------------------------------------------- route
+
+	/**
+	 * Pool of a single route: idle connections, most recently used first,
+	 * and the count of all connections of the route.
+	 */
+	private static class RoutePool {
+		final ArrayDeque<PooledHttpConnection> idle = new ArrayDeque<>();
+		int count;
+	}
+
+	/**
+	 * Connection route.
+	 */
+	private static class Route {
+		private final String protocol;
+		private final String host;
+		private final int port;
+		private final boolean trustAll;
+		private final boolean verifyHost;
+		private final ProxyInfo proxy;
+
+		Route(final HttpRequest httpRequest, final ProxyInfo proxy) {
+			this.protocol = httpRequest.protocol().toLowerCase();
+			this.host = httpRequest.host().toLowerCase();
+			this.port = httpRequest.port();
+			this.trustAll = httpRequest.trustAllCertificates();
+			this.verifyHost = httpRequest.verifyHttpsHost();
+			this.proxy = proxy;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Route)) {
+				return false;
+			}
+			final Route route = (Route) o;
+			return port == route.port &&
+				trustAll == route.trustAll &&
+				verifyHost == route.verifyHost &&
+				protocol.equals(route.protocol) &&
+				host.equals(route.host) &&
+				proxy == route.proxy;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(protocol, host, port, trustAll, verifyHost, System.identityHashCode(proxy));
+		}
+
+		@Override
+		public String toString() {
+			return protocol + "://" + host + ':' + port;
+		}
+	}
+}
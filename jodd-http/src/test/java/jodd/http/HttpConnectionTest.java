@@ -32,11 +32,14 @@ import jodd.util.StringUtil;
 import jodd.util.net.MimeTypes;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpConnectionTest {
 
@@ -59,6 +62,24 @@ class HttpConnectionTest {
 		echoTestServer.stop();
 	}
 
+	@Test
+	void testEchoStreamed() throws IOException {
+		EchoTestServer echoTestServer = new EchoTestServer();
+
+		HttpResponse response = HttpRequest.get("http://localhost:8081/hello").streamResponseBody(true).send();
+
+		assertEquals(200, response.statusCode());
+		assertTrue(response.isBodyStreamed());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(10, response.transferTo(out));
+		assertEquals("GET /hello", out.toString(StringPool.ISO_8859_1));
+		assertNull(response.getHttpRequest().connection());
+
+		echoTestServer.stop();
+	}
+
 	@Test
 	void testUpload() throws IOException {
 		EchoTestServer echoTestServer = new EchoTestServer();
@@ -0,0 +1,186 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http;
+
+import jodd.util.StringPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpResponseStreamTest {
+
+	private static HttpResponse read(byte[]... parts) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (byte[] part : parts) {
+			out.write(part);
+		}
+		return HttpResponse.readFrom(new ByteArrayInputStream(out.toByteArray()), true);
+	}
+
+	private static byte[] bytes(String string) throws IOException {
+		return string.getBytes(StringPool.ISO_8859_1);
+	}
+
+	@Test
+	void testContentLength() throws IOException {
+		HttpResponse response = read(bytes(
+			"HTTP/1.1 200 OK\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"Content-Length: 5\r\n" +
+			"\r\n" +
+			"Hello and the rest that is not the body"));
+
+		assertEquals(200, response.statusCode());
+		assertEquals("OK", response.statusPhrase());
+		assertTrue(response.isBodyStreamed());
+
+		assertEquals("Hello", response.body());
+		assertFalse(response.isBodyStreamed());
+		assertEquals("Hello", response.bodyText());
+	}
+
+	@Test
+	void testChunkedWithTrailers() throws IOException {
+		HttpResponse response = read(bytes(
+			"HTTP/1.1 200 OK\r\n" +
+			"Transfer-Encoding: chunked\r\n" +
+			"\r\n" +
+			"4\r\nWiki\r\n" +
+			"5;ext=1\r\npedia\r\n" +
+			"E\r\n in\r\n\r\nchunks.\r\n" +
+			"0\r\n" +
+			"X-Trailer: yes\r\n" +
+			"\r\n"));
+
+		assertNull(response.header("X-Trailer"));
+
+		InputStream in = response.bodyStream();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		int b;
+		while ((b = in.read()) != -1) {
+			out.write(b);
+		}
+
+		assertEquals("Wikipedia in\r\n\r\nchunks.", out.toString(StringPool.ISO_8859_1));
+		assertEquals("yes", response.header("X-Trailer"));
+		assertEquals(-1, in.read(new byte[10], 0, 10));
+	}
+
+	@Test
+	void testGzip() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			sb.append("jodd ").append(i).append('\n');
+		}
+		byte[] content = bytes(sb.toString());
+
+		ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+		GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipped);
+		gzipOutputStream.write(content);
+		gzipOutputStream.close();
+
+		byte[] head = bytes(
+			"HTTP/1.1 200 OK\r\n" +
+			"Content-Encoding: gzip\r\n" +
+			"Content-Length: " + zipped.size() + "\r\n" +
+			"\r\n");
+
+		// transfer
+
+		HttpResponse response = read(head, zipped.toByteArray());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(content.length, response.transferTo(Channels.newChannel(out)));
+		assertArrayEquals(content, out.toByteArray());
+		assertNull(response.contentEncoding());
+
+		// buffered body
+
+		response = read(head, zipped.toByteArray());
+
+		assertEquals(sb.toString(), response.body());
+		assertEquals(String.valueOf(content.length), response.contentLength());
+		assertNull(response.contentEncoding());
+
+		// unzip after the body is read does nothing
+
+		assertEquals(sb.toString(), response.unzip().body());
+	}
+
+	@Test
+	void testNoBody() throws IOException {
+		HttpResponse response = read(bytes(
+			"HTTP/1.1 304 Not Modified\r\n" +
+			"Content-Length: 100\r\n" +
+			"\r\n"));
+
+		assertEquals(-1, response.bodyStream().read());
+		assertEquals("", response.body());
+	}
+
+	@Test
+	void testUntilClose() throws IOException {
+		HttpResponse response = read(bytes(
+			"HTTP/1.0 200 OK\r\n" +
+			"\r\n" +
+			"body\nuntil\nthe end"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.transferTo(out);
+
+		assertEquals("body\nuntil\nthe end", out.toString(StringPool.ISO_8859_1));
+
+		// body stream is closed, nothing to buffer
+		assertNull(response.body());
+	}
+
+	@Test
+	void testUnexpectedEnd() throws IOException {
+		HttpResponse response = read(bytes(
+			"HTTP/1.1 200 OK\r\n" +
+			"Content-Length: 10\r\n" +
+			"\r\n" +
+			"short"));
+
+		HttpException httpException = assertThrows(HttpException.class, response::body);
+		assertTrue(httpException.getCause() instanceof EOFException);
+	}
+}
@@ -26,6 +26,7 @@
 package jodd.http;
 
 import io.netty.handler.codec.http.HttpHeaders;
+import jodd.http.net.NioHttpConnectionProvider;
 import jodd.http.net.SocketHttpConnectionProvider;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,6 +118,44 @@ class ProxyTest {
 		proxy.verify(request().withPath("/get_books"), exactly(1));
 	}
 
+	@Test
+	void testNioDirectHttps() throws Exception {
+		NioHttpConnectionProvider nio = new NioHttpConnectionProvider();
+
+		try {
+			HttpResponse response = HttpRequest.get("https://localhost:1080/get_books")
+				.withConnectionProvider(nio)
+				.trustAllCerts(true)
+				.sendAsync()
+				.get();
+			assertEquals(200, response.statusCode());
+			assertTrue(response.body().contains("Tatum"));
+			proxy.verify(request().withPath("/get_books"), exactly(0));
+		}
+		finally {
+			nio.shutdown();
+		}
+	}
+
+	@Test
+	void testNioSocks5Proxy() throws Exception {
+		NioHttpConnectionProvider nio = new NioHttpConnectionProvider();
+		nio.useProxy(ProxyInfo.socks5Proxy("localhost", 1090, null, null));
+
+		try {
+			HttpResponse response = HttpRequest.get("http://localhost:1080/get_books")
+				.withConnectionProvider(nio)
+				.sendAsync()
+				.get();
+			assertEquals(200, response.statusCode());
+			assertTrue(response.body().contains("Tatum"));
+			proxy.verify(request().withPath("/get_books"), exactly(1));
+		}
+		finally {
+			nio.shutdown();
+		}
+	}
+
 	private void setupMockServer() {
 		mockServer
 			.when(
@@ -0,0 +1,247 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.HttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NioHttpConnectionProviderTest {
+
+	private ServerSocket serverSocket;
+	private NioHttpConnectionProvider provider;
+
+	/**
+	 * Starts simple server that responds differently, depending on the path.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		provider = new NioHttpConnectionProvider(2);
+		serverSocket = new ServerSocket(0, 1000);
+
+		Thread thread = new Thread(() -> {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					new Thread(() -> serve(socket)).start();
+				}
+				catch (IOException ignore) {
+				}
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void serve(Socket socket) {
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+			OutputStream out = socket.getOutputStream();
+
+			String requestLine = reader.readLine();
+			String line = requestLine;
+			int contentLength = 0;
+			while (!line.isEmpty()) {
+				line = reader.readLine();
+				if (line.toLowerCase().startsWith("content-length:")) {
+					contentLength = Integer.parseInt(line.substring(15).trim());
+				}
+			}
+			char[] body = new char[contentLength];
+			int read = 0;
+			while (read < contentLength) {
+				read += reader.read(body, read, contentLength - read);
+			}
+
+			String path = requestLine.split(" ")[1];
+			String response;
+
+			switch (path) {
+				case "/chunked":
+					response = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n" +
+						"5\r\nHello\r\n7;ext=1\r\n, chunk\r\n0\r\nX-Trailer: yes\r\n\r\n";
+					break;
+				case "/eof":
+					response = "HTTP/1.0 200 OK\r\n\r\nuntil the end";
+					break;
+				case "/continue":
+					response = "HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 201 Created\r\nContent-Length: 2\r\n\r\nok";
+					break;
+				case "/redirect":
+					response = "HTTP/1.1 302 Found\r\nLocation: http://localhost:" + serverSocket.getLocalPort() + "/target\r\nContent-Length: 0\r\n\r\n";
+					break;
+				case "/slow":
+					Thread.sleep(1000);
+				default:
+					String text = requestLine.split(" ")[0] + " " + path + " " + new String(body);
+					response = "HTTP/1.1 200 OK\r\nContent-Length: " + text.length() + "\r\n\r\n" + text;
+			}
+
+			for (char c : response.toCharArray()) {
+				out.write(c);
+				if (c == '\n') {
+					// split the response into many packets
+					out.flush();
+				}
+			}
+			out.flush();
+
+			socket.close();
+		}
+		catch (IOException | InterruptedException ignore) {
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		provider.shutdown();
+		serverSocket.close();
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + serverSocket.getLocalPort() + path;
+	}
+
+	@Test
+	void testSendAsync() throws Exception {
+		HttpResponse response = HttpRequest.post(url("/hello"))
+			.body("jodd")
+			.withConnectionProvider(provider)
+			.sendAsync()
+			.get();
+
+		assertEquals(200, response.statusCode());
+		assertEquals("POST /hello jodd", response.bodyText());
+		assertEquals("/hello", response.getHttpRequest().path());
+	}
+
+	@Test
+	void testFraming() throws Exception {
+		HttpResponse response = HttpRequest.get(url("/chunked")).withConnectionProvider(provider).sendAsync().get();
+		assertEquals("Hello, chunk", response.bodyText());
+
+		response = HttpRequest.get(url("/eof")).withConnectionProvider(provider).sendAsync().get();
+		assertEquals("until the end", response.bodyText());
+
+		response = HttpRequest.get(url("/continue")).withConnectionProvider(provider).sendAsync().get();
+		assertEquals(201, response.statusCode());
+		assertEquals("ok", response.bodyText());
+
+		response = HttpRequest.head(url("/hello")).withConnectionProvider(provider).sendAsync().get();
+		assertEquals(200, response.statusCode());
+
+		response = HttpRequest.get(url("/redirect")).followRedirects(true).withConnectionProvider(provider).sendAsync().get();
+		assertEquals("GET /target ", response.bodyText());
+	}
+
+	@Test
+	void testManyRequests() {
+		List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 200; i++) {
+			futures.add(HttpRequest.get(url("/r" + i)).withConnectionProvider(provider).sendAsync());
+		}
+
+		for (int i = 0; i < 200; i++) {
+			assertEquals("GET /r" + i + " ", futures.get(i).join().bodyText());
+		}
+	}
+
+	@Test
+	void testConnectedChannel() throws Exception {
+		SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", serverSocket.getLocalPort()));
+		channel.configureBlocking(false);
+
+		CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+		byte[] request = "GET /connected HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+		NioSelectorThread selectorThread = new NioSelectorThread("test");
+		selectorThread.start();
+		selectorThread.submit(new NioHttpExchange(channel, future, request, null, false, 0, 1000));
+
+		assertEquals("GET /connected ", future.get().bodyText());
+
+		selectorThread.shutdown();
+	}
+
+	@Test
+	void testRestartAfterShutdown() throws Exception {
+		assertEquals("GET /one ", HttpRequest.get(url("/one")).withConnectionProvider(provider).sendAsync().get().bodyText());
+
+		provider.shutdown();
+
+		assertEquals("GET /two ", HttpRequest.get(url("/two")).withConnectionProvider(provider).sendAsync().get().bodyText());
+	}
+
+	@Test
+	void testBlockingFallbackKeepsStreamingFlag() throws Exception {
+		HttpRequest httpRequest = HttpRequest.get(url("/blocking")).streamResponseBody(true);
+
+		HttpResponse response = httpRequest.sendAsync().get();
+
+		assertFalse(response.isBodyStreamed());
+		assertEquals("GET /blocking ", response.bodyText());
+		assertTrue(httpRequest.isStreamResponseBody());
+	}
+
+	@Test
+	void testErrors() throws IOException {
+		ExecutionException executionException = assertThrows(ExecutionException.class,
+			() -> HttpRequest.get(url("/slow")).timeout(100).withConnectionProvider(provider).sendAsync().get());
+		assertTrue(executionException.getCause() instanceof HttpException);
+
+		int port;
+		try (ServerSocket closed = new ServerSocket(0)) {
+			port = closed.getLocalPort();
+		}
+
+		executionException = assertThrows(ExecutionException.class,
+			() -> HttpRequest.get("http://localhost:" + port + "/").withConnectionProvider(provider).sendAsync().get());
+		assertTrue(executionException.getCause() instanceof HttpException);
+	}
+}
@@ -0,0 +1,228 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.http.net;
+
+import jodd.http.HttpException;
+import jodd.http.HttpRequest;
+import jodd.http.HttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledHttpConnectionProviderTest {
+
+	private ServerSocket serverSocket;
+	private final AtomicInteger connectionCount = new AtomicInteger();
+	private volatile boolean closeAfterResponse;
+	private volatile boolean noContent;
+
+	/**
+	 * Starts simple keep-alive server, that responds with the
+	 * connection number and the request number on that connection.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		serverSocket = new ServerSocket(0);
+
+		Thread thread = new Thread(() -> {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					int connectionNo = connectionCount.incrementAndGet();
+					new Thread(() -> serve(socket, connectionNo)).start();
+				}
+				catch (IOException ignore) {
+				}
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void serve(Socket socket, int connectionNo) {
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+			OutputStream out = socket.getOutputStream();
+
+			int requestNo = 0;
+
+			while (true) {
+				String line = reader.readLine();
+				if (line == null) {
+					break;
+				}
+				while (!line.isEmpty()) {
+					line = reader.readLine();
+				}
+				requestNo++;
+
+				String body = connectionNo + ":" + requestNo;
+				boolean close = closeAfterResponse;
+
+				if (noContent) {
+					out.write("HTTP/1.1 204 No Content\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+				} else {
+					out.write(("HTTP/1.1 200 OK\r\nContent-Length: " + body.length() + "\r\n\r\n" + body).getBytes(StandardCharsets.ISO_8859_1));
+				}
+				out.flush();
+
+				if (close) {
+					break;
+				}
+			}
+			socket.close();
+		}
+		catch (IOException ignore) {
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		serverSocket.close();
+	}
+
+	private String url() {
+		return "http://localhost:" + serverSocket.getLocalPort() + "/";
+	}
+
+	@Test
+	void testConnectionReuse() {
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider();
+
+		for (int i = 1; i <= 5; i++) {
+			HttpResponse response = HttpRequest.get(url()).withConnectionProvider(pool).send();
+
+			assertEquals("1:" + i, response.bodyText());
+			assertEquals(1, pool.getTotalConnections());
+			assertEquals(1, pool.getIdleConnections());
+		}
+
+		assertEquals(1, connectionCount.get());
+
+		pool.shutdown();
+
+		assertEquals(0, pool.getTotalConnections());
+		assertThrows(HttpException.class, () -> HttpRequest.get(url()).withConnectionProvider(pool).send());
+	}
+
+	@Test
+	void testStreamedBodyReleasesConnection() {
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider();
+
+		HttpResponse response = HttpRequest.get(url()).withConnectionProvider(pool).streamResponseBody(true).send();
+
+		assertEquals(1, pool.getLeasedConnections());
+		assertEquals("1:1", response.bodyText());
+		assertEquals(0, pool.getLeasedConnections());
+		assertEquals(1, pool.getIdleConnections());
+
+		response = HttpRequest.get(url()).withConnectionProvider(pool).send();
+		assertEquals("1:2", response.bodyText());
+
+		pool.shutdown();
+	}
+
+	@Test
+	void testStreamedEmptyBodyReleasesConnection() {
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider().maxPerRoute(2).leaseTimeout(50);
+
+		noContent = true;
+
+		for (int i = 0; i < 5; i++) {
+			HttpResponse response = HttpRequest.get(url()).withConnectionProvider(pool).streamResponseBody(true).send();
+
+			assertEquals(204, response.statusCode());
+			assertEquals(0, pool.getLeasedConnections());
+		}
+
+		HttpResponse response = HttpRequest.head(url()).withConnectionProvider(pool).streamResponseBody(true).send();
+		assertEquals(0, pool.getLeasedConnections());
+		assertEquals("", response.body());
+
+		noContent = false;
+
+		assertEquals("1:7", HttpRequest.get(url()).withConnectionProvider(pool).send().bodyText());
+		assertEquals(1, connectionCount.get());
+
+		pool.shutdown();
+	}
+
+	@Test
+	void testLeaseTimeout() {
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider().maxPerRoute(1).leaseTimeout(50);
+
+		HttpResponse response = HttpRequest.get(url()).withConnectionProvider(pool).streamResponseBody(true).send();
+
+		HttpException httpException = assertThrows(HttpException.class,
+			() -> HttpRequest.get(url()).withConnectionProvider(pool).send());
+		assertTrue(httpException.getMessage().contains("Timeout waiting for connection"));
+
+		response.close();
+
+		assertEquals(0, pool.getTotalConnections());
+		assertEquals("2:1", HttpRequest.get(url()).withConnectionProvider(pool).send().bodyText());
+
+		pool.shutdown();
+	}
+
+	@Test
+	void testStaleAndExpiredConnections() throws InterruptedException {
+		PooledHttpConnectionProvider pool = new PooledHttpConnectionProvider().staleCheckTime(0);
+
+		closeAfterResponse = true;
+		assertEquals("1:1", HttpRequest.get(url()).withConnectionProvider(pool).send().bodyText());
+		closeAfterResponse = false;
+
+		Thread.sleep(100);
+
+		// closed by the server, so new connection is created
+		assertEquals("2:1", HttpRequest.get(url()).withConnectionProvider(pool).send().bodyText());
+		assertEquals(1, pool.getTotalConnections());
+
+		pool.maxIdleTime(10);
+		Thread.sleep(50);
+		pool.closeExpiredConnections();
+
+		assertEquals(0, pool.getTotalConnections());
+		assertFalse(pool.getIdleConnections() > 0);
+
+		pool.shutdown();
+	}
+}
@@ -25,9 +25,15 @@
 
 package jodd.joy;
 
+import jodd.db.oom.meta.DbTable;
+import jodd.io.findfile.ClassScanIndex;
 import jodd.io.findfile.ClassScanner;
+import jodd.madvoc.meta.MadvocComponent;
+import jodd.petite.meta.PetiteBean;
 import jodd.typeconverter.Converter;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -57,6 +63,24 @@ public class JoyScanner extends JoyBase implements Consumer<ClassScanner> {
 	 */
 	private boolean ignoreExceptions;
 
+	/**
+	 * Should scanning be parallel.
+	 */
+	private boolean parallel;
+
+	/**
+	 * Index shared by all scanners, so classes in jars are read only once.
+	 */
+	private final ClassScanIndex index = new ClassScanIndex()
+		.addSignature(PetiteBean.class)
+		.addSignature(DbTable.class)
+		.addSignature(MadvocComponent.class);
+
+	/**
+	 * Index file, may be <code>null</code>.
+	 */
+	private File indexFile;
+
 	public JoyScanner setIncludedEntries(String... includedEntries) {
 		Collections.addAll(this.includedEntries, includedEntries);
 		return this;
@@ -72,6 +96,23 @@ public class JoyScanner extends JoyBase implements Consumer<ClassScanner> {
 		return this;
 	}
 
+	/**
+	 * Enables parallel scanning of jars and folders.
+	 */
+	public JoyScanner setParallel(boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+
+	/**
+	 * Sets the file of persisted {@link ClassScanIndex scan index}. Index is loaded
+	 * on start and saved on stop, so unchanged jars are not read again on restart.
+	 */
+	public JoyScanner setIndexFile(File indexFile) {
+		this.indexFile = indexFile;
+		return this;
+	}
+
 
 	// ---------------------------------------------------------------- start
 
@@ -85,6 +126,17 @@ public class JoyScanner extends JoyBase implements Consumer<ClassScanner> {
 			log.debug("Scan entries: " + Converter.get().toString(includedEntries));
 			log.debug("Scan jars: " + Converter.get().toString(includedJars));
 			log.debug("Scan ignore exception: " + ignoreExceptions);
+			log.debug("Scan parallel: " + parallel);
+		}
+
+		if (indexFile != null && indexFile.isFile()) {
+			try {
+				index.load(indexFile);
+			}
+			catch (Exception ex) {
+				log.warn("Scan index not loaded: " + indexFile.getAbsolutePath(), ex);
+				index.clear();
+			}
 		}
 	}
 
@@ -107,11 +159,22 @@ public class JoyScanner extends JoyBase implements Consumer<ClassScanner> {
 		classScanner
 			.includeEntries(includedEntries.toArray(new String[includedEntries.size()]))
 			.includeJars(includedJars.toArray(new String[includedJars.size()]))
-			.ignoreException(ignoreExceptions);
+			.ignoreException(ignoreExceptions)
+			.parallel(parallel)
+			.index(index);
 	}
 
 	@Override
 	public void stop() {
+		if (indexFile != null && index.isModified()) {
+			try {
+				index.save(indexFile);
+			}
+			catch (IOException ioex) {
+				log.warn("Scan index not saved: " + indexFile.getAbsolutePath(), ioex);
+			}
+		}
+
 		includedEntries.clear();
 		includedJars.clear();
 	}
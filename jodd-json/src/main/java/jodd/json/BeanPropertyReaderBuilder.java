@@ -0,0 +1,233 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.asm.AsmUtil;
+import jodd.asm6.ClassWriter;
+import jodd.asm6.Label;
+import jodd.asm6.MethodVisitor;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.MethodDescriptor;
+import jodd.util.ClassLoaderUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jodd.asm6.Opcodes.ACC_PUBLIC;
+import static jodd.asm6.Opcodes.ACC_SUPER;
+import static jodd.asm6.Opcodes.ACONST_NULL;
+import static jodd.asm6.Opcodes.ALOAD;
+import static jodd.asm6.Opcodes.ARETURN;
+import static jodd.asm6.Opcodes.CHECKCAST;
+import static jodd.asm6.Opcodes.GETFIELD;
+import static jodd.asm6.Opcodes.ILOAD;
+import static jodd.asm6.Opcodes.INVOKESPECIAL;
+import static jodd.asm6.Opcodes.INVOKEVIRTUAL;
+import static jodd.asm6.Opcodes.POP;
+import static jodd.asm6.Opcodes.RETURN;
+import static jodd.asm6.Opcodes.V1_8;
+
+/**
+ * Builds {@link BeanPropertyReader property readers}. Reader class is
+ * generated in the package and the classloader of the bean, with a
+ * <code>tableswitch</code> over property indexes, where each case
+ * invokes the getter (or reads the public field) directly.
+ * When class can not be generated (e.g. bean is private, <code>jodd-proxetta</code>
+ * is not available or classloader refuses the definition), reflection is used.
+ */
+class BeanPropertyReaderBuilder {
+
+	private static final String READER_CLASS_NAME_SUFFIX = "$$JoddJson";
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	/**
+	 * Creates property reader for given getters of the bean type.
+	 */
+	static BeanPropertyReader create(Class type, Getter[] getters) {
+		if (isAccessible(type, getters)) {
+			try {
+				return generate(type, getters);
+			}
+			catch (Exception | LinkageError ignore) {
+				// fallback to reflection
+			}
+		}
+		return new ReflectionBeanPropertyReader(getters);
+	}
+
+	/**
+	 * Returns <code>true</code> if bean and all the getters
+	 * may be accessed from the generated class.
+	 */
+	private static boolean isAccessible(Class type, Getter[] getters) {
+		if (Modifier.isPrivate(type.getModifiers()) || type.getClassLoader() == null) {
+			return false;
+		}
+		for (Getter getter : getters) {
+			int modifiers;
+			if (getter instanceof MethodDescriptor) {
+				modifiers = ((MethodDescriptor) getter).getMethod().getModifiers();
+			}
+			else if (getter instanceof FieldDescriptor) {
+				modifiers = ((FieldDescriptor) getter).getField().getModifiers();
+			}
+			else {
+				return false;
+			}
+			if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static BeanPropertyReader generate(Class type, Getter[] getters) throws Exception {
+		String className = type.getName() + READER_CLASS_NAME_SUFFIX + counter.incrementAndGet();
+		String classSignature = AsmUtil.typeToSignature(className);
+		String beanSignature = AsmUtil.typeToSignature(type);
+		String superSignature = AsmUtil.typeToSignature(BeanPropertyReader.class);
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+		cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, classSignature, null, superSignature, null);
+
+		// constructor
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, superSignature, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// read(Object, int)
+
+		mv = cw.visitMethod(ACC_PUBLIC, "read", "(Ljava/lang/Object;I)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+
+		Label defaultLabel = new Label();
+		Label[] labels = new Label[getters.length];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = new Label();
+		}
+
+		mv.visitVarInsn(ILOAD, 2);
+		if (labels.length != 0) {
+			mv.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+		}
+		else {
+			mv.visitInsn(POP);
+		}
+
+		for (int i = 0; i < getters.length; i++) {
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, beanSignature);
+
+			Class returnType;
+
+			if (getters[i] instanceof MethodDescriptor) {
+				Method method = ((MethodDescriptor) getters[i]).getMethod();
+				returnType = method.getReturnType();
+				mv.visitMethodInsn(INVOKEVIRTUAL, beanSignature, method.getName(),
+					"()" + AsmUtil.typeToTyperef(returnType), false);
+			}
+			else {
+				Field field = ((FieldDescriptor) getters[i]).getField();
+				returnType = field.getType();
+				mv.visitFieldInsn(GETFIELD, beanSignature, field.getName(), AsmUtil.typeToTyperef(returnType));
+			}
+
+			box(mv, returnType);
+			mv.visitInsn(ARETURN);
+		}
+
+		mv.visitLabel(defaultLabel);
+		mv.visitInsn(ACONST_NULL);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		Class readerClass = ClassLoaderUtil.defineClass(className, cw.toByteArray(), type.getClassLoader());
+
+		return (BeanPropertyReader) readerClass.newInstance();
+	}
+
+	/**
+	 * Boxes primitive value on the stack.
+	 */
+	private static void box(MethodVisitor mv, Class type) {
+		if (!type.isPrimitive()) {
+			return;
+		}
+		if (type == int.class) {
+			AsmUtil.valueOfInteger(mv);
+		}
+		else if (type == long.class) {
+			AsmUtil.valueOfLong(mv);
+		}
+		else if (type == boolean.class) {
+			AsmUtil.valueOfBoolean(mv);
+		}
+		else if (type == double.class) {
+			AsmUtil.valueOfDouble(mv);
+		}
+		else if (type == float.class) {
+			AsmUtil.valueOfFloat(mv);
+		}
+		else if (type == byte.class) {
+			AsmUtil.valueOfByte(mv);
+		}
+		else if (type == short.class) {
+			AsmUtil.valueOfShort(mv);
+		}
+		else if (type == char.class) {
+			AsmUtil.valueOfCharacter(mv);
+		}
+	}
+
+	/**
+	 * Property reader that invokes getters using reflection.
+	 */
+	static class ReflectionBeanPropertyReader extends BeanPropertyReader {
+		private final Getter[] getters;
+
+		ReflectionBeanPropertyReader(Getter[] getters) {
+			this.getters = getters;
+		}
+
+		@Override
+		public Object read(Object bean, int index) throws Exception {
+			return getters[index].invokeGetter(bean);
+		}
+	}
+}
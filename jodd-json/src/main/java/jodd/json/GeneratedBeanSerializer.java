@@ -0,0 +1,358 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+import jodd.json.meta.JsonAnnotationManager;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Bean serializer that is prepared once per type and serializer configuration.
+ * All the rules that do not depend on the current path (strict mode, transient fields,
+ * ignored property types, annotations and name mappings) are resolved in advance,
+ * property names are encoded to JSON literals just once, and properties are read
+ * by generated {@link BeanPropertyReader}, without reflection. Path queries
+ * are still applied on each serialization, but only when they are defined.
+ * Produces the same output as {@link BeanSerializer}.
+ */
+public class GeneratedBeanSerializer {
+
+	/**
+	 * Max number of serializer configurations cached per type.
+	 */
+	public static final int MAX_CONFIGURATIONS = 16;
+
+	/**
+	 * Max number of cached types outside of the Jodd class loader hierarchy.
+	 */
+	public static final int FOREIGN_CACHE_SIZE = 1024;
+
+	private static final ClassLoader classLoader = GeneratedBeanSerializer.class.getClassLoader();
+	private static final Set<Class> attachedTypes = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private static final Cache<Class, TypeSerializers> foreignSerializers = new ConcurrentCache<>(FOREIGN_CACHE_SIZE);
+
+	/**
+	 * Serializers of types loaded by the Jodd class loader, or by its child
+	 * class loaders, are attached to the types, so they do not prevent
+	 * class loaders from being unloaded. Other types get <code>null</code>
+	 * and are kept in the bounded cache.
+	 */
+	private static final ClassValue<TypeSerializers> typeSerializers = new ClassValue<TypeSerializers>() {
+		@Override
+		protected TypeSerializers computeValue(Class<?> type) {
+			return isAttachable(type) ? new TypeSerializers(type) : null;
+		}
+	};
+
+	private static boolean isAttachable(Class type) {
+		if (classLoader == null) {
+			return true;
+		}
+		ClassLoader loader = type.getClassLoader();
+
+		while (loader != null) {
+			if (loader == classLoader) {
+				return true;
+			}
+			loader = loader.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns bean serializer of a type for the configuration of the given context.
+	 */
+	static GeneratedBeanSerializer lookup(JsonContext jsonContext, Class type) {
+		TypeSerializers serializers = typeSerializers.get(type);
+
+		if (serializers == null) {
+			serializers = foreignSerializers.get(type);
+			if (serializers == null) {
+				serializers = new TypeSerializers(type);
+				foreignSerializers.put(type, serializers);
+			}
+		}
+		else {
+			attachedTypes.add(type);
+		}
+
+		return serializers.lookup(jsonContext);
+	}
+
+	/**
+	 * Returns the number of cached serializer configurations of a type.
+	 */
+	static int cachedConfigurations(Class type) {
+		TypeSerializers serializers = typeSerializers.get(type);
+		if (serializers == null) {
+			serializers = foreignSerializers.get(type);
+		}
+		return serializers == null ? 0 : serializers.serializers.size();
+	}
+
+	/**
+	 * Clears all cached serializers and property readers.
+	 * Should be called after the {@link JsonAnnotationManager} is changed.
+	 */
+	public static void reset() {
+		synchronized (attachedTypes) {
+			for (Class type : attachedTypes) {
+				typeSerializers.remove(type);
+			}
+			attachedTypes.clear();
+		}
+		foreignSerializers.clear();
+	}
+
+	/**
+	 * Property reader and bean serializers of a type,
+	 * for at most {@link #MAX_CONFIGURATIONS} configurations.
+	 */
+	private static class TypeSerializers {
+		private final Class type;
+		private final Cache<List<Object>, GeneratedBeanSerializer> serializers = new ConcurrentCache<>(MAX_CONFIGURATIONS);
+		private volatile PropertyReader propertyReader;
+
+		private TypeSerializers(Class type) {
+			this.type = type;
+		}
+
+		private GeneratedBeanSerializer lookup(JsonContext jsonContext) {
+			final List<Object> key = configuration(jsonContext);
+
+			GeneratedBeanSerializer serializer = serializers.get(key);
+
+			if (serializer == null) {
+				PropertyReader reader = propertyReader;
+				if (reader == null) {
+					reader = new PropertyReader(type);
+					propertyReader = reader;
+				}
+				serializer = new GeneratedBeanSerializer(jsonContext, type, reader);
+				serializers.put(key, serializer);
+			}
+			return serializer;
+		}
+	}
+
+	/**
+	 * Returns configuration of the context serializer that affects the bean serializers.
+	 */
+	private static List<Object> configuration(JsonContext jsonContext) {
+		final JsonSerializer jsonSerializer = jsonContext.jsonSerializer;
+		final JoddJsonDefaults defaults = JoddJson.get().defaults();
+
+		return Arrays.asList(
+			jsonSerializer.classMetadataName,
+			jsonSerializer.deep,
+			jsonSerializer.strictStringEncoding,
+			asList(jsonSerializer.excludedTypes),
+			asList(jsonSerializer.excludedTypeNames),
+			asList(defaults.getExcludedTypes()),
+			asList(defaults.getExcludedTypeNames()));
+	}
+
+	private static List<Object> asList(Object[] array) {
+		if (array == null) {
+			return Collections.emptyList();
+		}
+		return Arrays.asList(array);
+	}
+
+	// ---------------------------------------------------------------- instance
+
+	private static final int META_PROPERTY = -1;
+
+	private final Class type;
+	private final String[] names;
+	private final String[] jsonNames;
+	private final String[] nameLiterals;
+	private final boolean[] includes;
+	private final int[] indexes;
+	private final BeanPropertyReader reader;
+
+	public GeneratedBeanSerializer(JsonContext jsonContext, Class type) {
+		this(jsonContext, type, new PropertyReader(type));
+	}
+
+	private GeneratedBeanSerializer(JsonContext jsonContext, Class type, PropertyReader propertyReader) {
+		this.type = type;
+
+		final JsonAnnotationManager.TypeData typeData = JsonAnnotationManager.get().lookupTypeData(type);
+		final String classMetadataName = jsonContext.jsonSerializer.classMetadataName;
+
+		final List<String> names = new ArrayList<>();
+		final List<String> jsonNames = new ArrayList<>();
+		final List<Boolean> includes = new ArrayList<>();
+		final List<Integer> indexes = new ArrayList<>();
+
+		if (classMetadataName != null) {
+			names.add(classMetadataName);
+			jsonNames.add(classMetadataName);
+			includes.add(typeData.rules.apply(classMetadataName, true, !typeData.strict));
+			indexes.add(META_PROPERTY);
+		}
+
+		for (int i = 0; i < propertyReader.propertyDescriptors.length; i++) {
+			final PropertyDescriptor propertyDescriptor = propertyReader.propertyDescriptors[i];
+			final String propertyName = propertyDescriptor.getName();
+
+			boolean include = !typeData.strict;
+
+			FieldDescriptor fieldDescriptor = propertyDescriptor.getFieldDescriptor();
+
+			if (fieldDescriptor != null && Modifier.isTransient(fieldDescriptor.getField().getModifiers())) {
+				include = false;
+			}
+
+			include = jsonContext.matchIgnoredPropertyTypes(propertyDescriptor.getType(), true, include);
+
+			// name is resolved here and once again before it is written, as it is done by the visitor
+
+			final String jsonName = typeData.resolveJsonName(propertyName);
+
+			include = typeData.rules.apply(jsonName, true, include);
+
+			names.add(propertyName);
+			jsonNames.add(typeData.resolveJsonName(jsonName));
+			includes.add(include);
+			indexes.add(i);
+		}
+
+		final int size = names.size();
+
+		this.names = names.toArray(new String[size]);
+		this.jsonNames = jsonNames.toArray(new String[size]);
+		this.nameLiterals = new String[size];
+		this.includes = new boolean[size];
+		this.indexes = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			this.includes[i] = includes.get(i);
+			this.indexes[i] = indexes.get(i);
+
+			StringBuilder literal = new StringBuilder(this.jsonNames[i].length() + 3);
+			new JsonWriter(literal, jsonContext.jsonSerializer.strictStringEncoding).writeName(this.jsonNames[i]);
+			this.nameLiterals[i] = literal.toString();
+		}
+
+		this.reader = propertyReader.reader;
+	}
+
+	/**
+	 * Serializes properties of a bean.
+	 */
+	public void serialize(JsonContext jsonContext, Object bean) {
+		final Path path = jsonContext.path;
+		final boolean pathRules = jsonContext.jsonSerializer.rules.hasRules();
+
+		int count = 0;
+
+		for (int i = 0; i < names.length; i++) {
+			boolean include = includes[i];
+
+			if (!include && !pathRules) {
+				continue;
+			}
+
+			path.push(names[i]);
+
+			if (pathRules) {
+				include = jsonContext.matchPathToQueries(include);
+			}
+
+			if (include) {
+				final Object value;
+				final int index = indexes[i];
+
+				if (index == META_PROPERTY) {
+					value = type.getName();
+				}
+				else {
+					try {
+						value = reader.read(bean, index);
+					}
+					catch (Exception ex) {
+						throw new JsonException(ex);
+					}
+				}
+
+				if (value == null && jsonContext.isExcludeNulls()) {
+					path.pop();
+					continue;
+				}
+
+				jsonContext.pushName(jsonNames[i], nameLiterals[i], count > 0);
+				jsonContext.serialize(value);
+
+				if (jsonContext.isNamePopped()) {
+					count++;
+				}
+			}
+
+			path.pop();
+		}
+	}
+
+	/**
+	 * Readable properties of a type, together with their reader.
+	 */
+	static class PropertyReader {
+		final PropertyDescriptor[] propertyDescriptors;
+		final BeanPropertyReader reader;
+
+		PropertyReader(Class type) {
+			ClassDescriptor classDescriptor = ClassIntrospector.get().lookup(type);
+
+			List<PropertyDescriptor> propertyDescriptors = new ArrayList<>();
+			List<Getter> getters = new ArrayList<>();
+
+			for (PropertyDescriptor propertyDescriptor : classDescriptor.getAllPropertyDescriptors()) {
+				Getter getter = propertyDescriptor.getGetter(false);
+				if (getter != null) {
+					propertyDescriptors.add(propertyDescriptor);
+					getters.add(getter);
+				}
+			}
+
+			this.propertyDescriptors = propertyDescriptors.toArray(new PropertyDescriptor[0]);
+			this.reader = BeanPropertyReaderBuilder.create(type, getters.toArray(new Getter[0]));
+		}
+	}
+}
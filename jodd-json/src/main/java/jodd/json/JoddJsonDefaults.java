@@ -41,6 +41,7 @@ public class JoddJsonDefaults {
 	private String[] excludedTypeNames = null;
 	private boolean serializationSubclassAware = true;
 	private boolean strictStringEncoding = false;
+	private boolean generatedBeanSerializers = false;
 
 	/**
 	 * Returns the annotation used for marking the properties.
@@ -164,4 +165,21 @@ public class JoddJsonDefaults {
 	public void setStrictStringEncoding(boolean strictStringEncoding) {
 		this.strictStringEncoding = strictStringEncoding;
 	}
+
+	/**
+	 * @see #setGeneratedBeanSerializers(boolean)
+	 */
+	public boolean isGeneratedBeanSerializers() {
+		return generatedBeanSerializers;
+	}
+
+	/**
+	 * Defines default behavior of a {@link jodd.json.JsonSerializer}.
+	 * If set to <code>true</code>, beans are serialized with generated
+	 * classes that read properties directly, without reflection.
+	 * Bytecode is generated using <code>jodd-proxetta</code>.
+	 */
+	public void setGeneratedBeanSerializers(boolean generatedBeanSerializers) {
+		this.generatedBeanSerializers = generatedBeanSerializers;
+	}
 }
@@ -31,7 +31,9 @@ import jodd.util.ClassUtil;
 import jodd.util.Wildcard;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static jodd.util.StringPool.NULL;
 
@@ -159,6 +161,39 @@ public class JsonContext extends JsonWriter {
 
 	// ---------------------------------------------------------------- serializer
 
+	/**
+	 * Bean serializers already used by this context.
+	 */
+	protected Map<Class, GeneratedBeanSerializer> generatedBeanSerializers;
+
+	/**
+	 * Serializes properties of a bean, between already written braces.
+	 * Uses {@link GeneratedBeanSerializer} when it is
+	 * {@link JsonSerializer#generatedBeanSerializers(boolean) enabled},
+	 * otherwise uses the {@link BeanSerializer}.
+	 */
+	public void serializeBean(Object bean) {
+		if (!jsonSerializer.generatedBeanSerializers) {
+			new BeanSerializer(this, bean).serialize();
+			return;
+		}
+
+		if (generatedBeanSerializers == null) {
+			generatedBeanSerializers = new HashMap<>();
+		}
+
+		final Class type = bean.getClass();
+
+		GeneratedBeanSerializer generatedBeanSerializer = generatedBeanSerializers.get(type);
+
+		if (generatedBeanSerializer == null) {
+			generatedBeanSerializer = GeneratedBeanSerializer.lookup(this, type);
+			generatedBeanSerializers.put(type, generatedBeanSerializer);
+		}
+
+		generatedBeanSerializer.serialize(this, bean);
+	}
+
 	/**
 	 * Serializes the object using {@link jodd.json.TypeJsonSerializer type serializer}.
 	 * Returns <code>true</code> if object was written, otherwise returns <code>false</code>.
@@ -25,19 +25,31 @@
 
 package jodd.json;
 
+import jodd.core.JoddCore;
 import jodd.introspector.ClassDescriptor;
 import jodd.introspector.ClassIntrospector;
 import jodd.introspector.PropertyDescriptor;
+import jodd.io.StreamUtil;
 import jodd.json.meta.JsonAnnotationManager;
 import jodd.util.CharArraySequence;
 import jodd.util.CharUtil;
 import jodd.util.StringPool;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static jodd.json.JoddJsonDefaults.DEFAULT_CLASS_METADATA_NAME;
 
@@ -57,9 +69,9 @@ public class JsonParser extends JsonParserBase {
 		return new JsonParser();
 	}
 
-	private static final char[] T_RUE = new char[] {'r', 'u', 'e'};
-	private static final char[] F_ALSE = new char[] {'a', 'l', 's', 'e'};
-	private static final char[] N_ULL = new char[] {'u', 'l', 'l'};
+	static final char[] T_RUE = new char[] {'r', 'u', 'e'};
+	static final char[] F_ALSE = new char[] {'a', 'l', 's', 'e'};
+	static final char[] N_ULL = new char[] {'u', 'l', 'l'};
 
 	/**
 	 * Map keys.
@@ -73,6 +85,7 @@ public class JsonParser extends JsonParserBase {
 	protected int ndx = 0;
 	protected CharSequence input;
 	protected int total;
+	ReaderCharSequence readerInput;
 	protected Path path;
 	protected boolean useAltPaths = JoddJson.get().defaults().isUseAltPathsByParser();
 	protected Class rootType;
@@ -303,9 +316,185 @@ public class JsonParser extends JsonParserBase {
 	}
 
 
+	// ---------------------------------------------------------------- parse reader
+
+	/**
+	 * Parses JSON from the reader as given type. Input is read in chunks,
+	 * into a buffer that is bounded by the size of the largest JSON value
+	 * and not by the size of the whole input. Reader is not closed.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T parse(Reader reader, Class<T> targetType) {
+		rootType = targetType;
+		return _parse(reader);
+	}
+
+	/**
+	 * Parses JSON from the reader.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(Reader reader) {
+		return _parse(reader);
+	}
+
+	/**
+	 * Parses UTF-8 encoded JSON from the input stream as given type.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(InputStream inputStream, Class<T> targetType) {
+		return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8), targetType);
+	}
+
+	/**
+	 * Parses UTF-8 encoded JSON from the input stream.
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(InputStream inputStream) {
+		return parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses top-level JSON array from the reader one element at a time.
+	 * Each element is parsed when the stream requests it, so only one
+	 * element is held in the memory. Elements are parsed as given component
+	 * type; when it is <code>null</code>, the type mapped to the
+	 * {@link #VALUES} path is used. Reader is closed when the returned
+	 * stream is closed.
+	 */
+	public <T> Stream<T> parseAsStream(Reader reader, Class<T> componentType) {
+		this.input = readerInput = new ReaderCharSequence(reader, JoddCore.get().defaults().getIoBufferSize());
+		this.total = 0;
+
+		reset();
+
+		skipWhiteSpaces();
+
+		try {
+			consume('[');
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			syntaxError("End of JSON");
+		}
+
+		path.push(VALUES);
+
+		final Iterator<T> iterator = new ArrayElementsIterator<>(replaceWithMappedTypeForPath(componentType));
+
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+			.onClose(() -> StreamUtil.close(reader));
+	}
+
+	/**
+	 * Parses UTF-8 encoded top-level JSON array from the input stream one element at a time.
+	 * @see #parseAsStream(Reader, Class)
+	 */
+	public <T> Stream<T> parseAsStream(InputStream inputStream, Class<T> componentType) {
+		return parseAsStream(new InputStreamReader(inputStream, StandardCharsets.UTF_8), componentType);
+	}
+
+	/**
+	 * Iterator over the elements of top-level array, once when open bracket has been consumed.
+	 */
+	private class ArrayElementsIterator<T> implements Iterator<T> {
+		private final Class componentType;
+		private boolean first = true;
+		private boolean ready;
+		private boolean hasNext;
+
+		private ArrayElementsIterator(Class componentType) {
+			this.componentType = componentType;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!ready) {
+				try {
+					hasNext = findNextElement();
+				}
+				catch (IndexOutOfBoundsException iofbex) {
+					syntaxError("End of JSON");
+				}
+				ready = true;
+			}
+			return hasNext;
+		}
+
+		private boolean findNextElement() {
+			skipWhiteSpaces();
+
+			char c = input.charAt(ndx);
+
+			if (c == ']') {
+				ndx++;
+				path.pop();
+
+				skipWhiteSpaces();
+
+				if (!isEOF()) {
+					syntaxError("Trailing chars");
+				}
+				return false;
+			}
+
+			if (!first) {
+				consume(',');
+				skipWhiteSpaces();
+
+				if (input.charAt(ndx) == ']') {
+					syntaxError("Trailing comma");
+				}
+			}
+
+			first = false;
+			return true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+
+			Object value;
+
+			try {
+				value = parseValue(componentType, null, null);
+			}
+			catch (IndexOutOfBoundsException iofbex) {
+				syntaxError("End of JSON");
+				return null;
+			}
+
+			releaseInput();
+
+			if (classMetadataName != null && componentType == null) {
+				if (value instanceof Map) {
+					value = mapToBean.map2bean((Map) value, null);
+				}
+			}
+
+			return (T) value;
+		}
+	}
+
+	private <T> T _parse(Reader reader) {
+		this.readerInput = new ReaderCharSequence(reader, JoddCore.get().defaults().getIoBufferSize());
+
+		return _parse0(readerInput, 0);
+	}
+
 	private <T> T _parse(CharSequence input) {
+		this.readerInput = null;
+
+		return _parse0(input, input.length());
+	}
+
+	private <T> T _parse0(CharSequence input, int inputLength) {
 		this.input = input;
-		this.total = input.length();
+		this.total = inputLength;
 
 		reset();
 
@@ -783,6 +972,8 @@ public class JsonParser extends JsonParserBase {
 
 			target.add(value);
 
+			releaseInput();
+
 			skipWhiteSpaces();
 
 			c = input.charAt(ndx);
@@ -949,6 +1140,8 @@ public class JsonParser extends JsonParserBase {
 				((Map) target).put(keyValue, value);
 			}
 
+			releaseInput();
+
 			skipWhiteSpaces();
 
 			c = input.charAt(ndx);
@@ -1002,11 +1195,33 @@ public class JsonParser extends JsonParserBase {
 
 	/**
 	 * Returns <code>true</code> if scanning is at the end.
+	 * When input is a reader, more characters are read if needed.
 	 */
 	protected boolean isEOF() {
+		if (ndx < total) {
+			return false;
+		}
+		if (readerInput == null) {
+			return true;
+		}
+		total = readerInput.fill(ndx);
 		return ndx >= total;
 	}
 
+	/**
+	 * Releases already parsed characters of the reader input. Invoked only
+	 * between the values, when no index but the current one is in use.
+	 */
+	protected void releaseInput() {
+		if (readerInput == null) {
+			return;
+		}
+		final int shift = readerInput.compact(ndx);
+
+		ndx -= shift;
+		total -= shift;
+	}
+
 	/**
 	 * Skips whitespaces. For the simplification, whitespaces are
 	 * considered any characters less or equal to 32 (space).
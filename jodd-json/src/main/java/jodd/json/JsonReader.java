@@ -0,0 +1,598 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.core.JoddCore;
+import jodd.util.CharArraySequence;
+
+import java.io.Reader;
+
+/**
+ * Pull-style JSON reader. Instead of building the whole tree of values,
+ * it returns the JSON document as a sequence of {@link JsonToken tokens}.
+ * Values are read with typed methods, so numbers are not boxed and
+ * skipped values (see {@link #skipValue()}) are not even created.
+ * Reading only few properties of a large document is therefore cheap:
+ * <pre>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     if (reader.nextName().equals("id")) {
+ *         id = reader.nextLong();
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * reader.endObject();
+ * </pre>
+ * Scanning of strings and literals is shared with the {@link JsonParser},
+ * including the 'loose' mode. Reader input is buffered the same way
+ * as when parsed by the {@link JsonParser}.
+ */
+public class JsonReader {
+
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_ARRAY = 2;
+	private static final int NONEMPTY_ARRAY = 3;
+	private static final int EMPTY_OBJECT = 4;
+	private static final int DANGLING_NAME = 5;
+	private static final int NONEMPTY_OBJECT = 6;
+
+	protected final JsonParser parser;
+	protected int[] stack = new int[32];
+	protected int stackSize;
+	protected JsonToken peeked;
+
+	/**
+	 * Creates JSON reader over the string input.
+	 */
+	public JsonReader(CharSequence input) {
+		this.parser = new JsonParser();
+		this.parser.input = input;
+		this.parser.total = input.length();
+
+		push(EMPTY_DOCUMENT);
+	}
+
+	/**
+	 * Creates JSON reader over the char array input.
+	 */
+	public JsonReader(char[] input) {
+		this(CharArraySequence.of(input));
+	}
+
+	/**
+	 * Creates JSON reader over the reader. Reader is not closed.
+	 */
+	public JsonReader(Reader reader) {
+		this.parser = new JsonParser();
+		this.parser.readerInput = new ReaderCharSequence(reader, JoddCore.get().defaults().getIoBufferSize());
+		this.parser.input = parser.readerInput;
+
+		push(EMPTY_DOCUMENT);
+	}
+
+	/**
+	 * Enables 'loose' mode for reading.
+	 * @see JsonParser#looseMode(boolean)
+	 */
+	public JsonReader looseMode(boolean looseMode) {
+		parser.looseMode(looseMode);
+		return this;
+	}
+
+	// ---------------------------------------------------------------- peek
+
+	/**
+	 * Returns the type of the next token without consuming it.
+	 */
+	public JsonToken peek() {
+		if (peeked != null) {
+			return peeked;
+		}
+		try {
+			peeked = doPeek();
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			parser.syntaxError("End of JSON");
+		}
+		return peeked;
+	}
+
+	private JsonToken doPeek() {
+		final int scope = stack[stackSize - 1];
+
+		switch (scope) {
+			case EMPTY_DOCUMENT:
+				stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+				parser.skipWhiteSpaces();
+				break;
+
+			case NONEMPTY_DOCUMENT:
+				parser.skipWhiteSpaces();
+				if (!parser.isEOF()) {
+					parser.syntaxError("Trailing chars");
+				}
+				return JsonToken.END_DOCUMENT;
+
+			case EMPTY_ARRAY:
+			case NONEMPTY_ARRAY:
+				parser.skipWhiteSpaces();
+
+				if (parser.input.charAt(parser.ndx) == ']') {
+					return JsonToken.END_ARRAY;
+				}
+				if (scope == NONEMPTY_ARRAY) {
+					consumeComma("Invalid char: expected ] or ,", ']');
+				}
+				stack[stackSize - 1] = NONEMPTY_ARRAY;
+				break;
+
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT:
+				parser.skipWhiteSpaces();
+
+				if (parser.input.charAt(parser.ndx) == '}') {
+					return JsonToken.END_OBJECT;
+				}
+				if (scope == NONEMPTY_OBJECT) {
+					consumeComma("Invalid char: expected } or ,", '}');
+				}
+				stack[stackSize - 1] = DANGLING_NAME;
+				return JsonToken.NAME;
+
+			case DANGLING_NAME:
+				parser.skipWhiteSpaces();
+				parser.consume(':');
+				parser.skipWhiteSpaces();
+				stack[stackSize - 1] = NONEMPTY_OBJECT;
+				break;
+		}
+
+		return peekValue();
+	}
+
+	private void consumeComma(String message, char closing) {
+		if (parser.input.charAt(parser.ndx) != ',') {
+			parser.syntaxError(message);
+		}
+		parser.ndx++;
+		parser.skipWhiteSpaces();
+
+		if (parser.input.charAt(parser.ndx) == closing) {
+			parser.syntaxError("Trailing comma");
+		}
+	}
+
+	private JsonToken peekValue() {
+		final char c = parser.input.charAt(parser.ndx);
+
+		switch (c) {
+			case '{':
+				return JsonToken.BEGIN_OBJECT;
+			case '[':
+				return JsonToken.BEGIN_ARRAY;
+			case '\'':
+				if (!parser.looseMode) {
+					break;
+				}
+			case '"':
+				return JsonToken.STRING;
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+			case '-':
+				return JsonToken.NUMBER;
+			case 't':
+				if (lookingAt(JsonParser.T_RUE)) {
+					return JsonToken.BOOLEAN;
+				}
+				break;
+			case 'f':
+				if (lookingAt(JsonParser.F_ALSE)) {
+					return JsonToken.BOOLEAN;
+				}
+				break;
+			case 'n':
+				if (lookingAt(JsonParser.N_ULL)) {
+					return JsonToken.NULL;
+				}
+				break;
+		}
+
+		if (parser.looseMode) {
+			// un-quoted string
+			return JsonToken.STRING;
+		}
+
+		parser.syntaxError("Invalid char: " + c);
+		return null;
+	}
+
+	/**
+	 * Returns <code>true</code> if literal follows the current char.
+	 */
+	private boolean lookingAt(char[] literal) {
+		final int ndx = parser.ndx;
+		try {
+			parser.ndx++;
+			return parser.match(literal);
+		}
+		catch (IndexOutOfBoundsException ignore) {
+			return false;
+		}
+		finally {
+			parser.ndx = ndx;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if current array or object has more elements.
+	 */
+	public boolean hasNext() {
+		final JsonToken token = peek();
+		return token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT && token != JsonToken.END_DOCUMENT;
+	}
+
+	// ---------------------------------------------------------------- structure
+
+	/**
+	 * Consumes the beginning of an array.
+	 */
+	public void beginArray() {
+		expect(JsonToken.BEGIN_ARRAY);
+		parser.ndx++;
+		push(EMPTY_ARRAY);
+	}
+
+	/**
+	 * Consumes the end of an array.
+	 */
+	public void endArray() {
+		expect(JsonToken.END_ARRAY);
+		parser.ndx++;
+		stackSize--;
+		parser.releaseInput();
+	}
+
+	/**
+	 * Consumes the beginning of an object.
+	 */
+	public void beginObject() {
+		expect(JsonToken.BEGIN_OBJECT);
+		parser.ndx++;
+		push(EMPTY_OBJECT);
+	}
+
+	/**
+	 * Consumes the end of an object.
+	 */
+	public void endObject() {
+		expect(JsonToken.END_OBJECT);
+		parser.ndx++;
+		stackSize--;
+		parser.releaseInput();
+	}
+
+	private void push(int scope) {
+		if (stackSize == stack.length) {
+			int[] newStack = new int[stackSize << 1];
+			System.arraycopy(stack, 0, newStack, 0, stackSize);
+			stack = newStack;
+		}
+		stack[stackSize++] = scope;
+	}
+
+	private void expect(JsonToken expected) {
+		final JsonToken token = peek();
+		if (token != expected) {
+			parser.syntaxError("Expected " + expected + " but was " + token);
+		}
+		peeked = null;
+	}
+
+	// ---------------------------------------------------------------- values
+
+	/**
+	 * Consumes the next property name.
+	 */
+	public String nextName() {
+		expect(JsonToken.NAME);
+		try {
+			return parser.parseString();
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			parser.syntaxError("End of JSON");
+			return null;
+		}
+	}
+
+	/**
+	 * Consumes the next string value. Numbers are returned as they are written.
+	 */
+	public String nextString() {
+		final JsonToken token = peek();
+
+		if (token == JsonToken.NUMBER) {
+			peeked = null;
+			final int start = parser.ndx;
+			skipNumber();
+			return parser.input.subSequence(start, parser.ndx).toString();
+		}
+
+		expect(JsonToken.STRING);
+
+		final String string;
+		try {
+			final char c = parser.input.charAt(parser.ndx);
+
+			if (c == '"' || c == '\'') {
+				parser.ndx++;
+				string = parser.parseStringContent(c);
+			}
+			else {
+				string = parser.parseUnquotedStringContent();
+			}
+		}
+		catch (IndexOutOfBoundsException iofbex) {
+			parser.syntaxError("End of JSON");
+			return null;
+		}
+
+		parser.releaseInput();
+		return string;
+	}
+
+	/**
+	 * Consumes the next boolean value.
+	 */
+	public boolean nextBoolean() {
+		expect(JsonToken.BOOLEAN);
+
+		final boolean value = parser.input.charAt(parser.ndx) == 't';
+
+		parser.ndx += value ? 4 : 5;
+		parser.releaseInput();
+		return value;
+	}
+
+	/**
+	 * Consumes the next <code>null</code> value.
+	 */
+	public void nextNull() {
+		expect(JsonToken.NULL);
+		parser.ndx += 4;
+		parser.releaseInput();
+	}
+
+	/**
+	 * Consumes the next number as <code>long</code>, without boxing.
+	 * Decimal numbers are truncated.
+	 */
+	public long nextLong() {
+		expect(JsonToken.NUMBER);
+
+		final int start = parser.ndx;
+
+		boolean negative = false;
+		if (parser.input.charAt(parser.ndx) == '-') {
+			negative = true;
+			parser.ndx++;
+		}
+
+		// accumulate negatively, to cover the Long.MIN_VALUE
+
+		long value = 0;
+		boolean simple = true;
+
+		while (!parser.isEOF()) {
+			final char c = parser.input.charAt(parser.ndx);
+
+			if (c < '0' || c > '9') {
+				simple = isNumberEnd(c);
+				break;
+			}
+
+			final int digit = c - '0';
+
+			if (value < Long.MIN_VALUE / 10 || (value == Long.MIN_VALUE / 10 && digit > (int) -(Long.MIN_VALUE % 10))) {
+				parser.syntaxError("Number out of long range");
+			}
+			value = value * 10 - digit;
+			parser.ndx++;
+		}
+
+		if (!simple) {
+			// decimal or exponent number
+			parser.ndx = start;
+			return (long) parseDouble();
+		}
+
+		if (!negative) {
+			if (value == Long.MIN_VALUE) {
+				parser.syntaxError("Number out of long range");
+			}
+			value = -value;
+		}
+
+		parser.releaseInput();
+		return value;
+	}
+
+	/**
+	 * Consumes the next number as <code>int</code>, without boxing.
+	 */
+	public int nextInt() {
+		final long value = nextLong();
+
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			parser.syntaxError("Number out of int range");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Consumes the next number as <code>double</code>, without boxing.
+	 */
+	public double nextDouble() {
+		expect(JsonToken.NUMBER);
+		return parseDouble();
+	}
+
+	private double parseDouble() {
+		final int start = parser.ndx;
+
+		skipNumber();
+
+		final double value = Double.parseDouble(parser.input.subSequence(start, parser.ndx).toString());
+
+		parser.releaseInput();
+		return value;
+	}
+
+	// ---------------------------------------------------------------- skip
+
+	/**
+	 * Consumes the next token and returns its type. Names and values
+	 * are skipped without being created.
+	 */
+	public JsonToken nextToken() {
+		final JsonToken token = peek();
+
+		switch (token) {
+			case BEGIN_ARRAY: beginArray(); break;
+			case END_ARRAY: endArray(); break;
+			case BEGIN_OBJECT: beginObject(); break;
+			case END_OBJECT: endObject(); break;
+			case BOOLEAN: nextBoolean(); break;
+			case NULL: nextNull(); break;
+			case NAME:
+			case STRING:
+				peeked = null;
+				try {
+					skipString();
+				}
+				catch (IndexOutOfBoundsException iofbex) {
+					parser.syntaxError("End of JSON");
+				}
+				parser.releaseInput();
+				break;
+			case NUMBER:
+				peeked = null;
+				skipNumber();
+				parser.releaseInput();
+				break;
+			case END_DOCUMENT:
+				break;
+		}
+		return token;
+	}
+
+	/**
+	 * Skips the next value, including all nested values of arrays
+	 * and objects. If next token is a name, it is skipped together
+	 * with its value. Fails at the end of an array or an object,
+	 * as there is no value to skip.
+	 */
+	public void skipValue() {
+		if (peek() == JsonToken.NAME) {
+			nextToken();
+		}
+
+		final JsonToken token = peek();
+
+		if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+			parser.syntaxError("Expected value but was " + token);
+		}
+
+		int depth = 0;
+
+		do {
+			switch (nextToken()) {
+				case BEGIN_ARRAY:
+				case BEGIN_OBJECT:
+					depth++;
+					break;
+				case END_ARRAY:
+				case END_OBJECT:
+					depth--;
+					break;
+				case END_DOCUMENT:
+					parser.syntaxError("End of JSON");
+					break;
+			}
+		} while (depth > 0);
+	}
+
+	/**
+	 * Skips string content without creating it.
+	 */
+	private void skipString() {
+		final char quote = parser.input.charAt(parser.ndx);
+
+		if (quote != '"' && quote != '\'') {
+			parser.parseUnquotedStringContent();
+			return;
+		}
+
+		parser.ndx++;
+
+		while (true) {
+			final char c = parser.input.charAt(parser.ndx++);
+
+			if (c == quote) {
+				return;
+			}
+			if (c == '\\') {
+				parser.ndx++;
+			}
+		}
+	}
+
+	/**
+	 * Skips number chars, using the same delimiters as {@link JsonParser#parseNumber()}.
+	 */
+	private void skipNumber() {
+		while (!parser.isEOF()) {
+			if (isNumberEnd(parser.input.charAt(parser.ndx))) {
+				return;
+			}
+			parser.ndx++;
+		}
+	}
+
+	private static boolean isNumberEnd(char c) {
+		return c <= 32 || c == ',' || c == '}' || c == ']';
+	}
+
+}
@@ -29,6 +29,8 @@ import jodd.util.ArraysUtil;
 import jodd.util.buffer.FastCharBuffer;
 import jodd.util.inex.InExRules;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -64,6 +66,7 @@ public class JsonSerializer {
 	protected Class[] excludedTypes = null;
 	protected String[] excludedTypeNames = null;
 	protected boolean excludeNulls = false;
+	protected boolean generatedBeanSerializers = JoddJson.get().defaults().isGeneratedBeanSerializers();
 
 	/**
 	 * Defines custom {@link jodd.json.TypeJsonSerializer} for given path.
@@ -227,6 +230,16 @@ public class JsonSerializer {
 		return this;
 	}
 
+	/**
+	 * Enables {@link GeneratedBeanSerializer generated bean serializers}
+	 * that read bean properties with direct calls instead of reflection.
+	 * Requires <code>jodd-proxetta</code> on the classpath.
+	 */
+	public JsonSerializer generatedBeanSerializers(boolean generatedBeanSerializers) {
+		this.generatedBeanSerializers = generatedBeanSerializers;
+		return this;
+	}
+
 	// ---------------------------------------------------------------- serialize
 
 	/**
@@ -238,6 +251,24 @@ public class JsonSerializer {
 		jsonContext.serialize(source);
 	}
 
+	/**
+	 * Serializes object into the output stream, encoded in UTF-8.
+	 * Characters are encoded directly into a byte buffer, without
+	 * building the intermediate string. Stream is flushed, but not closed.
+	 */
+	public void serialize(Object source, OutputStream outputStream) {
+		Utf8Appendable utf8Appendable = new Utf8Appendable(outputStream);
+
+		serialize(source, utf8Appendable);
+
+		try {
+			utf8Appendable.flush();
+		}
+		catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+	}
+
 	/**
 	 * Serializes object into source.
 	 */
@@ -0,0 +1,82 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+/**
+ * Tokens of a JSON document, as returned by the {@link JsonReader}.
+ */
+public enum JsonToken {
+
+	/**
+	 * Opening of an array: <code>[</code>.
+	 */
+	BEGIN_ARRAY,
+
+	/**
+	 * Closing of an array: <code>]</code>.
+	 */
+	END_ARRAY,
+
+	/**
+	 * Opening of an object: <code>{</code>.
+	 */
+	BEGIN_OBJECT,
+
+	/**
+	 * Closing of an object: <code>}</code>.
+	 */
+	END_OBJECT,
+
+	/**
+	 * Property name of an object.
+	 */
+	NAME,
+
+	/**
+	 * String value.
+	 */
+	STRING,
+
+	/**
+	 * Number value.
+	 */
+	NUMBER,
+
+	/**
+	 * Boolean value, <code>true</code> or <code>false</code>.
+	 */
+	BOOLEAN,
+
+	/**
+	 * Value <code>null</code>.
+	 */
+	NULL,
+
+	/**
+	 * End of the JSON document.
+	 */
+	END_DOCUMENT
+}
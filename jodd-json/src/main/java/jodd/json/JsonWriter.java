@@ -48,6 +48,7 @@ public class JsonWriter {
 	// ---------------------------------------------------------------- push
 
 	protected String pushedName;
+	protected String pushedNameLiteral;
 	protected boolean pushedComma;
 	protected boolean isPushed;
 
@@ -58,10 +59,21 @@ public class JsonWriter {
 	 */
 	public void pushName(String name, boolean withComma) {
 		pushedName = name;
+		pushedNameLiteral = null;
 		pushedComma = withComma;
 		isPushed = true;
 	}
 
+	/**
+	 * Stores name together with its literal: quoted and escaped name
+	 * followed by a colon, as written by {@link #writeName(String)}.
+	 * Literal is written as it is, so the name is not escaped again.
+	 */
+	public void pushName(String name, String nameLiteral, boolean withComma) {
+		pushName(name, withComma);
+		pushedNameLiteral = nameLiteral;
+	}
+
 	/**
 	 * Writes stored name to JSON string. Cleans storage.
 	 */
@@ -71,9 +83,16 @@ public class JsonWriter {
 				writeComma();
 			}
 			String name = pushedName;
+			String nameLiteral = pushedNameLiteral;
 			pushedName = null;
+			pushedNameLiteral = null;
 			isPushed = false;
-			writeName(name);
+			if (nameLiteral != null) {
+				write(nameLiteral);
+			}
+			else {
+				writeName(name);
+			}
 		}
 	}
 
@@ -142,10 +161,21 @@ public class JsonWriter {
 		write(StringPool.QUOTE);
 
 		int len = value.length();
+		int from = 0;
 
 		for (int i = 0; i < len; i++) {
 			char c = value.charAt(i);
 
+			if (!isEscaped(c)) {
+				// chars that are not escaped are appended in chunks
+				continue;
+			}
+
+			if (from < i) {
+				write(value, from, i);
+			}
+			from = i + 1;
+
 			switch (c) {
 				case '"':
 					write("\\\"");
@@ -154,12 +184,7 @@ public class JsonWriter {
 					write("\\\\");
 					break;
 				case '/':
-					if (strictStringEncoding) {
-						write("\\/");
-					}
-					else {
-						write(c);
-					}
+					write("\\/");
 					break;
 				case '\b':
 					write("\\b");
@@ -186,9 +211,23 @@ public class JsonWriter {
 			}
 		}
 
+		if (from < len) {
+			write(value, from, len);
+		}
+
 		write(StringPool.QUOTE);
 	}
 
+	/**
+	 * Returns <code>true</code> if char has to be escaped.
+	 */
+	private boolean isEscaped(char c) {
+		if (c >= ' ' && c < 0x7F) {
+			return c == '"' || c == '\\' || (c == '/' && strictStringEncoding);
+		}
+		return c < 0xA0;
+	}
+
 	/**
 	 * Writes unicode representation of a character.
 	 */
@@ -232,6 +271,17 @@ public class JsonWriter {
 		write(number.toString());
 	}
 
+	/**
+	 * Appends a part of the char sequence to the buffer. Used internally.
+	 */
+	protected void write(CharSequence charSequence, int start, int end) {
+		try {
+			out.append(charSequence, start, end);
+		} catch (IOException ioex) {
+			throw new JsonException(ioex);
+		}
+	}
+
 	/**
 	 * Appends char to the buffer. Used internally.
 	 */
@@ -0,0 +1,127 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Char sequence over a <code>Reader</code>, with a sliding buffer. Characters
+ * are read on demand, when {@link #charAt(int)} reaches the end of the buffer.
+ * Parser {@link #compact(int) releases} already consumed characters at safe
+ * points, so the buffer stays bounded by the size of the largest single value,
+ * and not by the size of the whole input. After compacting, indexes are shifted,
+ * so they never overflow, regardless of the input size.
+ */
+final class ReaderCharSequence implements CharSequence {
+
+	private final Reader reader;
+	private char[] buffer;
+	private int length;
+	private boolean eof;
+
+	ReaderCharSequence(Reader reader, int bufferSize) {
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+	}
+
+	/**
+	 * Returns the number of buffered characters; not the length of the whole input.
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index >= length) {
+			if (fill(index) <= index) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+		}
+		return buffer[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (end > length) {
+			fill(end - 1);
+		}
+		return new String(buffer, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Reads the input until the character on given index is buffered
+	 * or until the end of the input. Returns the new buffered length.
+	 */
+	int fill(int index) {
+		while (index >= length && !eof) {
+			if (length == buffer.length) {
+				char[] newBuffer = new char[buffer.length << 1];
+				System.arraycopy(buffer, 0, newBuffer, 0, length);
+				buffer = newBuffer;
+			}
+
+			final int read;
+			try {
+				read = reader.read(buffer, length, buffer.length - length);
+			}
+			catch (IOException ioex) {
+				throw new JsonException(ioex);
+			}
+
+			if (read == -1) {
+				eof = true;
+			}
+			else {
+				length += read;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Discards characters before given index, if they take at least half
+	 * of the buffer. Returns the shift of the indexes, i.e. the number of
+	 * discarded characters.
+	 */
+	int compact(int index) {
+		if (index < (buffer.length >> 1)) {
+			return 0;
+		}
+
+		length -= index;
+		System.arraycopy(buffer, index, buffer, 0, length);
+
+		return index;
+	}
+}
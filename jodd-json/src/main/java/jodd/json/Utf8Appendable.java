@@ -0,0 +1,174 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Appendable that encodes characters to UTF-8 directly into a byte buffer,
+ * which is written to the output stream when full. There is a fast path
+ * for ASCII characters, so names and most of the values are copied
+ * byte-by-char, without any intermediate strings or encoders.
+ * Unpaired surrogates are encoded as <code>'?'</code>, as
+ * <code>String#getBytes</code> does. Not thread-safe.
+ */
+public class Utf8Appendable implements Appendable, Flushable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final OutputStream out;
+	private final byte[] buffer;
+	private int count;
+	private char highSurrogate;
+
+	public Utf8Appendable(OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE);
+	}
+
+	public Utf8Appendable(OutputStream out, int bufferSize) {
+		this.out = out;
+		this.buffer = new byte[Math.max(bufferSize, 16)];
+	}
+
+	@Override
+	public Appendable append(CharSequence csq) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+
+		final byte[] buffer = this.buffer;
+		int i = start;
+
+		while (i < end) {
+			// ascii fast path
+
+			if (highSurrogate == 0) {
+				int limit = Math.min(end, i + buffer.length - count);
+				int ndx = count;
+
+				while (i < limit) {
+					char c = csq.charAt(i);
+					if (c >= 0x80) {
+						break;
+					}
+					buffer[ndx++] = (byte) c;
+					i++;
+				}
+
+				count = ndx;
+
+				if (count == buffer.length) {
+					flushBuffer();
+				}
+				if (i == end) {
+					break;
+				}
+				if (csq.charAt(i) < 0x80) {
+					continue;
+				}
+			}
+
+			append(csq.charAt(i));
+			i++;
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) throws IOException {
+		if (count + 4 > buffer.length) {
+			flushBuffer();
+		}
+
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+				return this;
+			}
+
+			buffer[count++] = '?';
+			return append(c);
+		}
+
+		if (c < 0x80) {
+			buffer[count++] = (byte) c;
+		}
+		else if (c < 0x800) {
+			buffer[count++] = (byte) (0xC0 | (c >> 6));
+			buffer[count++] = (byte) (0x80 | (c & 0x3F));
+		}
+		else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		}
+		else if (Character.isLowSurrogate(c)) {
+			buffer[count++] = '?';
+		}
+		else {
+			buffer[count++] = (byte) (0xE0 | (c >> 12));
+			buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buffer[count++] = (byte) (0x80 | (c & 0x3F));
+		}
+		return this;
+	}
+
+	/**
+	 * Writes buffered bytes to the output stream and flushes it.
+	 * Dangling high surrogate is written as <code>'?'</code>.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			buffer[count++] = '?';
+		}
+		flushBuffer();
+		out.flush();
+	}
+
+	private void flushBuffer() throws IOException {
+		if (count > 0) {
+			out.write(buffer, 0, count);
+			count = 0;
+		}
+	}
+}
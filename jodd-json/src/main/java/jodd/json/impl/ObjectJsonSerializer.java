@@ -25,7 +25,6 @@
 
 package jodd.json.impl;
 
-import jodd.json.BeanSerializer;
 import jodd.json.JsonContext;
 
 /**
@@ -38,8 +37,7 @@ public class ObjectJsonSerializer extends ValueJsonSerializer<Object> {
 	public void serializeValue(final JsonContext jsonContext, Object value) {
 		jsonContext.writeOpenObject();
 
-		BeanSerializer beanVisitor = new BeanSerializer(jsonContext, value);
-		beanVisitor.serialize();
+		jsonContext.serializeBean(value);
 
 		jsonContext.writeCloseObject();
 	}
@@ -0,0 +1,150 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.fixtures.mock.Hill;
+import jodd.json.fixtures.mock.Network;
+import jodd.json.fixtures.mock.Person;
+import jodd.json.fixtures.mock.TestClass2;
+import jodd.json.fixtures.model.FooBar;
+import jodd.json.fixtures.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratedBeanSerializerTest {
+
+	public static class Primitives {
+		public int i = 1;
+		public long l = 2;
+		public double d = 3.5;
+		public float f = 4.5f;
+		public boolean b = true;
+		public char c = '"';
+		public byte bt = 7;
+		public short s = 8;
+		public String text;
+
+		public int getSum() {
+			return i + s;
+		}
+	}
+
+	private static class Hidden {
+		public String getName() {
+			return "hidden";
+		}
+	}
+
+	private final DataCreator dataCreator = new DataCreator();
+
+	private void assertSameJson(Object value, Function<JsonSerializer, JsonSerializer> config) {
+		String expected = config.apply(new JsonSerializer()).serialize(value);
+		String actual = config.apply(new JsonSerializer().generatedBeanSerializers(true)).serialize(value);
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void testSameOutput() {
+		Person jodder = dataCreator.createJodder();
+		Network network = dataCreator.createNetwork("My Network", jodder, dataCreator.createModesty());
+
+		assertSameJson(jodder, s -> s);
+		assertSameJson(jodder, s -> s.deep(true));
+		assertSameJson(jodder, s -> s.setClassMetadataName("class"));
+		assertSameJson(jodder, s -> s.excludeNulls(true).strictStringEncoding(true));
+		assertSameJson(network, s -> s.include("people.hobbies").deep(true));
+		assertSameJson(network, s -> s.exclude("people.work"));
+		assertSameJson(network, s -> s.excludeTypes(Person.class));
+		assertSameJson(dataCreator.createSuperman(), s -> s.deep(true));
+		assertSameJson(new Primitives(), s -> s);
+		assertSameJson(new Primitives(), s -> s.excludeNulls(true));
+		assertSameJson(new TestClass2(), s -> s);
+		assertSameJson(new Hill(), s -> s);
+		assertSameJson(new User(), s -> s);
+		assertSameJson(new Hidden(), s -> s);
+	}
+
+	@Test
+	void testAnnotatedName() {
+		FooBar fooBar = new FooBar();
+		fooBar.setValue(173);
+
+		String json = new JsonSerializer().generatedBeanSerializers(true).serialize(fooBar);
+
+		assertEquals("{\"foo.bar\":173}", json);
+	}
+
+	@Test
+	void testPrimitives() {
+		String json = new JsonSerializer().generatedBeanSerializers(true).serialize(new Primitives());
+
+		assertTrue(json.contains("\"i\":1"));
+		assertTrue(json.contains("\"d\":3.5"));
+		assertTrue(json.contains("\"c\":\"\\\"\""));
+		assertTrue(json.contains("\"sum\":9"));
+		assertTrue(json.contains("\"text\":null"));
+	}
+
+	@Test
+	void testPropertyReaders() throws Exception {
+		GeneratedBeanSerializer.PropertyReader propertyReader = new GeneratedBeanSerializer.PropertyReader(Primitives.class);
+
+		assertFalse(propertyReader.reader instanceof BeanPropertyReaderBuilder.ReflectionBeanPropertyReader);
+		assertNull(propertyReader.reader.read(new Primitives(), -1));
+
+		propertyReader = new GeneratedBeanSerializer.PropertyReader(Hidden.class);
+
+		assertTrue(propertyReader.reader instanceof BeanPropertyReaderBuilder.ReflectionBeanPropertyReader);
+		assertEquals("hidden", propertyReader.reader.read(new Hidden(), 0));
+	}
+
+	@Test
+	void testCachedConfigurations() {
+		GeneratedBeanSerializer.reset();
+
+		for (int i = 0; i < GeneratedBeanSerializer.MAX_CONFIGURATIONS * 2; i++) {
+			FooBar fooBar = new FooBar();
+			fooBar.setValue(i);
+
+			String json = new JsonSerializer().generatedBeanSerializers(true).setClassMetadataName("c" + i).serialize(fooBar);
+
+			assertEquals("{\"c" + i + "\":\"" + FooBar.class.getName() + "\",\"foo.bar\":" + i + "}", json);
+		}
+
+		assertTrue(GeneratedBeanSerializer.cachedConfigurations(FooBar.class) <= GeneratedBeanSerializer.MAX_CONFIGURATIONS);
+
+		GeneratedBeanSerializer.reset();
+
+		assertEquals(0, GeneratedBeanSerializer.cachedConfigurations(FooBar.class));
+	}
+}
@@ -0,0 +1,182 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.io.StreamUtil;
+import jodd.json.fixtures.model.FooBar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonParserReaderTest {
+
+	protected String dataRoot;
+
+	@BeforeEach
+	void setUp() {
+		if (dataRoot != null) {
+			return;
+		}
+		URL data = JsonParserTest.class.getResource("data");
+		if (data != null) {
+			dataRoot = data.getFile();
+		}
+	}
+
+	/**
+	 * Reader that returns one char at the time.
+	 */
+	static class SlowReader extends FilterReader {
+		SlowReader(String input) {
+			super(new StringReader(input));
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			return super.read(cbuf, off, len == 0 ? 0 : 1);
+		}
+	}
+
+	@Test
+	void testParseReader() {
+		JsonParser jsonParser = new JsonParser();
+
+		assertEquals(Boolean.TRUE, jsonParser.parse(new StringReader("  true  ")));
+		assertEquals(Integer.valueOf(-1234), jsonParser.parse(new SlowReader("-1234")));
+		assertEquals("f\no", jsonParser.parse(new SlowReader("\"f\\no\"")));
+
+		Map<String, Object> map = jsonParser.parse(new SlowReader("{\"one\" : [1, 2.5, \"three\"], \"two\": {}}"));
+
+		assertEquals(2, map.size());
+		assertEquals(3, ((List) map.get("one")).size());
+		assertEquals(2.5, ((List) map.get("one")).get(1));
+
+		FooBar fooBar = jsonParser.parse(
+			new ByteArrayInputStream("{\"foo.bar\":173}".getBytes(StandardCharsets.UTF_8)), FooBar.class);
+
+		assertEquals(173, fooBar.getValue().intValue());
+	}
+
+	@Test
+	void testParseReaderLargeInput() throws IOException {
+		FileInputStream fis = new FileInputStream(new File(dataRoot, "citm_catalog.json.gz"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		StreamUtil.copy(new GZIPInputStream(fis), out);
+
+		String json = out.toString("UTF-8");
+
+		fis.close();
+
+		Map<String, Object> expected = new JsonParser().parse(json);
+		Map<String, Object> map = new JsonParser().parse(new StringReader(json));
+
+		assertEquals(expected, map);
+	}
+
+	@Test
+	void testParseAsStream() {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 10000; i++) {
+			if (i != 0) {
+				json.append(',');
+			}
+			json.append("{\"foo.bar\":").append(i).append('}');
+		}
+		json.append("]");
+
+		Stream<FooBar> stream = new JsonParser().parseAsStream(new StringReader(json.toString()), FooBar.class);
+
+		int[] count = new int[1];
+		stream.forEach(fooBar -> {
+			assertEquals(count[0], fooBar.getValue().intValue());
+			count[0]++;
+		});
+
+		assertEquals(10000, count[0]);
+	}
+
+	@Test
+	void testParseAsStreamWithMappingsAndConverters() {
+		String json = "[ 1, 'two', x ]";
+
+		List<Object> list = new JsonParser()
+			.looseMode(true)
+			.withValueConverter("values", value -> "a" + value)
+			.parseAsStream(new SlowReader(json), null)
+			.collect(Collectors.toList());
+
+		assertEquals(3, list.size());
+		assertEquals("a1", list.get(0));
+		assertEquals("atwo", list.get(1));
+		assertEquals("ax", list.get(2));
+
+		List<FooBar> fooBars = new JsonParser()
+			.map(JsonParser.VALUES, FooBar.class)
+			.<FooBar>parseAsStream(new StringReader("[{\"foo.bar\":1}]"), null)
+			.collect(Collectors.toList());
+
+		assertEquals(1, fooBars.size());
+		assertEquals(1, fooBars.get(0).getValue().intValue());
+
+		assertEquals(0, new JsonParser().parseAsStream(new StringReader(" [ ] "), null).count());
+	}
+
+	@Test
+	void testParseAsStreamErrors() {
+		JsonException jsonException = assertThrows(JsonException.class,
+			() -> new JsonParser().parseAsStream(new StringReader("[1, 2,]"), null).count());
+		assertTrue(jsonException.getMessage().contains("Trailing comma"));
+
+		jsonException = assertThrows(JsonException.class,
+			() -> new JsonParser().parseAsStream(new StringReader("[1, 2"), null).count());
+		assertTrue(jsonException.getMessage().contains("End of JSON"));
+
+		jsonException = assertThrows(JsonException.class,
+			() -> new JsonParser().parseAsStream(new StringReader("{}"), null).count());
+		assertTrue(jsonException.getMessage().contains("expected ["));
+	}
+
+}
@@ -0,0 +1,201 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.core.JoddCore;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+	@Test
+	void testTokens() {
+		JsonReader reader = new JsonReader("{\"a\": [1, -2.5, \"x\\ty\", true, false, null], \"b\" : {}}");
+
+		assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+		assertEquals(JsonToken.NAME, reader.peek());
+		assertEquals("a", reader.nextName());
+		assertEquals(JsonToken.BEGIN_ARRAY, reader.nextToken());
+		assertEquals(1, reader.nextInt());
+		assertEquals(-2.5, reader.nextDouble(), 0.00001);
+		assertEquals("x\ty", reader.nextString());
+		assertTrue(reader.nextBoolean());
+		assertFalse(reader.nextBoolean());
+		assertEquals(JsonToken.NULL, reader.peek());
+		reader.nextNull();
+		assertFalse(reader.hasNext());
+		assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+		assertEquals(JsonToken.NAME, reader.nextToken());
+		assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+		assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+		assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+		assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+	}
+
+	@Test
+	void testSkipValue() {
+		String json = "{\"skip\": {\"x\": [1, {\"y\": \"}]\"}], \"z\": null}, \"id\": 173, \"skip2\": [[], {}], \"name\": \"jodd\"}";
+
+		JsonReader reader = new JsonReader(new StringReader(json));
+
+		long id = 0;
+		String name = null;
+
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			if (key.equals("id")) {
+				id = reader.nextLong();
+			}
+			else if (key.equals("name")) {
+				name = reader.nextString();
+			}
+			else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+
+		assertEquals(173, id);
+		assertEquals("jodd", name);
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+	}
+
+	@Test
+	void testSkipStringsReleasesInput() {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 100000; i++) {
+			if (i != 0) {
+				json.append(',');
+			}
+			json.append("\"value-").append(i).append('"');
+		}
+		json.append("]");
+
+		JsonReader reader = new JsonReader(new StringReader(json.toString()));
+
+		int maxBuffered = 0;
+		int count = 0;
+
+		reader.beginArray();
+		while (reader.hasNext()) {
+			assertEquals(JsonToken.STRING, reader.nextToken());
+			maxBuffered = Math.max(maxBuffered, reader.parser.readerInput.length());
+			count++;
+		}
+		reader.endArray();
+
+		assertEquals(100000, count);
+		assertTrue(maxBuffered <= JoddCore.get().defaults().getIoBufferSize());
+	}
+
+	@Test
+	void testSkipValueAtEnd() {
+		JsonReader reader = new JsonReader("[1, {}]");
+
+		reader.beginArray();
+		reader.skipValue();
+		reader.skipValue();
+
+		JsonException jsonException = assertThrows(JsonException.class, reader::skipValue);
+		assertTrue(jsonException.getMessage().contains("Expected value"));
+
+		// closing token is still there
+		reader.endArray();
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+
+		JsonReader reader2 = new JsonReader("{\"a\": 1}");
+		reader2.beginObject();
+		reader2.skipValue();
+		assertThrows(JsonException.class, reader2::skipValue);
+		reader2.endObject();
+	}
+
+	@Test
+	void testNumbers() {
+		JsonReader reader = new JsonReader("[9223372036854775807, -9223372036854775808, 1.5e3, 12, 0.25]");
+
+		reader.beginArray();
+		assertEquals(Long.MAX_VALUE, reader.nextLong());
+		assertEquals(Long.MIN_VALUE, reader.nextLong());
+		assertEquals(1500, reader.nextLong());
+		assertEquals("12", reader.nextString());
+		assertEquals(0.25, reader.nextDouble(), 0.00001);
+		reader.endArray();
+
+		JsonReader reader2 = new JsonReader("9223372036854775808");
+		assertThrows(JsonException.class, reader2::nextLong);
+
+		JsonReader reader3 = new JsonReader("[3000000000]");
+		reader3.beginArray();
+		assertThrows(JsonException.class, reader3::nextInt);
+	}
+
+	@Test
+	void testLooseMode() {
+		JsonReader reader = new JsonReader("{'a': tiger, b: 'x\\'y'}").looseMode(true);
+
+		reader.beginObject();
+		assertEquals("a", reader.nextName());
+		assertEquals(JsonToken.STRING, reader.peek());
+		assertEquals("tiger", reader.nextString());
+		assertEquals("b", reader.nextName());
+		assertEquals("x'y", reader.nextString());
+		reader.endObject();
+	}
+
+	@Test
+	void testErrors() {
+		JsonException jsonException = assertThrows(JsonException.class, () -> {
+			JsonReader reader = new JsonReader("[1, 2,]");
+			reader.beginArray();
+			reader.skipValue();
+			reader.skipValue();
+			reader.peek();
+		});
+		assertTrue(jsonException.getMessage().contains("Trailing comma"));
+
+		jsonException = assertThrows(JsonException.class, () -> new JsonReader("{\"a\"").skipValue());
+		assertTrue(jsonException.getMessage().contains("End of JSON"));
+
+		jsonException = assertThrows(JsonException.class, () -> {
+			JsonReader reader = new JsonReader("[1] 2");
+			reader.skipValue();
+			reader.peek();
+		});
+		assertTrue(jsonException.getMessage().contains("Trailing chars"));
+
+		jsonException = assertThrows(JsonException.class, () -> new JsonReader("\"a\"").nextLong());
+		assertTrue(jsonException.getMessage().contains("Expected NUMBER"));
+	}
+}
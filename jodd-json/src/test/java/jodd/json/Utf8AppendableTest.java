@@ -0,0 +1,94 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.json;
+
+import jodd.json.fixtures.mock.Network;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Utf8AppendableTest {
+
+	private static byte[] encode(int bufferSize, String... chunks) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Utf8Appendable utf8Appendable = new Utf8Appendable(out, bufferSize);
+
+		for (String chunk : chunks) {
+			if (chunk.length() == 1) {
+				utf8Appendable.append(chunk.charAt(0));
+			}
+			else {
+				utf8Appendable.append(chunk);
+			}
+		}
+		utf8Appendable.flush();
+
+		return out.toByteArray();
+	}
+
+	@Test
+	void testEncoding() throws IOException {
+		String text = "ascii, éè, Ж, €, 😀!";
+
+		for (int bufferSize : new int[] {16, 17, 1024}) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < 100; i++) {
+				sb.append(text);
+			}
+			String input = sb.toString();
+
+			assertArrayEquals(input.getBytes(StandardCharsets.UTF_8), encode(bufferSize, input));
+		}
+
+		// surrogate pair split between appends
+
+		assertArrayEquals("😀".getBytes(StandardCharsets.UTF_8), encode(16, "\ud83d", "\ude00"));
+		assertArrayEquals("a😀b".getBytes(StandardCharsets.UTF_8), encode(16, "a\ud83d", "\ude00b"));
+
+		// unpaired surrogates
+
+		assertArrayEquals("?a?".getBytes(StandardCharsets.UTF_8), encode(16, "\ud83da", "\ude00"));
+		assertArrayEquals("a?".getBytes(StandardCharsets.UTF_8), encode(16, "a\ud83d"));
+	}
+
+	@Test
+	void testSerializeToOutputStream() {
+		DataCreator dataCreator = new DataCreator();
+		Network network = dataCreator.createNetwork("Network €😀", dataCreator.createJodder(), dataCreator.createModesty());
+
+		JsonSerializer jsonSerializer = new JsonSerializer().deep(true);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jsonSerializer.serialize(network, out);
+
+		assertEquals(jsonSerializer.serialize(network), new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+}
@@ -25,10 +25,13 @@
 
 package jodd.csselly;
 
+import jodd.cache.Cache;
+import jodd.cache.ConcurrentCache;
 import jodd.util.StringUtil;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -98,6 +101,34 @@ public class CSSelly {
 		return selectors;
 	}
 
+	// ---------------------------------------------------------------- compile
+
+	protected static final Cache<String, List<List<CssSelector>>> compiledSelectors = new ConcurrentCache<>(1024);
+
+	/**
+	 * Parses string of selectors, like {@link #parse(String)}, and caches
+	 * the result. Compiled selectors are shared between threads, therefore
+	 * returned lists are unmodifiable and selectors must not be changed.
+	 */
+	public static List<List<CssSelector>> compile(String query) {
+		List<List<CssSelector>> selectors = compiledSelectors.get(query);
+
+		if (selectors == null) {
+			selectors = parse(query);
+
+			for (int i = 0; i < selectors.size(); i++) {
+				List<CssSelector> singleSelectors = selectors.get(i);
+				if (singleSelectors != null) {
+					selectors.set(i, Collections.unmodifiableList(singleSelectors));
+				}
+			}
+			selectors = Collections.unmodifiableList(selectors);
+
+			compiledSelectors.put(query, selectors);
+		}
+		return selectors;
+	}
+
 	// ---------------------------------------------------------------- toString
 
 	/**
@@ -0,0 +1,195 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.lagarto;
+
+import jodd.util.CharUtil;
+import jodd.util.StringPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Detects encoding of HTML content by pre-scanning the first bytes
+ * of the stream for the <code>meta</code> tag, as described in HTML5
+ * specs, in somewhat simplified form: <code>charset</code> attribute
+ * and <code>charset</code> parameter of the <code>content</code>
+ * attribute are both detected.
+ */
+public class HtmlEncodingDetector {
+
+	/**
+	 * Number of bytes that are pre-scanned.
+	 */
+	public static final int PRESCAN_SIZE = 1024;
+
+	/**
+	 * Pre-scans the beginning of the stream for the encoding declaration.
+	 * Stream must support marking and it is reset after pre-scanning.
+	 * Returns <code>null</code> if encoding is not declared or it is
+	 * not supported.
+	 */
+	public static String detectEncoding(InputStream in) throws IOException {
+		byte[] bytes = new byte[PRESCAN_SIZE];
+		int len = 0;
+
+		in.mark(PRESCAN_SIZE);
+		try {
+			while (len < PRESCAN_SIZE) {
+				int read = in.read(bytes, len, PRESCAN_SIZE - len);
+				if (read == -1) {
+					break;
+				}
+				len += read;
+			}
+		}
+		finally {
+			in.reset();
+		}
+
+		return detectEncoding(bytes, len);
+	}
+
+	/**
+	 * Detects encoding declared in the <code>meta</code> tags of
+	 * the given content. Returns <code>null</code> if not detected.
+	 */
+	public static String detectEncoding(byte[] bytes, int len) {
+		String head = new String(bytes, 0, len, StandardCharsets.ISO_8859_1);
+
+		int ndx = 0;
+		while (true) {
+			ndx = indexOfIgnoreCase(head, "<meta", ndx);
+			if (ndx == -1) {
+				return null;
+			}
+			int end = head.indexOf('>', ndx);
+			if (end == -1) {
+				end = head.length();
+			}
+
+			int charsetNdx = indexOfIgnoreCase(head, "charset", ndx);
+
+			ndx = end;
+
+			if (charsetNdx == -1 || charsetNdx > end) {
+				continue;
+			}
+
+			String encoding = resolveEncoding(extractValue(head, charsetNdx + 7, end));
+
+			if (encoding != null) {
+				return encoding;
+			}
+		}
+	}
+
+	/**
+	 * Extracts the value after the <code>charset</code> name.
+	 */
+	protected static String extractValue(String head, int ndx, int end) {
+		ndx = skipWhitespaces(head, ndx, end);
+
+		if (ndx == end || head.charAt(ndx) != '=') {
+			return null;
+		}
+
+		ndx = skipWhitespaces(head, ndx + 1, end);
+
+		if (ndx == end) {
+			return null;
+		}
+
+		char quote = head.charAt(ndx);
+
+		if (quote == '"' || quote == '\'') {
+			ndx++;
+			int valueEnd = head.indexOf(quote, ndx);
+			if (valueEnd == -1 || valueEnd > end) {
+				return null;
+			}
+			return head.substring(ndx, valueEnd);
+		}
+
+		int valueEnd = ndx;
+		while (valueEnd < end) {
+			char c = head.charAt(valueEnd);
+			if (CharUtil.isWhitespace(c) || c == ';' || c == '"' || c == '\'') {
+				break;
+			}
+			valueEnd++;
+		}
+		return head.substring(ndx, valueEnd);
+	}
+
+	/**
+	 * Resolves encoding name. UTF-16 declared in the content is
+	 * not possible, so UTF-8 is used instead.
+	 */
+	protected static String resolveEncoding(String encoding) {
+		if (encoding == null) {
+			return null;
+		}
+		encoding = encoding.trim();
+
+		if (encoding.isEmpty()) {
+			return null;
+		}
+		if (encoding.regionMatches(true, 0, "utf-16", 0, 6)) {
+			return StringPool.UTF_8;
+		}
+
+		try {
+			if (!Charset.isSupported(encoding)) {
+				return null;
+			}
+		}
+		catch (IllegalCharsetNameException icnex) {
+			return null;
+		}
+		return encoding;
+	}
+
+	private static int skipWhitespaces(String head, int ndx, int end) {
+		while (ndx < end && CharUtil.isWhitespace(head.charAt(ndx))) {
+			ndx++;
+		}
+		return ndx;
+	}
+
+	private static int indexOfIgnoreCase(String head, String lowerCaseTarget, int from) {
+		int last = head.length() - lowerCaseTarget.length();
+
+		for (int i = from; i <= last; i++) {
+			if (head.regionMatches(true, i, lowerCaseTarget, 0, lowerCaseTarget.length())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
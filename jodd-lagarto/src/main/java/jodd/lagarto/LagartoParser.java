@@ -25,12 +25,20 @@
 
 package jodd.lagarto;
 
+import jodd.core.JoddCore;
+import jodd.io.UnicodeInputStream;
 import jodd.util.ArraysUtil;
 import jodd.util.CharArraySequence;
 import jodd.util.CharUtil;
 import jodd.util.StringPool;
 import jodd.util.net.HtmlDecoder;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
 import static jodd.util.CharSequenceUtil.equalsOne;
 import static jodd.util.CharUtil.isAlpha;
 import static jodd.util.CharUtil.isDigit;
@@ -59,6 +67,11 @@ import static jodd.util.CharUtil.isDigit;
  * gives excellent performances. However, if you need more <code>Strings</code>
  * than enable it, and all text will be strings. This is faster
  * then first converting to char buffer and then to strings.
+ *
+ * <p>
+ * When parser is created on a <code>Reader</code> or an <code>InputStream</code>,
+ * content is read in chunks, while parsing. Events are emitted as soon
+ * as the content is available, before the whole input is read.
  */
 public class LagartoParser extends Scanner {
 
@@ -66,6 +79,7 @@ public class LagartoParser extends Scanner {
 	protected ParsedTag tag;
 	protected ParsedDoctype doctype;
 	protected long parsingTime;
+	protected String encoding;
 
 	/**
 	 * Creates parser on char array.
@@ -81,6 +95,53 @@ public class LagartoParser extends Scanner {
 		initialize(string);
 	}
 
+	/**
+	 * Creates parser on a reader. Content is read while parsing.
+	 * Reader is not closed.
+	 */
+	public LagartoParser(Reader reader) {
+		initialize(new ReaderCharSequence(reader));
+	}
+
+	/**
+	 * Creates parser on an input stream, using {@link jodd.core.JoddCoreDefaults#getEncoding()
+	 * default encoding} when encoding is not detected.
+	 * @see #LagartoParser(InputStream, String)
+	 */
+	public LagartoParser(InputStream inputStream) {
+		this(inputStream, JoddCore.get().defaults().getEncoding());
+	}
+
+	/**
+	 * Creates parser on an input stream. Encoding is detected from the BOM,
+	 * or from the <code>meta</code> tag in the first
+	 * {@link HtmlEncodingDetector#PRESCAN_SIZE bytes} of the content.
+	 * If not detected, provided default encoding is used.
+	 * Content is read while parsing. Stream is not closed.
+	 */
+	public LagartoParser(InputStream inputStream, String defaultEncoding) {
+		UnicodeInputStream unicodeInputStream = new UnicodeInputStream(inputStream, null);
+
+		String encoding = unicodeInputStream.getDetectedEncoding();
+
+		InputStream in = new BufferedInputStream(unicodeInputStream);
+
+		try {
+			if (encoding == null) {
+				encoding = HtmlEncodingDetector.detectEncoding(in);
+			}
+			if (encoding == null) {
+				encoding = defaultEncoding;
+			}
+			this.encoding = encoding;
+
+			initialize(new ReaderCharSequence(new InputStreamReader(in, encoding)));
+		}
+		catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+	}
+
 	/**
 	 * Initializes parser.
 	 */
@@ -141,6 +202,14 @@ public class LagartoParser extends Scanner {
 		this.parsingTime = System.currentTimeMillis() - parsingTime;
 	}
 
+	/**
+	 * Returns encoding of the input stream content, or <code>null</code>
+	 * if parser is not created on an input stream.
+	 */
+	public String getEncoding() {
+		return encoding;
+	}
+
 	/**
 	 * Returns parsing time in milliseconds.
 	 */
@@ -210,6 +279,11 @@ public class LagartoParser extends Scanner {
 		_consumeCharacterReference();
 	}
 
+	/**
+	 * Number of chars that has to be available for detecting entity names.
+	 */
+	private static final int MAX_ENTITY_NAME_LOOKAHEAD = 64;
+
 	private void _consumeCharacterReference() {
 		int unconsumeNdx = ndx - 1;
 
@@ -224,6 +298,8 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
+			available(ndx + MAX_ENTITY_NAME_LOOKAHEAD);
+
 			String name = HtmlDecoder.detectName(input, ndx);
 
 			if (name == null) {
@@ -265,6 +341,8 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
+			available(ndx + MAX_ENTITY_NAME_LOOKAHEAD);
+
 			final String name = HtmlDecoder.detectName(input, ndx);
 
 			if (name == null) {
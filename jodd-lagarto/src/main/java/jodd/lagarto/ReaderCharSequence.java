@@ -0,0 +1,114 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.lagarto;
+
+import jodd.util.CharArraySequence;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Char sequence over the content of a <code>Reader</code>. Content is
+ * read in chunks, on {@link #fill() demand}, so the parser may emit
+ * events before the whole input is available. Read content is kept,
+ * as parser refers to the input by absolute offsets.
+ */
+final class ReaderCharSequence implements CharSequence {
+
+	static final int CHUNK_SIZE = 8 * 1024;
+
+	private final Reader reader;
+	private char[] buffer;
+	private int length;
+	private boolean eof;
+
+	ReaderCharSequence(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[CHUNK_SIZE * 2];
+	}
+
+	/**
+	 * Reads next chunk of the content. Returns <code>false</code>
+	 * when the end of the content is reached.
+	 */
+	boolean fill() {
+		if (eof) {
+			return false;
+		}
+
+		if (buffer.length - length < CHUNK_SIZE) {
+			char[] newBuffer = new char[buffer.length << 1];
+			System.arraycopy(buffer, 0, newBuffer, 0, length);
+			buffer = newBuffer;
+		}
+
+		int read;
+		try {
+			do {
+				read = reader.read(buffer, length, buffer.length - length);
+			} while (read == 0);
+		}
+		catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+
+		if (read == -1) {
+			eof = true;
+			return false;
+		}
+
+		length += read;
+		return true;
+	}
+
+	/**
+	 * Returns number of read chars.
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return buffer[index];
+	}
+
+	/**
+	 * Returns sub-sequence of already read content. Buffer is never
+	 * modified below the {@link #length()}, so sub-sequence is
+	 * simply a view, even after the buffer grows.
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new CharArraySequence(buffer, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length);
+	}
+}
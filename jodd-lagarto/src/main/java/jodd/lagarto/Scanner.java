@@ -36,6 +36,7 @@ class Scanner {
 	protected CharSequence input;
 	protected int ndx = 0;
 	protected int total;
+	protected ReaderCharSequence readerInput;
 
 	Scanner() { }
 
@@ -46,6 +47,31 @@ class Scanner {
 		this.input = input;
 		this.ndx = -1;
 		this.total = input.length();
+
+		if (input instanceof ReaderCharSequence) {
+			this.readerInput = (ReaderCharSequence) input;
+		}
+	}
+
+	/**
+	 * Ensures that the char at given index is available. When scanning
+	 * a reader, the content is read until the index is reached.
+	 * Returns <code>false</code> if index is out of the input.
+	 */
+	protected final boolean available(int index) {
+		if (index < total) {
+			return true;
+		}
+		if (readerInput == null) {
+			return false;
+		}
+		while (index >= total) {
+			if (!readerInput.fill()) {
+				return false;
+			}
+			total = readerInput.length();
+		}
+		return true;
 	}
 
 	// ---------------------------------------------------------------- find
@@ -55,14 +81,21 @@ class Scanner {
 	 * Returns <code>-1</code> if character is not found.
 	 */
 	protected final int find(char target, int from, int end) {
-		while (from < end) {
-			if (input.charAt(from) == target) {
-				break;
+		final boolean toEnd = end == total;
+
+		while (true) {
+			while (from < end) {
+				if (input.charAt(from) == target) {
+					return from;
+				}
+				from++;
 			}
-			from++;
+			// search till the end of the input that is not yet read
+			if (!toEnd || !available(end)) {
+				return -1;
+			}
+			end = total;
 		}
-
-		return (from == end) ? -1 : from;
 	}
 
 	/**
@@ -70,14 +103,20 @@ class Scanner {
 	 * Returns <code>-1</code> if character is not found.
 	 */
 	protected final int find(CharSequence target, int from, int end) {
-		while (from < end) {
-			if (match(target, from)) {
-				break;
+		final boolean toEnd = end == total;
+
+		while (true) {
+			while (from < end) {
+				if (match(target, from)) {
+					return from;
+				}
+				from++;
 			}
-			from++;
+			if (!toEnd || !available(end)) {
+				return -1;
+			}
+			end = total;
 		}
-
-		return (from == end) ? -1 : from;
 	}
 
 	// ---------------------------------------------------------------- match
@@ -86,7 +125,7 @@ class Scanner {
 	 * Matches char buffer with content on given location.
 	 */
 	protected final boolean match(CharSequence target, int ndx) {
-		if (ndx + target.length() >= total) {
+		if (!available(ndx + target.length())) {
 			return false;
 		}
 
@@ -113,7 +152,7 @@ class Scanner {
 	 * be converted to upper case to make case-insensitive matching.
 	 */
 	public final boolean matchUpperCase(CharSequence uppercaseTarget) {
-		if (ndx + uppercaseTarget.length() > total) {
+		if (!available(ndx + uppercaseTarget.length() - 1)) {
 			return false;
 		}
 
@@ -152,7 +191,7 @@ class Scanner {
 	 * Returns <code>true</code> if EOF.
 	 */
 	protected final boolean isEOF() {
-		return ndx >= total;
+		return ndx >= total && !available(ndx);
 	}
 
 	/**
@@ -37,6 +37,7 @@ public class Document extends Node {
 	protected long elapsedTime;
 	protected final LagartoDomBuilderConfig config;
 	protected List<String> errors;
+	protected DocumentIndex documentIndex;
 
 	public Document() {
 		this(new LagartoDomBuilderConfig());
@@ -55,6 +56,11 @@ public class Document extends Node {
 	public Document clone() {
 		Document document = cloneTo(new Document(config));
 		document.elapsedTime = this.elapsedTime;
+
+		// cloned nodes belong to the new document
+		for (int i = 0, childCount = document.getChildNodesCount(); i < childCount; i++) {
+			changeOwnerDocument(document.getChild(i), document);
+		}
 		return document;
 	}
 
@@ -94,6 +100,24 @@ public class Document extends Node {
 		return errors;
 	}
 
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Returns {@link DocumentIndex document index}, created on first access.
+	 * Returns <code>null</code> if document indexing is not
+	 * {@link LagartoDomBuilderConfig#setIndexDocument(boolean) enabled}.
+	 * Index is discarded on each change of the document tree or attributes.
+	 */
+	public DocumentIndex getDocumentIndex() {
+		if (!config.indexDocument) {
+			return null;
+		}
+		if (documentIndex == null) {
+			documentIndex = new DocumentIndex(this);
+		}
+		return documentIndex;
+	}
+
 	// ---------------------------------------------------------------- attr
 
 	/**
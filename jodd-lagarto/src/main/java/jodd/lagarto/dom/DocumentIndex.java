@@ -0,0 +1,147 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.lagarto.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of document elements by id, class name and tag name.
+ * Elements in each list are in the document order. Index is created
+ * by the {@link Document#getDocumentIndex() document} and discarded
+ * on each change of the tree or element attributes. Changes made
+ * directly on the {@link Attribute} instances are not tracked.
+ */
+public class DocumentIndex {
+
+	protected static final String ID = "id";
+	protected static final String CLASS = "class";
+
+	protected final Map<String, List<Element>> ids = new HashMap<>();
+	protected final Map<String, List<Element>> classes = new HashMap<>();
+	protected final Map<String, List<Element>> tags = new HashMap<>();
+
+	public DocumentIndex(Document document) {
+		index(document);
+	}
+
+	/**
+	 * Indexes all elements in the tree order, without recursion.
+	 */
+	protected void index(Node rootNode) {
+		List<Node> stack = new ArrayList<>();
+		for (int i = rootNode.getChildNodesCount() - 1; i >= 0; i--) {
+			stack.add(rootNode.getChild(i));
+		}
+
+		while (!stack.isEmpty()) {
+			Node node = stack.remove(stack.size() - 1);
+
+			if (node.getNodeType() == Node.NodeType.ELEMENT) {
+				indexElement((Element) node);
+			}
+
+			for (int i = node.getChildNodesCount() - 1; i >= 0; i--) {
+				stack.add(node.getChild(i));
+			}
+		}
+	}
+
+	protected void indexElement(Element element) {
+		add(tags, element.getNodeName(), element);
+
+		String id = element.getAttribute(ID);
+		if (id != null) {
+			add(ids, id, element);
+		}
+
+		String classNames = element.getAttribute(CLASS);
+		if (classNames == null) {
+			return;
+		}
+
+		// split the same way as the class selector does
+		int start = -1;
+		int length = classNames.length();
+		for (int i = 0; i <= length; i++) {
+			char c = i == length ? ' ' : classNames.charAt(i);
+			if ((c == ' ') || (c == '\t')) {
+				if (start != -1) {
+					add(classes, classNames.substring(start, i), element);
+					start = -1;
+				}
+			}
+			else if (start == -1) {
+				start = i;
+			}
+		}
+	}
+
+	protected void add(Map<String, List<Element>> map, String key, Element element) {
+		List<Element> elements = map.computeIfAbsent(key, k -> new ArrayList<>(1));
+
+		// element with duplicated class name
+		if (!elements.isEmpty() && elements.get(elements.size() - 1) == element) {
+			return;
+		}
+		elements.add(element);
+	}
+
+	// ---------------------------------------------------------------- get
+
+	/**
+	 * Returns elements with given id, in the document order.
+	 */
+	public List<Element> getElementsById(String id) {
+		return get(ids, id);
+	}
+
+	/**
+	 * Returns elements that have given class name, in the document order.
+	 */
+	public List<Element> getElementsByClass(String className) {
+		return get(classes, className);
+	}
+
+	/**
+	 * Returns elements with given tag name, in the document order.
+	 */
+	public List<Element> getElementsByTagName(String tagName) {
+		return get(tags, tagName);
+	}
+
+	protected List<Element> get(Map<String, List<Element>> map, String key) {
+		List<Element> elements = map.get(key);
+		if (elements == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(elements);
+	}
+
+}
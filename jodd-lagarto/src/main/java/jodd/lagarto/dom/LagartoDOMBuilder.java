@@ -27,6 +27,9 @@ package jodd.lagarto.dom;
 
 import jodd.lagarto.LagartoParser;
 
+import java.io.InputStream;
+import java.io.Reader;
+
 /**
  * Lagarto DOM builder creates DOM tree from HTML, XHTML or XML content.
  */
@@ -145,6 +148,25 @@ public class LagartoDOMBuilder implements DOMBuilder {
 		return doParse(lagartoParser);
 	}
 
+	/**
+	 * Creates DOM tree from the content of provided reader.
+	 * Reader is not closed.
+	 */
+	public Document parse(Reader reader) {
+		LagartoParser lagartoParser = new LagartoParser(reader);
+		return doParse(lagartoParser);
+	}
+
+	/**
+	 * Creates DOM tree from the content of provided input stream,
+	 * detecting its encoding. Stream is not closed.
+	 * @see LagartoParser#LagartoParser(InputStream)
+	 */
+	public Document parse(InputStream inputStream) {
+		LagartoParser lagartoParser = new LagartoParser(inputStream);
+		return doParse(lagartoParser);
+	}
+
 	/**
 	 * Parses the content using provided lagarto parser.
 	 */
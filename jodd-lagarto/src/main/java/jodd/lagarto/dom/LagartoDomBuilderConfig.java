@@ -45,11 +45,26 @@ public class LagartoDomBuilderConfig extends LagartoParserConfig<LagartoDomBuild
 
 	protected boolean useFosterRules;
 	protected boolean unclosedTagAsOrphanCheck;
+	protected boolean indexDocument;
 
 	protected LagartoHtmlRenderer lagartoHtmlRenderer = new LagartoHtmlRenderer();
 
 	// ---------------------------------------------------------------- access
 
+	public boolean isIndexDocument() {
+		return indexDocument;
+	}
+
+	/**
+	 * Enables {@link DocumentIndex document index}, created lazily on the
+	 * first selection. Selectors starting with id, class or tag name
+	 * then jump directly to candidate elements, instead of walking the tree.
+	 */
+	public LagartoDomBuilderConfig setIndexDocument(boolean indexDocument) {
+		this.indexDocument = indexDocument;
+		return this;
+	}
+
 	public boolean isUnclosedTagAsOrphanCheck() {
 		return unclosedTagAsOrphanCheck;
 	}
@@ -326,6 +326,7 @@ public abstract class Node implements Cloneable {
 		childNodes = null;
 		childElementNodes = null;
 		childElementNodesCount = 0;
+		changed();
 
 		if (removedNodes != null) {
 			for (int i = 0, removedNodesSize = removedNodes.size(); i < removedNodesSize; i++) {
@@ -451,6 +452,7 @@ public abstract class Node implements Cloneable {
 			return false;
 		}
 		attributes.remove(index);
+		changed();
 		return true;
 	}
 
@@ -459,6 +461,7 @@ public abstract class Node implements Cloneable {
 	 */
 	public void setAttribute(String name, String value) {
 		initAttributes();
+		changed();
 
 		String rawAttributeName = name;
 		if (!ownerDocument.config.isCaseSensitive()) {
@@ -781,6 +784,7 @@ public abstract class Node implements Cloneable {
 
 		childElementNodesCount = siblingElementIndex;
 		childElementNodes = null;	// reset child element nodes
+		changed();
 	}
 
 	/**
@@ -805,6 +809,19 @@ public abstract class Node implements Cloneable {
 
 		childElementNodesCount = siblingElementIndex;
 		childElementNodes = null;	// reset child element nodes
+		changed();
+	}
+
+	/**
+	 * Notifies owner document that the tree or attributes has been changed,
+	 * so the {@link DocumentIndex document index} is discarded.
+	 */
+	protected void changed() {
+		Document document = nodeType == NodeType.DOCUMENT ? (Document) this : ownerDocument;
+
+		if (document != null) {
+			document.documentIndex = null;
+		}
 	}
 
 	/**
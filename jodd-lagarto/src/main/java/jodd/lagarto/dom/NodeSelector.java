@@ -28,11 +28,18 @@ package jodd.lagarto.dom;
 import jodd.csselly.CSSelly;
 import jodd.csselly.Combinator;
 import jodd.csselly.CssSelector;
+import jodd.csselly.Selector;
+import jodd.csselly.selector.AttributeSelector;
+import jodd.csselly.selector.Match;
+import jodd.util.StringPool;
 import jodd.util.collection.JoddArrayList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Node selector selects DOM nodes using {@link CSSelly CSS3 selectors}.
@@ -52,7 +59,7 @@ public class NodeSelector {
 	 * Selects nodes using CSS3 selector query.
 	 */
 	public List<Node> select(String query) {
-		Collection<List<CssSelector>> selectorsCollection = CSSelly.parse(query);
+		Collection<List<CssSelector>> selectorsCollection = CSSelly.compile(query);
 		return select(selectorsCollection);
 	}
 
@@ -74,8 +81,16 @@ public class NodeSelector {
 	protected void processSelectors(List<Node> results, List<CssSelector> selectors) {
 		List<Node> selectedNodes = select(rootNode, selectors);
 
+		if (results.isEmpty()) {
+			results.addAll(selectedNodes);
+			return;
+		}
+
+		Set<Node> existingNodes = Collections.newSetFromMap(new IdentityHashMap<>(results.size()));
+		existingNodes.addAll(results);
+
 		for (Node selectedNode : selectedNodes) {
-			if (!results.contains(selectedNode)) {
+			if (existingNodes.add(selectedNode)) {
 				results.add(selectedNode);
 			}
 		}
@@ -135,9 +150,24 @@ public class NodeSelector {
 		for (CssSelector cssSelector : selectors) {
 
 			// create new set of results for current css selector
-			List<Node> selectedNodes = new ArrayList<>();
-			for (Node node : nodes) {
-				walk(node, cssSelector, selectedNodes);
+			List<Node> selectedNodes = new SelectedNodes();
+
+			List<Element> candidates = null;
+			if (cssSelector.getPrevCssSelector() == null) {
+				candidates = lookupIndexedCandidates(rootNode, cssSelector);
+			}
+
+			if (candidates != null) {
+				for (Element candidate : candidates) {
+					if (isDescendant(candidate, rootNode)) {
+						selectAndAdd(candidate, cssSelector, selectedNodes);
+					}
+				}
+			}
+			else {
+				for (Node node : nodes) {
+					walk(node, cssSelector, selectedNodes);
+				}
 			}
 
 			// post-processing: filter out the results
@@ -221,7 +251,8 @@ public class NodeSelector {
 					selectAndAdd(node, cssSelector, result);
 				}
 				break;
-		}	}
+		}
+	}
 
 	/**
 	 * Selects single node for single selector and appends it to the results.
@@ -249,4 +280,89 @@ public class NodeSelector {
 		return cssSelector.accept(currentResults, node, index);
 	}
 
+	// ---------------------------------------------------------------- index
+
+	/**
+	 * Returns candidate elements of the first css selector from the
+	 * {@link DocumentIndex document index}, or <code>null</code> when
+	 * index is not available and the tree has to be walked. Candidates
+	 * are in the tree order and are still matched against the selector.
+	 */
+	protected List<Element> lookupIndexedCandidates(Node rootNode, CssSelector cssSelector) {
+		Document document = rootNode.getNodeType() == Node.NodeType.DOCUMENT ?
+				(Document) rootNode : rootNode.getOwnerDocument();
+
+		if (document == null || (rootNode != document && !isDescendant(rootNode, document))) {
+			return null;
+		}
+
+		DocumentIndex documentIndex = document.getDocumentIndex();
+		if (documentIndex == null) {
+			return null;
+		}
+
+		String className = null;
+
+		int totalSelectors = cssSelector.selectorsCount();
+		for (int i = 0; i < totalSelectors; i++) {
+			Selector selector = cssSelector.getSelector(i);
+			if (selector.getType() != Selector.Type.ATTRIBUTE) {
+				continue;
+			}
+			AttributeSelector attributeSelector = (AttributeSelector) selector;
+			String name = attributeSelector.getName();
+			Match match = attributeSelector.getMatch();
+
+			if (match == Match.EQUALS && name.equals(DocumentIndex.ID)) {
+				return documentIndex.getElementsById(attributeSelector.getValue());
+			}
+			if (className == null && match == Match.INCLUDES && name.equals(DocumentIndex.CLASS)) {
+				className = attributeSelector.getValue();
+			}
+		}
+
+		if (className != null) {
+			return documentIndex.getElementsByClass(className);
+		}
+
+		String element = cssSelector.getElement();
+		if (!element.equals(StringPool.STAR)) {
+			return documentIndex.getElementsByTagName(element);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns <code>true</code> if node is a descendant of given parent.
+	 */
+	protected boolean isDescendant(Node node, Node parent) {
+		Node n = node.getParentNode();
+		while (n != null) {
+			if (n == parent) {
+				return true;
+			}
+			n = n.getParentNode();
+		}
+		return false;
+	}
+
+	/**
+	 * List of selected nodes with constant time {@link #contains(Object)},
+	 * used for detecting duplicates while walking the tree.
+	 */
+	private static class SelectedNodes extends ArrayList<Node> {
+		private final Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		@Override
+		public boolean add(Node node) {
+			nodes.add(node);
+			return super.add(node);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return nodes.contains(o);
+		}
+	}
+
 }
\ No newline at end of file
@@ -33,12 +33,18 @@ import jodd.util.StringUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 import static jodd.util.StringPool.NEWLINE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -100,10 +106,15 @@ class LagartoParserTest {
 
 				boolean isXml = file.getName().endsWith(".xml");
 
-				String[] results = _parse(content, isXml);
+				String[] results = _parse(content, isXml, false);
 				String result = results[0];		// parsing result
 				String result2 = results[1];	// tag writer
 
+				// streaming parser must give the same results
+				String[] readerResults = _parse(content, isXml, true);
+				assertEquals(results[0], readerResults[0]);
+				assertEquals(results[1], readerResults[1]);
+
 				expectedResult = StringUtil.removeChars(expectedResult, '\r');
 				result = StringUtil.removeChars(result, '\r').trim();
 				result2 = StringUtil.removeChars(result2, '\r').trim();
@@ -145,6 +156,42 @@ class LagartoParserTest {
 		assertTrue(processed);
 	}
 
+	@Test
+	void testInputStreamEncoding() {
+		String html = "<html><head><meta charset=\"ISO-8859-2\"></head><body>\u0161\u010d</body></html>";
+
+		LagartoParser lagartoParser = new LagartoParser(new ByteArrayInputStream(html.getBytes(StandardCharsets.ISO_8859_1)));
+		assertEquals("ISO-8859-2", lagartoParser.getEncoding());
+
+		html = "<html><head><meta http-equiv='Content-Type' content='text/html; charset=windows-1250'>";
+		lagartoParser = new LagartoParser(new ByteArrayInputStream(html.getBytes(StandardCharsets.ISO_8859_1)));
+		assertEquals("windows-1250", lagartoParser.getEncoding());
+
+		html = "<html><head><meta charset='utf-16'></head><body>\u0161</body></html>";
+		lagartoParser = new LagartoParser(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)));
+		assertEquals("UTF-8", lagartoParser.getEncoding());
+
+		// BOM wins
+		byte[] bytes = "\uFEFF<meta charset='ISO-8859-2'><b>\u0161</b>".getBytes(StandardCharsets.UTF_16LE);
+		lagartoParser = new LagartoParser(new ByteArrayInputStream(bytes), "ISO-8859-1");
+		assertEquals("UTF-16LE", lagartoParser.getEncoding());
+
+		StringBuilder text = new StringBuilder();
+		lagartoParser.parse(new EmptyTagVisitor() {
+			@Override
+			public void text(CharSequence t) {
+				text.append(t);
+			}
+		});
+		assertEquals("\u0161", text.toString());
+
+		// default
+		lagartoParser = new LagartoParser(new ByteArrayInputStream("<b>x</b>".getBytes()), "ISO-8859-1");
+		assertEquals("ISO-8859-1", lagartoParser.getEncoding());
+
+		assertNull(new LagartoParser("<b>x</b>").getEncoding());
+	}
+
 	private String _parseEmpty(String content) {
 		LagartoParser lagartoParser = new LagartoParser(content);
 		lagartoParser.getConfig().setCalculatePosition(true);
@@ -159,7 +206,24 @@ class LagartoParserTest {
 		return errors.toString();
 	}
 
-	private String[] _parse(String content, boolean isXml) {
+	/**
+	 * Reader that returns few chars at the time.
+	 */
+	static class ChunkedReader extends FilterReader {
+		private int count;
+
+		ChunkedReader(String input) {
+			super(new StringReader(input));
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			count++;
+			return super.read(cbuf, off, Math.min(len, 1 + count % 7));
+		}
+	}
+
+	private String[] _parse(String content, boolean isXml, boolean useReader) {
 		final StringBuilder result = new StringBuilder();
 		final StringBuilder out = new StringBuilder();
 
@@ -263,7 +327,13 @@ class LagartoParserTest {
 		};
 
 
-		LagartoParser lagartoParser = new LagartoParser(content);
+		LagartoParser lagartoParser;
+		if (useReader) {
+			Reader reader = new ChunkedReader(content);
+			lagartoParser = new LagartoParser(reader);
+		} else {
+			lagartoParser = new LagartoParser(content);
+		}
 		lagartoParser.getConfig().setCalculatePosition(true);
 
 		if (isXml) {
@@ -40,6 +40,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NodeSelectorTest {
@@ -378,9 +379,106 @@ class NodeSelectorTest {
 		assertEquals("body", nodes.get(0).nodeName);
 	}
 
+	@Test
+	void testCompiledSelectors() {
+		List<List<CssSelector>> selectors = CSSelly.compile("div.foo, p");
+
+		assertTrue(selectors == CSSelly.compile("div.foo, p"));
+		assertEquals(2, selectors.size());
+		assertEquals("div.foo", selectors.get(0).get(0).toString());
+	}
+
+	@Test
+	void testIndexedDocument() throws IOException {
+		File file = new File(testDataRoot, "one.html");
+		String html = FileUtil.readString(file);
+
+		LagartoDOMBuilder indexedBuilder = new LagartoDOMBuilder();
+		indexedBuilder.getConfig().setIndexDocument(true);
+
+		Document document = new LagartoDOMBuilder().parse(html);
+		Document indexedDocument = indexedBuilder.parse(html);
+
+		assertNull(document.getDocumentIndex());
+		assertNotNull(indexedDocument.getDocumentIndex());
+
+		String[] queries = new String[] {
+			"div", "p", "#jodd", "div#jodd", ".k2", "div.k2", ".k2 p", "div p", "div > p",
+			"p:first-child", "div:nth-child(2)", "*", "#none", ".none", "p, div, .k2", "em#oleg ~ em"
+		};
+
+		for (String query : queries) {
+			assertSelectedSame(new NodeSelector(document), new NodeSelector(indexedDocument), query);
+		}
+
+		Node body = indexedDocument.getChildElement(0).getChildElement(1);
+		Node nestedBody = document.getChildElement(0).getChildElement(1);
+		for (String query : queries) {
+			assertSelectedSame(new NodeSelector(nestedBody), new NodeSelector(body), query);
+		}
+
+		// modify the document
+
+		DocumentIndex documentIndex = indexedDocument.getDocumentIndex();
+
+		Element div = new Element(indexedDocument, "div");
+		div.setAttribute("class", " k3\tk4  ");
+		body.addChild(div);
+
+		assertTrue(documentIndex != indexedDocument.getDocumentIndex());
+		assertEquals(1, indexedDocument.getDocumentIndex().getElementsByClass("k4").size());
+
+		Node p = new NodeSelector(indexedDocument).selectFirst("p");
+		p.setAttribute("id", "jodd2");
+		assertEquals(1, new NodeSelector(indexedDocument).select("#jodd2").size());
+
+		p.detachFromParent();
+		assertEquals(0, new NodeSelector(indexedDocument).select("#jodd2").size());
+		assertEquals(0, new NodeSelector(p).select("p").size());
+	}
+
+	@Test
+	void testIndexedDocumentClone() {
+		LagartoDOMBuilder indexedBuilder = new LagartoDOMBuilder();
+		indexedBuilder.getConfig().setIndexDocument(true);
+
+		Document document = indexedBuilder.parse("<div id=\"a\"><p>one</p></div>");
+		assertEquals(1, new NodeSelector(document).select("#a").size());
+
+		Document clone = document.clone();
+		assertEquals(1, new NodeSelector(clone).select("#a").size());
+
+		DocumentIndex documentIndex = document.getDocumentIndex();
+
+		Node div = new NodeSelector(clone).selectFirst("div");
+		assertSame(clone, div.getOwnerDocument());
+		assertSame(clone, div.getChild(0).getOwnerDocument());
+
+		div.setAttribute("id", "b");
+
+		assertEquals(1, new NodeSelector(clone).select("#b").size());
+		assertEquals(0, new NodeSelector(clone).select("#a").size());
+		assertSame(documentIndex, document.getDocumentIndex());
+		assertEquals(1, new NodeSelector(document).select("#a").size());
+
+		// changes of the document children
+		clone.addChild(new Element(clone, "span"));
+		assertEquals(1, new NodeSelector(clone).select("span").size());
+	}
+
 
 	// ---------------------------------------------------------------- utils
 
+	private void assertSelectedSame(NodeSelector expectedSelector, NodeSelector nodeSelector, String query) {
+		List<Node> expected = expectedSelector.select(query);
+		List<Node> nodes = nodeSelector.select(query);
+
+		assertEquals(expected.size(), nodes.size(), query);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getHtml(), nodes.get(i).getHtml(), query);
+		}
+	}
+
 	private NodeSelector createNodeFilter() throws IOException {
 		File file = new File(testDataRoot, "one.html");
 		String html = FileUtil.readString(file);
@@ -25,13 +25,19 @@
 
 package jodd.madvoc;
 
+import jodd.madvoc.component.AsyncOutputWriter;
 import jodd.madvoc.component.MadvocController;
 import jodd.madvoc.config.ActionRuntime;
 import jodd.madvoc.injector.Targets;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static jodd.exception.ExceptionUtil.unwrapThrowable;
 import static jodd.exception.ExceptionUtil.wrapToException;
@@ -47,7 +53,7 @@ public class ActionRequest {
 	protected final MadvocController madvocController;
 	protected final ActionRuntime actionRuntime;
 	protected final String actionPath;
-	protected final String[] actionPathChunks;
+	protected String[] actionPathChunks;
 	protected HttpServletRequest servletRequest;
 	protected HttpServletResponse servletResponse;
 
@@ -149,11 +155,113 @@ public class ActionRequest {
 	/**
 	 * Returns chunks of action path. Action path is split on {@code /}. For example,
 	 * the path {@code "/hello/world"} would return 2 chunks: {@code hello} and {@code world}.
+	 * When not provided, chunks are resolved lazily, on first access.
 	 */
 	public String[] actionPathChunks() {
+		if (actionPathChunks == null) {
+			actionPathChunks = MadvocUtil.splitPathToChunks(actionPath, actionRuntime.routeChunk());
+		}
 		return actionPathChunks;
 	}
 
+	// ---------------------------------------------------------------- async
+
+	protected AsyncContext asyncContext;
+	protected boolean nonBlockingIO;
+	protected boolean asyncCompletionDeferred;
+	protected byte[] requestBody;
+
+	/**
+	 * Number of parties that have to finish before the async request is completed:
+	 * the action invocation and, optionally, the non-blocking write.
+	 */
+	private AtomicInteger asyncPendingCount;
+
+	/**
+	 * Binds async context of asynchronously invoked action. When non-blocking I/O is
+	 * enabled, results may {@link #writeNonBlocking(InputStream) write the output}
+	 * without blocking the thread.
+	 */
+	public void bindAsyncContext(AsyncContext asyncContext, boolean nonBlockingIO) {
+		this.asyncContext = asyncContext;
+		this.nonBlockingIO = nonBlockingIO;
+		this.asyncPendingCount = new AtomicInteger(1);
+	}
+
+	/**
+	 * Returns async context or {@code null} if action is not invoked asynchronously.
+	 */
+	public AsyncContext asyncContext() {
+		return asyncContext;
+	}
+
+	/**
+	 * Returns {@code true} if action is invoked asynchronously, with non-blocking I/O.
+	 */
+	public boolean isNonBlockingIO() {
+		return asyncContext != null && nonBlockingIO;
+	}
+
+	/**
+	 * Returns {@code true} if async request is going to be completed
+	 * after the non-blocking write, and not only after the action invocation.
+	 */
+	public boolean isAsyncCompletionDeferred() {
+		return asyncCompletionDeferred;
+	}
+
+	/**
+	 * Marks that the action invocation or the non-blocking write is done.
+	 * Async request is completed when both are done, no matter which one
+	 * finishes first.
+	 */
+	public void completeAsync() {
+		if (asyncPendingCount.decrementAndGet() == 0) {
+			asyncContext.complete();
+		}
+	}
+
+	/**
+	 * Binds request body that has been read before the action invocation.
+	 */
+	public void bindRequestBody(byte[] requestBody) {
+		this.requestBody = requestBody;
+	}
+
+	/**
+	 * Returns request body read before the action invocation or {@code null}
+	 * if body has to be read from the request.
+	 */
+	public byte[] requestBody() {
+		return requestBody;
+	}
+
+	/**
+	 * Writes the content to the response output using non-blocking I/O. Async
+	 * request is completed when both the write and the action invocation are done.
+	 * Returns {@code false} if non-blocking write is not available and content
+	 * has to be written in usual, blocking, way.
+	 */
+	public boolean writeNonBlocking(InputStream content) throws IOException {
+		if (!isNonBlockingIO() || asyncCompletionDeferred) {
+			return false;
+		}
+
+		ServletOutputStream output = servletResponse.getOutputStream();
+
+		asyncCompletionDeferred = true;
+		asyncPendingCount.incrementAndGet();
+		try {
+			output.setWriteListener(new AsyncOutputWriter(content, output, this::completeAsync));
+		}
+		catch (IllegalStateException | UnsupportedOperationException ex) {
+			asyncCompletionDeferred = false;
+			asyncPendingCount.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
 	// ---------------------------------------------------------------- ctor
 
 	/**
@@ -248,6 +356,16 @@ public class ActionRequest {
 		}
 
 		Object[] params = targets.extractParametersValues();
+
+		final ActionInvoker actionInvoker = actionRuntime.actionInvoker();
+		if (actionInvoker != null) {
+			try {
+				return actionInvoker.invoke(action, params);
+			} catch(Throwable throwable) {
+				throw wrapToException(unwrapThrowable(throwable));
+			}
+		}
+
 		try {
 			return actionRuntime.actionClassMethod().invoke(action, params);
 		} catch(InvocationTargetException itex) {
@@ -45,6 +45,7 @@ import jodd.util.ClassLoaderUtil;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -76,8 +77,9 @@ public class AutomagicMadvocConfigurator implements MadvocComponentLifecycle.Ini
 
 	protected final byte[] madvocComponentAnnotation;
 
-	protected List<Runnable> webappConfigurations = new ArrayList<>();
-	protected List<Runnable> madvocComponents = new ArrayList<>();
+	// synchronized, as the scanner may be parallel
+	protected List<Runnable> webappConfigurations = Collections.synchronizedList(new ArrayList<>());
+	protected List<Runnable> madvocComponents = Collections.synchronizedList(new ArrayList<>());
 
 	public AutomagicMadvocConfigurator() {
 		actionClassSuffix = "Action";
@@ -253,6 +253,22 @@ public final class MadvocConfig {
 		this.preventCaching = preventCaching;
 	}
 
+	// ---------------------------------------------------------------- invokers
+
+	private boolean generateActionInvokers;
+
+	public boolean isGenerateActionInvokers() {
+		return generateActionInvokers;
+	}
+
+	/**
+	 * Specifies if Madvoc should generate {@link ActionInvoker action invokers},
+	 * that call action methods directly, instead of using reflection.
+	 */
+	public void setGenerateActionInvokers(boolean generateActionInvokers) {
+		this.generateActionInvokers = generateActionInvokers;
+	}
+
 	// ---------------------------------------------------------------- result
 
 	private String resultPathPrefix;
@@ -317,6 +333,7 @@ public final class MadvocConfig {
 				",\n\tdetectDuplicatePathsEnabled=" + detectDuplicatePathsEnabled +
 				",\n\tencoding='" + encoding + '\'' +
 				",\n\tfileUploadFactory=" + fileUploadFactory +
+				",\n\tgenerateActionInvokers=" + generateActionInvokers +
 				",\n\tpathMacroClass=" + pathMacroClass.getName() +
 				",\n\tpreventCaching=" + preventCaching +
 				",\n\trootPackages=" + rootPackages +
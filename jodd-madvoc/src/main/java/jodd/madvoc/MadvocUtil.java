@@ -25,6 +25,7 @@
 
 package jodd.madvoc;
 
+import jodd.madvoc.config.RouteChunk;
 import jodd.util.CharUtil;
 import jodd.util.StringPool;
 import jodd.util.StringUtil;
@@ -39,6 +40,28 @@ public class MadvocUtil {
 		return StringUtil.splitc(path, '/');
 	}
 
+	/**
+	 * Splits action path to chunks, as they were matched by the lookup of given route.
+	 * Extensions of the last chunk are stripped until it matches the last route chunk.
+	 */
+	public static String[] splitPathToChunks(String actionPath, RouteChunk routeChunk) {
+		final String[] pathChunks = splitPathToChunks(actionPath);
+		if (routeChunk == null) {
+			return pathChunks;
+		}
+		final int lastChunkNdx = pathChunks.length - 1;
+
+		while (!routeChunk.match(pathChunks[lastChunkNdx])) {
+			final String lastPath = pathChunks[lastChunkNdx];
+			final int lastNdx = lastPath.lastIndexOf('.');
+			if (lastNdx == -1) {
+				break;
+			}
+			pathChunks[lastChunkNdx] = lastPath.substring(0, lastNdx);
+		}
+		return pathChunks;
+	}
+
 	/**
 	 * Locates last dot after the last slash or just slash.
 	 */
@@ -35,6 +35,7 @@ import jodd.madvoc.config.ActionDefinition;
 import jodd.madvoc.config.ActionRuntime;
 import jodd.madvoc.config.RouteChunk;
 import jodd.madvoc.config.Routes;
+import jodd.madvoc.proxetta.ActionInvokerGenerator;
 import jodd.petite.meta.PetiteInject;
 
 import java.lang.reflect.Method;
@@ -165,6 +166,10 @@ public class ActionsManager {
 
 		routeChunk.bind(actionRuntime);
 
+		if (madvocConfig.isGenerateActionInvokers() && !actionRuntime.isActionHandlerDefined()) {
+			bindActionInvoker(actionRuntime);
+		}
+
 		// finally
 
 		runtimes.put(actionRuntime.actionString(), actionRuntime);
@@ -177,12 +182,34 @@ public class ActionsManager {
 		return actionRuntime;
 	}
 
+	/**
+	 * Generates and binds {@link jodd.madvoc.ActionInvoker action invoker}. When
+	 * invoker can not be generated, action method is invoked using reflection.
+	 */
+	protected void bindActionInvoker(ActionRuntime actionRuntime) {
+		try {
+			actionRuntime.bind(ActionInvokerGenerator.generate(actionRuntime.actionClass(), actionRuntime.actionClassMethod()));
+		}
+		catch (Exception ex) {
+			log.warn("Action invoker not generated for " + actionRuntime.actionString(), ex);
+		}
+	}
+
 	// ---------------------------------------------------------------- look-up
 
 	public ActionRuntime lookup(final String method, final String[] actionPath) {
 		return routes.lookup(method, actionPath);
 	}
 
+	/**
+	 * Lookups action runtime for given method and action path, without
+	 * splitting the path to chunks.
+	 * @see Routes#lookup(String, String)
+	 */
+	public ActionRuntime lookup(final String method, final String actionPath) {
+		return routes.lookup(method, actionPath);
+	}
+
 	/**
 	 * Lookups action runtime config for given action class and method string (aka 'action string').
 	 * The action string has the following format: <code>className#methodName</code>.
@@ -30,16 +30,27 @@ import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 import jodd.madvoc.ActionRequest;
 import jodd.madvoc.MadvocException;
+import jodd.madvoc.ScopeType;
 
 import javax.servlet.AsyncContext;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Thread pool and executor for Async actions.
+ * Thread pool and executor for Async actions. Executor service is pluggable:
+ * it may be {@link #setExecutorService(ExecutorService) provided}, otherwise it is
+ * {@link #createExecutorService() created} on start, using virtual threads
+ * when enabled and supported by the runtime. Optionally, request body is read
+ * and results are written using Servlet non-blocking I/O.
  */
 public class AsyncActionExecutor {
 
@@ -51,6 +62,8 @@ public class AsyncActionExecutor {
 	private int maximumPoolSize = 200;
 	private long keepAliveTimeMillis = 5000L;
 	private int queueCapacity = 100;
+	private boolean virtualThreads;
+	private boolean nonBlockingIO;
 
 	public void setCorePoolSize(int corePoolSize) {
 		this.corePoolSize = corePoolSize;
@@ -68,8 +81,48 @@ public class AsyncActionExecutor {
 		this.queueCapacity = queueCapacity;
 	}
 
+	/**
+	 * Uses new virtual thread for each async action, when supported by
+	 * the runtime. Otherwise, the thread pool is used.
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Reads request body and writes results using non-blocking I/O.
+	 */
+	public void setNonBlockingIO(boolean nonBlockingIO) {
+		this.nonBlockingIO = nonBlockingIO;
+	}
+
+	/**
+	 * Sets custom executor service, used instead of the created one.
+	 */
+	public void setExecutorService(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
 	public void start() {
-		executorService = new ThreadPoolExecutor(
+		if (executorService == null) {
+			executorService = createExecutorService();
+		}
+	}
+
+	/**
+	 * Creates executor service.
+	 */
+	protected ExecutorService createExecutorService() {
+		if (virtualThreads) {
+			ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+
+			if (virtualThreadExecutor != null) {
+				return virtualThreadExecutor;
+			}
+			log.warn("Virtual threads are not supported, thread pool is used");
+		}
+
+		return new ThreadPoolExecutor(
 			corePoolSize,
 			maximumPoolSize,
 			keepAliveTimeMillis,
@@ -78,7 +131,22 @@ public class AsyncActionExecutor {
 	}
 
 	/**
-	 * Invokes an action asynchronously by submitting it to the thread pool.
+	 * Creates virtual-thread-per-task executor or returns {@code null}
+	 * if runtime does not support virtual threads.
+	 */
+	protected ExecutorService createVirtualThreadExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+			return (ExecutorService) method.invoke(null);
+		}
+		catch (Exception ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Invokes an action asynchronously by submitting it to the executor.
 	 */
 	public void invoke(ActionRequest actionRequest) {
 		if (executorService == null) {
@@ -91,14 +159,77 @@ public class AsyncActionExecutor {
 
 		AsyncContext asyncContext = servletRequest.startAsync();
 
-		executorService.submit(() -> {
+		actionRequest.bindAsyncContext(asyncContext, nonBlockingIO);
+
+		if (nonBlockingIO && actionRequest.targets().usesScope(ScopeType.BODY)) {
+			final ServletInputStream input;
 			try {
-				actionRequest.invoke();
-			} catch (Exception ex) {
-				log.error("Invoking async action path failed: " , ExceptionUtil.unwrapThrowable(ex));
-			} finally {
-				asyncContext.complete();
+				input = servletRequest.getInputStream();
+			}
+			catch (IOException | IllegalStateException ex) {
+				submit(actionRequest, asyncContext);
+				return;
 			}
-		});
+
+			input.setReadListener(new AsyncBodyReader(
+				input,
+				body -> {
+					actionRequest.bindRequestBody(body);
+					submit(actionRequest, asyncContext);
+				},
+				throwable -> readFailed(actionRequest, asyncContext, throwable)));
+			return;
+		}
+
+		submit(actionRequest, asyncContext);
+	}
+
+	/**
+	 * Submits action request to the executor. Async request is completed
+	 * after the invocation and, when started, after the non-blocking write.
+	 * Failed actions are responded with the error status, if possible.
+	 */
+	protected void submit(ActionRequest actionRequest, AsyncContext asyncContext) {
+		try {
+			executorService.submit(() -> {
+				try {
+					actionRequest.invoke();
+				} catch (Exception ex) {
+					log.error("Invoking async action path failed: " , ExceptionUtil.unwrapThrowable(ex));
+					if (!actionRequest.isAsyncCompletionDeferred()) {
+						setErrorStatus(actionRequest, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+					}
+				} finally {
+					actionRequest.completeAsync();
+				}
+			});
+		}
+		catch (RejectedExecutionException rex) {
+			log.error("Async action rejected: " + actionRequest, rex);
+			setErrorStatus(actionRequest, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			asyncContext.complete();
+		}
+	}
+
+	/**
+	 * Invoked when non-blocking read of the request body fails. Action is
+	 * not invoked and the async request is completed with the error status.
+	 */
+	protected void readFailed(ActionRequest actionRequest, AsyncContext asyncContext, Throwable throwable) {
+		log.error("Reading async request body failed: ", throwable);
+		setErrorStatus(actionRequest, HttpServletResponse.SC_BAD_REQUEST);
+		asyncContext.complete();
+	}
+
+	/**
+	 * Sets the error status, unless response is already committed.
+	 */
+	protected void setErrorStatus(ActionRequest actionRequest, int status) {
+		HttpServletResponse servletResponse = actionRequest.httpServletResponse();
+
+		if (!servletResponse.isCommitted()) {
+			servletResponse.reset();
+			servletResponse.setStatus(status);
+		}
 	}
 }
@@ -0,0 +1,77 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.component;
+
+import jodd.core.JoddCore;
+import jodd.io.FastByteArrayOutputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking reader of the request body. Reads only the data
+ * that is available, without blocking the thread, until all the
+ * data is read. Then the whole body is passed to the consumer.
+ */
+public class AsyncBodyReader implements ReadListener {
+
+	private final ServletInputStream input;
+	private final Consumer<byte[]> bodyConsumer;
+	private final Consumer<Throwable> errorConsumer;
+	private final FastByteArrayOutputStream body;
+	private final byte[] buffer;
+
+	public AsyncBodyReader(ServletInputStream input, Consumer<byte[]> bodyConsumer, Consumer<Throwable> errorConsumer) {
+		this.input = input;
+		this.bodyConsumer = bodyConsumer;
+		this.errorConsumer = errorConsumer;
+		this.body = new FastByteArrayOutputStream();
+		this.buffer = new byte[JoddCore.get().defaults().getIoBufferSize()];
+	}
+
+	@Override
+	public void onDataAvailable() throws IOException {
+		while (input.isReady() && !input.isFinished()) {
+			int read = input.read(buffer);
+			if (read == -1) {
+				return;
+			}
+			body.write(buffer, 0, read);
+		}
+	}
+
+	@Override
+	public void onAllDataRead() {
+		bodyConsumer.accept(body.toByteArray());
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		errorConsumer.accept(throwable);
+	}
+}
@@ -0,0 +1,89 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.component;
+
+import jodd.core.JoddCore;
+import jodd.io.StreamUtil;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking writer of the response content. Content is written only
+ * while output is ready, so the thread is never blocked on a slow client.
+ * When all content is written, or on an error, completion callback is called.
+ */
+public class AsyncOutputWriter implements WriteListener {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncOutputWriter.class);
+
+	private final InputStream content;
+	private final ServletOutputStream output;
+	private final Runnable onComplete;
+	private final byte[] buffer;
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	public AsyncOutputWriter(InputStream content, ServletOutputStream output, Runnable onComplete) {
+		this.content = content;
+		this.output = output;
+		this.onComplete = onComplete;
+		this.buffer = new byte[JoddCore.get().defaults().getIoBufferSize()];
+	}
+
+	@Override
+	public void onWritePossible() throws IOException {
+		while (output.isReady()) {
+			int read = content.read(buffer);
+			if (read == -1) {
+				complete();
+				return;
+			}
+			output.write(buffer, 0, read);
+		}
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		log.error("Writing async response failed", throwable);
+		complete();
+	}
+
+	/**
+	 * Closes the content and calls the completion callback, only once.
+	 */
+	protected void complete() {
+		if (!completed.compareAndSet(false, true)) {
+			return;
+		}
+		StreamUtil.close(content);
+		onComplete.run();
+	}
+}
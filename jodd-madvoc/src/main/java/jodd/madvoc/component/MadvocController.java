@@ -30,7 +30,6 @@ import jodd.log.LoggerFactory;
 import jodd.madvoc.ActionRequest;
 import jodd.madvoc.MadvocConfig;
 import jodd.madvoc.MadvocException;
-import jodd.madvoc.MadvocUtil;
 import jodd.madvoc.config.ActionRuntime;
 import jodd.madvoc.result.ActionResult;
 import jodd.petite.meta.PetiteInject;
@@ -105,10 +104,8 @@ public class MadvocController implements MadvocComponentLifecycle.Ready {
 
 			actionPath = actionPathRewriter.rewrite(servletRequest, actionPath, httpMethod);
 
-			final String[] actionPathChunks = MadvocUtil.splitPathToChunks(actionPath);
-
 			// resolve action runtime
-			ActionRuntime actionRuntime = actionsManager.lookup(httpMethod, actionPathChunks);
+			ActionRuntime actionRuntime = actionsManager.lookup(httpMethod, actionPath);
 			if (actionRuntime == null) {
 				return actionPath;
 			}
@@ -141,7 +138,7 @@ public class MadvocController implements MadvocComponentLifecycle.Ready {
 
 			final ActionRequest actionRequest = createActionRequest(
 				actionPath,
-				actionPathChunks,
+				null,
 				actionRuntime,
 				action,
 				servletRequest,
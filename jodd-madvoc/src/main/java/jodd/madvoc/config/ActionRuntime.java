@@ -27,6 +27,7 @@ package jodd.madvoc.config;
 
 import jodd.madvoc.ActionConfig;
 import jodd.madvoc.ActionHandler;
+import jodd.madvoc.ActionInvoker;
 import jodd.madvoc.filter.ActionFilter;
 import jodd.madvoc.interceptor.ActionInterceptor;
 import jodd.madvoc.result.ActionResult;
@@ -56,6 +57,7 @@ public class ActionRuntime {
 
 	// run-time data
 	private RouteChunk routeChunk;
+	private ActionInvoker actionInvoker;
 	private final ActionFilter[] filters;
 	private final ActionInterceptor[] interceptors;
 	private final ActionConfig actionConfig;
@@ -210,6 +212,21 @@ public class ActionRuntime {
 		return routeChunk;
 	}
 
+	/**
+	 * Binds generated action invoker to this configuration.
+	 */
+	public void bind(ActionInvoker actionInvoker) {
+		this.actionInvoker = actionInvoker;
+	}
+
+	/**
+	 * Returns action invoker or {@code null} if action method
+	 * is invoked using reflection.
+	 */
+	public ActionInvoker actionInvoker() {
+		return actionInvoker;
+	}
+
 	// ---------------------------------------------------------------- to string
 
 	/**
@@ -0,0 +1,123 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.config;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverterManager;
+import jodd.util.ClassUtil;
+
+import java.util.Collection;
+
+/**
+ * Simple property of a bean type with pre-resolved setter.
+ * Injection into the injection point works as setting the property with
+ * the silent <code>BeanUtil</code>, but without resolving the property
+ * on each injection. Type converter is still looked up on each injection,
+ * so converters registered later are used, too.
+ */
+public class InjectionPoint {
+
+	private final Class beanType;
+	private final Setter setter;
+	private final Class<?> type;
+	private final Class<? extends Collection> collectionType;
+	private final Class<?> componentType;
+
+	private InjectionPoint(Class beanType, Setter setter) {
+		this.beanType = beanType;
+		this.setter = setter;
+
+		if (setter == null) {
+			this.type = null;
+			this.collectionType = null;
+			this.componentType = null;
+			return;
+		}
+		this.type = setter.getSetterRawType();
+
+		if (ClassUtil.isTypeOf(type, Collection.class)) {
+			this.collectionType = type.asSubclass(Collection.class);
+			this.componentType = setter.getSetterRawComponentType();
+		}
+		else {
+			this.collectionType = null;
+			this.componentType = null;
+		}
+	}
+
+	/**
+	 * Resolves injection point of a simple property. Returned injection
+	 * point is not {@link #isResolved() resolved} when bean type is a map
+	 * or when property has no setter.
+	 */
+	public static InjectionPoint resolve(Class beanType, String propertyName) {
+		ClassDescriptor cd = ClassIntrospector.get().lookup(beanType);
+
+		if (cd.isMap()) {
+			return new InjectionPoint(beanType, null);
+		}
+
+		PropertyDescriptor pd = cd.getPropertyDescriptor(propertyName, true);
+
+		return new InjectionPoint(beanType, pd != null ? pd.getSetter(true) : null);
+	}
+
+	/**
+	 * Returns bean type of this injection point.
+	 */
+	public Class beanType() {
+		return beanType;
+	}
+
+	/**
+	 * Returns {@code true} if setter is resolved and injection point can be used.
+	 */
+	public boolean isResolved() {
+		return setter != null;
+	}
+
+	/**
+	 * Converts the value and injects it into the bean. Exceptions are ignored.
+	 */
+	public void inject(Object bean, Object value) {
+		try {
+			if (componentType != null) {
+				value = TypeConverterManager.get().convertToCollection(value, collectionType, componentType);
+			}
+			else {
+				value = TypeConverterManager.get().convertType(value, type);
+			}
+
+			setter.invokeSetter(bean, value);
+		}
+		catch (Exception ignore) {
+		}
+	}
+
+}
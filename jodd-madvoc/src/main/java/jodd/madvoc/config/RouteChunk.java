@@ -34,7 +34,11 @@ import jodd.util.ArraysUtil;
 public class RouteChunk {
 
 	private final String value;
+	private final int valueHash;
 	private RouteChunk[] children;
+	private RouteChunk[] staticChildren;	// open-addressing hash table
+	private int staticChildrenCount;
+	private RouteChunk[] macroChildren;
 	private final PathMacros pathMacros;
 	private final Routes routes;
 	private final RouteChunk parent;
@@ -45,6 +49,7 @@ public class RouteChunk {
 		this.routes = routes;
 		this.parent = parent;
 		this.value = value;
+		this.valueHash = value.hashCode();
 		this.pathMacros = routes.buildActionPathMacros(value);
 		if (pathMacros != null) {
 			this.hasMacros = true;
@@ -67,6 +72,15 @@ public class RouteChunk {
 		else {
 			children = ArraysUtil.append(children, routeChunk);
 		}
+		if (routeChunk.pathMacros == null) {
+			addStaticChild(routeChunk);
+		}
+		else if (macroChildren == null) {
+			macroChildren = new RouteChunk[] {routeChunk};
+		}
+		else {
+			macroChildren = ArraysUtil.append(macroChildren, routeChunk);
+		}
 		return routeChunk;
 	}
 
@@ -90,6 +104,7 @@ public class RouteChunk {
 	public void bind(ActionRuntime actionRuntime) {
 		this.actionRuntime = actionRuntime;
 		this.actionRuntime.bind(this);
+		routes.bindStaticPath(this);
 	}
 
 	/**
@@ -142,6 +157,13 @@ public class RouteChunk {
 		return children;
 	}
 
+	/**
+	 * Returns children with path macros or {@code null} if there are none.
+	 */
+	public RouteChunk[] macroChildren() {
+		return macroChildren;
+	}
+
 	// ---------------------------------------------------------------- lookup/match
 
 	/**
@@ -154,6 +176,72 @@ public class RouteChunk {
 		return pathMacros.match(value) != -1;
 	}
 
+	/**
+	 * Finds child without macros that equals to the given value.
+	 * Returns {@code null} if such child does not exist.
+	 */
+	public RouteChunk findStaticChild(String value) {
+		return findStaticChild(value, 0, value.length());
+	}
+
+	/**
+	 * Finds child without macros that equals to the region of the given path.
+	 * No new strings are created during the lookup.
+	 */
+	public RouteChunk findStaticChild(String path, int from, int to) {
+		if (staticChildren == null) {
+			return null;
+		}
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + path.charAt(i);
+		}
+		final int len = to - from;
+		final int mask = staticChildren.length - 1;
+		int ndx = spread(hash) & mask;
+
+		while (true) {
+			RouteChunk child = staticChildren[ndx];
+			if (child == null) {
+				return null;
+			}
+			if (child.valueHash == hash && child.value.length() == len && child.value.regionMatches(0, path, from, len)) {
+				return child;
+			}
+			ndx = (ndx + 1) & mask;
+		}
+	}
+
+	private void addStaticChild(RouteChunk routeChunk) {
+		if (staticChildren == null) {
+			staticChildren = new RouteChunk[4];
+		}
+		else if ((staticChildrenCount + 1) * 2 > staticChildren.length) {
+			RouteChunk[] oldChildren = staticChildren;
+			staticChildren = new RouteChunk[oldChildren.length * 2];
+			for (RouteChunk child : oldChildren) {
+				if (child != null) {
+					insertStaticChild(child);
+				}
+			}
+		}
+		insertStaticChild(routeChunk);
+		staticChildrenCount++;
+	}
+
+	private void insertStaticChild(RouteChunk routeChunk) {
+		final int mask = staticChildren.length - 1;
+		int ndx = spread(routeChunk.valueHash) & mask;
+		while (staticChildren[ndx] != null) {
+			ndx = (ndx + 1) & mask;
+		}
+		staticChildren[ndx] = routeChunk;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
 	@Override
 	public String toString() {
 		return "RouteChunk{" +
@@ -32,6 +32,8 @@ import jodd.util.ClassUtil;
 import jodd.util.StringPool;
 import jodd.util.StringUtil;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -42,6 +44,7 @@ public class Routes {
 
 	private final RouteChunk root;
 	private RouteChunk anyMethodChunk;
+	private final Map<String, Map<String, ActionRuntime>> staticPaths = new HashMap<>();
 	private Supplier<MadvocConfig> madvocConfigSupplier;
 
 	public Routes(Supplier<MadvocConfig> madvocConfigSupplier) {
@@ -75,100 +78,249 @@ public class Routes {
 		return chunk;
 	}
 
-	public ActionRuntime lookup(final String method, final String[] pathChunks) {
+	/**
+	 * Binds static path of given endpoint, so it can be resolved with
+	 * a single hash lookup. Paths that have macros or are not in the
+	 * canonical form (like <code>/foo/bar</code>) are ignored and resolved
+	 * by walking the tree.
+	 */
+	void bindStaticPath(RouteChunk chunk) {
+		if (chunk.hasMacrosOnPath()) {
+			return;
+		}
+		StringBuilder path = new StringBuilder();
+		RouteChunk methodChunk = chunk;
+		while (methodChunk.parent() != root) {
+			path.insert(0, methodChunk.get()).insert(0, '/');
+			methodChunk = methodChunk.parent();
+		}
+		if (path.length() == 0) {
+			return;
+		}
+		final String staticPath = path.toString();
+		if (!isCanonicalPath(staticPath, staticPath.length())) {
+			return;
+		}
+		staticPaths
+			.computeIfAbsent(methodChunk.get(), m -> new HashMap<>())
+			.put(staticPath, chunk.value());
+	}
+
+	/**
+	 * Returns {@code true} if path region starts with a slash,
+	 * does not end with it and has no empty chunks.
+	 */
+	private static boolean isCanonicalPath(String path, int end) {
+		if (end == 0 || path.charAt(0) != '/') {
+			return false;
+		}
+		if (end > 1 && path.charAt(end - 1) == '/') {
+			return false;
+		}
+		for (int i = 1; i < end; i++) {
+			if (path.charAt(i) == '/' && path.charAt(i - 1) == '/') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// ---------------------------------------------------------------- lookup
+
+	/**
+	 * Lookups action runtime for given method and action path. Path is matched
+	 * without splitting it to chunks: static paths are resolved with a single
+	 * hash lookup, other paths are matched against the tree, where static
+	 * chunks are found by hash and take precedence over chunks with macros.
+	 * If nothing is found, extensions of the last chunk are stripped, one by one.
+	 */
+	public ActionRuntime lookup(final String method, final String actionPath) {
+		final int start = actionPath.startsWith(StringPool.SLASH) ? 1 : 0;
+		int end = actionPath.length();
+		if (end > start && actionPath.charAt(end - 1) == '/') {
+			end--;
+		}
+		if (end < start) {
+			end = start;
+		}
+
 		while (true) {
-			ActionRuntime actionRuntime = _lookup(method, pathChunks);
+			ActionRuntime actionRuntime = _lookup(method, actionPath, start, end);
 			if (actionRuntime != null) {
 				return actionRuntime;
 			}
 
-			final String lastPath = pathChunks[pathChunks.length - 1];
-			final int lastNdx = lastPath.lastIndexOf('.');
-			if (lastNdx == -1) {
+			final int lastNdx = actionPath.lastIndexOf('.', end - 1);
+			if (lastNdx < start || lastNdx < actionPath.lastIndexOf('/', end - 1)) {
 				return null;
 			}
-			pathChunks[pathChunks.length - 1] = lastPath.substring(0, lastNdx);
+			end = lastNdx;
 		}
 	}
 
-	private ActionRuntime _lookup(String method, String[] pathChunks) {
+	private ActionRuntime _lookup(String method, final String actionPath, final int start, final int end) {
+		final String staticPath;
+		if (start == 1 && isCanonicalPath(actionPath, end)) {
+			staticPath = end == actionPath.length() ? actionPath : actionPath.substring(0, end);
+		}
+		else {
+			staticPath = null;
+		}
 
 		// 1 - match method
 		if (method != null) {
 			method = method.toUpperCase();
-			RouteChunk methodChunk = root.findOrCreateChild(method);
-			ActionRuntime actionRuntime = lookupFrom(methodChunk, pathChunks);
+			ActionRuntime actionRuntime = lookupFrom(method, actionPath, staticPath, start, end);
 			if (actionRuntime != null) {
 				return actionRuntime;
 			}
 		}
 
 		// 2 - match all methods
-		if (anyMethodChunk != null) {
-			ActionRuntime actionRuntime = lookupFrom(anyMethodChunk, pathChunks);
-			if (actionRuntime != null) {
-				return actionRuntime;
+		return lookupFrom(ANY_METHOD, actionPath, staticPath, start, end);
+	}
+
+	private ActionRuntime lookupFrom(String method, String actionPath, String staticPath, int start, int end) {
+		if (staticPath != null) {
+			Map<String, ActionRuntime> methodStaticPaths = staticPaths.get(method);
+			if (methodStaticPaths != null) {
+				ActionRuntime actionRuntime = methodStaticPaths.get(staticPath);
+				if (actionRuntime != null) {
+					return actionRuntime;
+				}
 			}
 		}
 
-		// nothing found
-		return null;
+		RouteChunk methodChunk = root.findStaticChild(method);
+		if (methodChunk == null) {
+			return null;
+		}
+		return match(methodChunk, actionPath, start, end);
 	}
 
-	private ActionRuntime lookupFrom(RouteChunk chunk, String[] path) {
-		// matched, scan children
-		RouteChunk[] children = chunk.children();
+	/**
+	 * Matches children of the given chunk against the path chunk that starts
+	 * at given index. Path chunks are separated exactly as
+	 * {@link jodd.madvoc.MadvocUtil#splitPathToChunks(String)} does.
+	 */
+	private ActionRuntime match(RouteChunk chunk, String path, int from, int end) {
+		int to = path.indexOf('/', from);
+		if (to == -1 || to > end) {
+			to = end;
+		}
+		final boolean last = to == end;
+		int next = to;
+		if (!last) {
+			while (next < end && path.charAt(next) == '/') {
+				next++;
+			}
+		}
+
+		RouteChunk child = chunk.findStaticChild(path, from, to);
+		if (child != null) {
+			ActionRuntime matched = matchChild(child, path, last, next, end);
+			if (matched != null) {
+				return matched;
+			}
+		}
 
-		if (children == null) {
+		RouteChunk[] macroChildren = chunk.macroChildren();
+		if (macroChildren == null) {
 			return null;
 		}
 
-		for (RouteChunk child : children) {
-			ActionRuntime matched = match(child, path, 0);
+		final String value = path.substring(from, to);
 
+		for (RouteChunk macroChild : macroChildren) {
+			if (!macroChild.match(value)) {
+				continue;
+			}
+			ActionRuntime matched = matchChild(macroChild, path, last, next, end);
 			if (matched != null) {
 				return matched;
 			}
 		}
-
 		return null;
 	}
 
-	private ActionRuntime match(RouteChunk chunk, String[] path, int ndx) {
-		final int maxDeep = path.length - 1;
-		if (ndx > maxDeep) {
-			// too deep, don't go any further
-			return null;
+	private ActionRuntime matchChild(RouteChunk child, String path, boolean last, int next, int end) {
+		if (last) {
+			// end of the path
+			return child.value();
 		}
+		return match(child, path, next, end);
+	}
 
-		if (!chunk.match(path[ndx])) {
-			// no match, continue
-			return null;
-		}
+	/**
+	 * Lookups action runtime for given method and path chunks.
+	 * Works as {@link #lookup(String, String)}, but extensions are
+	 * stripped from the last element of given array.
+	 */
+	public ActionRuntime lookup(final String method, final String[] pathChunks) {
+		while (true) {
+			ActionRuntime actionRuntime = _lookup(method, pathChunks);
+			if (actionRuntime != null) {
+				return actionRuntime;
+			}
 
-		if (ndx == maxDeep) {
-			// end of the path
-			if (chunk.isEndpoint()) {
-				return chunk.value();
+			final String lastPath = pathChunks[pathChunks.length - 1];
+			final int lastNdx = lastPath.lastIndexOf('.');
+			if (lastNdx == -1) {
+				return null;
 			}
-			return null;
+			pathChunks[pathChunks.length - 1] = lastPath.substring(0, lastNdx);
 		}
+	}
 
-		// matched, scan children
-		RouteChunk[] children = chunk.children();
+	private ActionRuntime _lookup(String method, String[] pathChunks) {
 
-		if (children == null) {
-			return null;
+		// 1 - match method
+		if (method != null) {
+			method = method.toUpperCase();
+			RouteChunk methodChunk = root.findStaticChild(method);
+			if (methodChunk != null) {
+				ActionRuntime actionRuntime = match(methodChunk, pathChunks, 0);
+				if (actionRuntime != null) {
+					return actionRuntime;
+				}
+			}
+		}
+
+		// 2 - match all methods
+		if (anyMethodChunk != null) {
+			return match(anyMethodChunk, pathChunks, 0);
 		}
 
-		for (RouteChunk child : children) {
-			ActionRuntime matched = match(child, path, ndx + 1);
+		// nothing found
+		return null;
+	}
+
+	private ActionRuntime match(RouteChunk chunk, String[] path, int ndx) {
+		final String value = path[ndx];
+		final boolean last = ndx == path.length - 1;
 
+		RouteChunk child = chunk.findStaticChild(value);
+		if (child != null) {
+			ActionRuntime matched = last ? child.value() : match(child, path, ndx + 1);
 			if (matched != null) {
 				return matched;
 			}
 		}
 
+		RouteChunk[] macroChildren = chunk.macroChildren();
+		if (macroChildren == null) {
+			return null;
+		}
+
+		for (RouteChunk macroChild : macroChildren) {
+			if (!macroChild.match(value)) {
+				continue;
+			}
+			ActionRuntime matched = last ? macroChild.value() : match(macroChild, path, ndx + 1);
+			if (matched != null) {
+				return matched;
+			}
+		}
 		return null;
 	}
 
@@ -38,10 +38,28 @@ public class ScopeData {
 		public String name;			// property name
 		public String target;		// real property name, if different from 'name'
 
+		private volatile InjectionPoint injectionPoint;
+
 		public String propertyName() {
 			return target != null ? target : name;
 		}
 
+		/**
+		 * Returns {@link InjectionPoint injection point} of the property in given
+		 * bean type or <code>null</code> if property can not be injected directly.
+		 * Injection point is resolved once and then cached.
+		 */
+		public InjectionPoint injectionPoint(Class beanType) {
+			InjectionPoint ip = injectionPoint;
+
+			if (ip == null || ip.beanType() != beanType) {
+				ip = InjectionPoint.resolve(beanType, propertyName());
+				injectionPoint = ip;
+			}
+
+			return ip.isResolved() ? ip : null;
+		}
+
 		/**
 		 * Returns matched property name or <code>null</code> if name is not matched.
 		 * <p>
@@ -88,7 +88,7 @@ public class ActionPathMacroInjector implements Injector {
 				String name = in.matchedPropertyName(macroName);
 
 				if (name != null) {
-					target.writeValue(name, value, true);
+					target.writeValue(in, name, value, true);
 				}
 			});
 		}
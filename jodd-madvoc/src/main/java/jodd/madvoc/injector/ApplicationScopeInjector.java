@@ -55,7 +55,7 @@ public class ApplicationScopeInjector implements Injector, Outjector, ContextInj
 				String name = in.matchedPropertyName(attrName);
 				if (name != null) {
 					Object attrValue = servletContext.getAttribute(attrName);
-					target.writeValue(name, attrValue, true);
+					target.writeValue(in, name, attrValue, true);
 				}
 			});
 		}
@@ -76,7 +76,7 @@ public class ApplicationScopeInjector implements Injector, Outjector, ContextInj
 				String name = in.matchedPropertyName(attrName);
 				if (name != null) {
 					Object attrValue = servletContext.getAttribute(attrName);
-					target.writeValue(name, attrValue, true);
+					target.writeValue(in, name, attrValue, true);
 				}
 			});
 		}
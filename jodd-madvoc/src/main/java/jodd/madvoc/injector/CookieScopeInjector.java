@@ -65,7 +65,7 @@ public class CookieScopeInjector implements Injector, Outjector {
 			}
 
 			if (value != null) {
-				target.writeValue(in.propertyName(), value, true);
+				target.writeValue(in, in.propertyName(), value, true);
 			}
 		});
 	}
@@ -28,6 +28,7 @@ package jodd.madvoc.injector;
 import jodd.json.JsonParser;
 import jodd.madvoc.ActionRequest;
 import jodd.madvoc.ScopeType;
+import jodd.util.StringPool;
 import jodd.util.StringUtil;
 
 import java.io.IOException;
@@ -46,7 +47,7 @@ public class RequestBodyScopeInject implements Injector {
 
 		String body;
 		try {
-			body = actionRequest.httpServletRequest().getReader().lines().collect(Collectors.joining());
+			body = readBody(actionRequest);
 		} catch (IOException ignore) {
 			return;
 		}
@@ -57,8 +58,26 @@ public class RequestBodyScopeInject implements Injector {
 		targets.forEachTargetAndInScopes(SCOPE_TYPE, (target, in) -> {
 			Object value = JsonParser.create().parse(body, in.type);
 
-			target.writeValue(in.propertyName(), value, true);
+			target.writeValue(in, in.propertyName(), value, true);
 		});
 	}
 
+	/**
+	 * Reads request body. Body that is already read using non-blocking
+	 * I/O is decoded with the request character encoding.
+	 */
+	protected String readBody(ActionRequest actionRequest) throws IOException {
+		final byte[] requestBody = actionRequest.requestBody();
+
+		if (requestBody == null) {
+			return actionRequest.httpServletRequest().getReader().lines().collect(Collectors.joining());
+		}
+
+		String encoding = actionRequest.httpServletRequest().getCharacterEncoding();
+		if (encoding == null) {
+			encoding = StringPool.ISO_8859_1;
+		}
+		return new String(requestBody, encoding);
+	}
+
 }
@@ -134,7 +134,7 @@ public class RequestScopeInjector implements Injector, Outjector {
 				String name = in.matchedPropertyName(attrName);
 				if (name != null) {
 					Object attrValue = servletRequest.getAttribute(attrName);
-					target.writeValue(name, attrValue, true);
+					target.writeValue(in, name, attrValue, true);
 				}
 			});
 		}
@@ -171,7 +171,7 @@ public class RequestScopeInjector implements Injector, Outjector {
 							}
 						}
 						Object value = (paramValues.length != 1 ? paramValues : paramValues[0]);
-						target.writeValue(name, value, true);
+						target.writeValue(in, name, value, true);
 					}
 				}
 			});
@@ -212,7 +212,7 @@ public class RequestScopeInjector implements Injector, Outjector {
 					}
 
 					Object value = (paramValues.length == 1 ? paramValues[0] : paramValues);
-					target.writeValue(name, value, true);
+					target.writeValue(in, name, value, true);
 				}
 			});
 		}
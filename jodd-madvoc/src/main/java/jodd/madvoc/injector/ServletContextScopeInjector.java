@@ -145,7 +145,7 @@ public class ServletContextScopeInjector implements Injector, ContextInjector<Se
 			}
 
 			if (value != null) {
-				target.writeValue(in.propertyName(), value, true);
+				target.writeValue(in, in.propertyName(), value, true);
 			}
 		});
 	}
@@ -170,7 +170,7 @@ public class ServletContextScopeInjector implements Injector, ContextInjector<Se
 			}
 
 			if (value != null) {
-				target.writeValue(in.propertyName(), value, true);
+				target.writeValue(in, in.propertyName(), value, true);
 			}
 		});
 	}
@@ -57,7 +57,7 @@ public class SessionScopeInjector implements Injector, Outjector {
 				String name = in.matchedPropertyName(attrName);
 				if (name != null) {
 					Object attrValue = session.getAttribute(attrName);
-					target.writeValue(name, attrValue, true);
+					target.writeValue(in, name, attrValue, true);
 				}
 			});
 		}
@@ -27,6 +27,7 @@ package jodd.madvoc.injector;
 
 import jodd.bean.BeanUtil;
 import jodd.madvoc.MadvocException;
+import jodd.madvoc.config.InjectionPoint;
 import jodd.madvoc.config.ScopeData;
 import jodd.typeconverter.TypeConverterManager;
 
@@ -163,6 +164,24 @@ public class Target {
 		BeanUtil.declaredForced.setProperty(value, propertyName, propertyValue);
 	}
 
+	/**
+	 * Writes value of the matched IN property to this target. When value is written
+	 * silently to the property itself (and not to its inner property), pre-resolved
+	 * {@link jodd.madvoc.config.InjectionPoint injection point} is used.
+	 */
+	public void writeValue(ScopeData.In in, String propertyName, Object propertyValue, boolean silent) {
+		if (silent && type == null && value != null && propertyName.equals(in.propertyName())) {
+			InjectionPoint injectionPoint = in.injectionPoint(value.getClass());
+
+			if (injectionPoint != null) {
+				injectionPoint.inject(value, propertyValue);
+				return;
+			}
+		}
+
+		writeValue(propertyName, propertyValue, silent);
+	}
+
 	/**
 	 * Creates new instance of a type and stores it in the value.
 	 */
@@ -0,0 +1,221 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.proxetta;
+
+import jodd.asm6.ClassWriter;
+import jodd.asm6.MethodVisitor;
+import jodd.asm6.Type;
+import jodd.madvoc.ActionInvoker;
+import jodd.madvoc.MadvocException;
+import jodd.util.ClassLoaderUtil;
+import jodd.util.ClassUtil;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jodd.asm6.Opcodes.AALOAD;
+import static jodd.asm6.Opcodes.ACC_FINAL;
+import static jodd.asm6.Opcodes.ACC_PUBLIC;
+import static jodd.asm6.Opcodes.ACC_SUPER;
+import static jodd.asm6.Opcodes.ACC_SYNTHETIC;
+import static jodd.asm6.Opcodes.ACONST_NULL;
+import static jodd.asm6.Opcodes.ALOAD;
+import static jodd.asm6.Opcodes.ARETURN;
+import static jodd.asm6.Opcodes.CHECKCAST;
+import static jodd.asm6.Opcodes.INVOKEINTERFACE;
+import static jodd.asm6.Opcodes.INVOKESPECIAL;
+import static jodd.asm6.Opcodes.INVOKESTATIC;
+import static jodd.asm6.Opcodes.INVOKEVIRTUAL;
+import static jodd.asm6.Opcodes.RETURN;
+import static jodd.asm6.Opcodes.V1_8;
+import static jodd.proxetta.asm.ProxettaAsmUtil.pushInt;
+
+/**
+ * Generates {@link ActionInvoker action invokers}: small classes that cast the
+ * action and unbox the arguments and then call the action method directly.
+ * Invoker class is defined in the package and class loader of the action class.
+ */
+public class ActionInvokerGenerator {
+
+	public static final String INVOKER_CLASS_NAME_SUFFIX = "$$MadvocInvoker";
+
+	private static final String INVOKE_DESC = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	/**
+	 * Generates invoker for given action method and returns its new instance.
+	 * Action class may be a subclass (i.e. a proxy) of the methods declaring class.
+	 */
+	public static ActionInvoker generate(Class actionClass, Method actionMethod) {
+		int modifiers = actionMethod.getModifiers();
+		if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)) {
+			throw new MadvocException("Action method is not public instance method: " + actionMethod);
+		}
+
+		final String className = actionClass.getName() + INVOKER_CLASS_NAME_SUFFIX + counter.incrementAndGet();
+
+		final byte[] bytes = createInvokerClass(className, actionClass, actionMethod);
+
+		ClassLoader classLoader = actionClass.getClassLoader();
+		if (classLoader == null) {
+			classLoader = ClassLoaderUtil.getDefaultClassLoader();
+		}
+
+		try {
+			Class<?> invokerClass = ClassLoaderUtil.defineClass(className, bytes, classLoader);
+
+			return (ActionInvoker) ClassUtil.newInstance(invokerClass);
+		}
+		catch (Exception ex) {
+			throw new MadvocException("Action invoker not created: " + actionMethod, ex);
+		}
+	}
+
+	/**
+	 * Creates bytecode of the invoker class.
+	 */
+	protected static byte[] createInvokerClass(String className, Class actionClass, Method actionMethod) {
+		final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+			className.replace('.', '/'), null, "java/lang/Object",
+			new String[] {Type.getInternalName(ActionInvoker.class)});
+
+		// constructor
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// invoke(action, params)
+
+		mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null, new String[] {"java/lang/Exception"});
+		mv.visitCode();
+
+		final String owner = Type.getInternalName(actionClass);
+
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, owner);
+
+		final Class[] parameterTypes = actionMethod.getParameterTypes();
+
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(ALOAD, 2);
+			pushInt(mv, i);
+			mv.visitInsn(AALOAD);
+			castOrUnbox(mv, parameterTypes[i]);
+		}
+
+		final boolean isInterface = actionClass.isInterface();
+
+		mv.visitMethodInsn(
+			isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL,
+			owner, actionMethod.getName(), Type.getMethodDescriptor(actionMethod), isInterface);
+
+		box(mv, actionMethod.getReturnType());
+
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	// ---------------------------------------------------------------- boxing
+
+	/**
+	 * Casts object on the stack to given type, unboxing primitives.
+	 */
+	private static void castOrUnbox(MethodVisitor mv, Class type) {
+		if (!type.isPrimitive()) {
+			if (type != Object.class) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			}
+			return;
+		}
+		final Class wrapper = wrapperOf(type);
+		final String wrapperName = Type.getInternalName(wrapper);
+
+		mv.visitTypeInsn(CHECKCAST, wrapperName);
+		mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, type.getName() + "Value", "()" + Type.getDescriptor(type), false);
+	}
+
+	/**
+	 * Boxes the returned value on the stack. For void methods,
+	 * <code>null</code> is pushed.
+	 */
+	private static void box(MethodVisitor mv, Class type) {
+		if (type == void.class) {
+			mv.visitInsn(ACONST_NULL);
+			return;
+		}
+		if (!type.isPrimitive()) {
+			return;
+		}
+		final Class wrapper = wrapperOf(type);
+		final String wrapperName = Type.getInternalName(wrapper);
+
+		mv.visitMethodInsn(INVOKESTATIC, wrapperName, "valueOf",
+			"(" + Type.getDescriptor(type) + ")L" + wrapperName + ';', false);
+	}
+
+	/**
+	 * Returns wrapper class of a primitive type.
+	 */
+	private static Class wrapperOf(Class type) {
+		if (type == int.class) {
+			return Integer.class;
+		}
+		if (type == long.class) {
+			return Long.class;
+		}
+		if (type == boolean.class) {
+			return Boolean.class;
+		}
+		if (type == double.class) {
+			return Double.class;
+		}
+		if (type == float.class) {
+			return Float.class;
+		}
+		if (type == short.class) {
+			return Short.class;
+		}
+		if (type == byte.class) {
+			return Byte.class;
+		}
+		return Character.class;
+	}
+
+}
@@ -32,9 +32,11 @@ import jodd.madvoc.MadvocConfig;
 import jodd.madvoc.ScopeType;
 import jodd.madvoc.meta.In;
 import jodd.madvoc.meta.Scope;
+import jodd.util.StringPool;
 import jodd.util.net.MimeTypes;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.OutputStream;
 
 /**
@@ -59,25 +61,53 @@ public class JsonActionResult implements ActionResult {
 		response.setCharacterEncoding(encoding);
 
 		final String json;
+		final Object source;
 		final int status;
 		final String statusMessage;
 
 		if (object instanceof JsonResult) {
 			JsonResult jsonResult = (JsonResult) object;
 
-			json = jsonResult.value();
+			json = jsonResult.isSerialized() ? jsonResult.value() : null;
+			source = jsonResult.source();
 			status = jsonResult.status();
 			statusMessage = jsonResult.message();
 		}
 		else {
-			json = JsonSerializer.create().deep(true).serialize(object);
+			json = null;
+			source = object;
 			status = 200;
 			statusMessage = "OK";
 		}
 
-		byte[] data = json.getBytes(encoding);
+		if (json == null && status < 400 && StringPool.UTF_8.equalsIgnoreCase(encoding) && !actionRequest.isNonBlockingIO()) {
+			// stream UTF-8 bytes directly to the response
+
+			response.setStatus(status);
+
+			OutputStream out = null;
+			try {
+				out = response.getOutputStream();
+				JsonSerializer.create().deep(true).serialize(source, out);
+			} finally {
+				StreamUtil.close(out);
+			}
+			return;
+		}
+
+		final String body = json != null ? json : JsonSerializer.create().deep(true).serialize(source);
+
+		byte[] data = body.getBytes(encoding);
 		response.setContentLength(data.length);
 
+		if (status < 400 && actionRequest.isNonBlockingIO()) {
+			response.setStatus(status);
+
+			if (actionRequest.writeNonBlocking(new ByteArrayInputStream(data))) {
+				return;
+			}
+		}
+
 		OutputStream out = null;
 		try {
 			out = response.getOutputStream();
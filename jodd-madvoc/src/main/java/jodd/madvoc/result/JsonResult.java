@@ -36,7 +36,8 @@ import jodd.util.net.HttpStatus;
 @RenderWith(JsonActionResult.class)
 public class JsonResult {
 
-	private final String body;
+	private final Object source;
+	private String body;
 	private int status = 200;
 	private String message = "OK";
 
@@ -48,13 +49,24 @@ public class JsonResult {
 	}
 
 	/**
-	 * Creates JSON result from given object. The object will be serialized to JSON.
+	 * Creates JSON result from given object. The object is serialized to JSON
+	 * immediately, so serialization errors are thrown by the action.
 	 */
 	public static JsonResult of(Object object) {
 		String json = JsonSerializer.create().deep(true).serialize(object);
 		return new JsonResult(json);
 	}
 
+	/**
+	 * Creates JSON result from given object that is serialized when the result
+	 * is rendered, directly to the response output stream when encoding is UTF-8.
+	 * Serialization errors that happen after the first bytes are sent can not
+	 * change the response status anymore.
+	 */
+	public static JsonResult streamed(Object object) {
+		return new JsonResult(null, object);
+	}
+
 	/**
 	 * Creates a JSON result with empty body and given status.
 	 */
@@ -70,7 +82,12 @@ public class JsonResult {
 	}
 
 	public JsonResult(String body) {
+		this(body, null);
+	}
+
+	private JsonResult(String body, Object source) {
 		this.body = body;
+		this.source = source;
 	}
 
 	public JsonResult status(int status) {
@@ -92,12 +109,29 @@ public class JsonResult {
 	}
 
 	/**
-	 * Returns JSON body.
+	 * Returns JSON body. Object of the result is serialized on the first call.
 	 */
 	public String value() {
+		if (body == null) {
+			body = JsonSerializer.create().deep(true).serialize(source);
+		}
 		return body;
 	}
 
+	/**
+	 * Returns <code>true</code> if JSON body is available as a string.
+	 */
+	boolean isSerialized() {
+		return body != null;
+	}
+
+	/**
+	 * Returns the object that is going to be serialized.
+	 */
+	Object source() {
+		return source;
+	}
+
 	/**
 	 * Returns response status.
 	 */
@@ -62,6 +62,11 @@ public class RawActionResult implements ActionResult<RawData> {
 
 		// write out
 		InputStream contentInputStream = resultValue.contentInputStream();
+
+		if (actionRequest.writeNonBlocking(contentInputStream)) {
+			return;
+		}
+
 		OutputStream out = response.getOutputStream();
 
 		StreamUtil.copy(contentInputStream, out);
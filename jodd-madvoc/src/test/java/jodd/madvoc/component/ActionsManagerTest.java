@@ -25,6 +25,7 @@
 
 package jodd.madvoc.component;
 
+import jodd.madvoc.ActionRequest;
 import jodd.madvoc.MadvocConfig;
 import jodd.madvoc.MadvocUtil;
 import jodd.madvoc.WebApp;
@@ -34,10 +35,16 @@ import jodd.madvoc.macro.RegExpPathMacros;
 import jodd.madvoc.macro.WildcardPathMacros;
 import org.junit.jupiter.api.Test;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
 
 class ActionsManagerTest {
 
@@ -50,6 +57,23 @@ class ActionsManagerTest {
 		}
 	}
 
+	public static class CalcAction {
+		public int sum(int a, Integer b) {
+			return a + b;
+		}
+		public String concat(String[] values, char c) {
+			return String.join(String.valueOf(c), values);
+		}
+		public void nop() {
+		}
+		public void io() throws IOException {
+			throw new IOException("io");
+		}
+		public void error() {
+			throw new AssertionError("error");
+		}
+	}
+
 	@Test
 	void testActionPathMacros1() {
 		WebApp webapp = new WebApp();
@@ -181,4 +205,116 @@ class ActionsManagerTest {
 		actionRuntime = actionsManager.routes.lookup(null, MadvocUtil.splitPathToChunks("/aab"));
 		assertNull(actionRuntime);
 	}
+
+	@Test
+	void testLookupActionPath() {
+		WebApp webapp = new WebApp();
+		webapp.start();
+
+		ActionsManager actionsManager = webapp.madvocContainer().lookupComponent(ActionsManager.class);
+
+		actionsManager.registerAction(FooAction.class, "one", new ActionDefinition("/{one}"));
+		actionsManager.registerAction(FooAction.class, "two", new ActionDefinition("/list"));
+		actionsManager.registerAction(FooAction.class, "three", new ActionDefinition("/foo/bar", "GET"));
+
+		// static chunks take precedence over macros
+		assertEquals("two", actionsManager.lookup("GET", "/list").actionClassMethod().getName());
+		assertEquals("one", actionsManager.lookup("GET", "/173").actionClassMethod().getName());
+		assertEquals("three", actionsManager.lookup("GET", "/foo/bar.html").actionClassMethod().getName());
+		assertNull(actionsManager.lookup("POST", "/foo/bar"));
+
+		String[] paths = {
+			"/list", "/list.html", "/list/", "list", "/173", "/173.a.b", "/", "", "//", "///",
+			"/foo/bar", "foo/bar/", "/foo/bar.x.y", "/foo//bar", "//foo/bar", "/foo/bar/",
+			"/foo/bar/.x", "/foo/.bar", "/foo/bar/zoo", "/foo.x/bar",
+		};
+
+		for (String path : paths) {
+			for (String method : new String[] {null, "GET", "get", "POST"}) {
+				assertEquals(
+					actionsManager.lookup(method, MadvocUtil.splitPathToChunks(path)),
+					actionsManager.lookup(method, path),
+					method + " " + path);
+			}
+		}
+	}
+
+	@Test
+	void testSplitPathToChunksOfRoute() {
+		WebApp webapp = new WebApp();
+		webapp.start();
+
+		ActionsManager actionsManager = webapp.madvocContainer().lookupComponent(ActionsManager.class);
+
+		actionsManager.registerAction(FooAction.class, "one", new ActionDefinition("/{id}/view"));
+
+		ActionRuntime actionRuntime = actionsManager.lookup("GET", "/173/view.html");
+		assertNotNull(actionRuntime);
+
+		String[] chunks = MadvocUtil.splitPathToChunks("/173/view.html", actionRuntime.routeChunk());
+		assertEquals(2, chunks.length);
+		assertEquals("173", chunks[0]);
+		assertEquals("view", chunks[1]);
+	}
+
+	@Test
+	void testGenerateActionInvokers() throws Exception {
+		WebApp webapp = new WebApp();
+		webapp.start();
+
+		ActionsManager actionsManager = webapp.madvocContainer().lookupComponent(ActionsManager.class);
+		MadvocConfig madvocConfig = webapp.madvocContainer().lookupComponent(MadvocConfig.class);
+
+		ActionRuntime actionRuntime = actionsManager.registerAction(CalcAction.class, "nop", new ActionDefinition("/nop0"));
+		assertNull(actionRuntime.actionInvoker());
+
+		madvocConfig.setGenerateActionInvokers(true);
+
+		actionRuntime = actionsManager.registerAction(CalcAction.class, "sum", new ActionDefinition("/sum"));
+		assertNotNull(actionRuntime.actionInvoker());
+		assertEquals(Integer.valueOf(5), actionRuntime.actionInvoker().invoke(new CalcAction(), new Object[] {2, 3}));
+
+		actionRuntime = actionsManager.registerAction(CalcAction.class, "concat", new ActionDefinition("/concat"));
+		assertEquals("a-b", actionRuntime.actionInvoker().invoke(new CalcAction(), new Object[] {new String[] {"a", "b"}, '-'}));
+
+		actionRuntime = actionsManager.registerAction(CalcAction.class, "nop", new ActionDefinition("/nop"));
+		assertNull(actionRuntime.actionInvoker().invoke(new CalcAction(), new Object[0]));
+	}
+
+	static class DirectActionRequest extends ActionRequest {
+		DirectActionRequest(ActionRuntime actionRuntime) {
+			super(null, actionRuntime.actionPath(), MadvocUtil.splitPathToChunks(actionRuntime.actionPath()), actionRuntime,
+				new CalcAction(), mock(HttpServletRequest.class), mock(HttpServletResponse.class));
+		}
+
+		Object invokeAction() throws Exception {
+			return invokeActionMethod();
+		}
+	}
+
+	@Test
+	void testGeneratedActionInvokerExceptions() {
+		WebApp webapp = new WebApp();
+		webapp.start();
+
+		ActionsManager actionsManager = webapp.madvocContainer().lookupComponent(ActionsManager.class);
+		MadvocConfig madvocConfig = webapp.madvocContainer().lookupComponent(MadvocConfig.class);
+
+		for (boolean generate : new boolean[] {false, true}) {
+			madvocConfig.setGenerateActionInvokers(generate);
+
+			ActionRuntime actionRuntime = actionsManager.registerAction(CalcAction.class, "io", new ActionDefinition("/io" + generate));
+			assertEquals(generate, actionRuntime.actionInvoker() != null);
+
+			DirectActionRequest actionRequest = new DirectActionRequest(actionRuntime);
+			IOException ioException = assertThrows(IOException.class, actionRequest::invokeAction);
+			assertEquals("io", ioException.getMessage());
+
+			actionRuntime = actionsManager.registerAction(CalcAction.class, "error", new ActionDefinition("/error" + generate));
+
+			DirectActionRequest errorRequest = new DirectActionRequest(actionRuntime);
+			RuntimeException runtimeException = assertThrows(RuntimeException.class, errorRequest::invokeAction);
+			assertEquals(AssertionError.class, runtimeException.getCause().getClass());
+		}
+	}
 }
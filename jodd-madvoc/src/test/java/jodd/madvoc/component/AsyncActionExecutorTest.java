@@ -0,0 +1,353 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.component;
+
+import jodd.madvoc.ActionRequest;
+import jodd.madvoc.MadvocConfig;
+import jodd.madvoc.MadvocUtil;
+import jodd.madvoc.config.ActionDefinition;
+import jodd.madvoc.config.ActionRuntime;
+import jodd.servlet.filter.FastByteArrayServletOutputStream;
+import jodd.util.ClassUtil;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncActionExecutorTest {
+
+	private static final byte[] CONTENT = new byte[100_000];
+
+	static {
+		for (int i = 0; i < CONTENT.length; i++) {
+			CONTENT[i] = (byte) i;
+		}
+	}
+
+	/**
+	 * Input stream that is ready only for a few reads at the time.
+	 */
+	static class SlowInputStream extends ServletInputStream {
+		final ByteArrayInputStream input = new ByteArrayInputStream(CONTENT);
+		int readyCount;
+
+		@Override
+		public boolean isFinished() {
+			return input.available() == 0;
+		}
+
+		@Override
+		public boolean isReady() {
+			return readyCount-- > 0;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+		}
+
+		@Override
+		public int read() {
+			return input.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			return input.read(b, off, Math.min(len, 1000));
+		}
+	}
+
+	/**
+	 * Output stream that is ready only for a few writes at the time.
+	 */
+	static class SlowOutputStream extends ServletOutputStream {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		int readyCount;
+		WriteListener writeListener;
+
+		@Override
+		public boolean isReady() {
+			return readyCount-- > 0;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.writeListener = writeListener;
+		}
+
+		@Override
+		public void write(int b) {
+			output.write(b);
+		}
+	}
+
+	private AsyncContext asyncContext(AtomicInteger completeCount) {
+		return (AsyncContext) Proxy.newProxyInstance(
+			AsyncContext.class.getClassLoader(), new Class[] {AsyncContext.class},
+			(proxy, method, args) -> {
+				if (method.getName().equals("complete")) {
+					completeCount.incrementAndGet();
+				}
+				return null;
+			});
+	}
+
+	@Test
+	void testCreateExecutorService() {
+		AsyncActionExecutor asyncActionExecutor = new AsyncActionExecutor();
+		asyncActionExecutor.start();
+		assertTrue(asyncActionExecutor.executorService instanceof ThreadPoolExecutor);
+
+		asyncActionExecutor = new AsyncActionExecutor();
+		asyncActionExecutor.setVirtualThreads(true);
+		asyncActionExecutor.start();
+		assertNotNull(asyncActionExecutor.executorService);
+		if (asyncActionExecutor.createVirtualThreadExecutor() == null) {
+			assertTrue(asyncActionExecutor.executorService instanceof ThreadPoolExecutor);
+		}
+		else {
+			assertFalse(asyncActionExecutor.executorService instanceof ThreadPoolExecutor);
+		}
+
+		ExecutorService executorService = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+		asyncActionExecutor = new AsyncActionExecutor();
+		asyncActionExecutor.setExecutorService(executorService);
+		asyncActionExecutor.start();
+		assertSame(executorService, asyncActionExecutor.executorService);
+		executorService.shutdown();
+	}
+
+	@Test
+	void testAsyncBodyReader() throws IOException {
+		SlowInputStream input = new SlowInputStream();
+		byte[][] body = new byte[1][];
+
+		AsyncBodyReader asyncBodyReader = new AsyncBodyReader(input, b -> body[0] = b, Throwable::printStackTrace);
+
+		int rounds = 0;
+		while (!input.isFinished()) {
+			input.readyCount = 3;
+			asyncBodyReader.onDataAvailable();
+			rounds++;
+		}
+		assertNull(body[0]);
+		asyncBodyReader.onAllDataRead();
+
+		assertTrue(rounds > 1);
+		assertArrayEquals(CONTENT, body[0]);
+	}
+
+	@Test
+	void testAsyncOutputWriter() throws IOException {
+		AtomicInteger completeCount = new AtomicInteger();
+		SlowOutputStream output = new SlowOutputStream();
+
+		AsyncOutputWriter asyncOutputWriter = new AsyncOutputWriter(new ByteArrayInputStream(CONTENT), output, completeCount::incrementAndGet);
+
+		int rounds = 0;
+		while (completeCount.get() == 0) {
+			output.readyCount = 2;
+			asyncOutputWriter.onWritePossible();
+			rounds++;
+		}
+
+		assertTrue(rounds > 1);
+		assertArrayEquals(CONTENT, output.output.toByteArray());
+
+		asyncOutputWriter.onError(new IOException());
+		assertEquals(1, completeCount.get());
+	}
+
+	@Test
+	void testAsyncOutputWriterToBuffer() {
+		AtomicInteger completeCount = new AtomicInteger();
+		FastByteArrayServletOutputStream output = new FastByteArrayServletOutputStream();
+
+		output.setWriteListener(new AsyncOutputWriter(new ByteArrayInputStream(CONTENT), output, completeCount::incrementAndGet));
+
+		assertEquals(1, completeCount.get());
+		assertArrayEquals(CONTENT, output.getByteArrayStream().toByteArray());
+	}
+
+	// ---------------------------------------------------------------- completion
+
+	public static class AsyncAction {
+		public void view() {
+		}
+	}
+
+	/**
+	 * Action request that runs the given code instead of the action.
+	 */
+	static class TestActionRequest extends ActionRequest {
+		final ActionInvocation invocation;
+
+		TestActionRequest(HttpServletResponse servletResponse, ActionInvocation invocation) {
+			super(null, "/async", MadvocUtil.splitPathToChunks("/async"),
+				new ActionRuntime(
+					null, AsyncAction.class, ClassUtil.findMethod(AsyncAction.class, "view"),
+					null, null, new ActionDefinition("/async", "GET"),
+					null, true, null, null, new MadvocConfig().getActionConfig()),
+				new AsyncAction(), mock(HttpServletRequest.class), servletResponse);
+			this.invocation = invocation;
+		}
+
+		@Override
+		public Object invoke() throws Exception {
+			invocation.invoke(this);
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	interface ActionInvocation {
+		void invoke(ActionRequest actionRequest) throws Exception;
+	}
+
+	private void submitAndWait(ActionRequest actionRequest, AsyncContext asyncContext) throws InterruptedException {
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+		AsyncActionExecutor asyncActionExecutor = new AsyncActionExecutor();
+		asyncActionExecutor.setExecutorService(executorService);
+		asyncActionExecutor.start();
+
+		asyncActionExecutor.submit(actionRequest, asyncContext);
+
+		executorService.shutdown();
+		assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testCompletionAfterInvocation() throws Exception {
+		AtomicInteger completeCount = new AtomicInteger();
+		AsyncContext asyncContext = asyncContext(completeCount);
+
+		FastByteArrayServletOutputStream output = new FastByteArrayServletOutputStream();
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+		when(servletResponse.getOutputStream()).thenReturn(output);
+
+		int[] completeCountAfterWrite = new int[] {-1};
+
+		ActionRequest actionRequest = new TestActionRequest(servletResponse, request -> {
+			// buffered output is written at once
+			assertTrue(request.writeNonBlocking(new ByteArrayInputStream(CONTENT)));
+			completeCountAfterWrite[0] = completeCount.get();
+		});
+		actionRequest.bindAsyncContext(asyncContext, true);
+
+		submitAndWait(actionRequest, asyncContext);
+
+		assertEquals(0, completeCountAfterWrite[0]);
+		assertEquals(1, completeCount.get());
+		assertArrayEquals(CONTENT, output.getByteArrayStream().toByteArray());
+	}
+
+	@Test
+	void testCompletionAfterWrite() throws Exception {
+		AtomicInteger completeCount = new AtomicInteger();
+		AsyncContext asyncContext = asyncContext(completeCount);
+
+		SlowOutputStream output = new SlowOutputStream();
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+		when(servletResponse.getOutputStream()).thenReturn(output);
+
+		ActionRequest actionRequest = new TestActionRequest(servletResponse,
+			request -> assertTrue(request.writeNonBlocking(new ByteArrayInputStream(CONTENT))));
+		actionRequest.bindAsyncContext(asyncContext, true);
+
+		submitAndWait(actionRequest, asyncContext);
+
+		assertTrue(actionRequest.isAsyncCompletionDeferred());
+		assertEquals(0, completeCount.get());
+
+		while (completeCount.get() == 0) {
+			output.readyCount = 10;
+			output.writeListener.onWritePossible();
+		}
+
+		assertEquals(1, completeCount.get());
+		assertArrayEquals(CONTENT, output.output.toByteArray());
+	}
+
+	@Test
+	void testFailedAction() throws Exception {
+		AtomicInteger completeCount = new AtomicInteger();
+		AsyncContext asyncContext = asyncContext(completeCount);
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+
+		ActionRequest actionRequest = new TestActionRequest(servletResponse, request -> {
+			throw new IllegalStateException("failed");
+		});
+		actionRequest.bindAsyncContext(asyncContext, true);
+
+		submitAndWait(actionRequest, asyncContext);
+
+		verify(servletResponse).setStatus(500);
+		assertEquals(1, completeCount.get());
+	}
+
+	@Test
+	void testReadFailed() {
+		AtomicInteger completeCount = new AtomicInteger();
+		AsyncContext asyncContext = asyncContext(completeCount);
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+
+		AtomicInteger invokeCount = new AtomicInteger();
+		ActionRequest actionRequest = new TestActionRequest(servletResponse, request -> invokeCount.incrementAndGet());
+		actionRequest.bindAsyncContext(asyncContext, true);
+
+		new AsyncActionExecutor().readFailed(actionRequest, asyncContext, new IOException("reset"));
+
+		verify(servletResponse).setStatus(400);
+		assertEquals(0, invokeCount.get());
+		assertEquals(1, completeCount.get());
+	}
+}
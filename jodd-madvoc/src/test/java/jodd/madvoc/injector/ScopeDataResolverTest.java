@@ -30,9 +30,13 @@ import jodd.madvoc.ScopeType;
 import jodd.madvoc.component.ScopeDataResolver;
 import jodd.madvoc.meta.In;
 import jodd.madvoc.meta.Out;
+import jodd.typeconverter.TypeConverterManager;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class ScopeDataResolverTest {
 
@@ -83,4 +87,83 @@ class ScopeDataResolverTest {
 		assertEquals(Integer.class, out.type);
 	}
 
+	// ----------------------------------------------------------------
+
+	static class InjAction {
+		@In Integer number;
+		@In List<Long> ids;
+		@In FooBean foo;
+	}
+
+	@Test
+	void testInjectionPoint() {
+		ScopeDataResolver scopeDataResolver = new ScopeDataResolver();
+
+		ScopeData[] scopeData = scopeDataResolver.resolveScopeData(InjAction.class);
+		ScopeData.In[] ins = scopeData[ScopeType.REQUEST.value()].in;
+
+		InjAction action = new InjAction();
+		Target target = new Target(action);
+
+		for (ScopeData.In in : ins) {
+			assertNotNull(in.injectionPoint(InjAction.class));
+
+			switch (in.name) {
+				case "number":
+					target.writeValue(in, in.matchedPropertyName("number"), "173", true);
+					break;
+				case "ids":
+					target.writeValue(in, in.matchedPropertyName("ids"), new String[] {"1", "2"}, true);
+					break;
+				case "foo":
+					target.writeValue(in, in.matchedPropertyName("foo.string"), "jodd", true);
+					break;
+			}
+		}
+
+		assertEquals(173, action.number.intValue());
+		assertEquals(2, action.ids.size());
+		assertEquals(Long.valueOf(2), action.ids.get(1));
+		assertEquals("jodd", action.foo.getString());
+
+		// invalid values are ignored
+		target.writeValue(ins[0], ins[0].propertyName(), "x", true);
+	}
+
+	static class Money {
+		final long cents;
+		Money(long cents) {
+			this.cents = cents;
+		}
+	}
+
+	static class MoneyAction {
+		@In Money price;
+	}
+
+	@Test
+	void testInjectionPointUsesLaterConverters() {
+		ScopeDataResolver scopeDataResolver = new ScopeDataResolver();
+
+		ScopeData.In in = scopeDataResolver.resolveScopeData(MoneyAction.class)[ScopeType.REQUEST.value()].in[0];
+
+		MoneyAction action = new MoneyAction();
+		Target target = new Target(action);
+
+		TypeConverterManager.get().register(Money.class, value -> new Money(Long.parseLong(value.toString())));
+		try {
+			target.writeValue(in, in.propertyName(), "173", true);
+			assertEquals(173, action.price.cents);
+
+			// replaced converter
+			TypeConverterManager.get().register(Money.class, value -> new Money(Long.parseLong(value.toString()) * 100));
+
+			target.writeValue(in, in.propertyName(), "173", true);
+			assertEquals(17300, action.price.cents);
+		}
+		finally {
+			TypeConverterManager.get().unregister(Money.class);
+		}
+	}
+
 }
@@ -0,0 +1,71 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.madvoc.result;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonResultTest {
+
+	public static class Bean {
+		public String getName() {
+			return "jodd";
+		}
+	}
+
+	public static class FailingBean {
+		public String getName() {
+			throw new IllegalStateException();
+		}
+	}
+
+	@Test
+	void testEagerSerialization() {
+		JsonResult jsonResult = JsonResult.of(new Bean());
+
+		assertTrue(jsonResult.isSerialized());
+		assertEquals("{\"name\":\"jodd\"}", jsonResult.value());
+
+		assertThrows(RuntimeException.class, () -> JsonResult.of(new FailingBean()));
+	}
+
+	@Test
+	void testStreamedSerialization() {
+		JsonResult jsonResult = JsonResult.streamed(new Bean());
+
+		assertFalse(jsonResult.isSerialized());
+		assertEquals("{\"name\":\"jodd\"}", jsonResult.value());
+		assertTrue(jsonResult.isSerialized());
+
+		JsonResult failing = JsonResult.streamed(new FailingBean());
+
+		assertFalse(failing.isSerialized());
+	}
+}
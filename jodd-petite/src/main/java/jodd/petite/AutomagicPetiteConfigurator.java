@@ -96,7 +96,7 @@ public class AutomagicPetiteConfigurator {
 	/**
 	 * Scans all classes and registers only those annotated with {@link jodd.petite.meta.PetiteBean}.
 	 * Because of performance purposes, classes are not dynamically loaded; instead, their
-	 * file content is examined.
+	 * file content is examined. Registration is synchronized, as the scanner may be parallel.
 	 */
 	private Consumer<ClassScanner.EntryData> ENTRY_CONSUMER = new Consumer<ClassScanner.EntryData>() {
 		@Override
@@ -121,7 +121,9 @@ public class AutomagicPetiteConfigurator {
 			if (petiteBean == null) {
 				return;
 			}
-			container.registerPetiteBean(beanClass, null, null, null, false, null);
+			synchronized (container) {
+				container.registerPetiteBean(beanClass, null, null, null, false, null);
+			}
 		}
 
 	};
@@ -66,6 +66,7 @@ public class BeanDefinition<T> {
 	protected InitMethodPoint[] initMethods;
 	protected DestroyMethodPoint[] destroyMethods;
 	protected String[] params;
+	protected BeanInjector injector;	// generated injector, may be null
 
 	// ---------------------------------------------------------------- definition getters
 
@@ -0,0 +1,108 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.def.CtorInjectionPoint;
+import jodd.petite.def.InitMethodPoint;
+import jodd.petite.def.MethodInjectionPoint;
+import jodd.petite.def.PropertyInjectionPoint;
+import jodd.petite.def.SetInjectionPoint;
+
+/**
+ * Performs direct operations on beans of a {@link BeanDefinition}: creates bean
+ * instances, injects properties and sets and invokes injection and init methods.
+ * Injection points are referenced by their index in the bean definition.
+ * <p>
+ * This implementation uses reflection. {@link BeanInjectorGenerator} generates
+ * subclasses that invoke constructors, setters and methods directly.
+ * Injector is bound to the injection points of the definition at the moment
+ * of creation, see {@link #isCurrent(BeanDefinition)}.
+ */
+public class BeanInjector {
+
+	protected final CtorInjectionPoint ctor;
+	protected final PropertyInjectionPoint[] properties;
+	protected final SetInjectionPoint[] sets;
+	protected final MethodInjectionPoint[] methods;
+	protected final InitMethodPoint[] initMethods;
+
+	public BeanInjector(BeanDefinition def) {
+		this.ctor = def.ctor;
+		this.properties = def.properties;
+		this.sets = def.sets;
+		this.methods = def.methods;
+		this.initMethods = def.initMethods;
+	}
+
+	/**
+	 * Returns <code>true</code> if injector is created for the current
+	 * injection points of the bean definition.
+	 */
+	public boolean isCurrent(BeanDefinition def) {
+		return
+			ctor == def.ctor &&
+			properties == def.properties &&
+			sets == def.sets &&
+			methods == def.methods &&
+			initMethods == def.initMethods;
+	}
+
+	/**
+	 * Creates new bean instance using the injection constructor.
+	 */
+	public Object newInstance(Object[] args) throws Exception {
+		return ctor.constructor.newInstance(args);
+	}
+
+	/**
+	 * Injects value of the property injection point.
+	 */
+	public void injectProperty(Object bean, int index, Object value) throws Exception {
+		properties[index].propertyDescriptor.getSetter(true).invokeSetter(bean, value);
+	}
+
+	/**
+	 * Injects collection of the set injection point.
+	 */
+	public void injectSet(Object bean, int index, Object value) throws Exception {
+		sets[index].propertyDescriptor.getSetter(true).invokeSetter(bean, value);
+	}
+
+	/**
+	 * Invokes method of the method injection point.
+	 */
+	public void invokeMethod(Object bean, int index, Object[] args) throws Exception {
+		methods[index].method.invoke(bean, args);
+	}
+
+	/**
+	 * Invokes init method.
+	 */
+	public void invokeInitMethod(Object bean, int index) throws Exception {
+		initMethods[index].method.invoke(bean);
+	}
+
+}
@@ -0,0 +1,517 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.asm.AsmUtil;
+import jodd.asm6.ClassWriter;
+import jodd.asm6.Label;
+import jodd.asm6.MethodVisitor;
+import jodd.asm6.Type;
+import jodd.introspector.FieldDescriptor;
+import jodd.introspector.MethodDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+import jodd.petite.def.InitMethodPoint;
+import jodd.petite.def.MethodInjectionPoint;
+import jodd.petite.def.PropertyInjectionPoint;
+import jodd.petite.def.SetInjectionPoint;
+import jodd.util.ClassLoaderUtil;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jodd.asm6.Opcodes.AALOAD;
+import static jodd.asm6.Opcodes.ACC_FINAL;
+import static jodd.asm6.Opcodes.ACC_PUBLIC;
+import static jodd.asm6.Opcodes.ACC_SUPER;
+import static jodd.asm6.Opcodes.ACC_SYNTHETIC;
+import static jodd.asm6.Opcodes.ALOAD;
+import static jodd.asm6.Opcodes.ARETURN;
+import static jodd.asm6.Opcodes.BIPUSH;
+import static jodd.asm6.Opcodes.CHECKCAST;
+import static jodd.asm6.Opcodes.DUP;
+import static jodd.asm6.Opcodes.ICONST_0;
+import static jodd.asm6.Opcodes.ILOAD;
+import static jodd.asm6.Opcodes.INVOKEINTERFACE;
+import static jodd.asm6.Opcodes.INVOKESPECIAL;
+import static jodd.asm6.Opcodes.INVOKEVIRTUAL;
+import static jodd.asm6.Opcodes.NEW;
+import static jodd.asm6.Opcodes.POP;
+import static jodd.asm6.Opcodes.POP2;
+import static jodd.asm6.Opcodes.PUTFIELD;
+import static jodd.asm6.Opcodes.RETURN;
+import static jodd.asm6.Opcodes.SIPUSH;
+import static jodd.asm6.Opcodes.V1_5;
+
+/**
+ * Generates {@link BeanInjector bean injectors} that create beans, inject
+ * properties, sets and methods and invoke init methods with direct calls,
+ * without reflection. Generated injector is defined in the package and
+ * the class loader of the bean type, so it may access all non-private members.
+ * Injection points that are not accessible (e.g. private fields) are
+ * delegated to the reflection-based implementation.
+ */
+public class BeanInjectorGenerator {
+
+	private static final Logger log = LoggerFactory.getLogger(BeanInjectorGenerator.class);
+
+	public static final String INJECTOR_CLASS_NAME_SUFFIX = "$$PetiteInjector";
+
+	private static final String BEAN_INJECTOR = Type.getInternalName(BeanInjector.class);
+	private static final String OBJECT = AsmUtil.SIGNATURE_JAVA_LANG_OBJECT;
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	/**
+	 * Generates the injector for current injection points of the bean definition.
+	 * Returns reflection-based injector when injector can not be generated
+	 * for the bean type.
+	 */
+	public BeanInjector generate(BeanDefinition def) {
+		Class type = def.type;
+
+		if (!isSupported(type)) {
+			return new BeanInjector(def);
+		}
+
+		String className = type.getName() + INJECTOR_CLASS_NAME_SUFFIX + counter.incrementAndGet();
+
+		try {
+			byte[] bytes = createInjectorClass(def, className);
+
+			Class<?> injectorClass = ClassLoaderUtil.defineClass(className, bytes, type.getClassLoader());
+
+			return (BeanInjector) injectorClass.getConstructor(BeanDefinition.class).newInstance(def);
+		}
+		catch (Exception | LinkageError ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Bean injector not generated for " + type.getName() + ": " + ex.toString());
+			}
+			return new BeanInjector(def);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if injector can be defined next to the bean type.
+	 */
+	protected boolean isSupported(Class type) {
+		ClassLoader classLoader = type.getClassLoader();
+
+		if (classLoader == null || type.isArray() || type.isPrimitive() || type.getName().startsWith("java.")) {
+			return false;
+		}
+		try {
+			return classLoader.loadClass(BeanInjector.class.getName()) == BeanInjector.class;
+		}
+		catch (ClassNotFoundException ignore) {
+			return false;
+		}
+	}
+
+	// ---------------------------------------------------------------- class
+
+	/**
+	 * Creates bytecode of the injector class.
+	 */
+	protected byte[] createInjectorClass(BeanDefinition def, String className) {
+		Class type = def.type;
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+		cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+			AsmUtil.typeToSignature(className), null, BEAN_INJECTOR, null);
+
+		// constructor
+		String ctorDesc = "(" + Type.getDescriptor(BeanDefinition.class) + ")V";
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", ctorDesc, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKESPECIAL, BEAN_INJECTOR, "<init>", ctorDesc, false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// new instance
+		if (def.ctor != null && isAccessible(def.ctor.constructor, type) && !Modifier.isAbstract(type.getModifiers())) {
+			Constructor ctor = def.ctor.constructor;
+
+			mv = cw.visitMethod(ACC_PUBLIC, "newInstance", "([L" + OBJECT + ";)L" + OBJECT + ";", null, null);
+			mv.visitCode();
+			mv.visitTypeInsn(NEW, Type.getInternalName(type));
+			mv.visitInsn(DUP);
+			loadArguments(mv, 1, ctor.getParameterTypes());
+			mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(type), "<init>", Type.getConstructorDescriptor(ctor), false);
+			mv.visitInsn(ARETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+		}
+
+		// properties
+		PropertyInjectionPoint[] properties = def.properties;
+		if (properties != null) {
+			Member[] setters = new Member[properties.length];
+			for (int i = 0; i < properties.length; i++) {
+				setters[i] = resolveSetter(properties[i].propertyDescriptor, type);
+			}
+			generateDispatch(cw, "injectProperty", "(L" + OBJECT + ";IL" + OBJECT + ";)V", setters,
+				(visitor, member) -> invokeSetter(visitor, member));
+		}
+
+		// sets
+		SetInjectionPoint[] sets = def.sets;
+		if (sets != null) {
+			Member[] setters = new Member[sets.length];
+			for (int i = 0; i < sets.length; i++) {
+				setters[i] = resolveSetter(sets[i].propertyDescriptor, type);
+			}
+			generateDispatch(cw, "injectSet", "(L" + OBJECT + ";IL" + OBJECT + ";)V", setters,
+				(visitor, member) -> invokeSetter(visitor, member));
+		}
+
+		// methods
+		MethodInjectionPoint[] methods = def.methods;
+		if (methods != null) {
+			Member[] members = new Member[methods.length];
+			for (int i = 0; i < methods.length; i++) {
+				members[i] = resolveMethod(methods[i].method, type);
+			}
+			generateDispatch(cw, "invokeMethod", "(L" + OBJECT + ";I[L" + OBJECT + ";)V", members,
+				(visitor, member) -> {
+					Method method = (Method) member;
+					castBean(visitor, method);
+					loadArguments(visitor, 3, method.getParameterTypes());
+					invokeMethod(visitor, method);
+				});
+		}
+
+		// init methods
+		InitMethodPoint[] initMethods = def.initMethods;
+		if (initMethods != null) {
+			Member[] members = new Member[initMethods.length];
+			for (int i = 0; i < initMethods.length; i++) {
+				members[i] = resolveMethod(initMethods[i].method, type);
+			}
+			generateDispatch(cw, "invokeInitMethod", "(L" + OBJECT + ";I)V", members,
+				(visitor, member) -> {
+					castBean(visitor, member);
+					invokeMethod(visitor, (Method) member);
+				});
+		}
+
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Emits direct invocation of the injection point.
+	 */
+	@FunctionalInterface
+	protected interface InvocationEmitter {
+		void emit(MethodVisitor mv, Member member);
+	}
+
+	/**
+	 * Generates method that switches on the injection point index, the second argument.
+	 * Accessible injection points are invoked directly; all others are delegated to the
+	 * superclass. Method is not generated when there are no accessible injection points.
+	 */
+	protected void generateDispatch(ClassWriter cw, String methodName, String methodDesc, Member[] members, InvocationEmitter emitter) {
+		int count = 0;
+		for (Member member : members) {
+			if (member != null) {
+				count++;
+			}
+		}
+		if (count == 0) {
+			return;
+		}
+
+		int[] keys = new int[count];
+		Label[] labels = new Label[count];
+		for (int i = 0, j = 0; i < members.length; i++) {
+			if (members[i] != null) {
+				keys[j] = i;
+				labels[j] = new Label();
+				j++;
+			}
+		}
+		Label defaultLabel = new Label();
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, methodName, methodDesc, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitLookupSwitchInsn(defaultLabel, keys, labels);
+
+		for (int j = 0; j < count; j++) {
+			mv.visitLabel(labels[j]);
+			emitter.emit(mv, members[keys[j]]);
+			mv.visitInsn(RETURN);
+		}
+
+		// default: super
+		mv.visitLabel(defaultLabel);
+		mv.visitVarInsn(ALOAD, 0);
+		int slot = 1;
+		for (Type argumentType : Type.getArgumentTypes(methodDesc)) {
+			mv.visitVarInsn(argumentType.getOpcode(ILOAD), slot);
+			slot += argumentType.getSize();
+		}
+		mv.visitMethodInsn(INVOKESPECIAL, BEAN_INJECTOR, methodName, methodDesc, false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	// ---------------------------------------------------------------- emit
+
+	/**
+	 * Loads the bean (first argument) casted to the declaring class of a member.
+	 */
+	protected void castBean(MethodVisitor mv, Member member) {
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, Type.getInternalName(member.getDeclaringClass()));
+	}
+
+	/**
+	 * Invokes a setter method or sets a field with the value, the third argument.
+	 */
+	protected void invokeSetter(MethodVisitor mv, Member member) {
+		castBean(mv, member);
+		mv.visitVarInsn(ALOAD, 3);
+
+		if (member instanceof Field) {
+			Field field = (Field) member;
+			castValue(mv, field.getType());
+			mv.visitFieldInsn(PUTFIELD, Type.getInternalName(field.getDeclaringClass()), field.getName(), Type.getDescriptor(field.getType()));
+			return;
+		}
+
+		Method method = (Method) member;
+		castValue(mv, method.getParameterTypes()[0]);
+		invokeMethod(mv, method);
+	}
+
+	/**
+	 * Invokes the method and discards the returned value.
+	 */
+	protected void invokeMethod(MethodVisitor mv, Method method) {
+		Class owner = method.getDeclaringClass();
+		boolean isInterface = owner.isInterface();
+
+		mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL,
+			Type.getInternalName(owner), method.getName(), Type.getMethodDescriptor(method), isInterface);
+
+		Class returnType = method.getReturnType();
+		if (returnType == long.class || returnType == double.class) {
+			mv.visitInsn(POP2);
+		} else if (returnType != void.class) {
+			mv.visitInsn(POP);
+		}
+	}
+
+	/**
+	 * Loads elements of an arguments array, casted to parameter types.
+	 */
+	protected void loadArguments(MethodVisitor mv, int arrayIndex, Class[] parameterTypes) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(ALOAD, arrayIndex);
+			pushInt(mv, i);
+			mv.visitInsn(AALOAD);
+			castValue(mv, parameterTypes[i]);
+		}
+	}
+
+	/**
+	 * Casts or unboxes the object value on the stack to the given type.
+	 */
+	protected void castValue(MethodVisitor mv, Class type) {
+		if (type == Object.class) {
+			return;
+		}
+		if (!type.isPrimitive()) {
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			return;
+		}
+		if (type == int.class) {
+			AsmUtil.intValue(mv);
+		} else if (type == long.class) {
+			AsmUtil.longValue(mv);
+		} else if (type == boolean.class) {
+			AsmUtil.booleanValue(mv);
+		} else if (type == double.class) {
+			AsmUtil.doubleValue(mv);
+		} else if (type == float.class) {
+			AsmUtil.floatValue(mv);
+		} else if (type == short.class) {
+			AsmUtil.shortValue(mv);
+		} else if (type == byte.class) {
+			AsmUtil.byteValue(mv);
+		} else if (type == char.class) {
+			AsmUtil.charValue(mv);
+		}
+	}
+
+	protected void pushInt(MethodVisitor mv, int value) {
+		if (value <= 5) {
+			mv.visitInsn(ICONST_0 + value);
+		} else if (value <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(BIPUSH, value);
+		} else if (value <= Short.MAX_VALUE) {
+			mv.visitIntInsn(SIPUSH, value);
+		} else {
+			mv.visitLdcInsn(Integer.valueOf(value));
+		}
+	}
+
+	// ---------------------------------------------------------------- access
+
+	/**
+	 * Resolves the setter method or field of the property that can be
+	 * accessed directly. Returns <code>null</code> otherwise.
+	 */
+	protected Member resolveSetter(PropertyDescriptor propertyDescriptor, Class type) {
+		Setter setter = propertyDescriptor.getSetter(true);
+
+		if (setter instanceof MethodDescriptor) {
+			Method method = ((MethodDescriptor) setter).getMethod();
+			if (method.getParameterTypes().length != 1) {
+				return null;
+			}
+			return resolveMethod(method, type);
+		}
+		if (setter instanceof FieldDescriptor) {
+			Field field = ((FieldDescriptor) setter).getField();
+			int modifiers = field.getModifiers();
+			if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+				return null;
+			}
+			if (!isAccessible(field, type) || !isAccessible(field.getType(), type)) {
+				return null;
+			}
+			return field;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the method if it can be invoked directly, otherwise returns <code>null</code>.
+	 */
+	protected Method resolveMethod(Method method, Class type) {
+		if (Modifier.isStatic(method.getModifiers())) {
+			return null;
+		}
+		if (!isAccessible(method, type)) {
+			return null;
+		}
+		for (Class parameterType : method.getParameterTypes()) {
+			if (!isAccessible(parameterType, type)) {
+				return null;
+			}
+		}
+		return method;
+	}
+
+	/**
+	 * Returns <code>true</code> if a constructor is accessible from the injector.
+	 */
+	protected boolean isAccessible(Constructor ctor, Class type) {
+		if (!isAccessible((Member) ctor, type)) {
+			return false;
+		}
+		for (Class parameterType : ctor.getParameterTypes()) {
+			if (!isAccessible(parameterType, type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if a member is accessible from the injector,
+	 * defined in the package of the bean type.
+	 */
+	protected boolean isAccessible(Member member, Class type) {
+		Class declaringClass = member.getDeclaringClass();
+
+		if (!isAccessible(declaringClass, type)) {
+			return false;
+		}
+
+		int modifiers = member.getModifiers();
+
+		if (Modifier.isPublic(modifiers)) {
+			return true;
+		}
+		if (Modifier.isPrivate(modifiers)) {
+			return false;
+		}
+		return isSamePackage(declaringClass, type);
+	}
+
+	/**
+	 * Returns <code>true</code> if a class is accessible from the injector,
+	 * defined in the package of the bean type.
+	 */
+	protected boolean isAccessible(Class target, Class type) {
+		while (target.isArray()) {
+			target = target.getComponentType();
+		}
+		if (target.isPrimitive()) {
+			return true;
+		}
+
+		int modifiers = target.getModifiers();
+
+		if (Modifier.isPublic(modifiers)) {
+			return true;
+		}
+		if (Modifier.isPrivate(modifiers)) {
+			return false;
+		}
+		return isSamePackage(target, type);
+	}
+
+	private boolean isSamePackage(Class target, Class type) {
+		if (target.getClassLoader() != type.getClassLoader()) {
+			return false;
+		}
+		String targetName = target.getName();
+		String typeName = type.getName();
+
+		int targetNdx = targetName.lastIndexOf('.');
+		int typeNdx = typeName.lastIndexOf('.');
+
+		return targetNdx == typeNdx && targetName.regionMatches(0, typeName, 0, typeNdx + 1);
+	}
+
+}
@@ -55,11 +55,16 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * Base layer of {@link PetiteContainer Petite Container}.
  * Holds beans and scopes definitions.
+ * <p>
+ * All registries are concurrent maps, so lookups are lock-free and
+ * safe while beans are registered or removed.
  */
 public abstract class PetiteBeans {
 
@@ -68,27 +73,44 @@ public abstract class PetiteBeans {
 	/**
 	 * Map of all beans definitions.
 	 */
-	protected final Map<String, BeanDefinition> beans = new HashMap<>();
+	protected final Map<String, BeanDefinition> beans = new ConcurrentHashMap<>();
 
 	/**
-	 * Map of alternative beans names.
+	 * Map of alternative beans names. Duplicated alternative names are
+	 * marked with {@link #DUPLICATED_ALT_BEAN}.
 	 */
-	protected final Map<String, BeanDefinition> beansAlt = new HashMap<>();
+	protected final Map<String, BeanDefinition> beansAlt = new ConcurrentHashMap<>();
+
+	/**
+	 * Marker of alternative bean names shared by more beans.
+	 */
+	protected static final BeanDefinition DUPLICATED_ALT_BEAN = new BeanDefinition<>(null, Object.class, null, WiringMode.NONE, null);
 
 	/**
 	 * Map of all bean scopes.
 	 */
-	protected final Map<Class<? extends Scope>, Scope> scopes = new HashMap<>();
+	protected final Map<Class<? extends Scope>, Scope> scopes = new ConcurrentHashMap<>();
 
 	/**
 	 * Map of all providers.
 	 */
-	protected final Map<String, ProviderDefinition> providers = new HashMap<>();
+	protected final Map<String, ProviderDefinition> providers = new ConcurrentHashMap<>();
 
 	/**
 	 * Map of all bean collections.
 	 */
-	protected final Map<Class, String[]> beanCollections = new HashMap<>();
+	protected final Map<Class, String[]> beanCollections = new ConcurrentHashMap<>();
+
+	/**
+	 * Map of bean definitions resolved from bean types.
+	 * @see #lookupBeanDefinition(Class)
+	 */
+	protected final Map<Class, BeanDefinition> beanTypes = new ConcurrentHashMap<>();
+
+	/**
+	 * Version of bean registry, incremented on each registration change.
+	 */
+	protected final AtomicInteger beansVersion = new AtomicInteger();
 
 	/**
 	 * {@link PetiteConfig Petite configuration}.
@@ -144,16 +166,21 @@ public abstract class PetiteBeans {
 	@SuppressWarnings("unchecked")
 	public <S extends Scope> S resolveScope(Class<S> scopeType) {
 		S scope = (S) scopes.get(scopeType);
-		if (scope == null) {
+		if (scope != null) {
+			return scope;
+		}
 
-			try {
-				scope = PetiteUtil.newInstance(scopeType, (PetiteContainer) this);
-			} catch (Exception ex) {
-				throw new PetiteException("Invalid Petite scope: " + scopeType.getName(), ex);
-			}
+		synchronized (scopes) {
+			scope = (S) scopes.get(scopeType);
+			if (scope == null) {
+				try {
+					scope = PetiteUtil.newInstance(scopeType, (PetiteContainer) this);
+				} catch (Exception ex) {
+					throw new PetiteException("Invalid Petite scope: " + scopeType.getName(), ex);
+				}
 
-			registerScope(scopeType, scope);
-			scopes.put(scopeType, scope);
+				registerScope(scopeType, scope);
+			}
 		}
 		return scope;
 	}
@@ -182,12 +209,53 @@ public abstract class PetiteBeans {
 		if (beanDefinition == null) {
 			if (petiteConfig.isUseAltBeanNames()) {
 				beanDefinition = beansAlt.get(name);
+
+				if (beanDefinition == DUPLICATED_ALT_BEAN) {
+					return null;
+				}
 			}
 		}
 
 		return beanDefinition;
 	}
 
+	/**
+	 * Lookups for {@link BeanDefinition bean definition} of a bean type.
+	 * Bean name is resolved from the type just once, resolved definitions
+	 * are cached until the next registration change.
+	 * Returns <code>null</code> if bean is not registered.
+	 */
+	public BeanDefinition lookupBeanDefinition(Class type) {
+		BeanDefinition beanDefinition = beanTypes.get(type);
+		if (beanDefinition != null) {
+			return beanDefinition;
+		}
+
+		int version = beansVersion.get();
+
+		beanDefinition = lookupBeanDefinition(resolveBeanName(type));
+
+		if (beanDefinition != null) {
+			beanTypes.put(type, beanDefinition);
+
+			if (version != beansVersion.get()) {
+				// registry has been changed in the meantime
+				beanTypes.remove(type);
+			}
+		}
+		return beanDefinition;
+	}
+
+	/**
+	 * Invalidates all data resolved from the registered beans.
+	 * Invoked after each registration change.
+	 */
+	protected void beansChanged() {
+		beansVersion.incrementAndGet();
+		beanTypes.clear();
+		beanCollections.clear();
+	}
+
 	/**
 	 * Lookups for first founded {@link BeanDefinition bean definition}.
 	 * Returns <code>null</code> if none of the beans is found.
@@ -352,6 +420,19 @@ public abstract class PetiteBeans {
 	protected void registerBean(String name, BeanDefinition beanDefinition) {
 		beans.put(name, beanDefinition);
 
+		try {
+			registerAltBeanNames(name, beanDefinition);
+		}
+		finally {
+			beansChanged();
+		}
+	}
+
+	/**
+	 * Registers alternative bean names, if they are used and if bean
+	 * does not have petite name explicitly defined.
+	 */
+	protected void registerAltBeanNames(String name, BeanDefinition beanDefinition) {
 		if (!petiteConfig.isUseAltBeanNames()) {
 			return;
 		}
@@ -375,15 +456,10 @@ public abstract class PetiteBeans {
 				continue;
 			}
 
-			if (beansAlt.containsKey(altName)) {
-				BeanDefinition existing = beansAlt.get(altName);
+			BeanDefinition existing = beansAlt.putIfAbsent(altName, beanDefinition);
 
-				if (existing != null) {
-					beansAlt.put(altName, null);		// store null as value to mark that alt name is duplicate
-				}
-			}
-			else {
-				beansAlt.put(altName, beanDefinition);
+			if (existing != null) {
+				beansAlt.put(altName, DUPLICATED_ALT_BEAN);		// mark that alt name is duplicate
 			}
 		}
 	}
@@ -419,6 +495,7 @@ public abstract class PetiteBeans {
 		if (bd == null) {
 			return null;
 		}
+		beansChanged();
 		bd.scopeRemove();
 		return bd;
 	}
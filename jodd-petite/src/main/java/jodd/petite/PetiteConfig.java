@@ -40,6 +40,7 @@ public class PetiteConfig {
 		wireScopedProxy = false;
 		detectMixedScopes = false;
 		useAltBeanNames = true;
+		generateBeanInjectors = false;
 	}
 
 	// ----------------------------------------------------------------
@@ -205,4 +206,27 @@ public class PetiteConfig {
 		this.detectMixedScopes = detectMixedScopes;
 		return this;
 	}
+
+	// ----------------------------------------------------------------
+
+	protected boolean generateBeanInjectors;
+
+	/**
+	 * Returns <code>true</code> if bean injectors are generated.
+	 */
+	public boolean isGenerateBeanInjectors() {
+		return generateBeanInjectors;
+	}
+
+	/**
+	 * Enables generation of {@link BeanInjector bean injectors}: bytecode that
+	 * creates and wires beans without reflection. Injector is generated
+	 * once the bean definition is fully resolved, i.e. on the second bean creation,
+	 * so it makes sense only for beans that are created often, like
+	 * {@link jodd.petite.scope.ProtoScope prototypes}.
+	 */
+	public PetiteConfig setGenerateBeanInjectors(boolean generateBeanInjectors) {
+		this.generateBeanInjectors = generateBeanInjectors;
+		return this;
+	}
 }
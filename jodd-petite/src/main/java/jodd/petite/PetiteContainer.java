@@ -40,6 +40,8 @@ import jodd.petite.scope.Scope;
 import jodd.petite.scope.SingletonScope;
 
 import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Petite IOC container.
@@ -58,6 +60,19 @@ public class PetiteContainer extends PetiteBeans {
 	public static final String PETITE_CONTAINER_REF_NAME = "petiteContainer";
 
 	protected final ScopedProxyManager scopedProxyManager;
+	protected final BeanInjectorGenerator beanInjectorGenerator;
+
+	/**
+	 * Lock for creation of singletons. Single lock is used, since
+	 * singletons may depend on each other.
+	 */
+	protected final Object singletonsLock = new Object();
+
+	/**
+	 * Names of singletons in creation. Such singletons are already registered
+	 * in the scope, but they are not completely initialized yet.
+	 */
+	protected final Set<String> singletonsInCreation = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * Creates new Petite container using {@link PetiteConfig default configuration}.
@@ -73,6 +88,7 @@ public class PetiteContainer extends PetiteBeans {
 		super(config);
 
 		scopedProxyManager = new ScopedProxyManager();
+		beanInjectorGenerator = new BeanInjectorGenerator();
 
 		if (log.isDebugEnabled()) {
 			log.debug("Petite container created");
@@ -107,9 +123,15 @@ public class PetiteContainer extends PetiteBeans {
 		}
 
 		// create instance
+		BeanInjector injector = lookupBeanInjector(def);
+
 		Object bean;
 		try {
-			bean = def.ctor.constructor.newInstance(args);
+			if (injector != null) {
+				bean = injector.newInstance(args);
+			} else {
+				bean = def.ctor.constructor.newInstance(args);
+			}
 		} catch (Exception ex) {
 			throw new PetiteException("Failed to create new bean instance '" + def.type.getName() + "' using constructor: " + def.ctor.constructor, ex);
 		}
@@ -117,6 +139,41 @@ public class PetiteContainer extends PetiteBeans {
 		return bean;
 	}
 
+	/**
+	 * Returns {@link BeanInjector bean injector} for current injection points
+	 * of the bean definition, or <code>null</code> if injector is not available.
+	 */
+	protected BeanInjector lookupBeanInjector(BeanDefinition def) {
+		BeanInjector injector = def.injector;
+
+		if (injector == null || !injector.isCurrent(def)) {
+			return null;
+		}
+		return injector;
+	}
+
+	/**
+	 * Generates {@link BeanInjector bean injector} when enabled and when
+	 * all injection points of the bean definition are resolved.
+	 */
+	protected void resolveBeanInjector(BeanDefinition def) {
+		if (!petiteConfig.generateBeanInjectors) {
+			return;
+		}
+		if (def.injector != null && def.injector.isCurrent(def)) {
+			return;
+		}
+		if (def.ctor == null || def.initMethods == null) {
+			return;
+		}
+		if (def.wiringMode != WiringMode.NONE) {
+			if (def.properties == null || def.sets == null || def.methods == null) {
+				return;
+			}
+		}
+		def.injector = beanInjectorGenerator.generate(def);
+	}
+
 	/**
 	 * Wires beans.
 	 * @param bean target bean
@@ -140,7 +197,10 @@ public class PetiteContainer extends PetiteBeans {
 
 		boolean mixing = petiteConfig.wireScopedProxy || petiteConfig.detectMixedScopes;
 
-		for (PropertyInjectionPoint pip : def.properties) {
+		BeanInjector injector = lookupBeanInjector(def);
+
+		for (int ndx = 0; ndx < def.properties.length; ndx++) {
+			PropertyInjectionPoint pip = def.properties[ndx];
 			BeanReferences refNames = pip.references;
 
 			Object value = null;
@@ -168,9 +228,13 @@ public class PetiteContainer extends PetiteBeans {
 
 			// BeanUtil.setDeclaredProperty(bean, pip.propertyDescriptor.getName(), value);
 
-			Setter setter = pip.propertyDescriptor.getSetter(true);
 			try {
-				setter.invokeSetter(bean, value);
+				if (injector != null) {
+					injector.injectProperty(bean, ndx, value);
+				} else {
+					Setter setter = pip.propertyDescriptor.getSetter(true);
+					setter.invokeSetter(bean, value);
+				}
 			}
 			catch (Exception ex) {
 				throw new PetiteException("Wiring failed", ex);
@@ -181,7 +245,10 @@ public class PetiteContainer extends PetiteBeans {
 		if (def.sets == null) {
 			def.sets = petiteResolvers.resolveSetInjectionPoint(def.type, def.wiringMode == WiringMode.AUTOWIRE);
 		}
-		for (SetInjectionPoint sip : def.sets) {
+		injector = lookupBeanInjector(def);
+
+		for (int ndx = 0; ndx < def.sets.length; ndx++) {
+			SetInjectionPoint sip = def.sets[ndx];
 
 			String[] beanNames = resolveBeanNamesForType(sip.targetClass);
 
@@ -196,9 +263,13 @@ public class PetiteContainer extends PetiteBeans {
 
 			//BeanUtil.setDeclaredProperty(bean, sip.field.getName(), beans);
 
-			Setter setter = sip.propertyDescriptor.getSetter(true);
 			try {
-				setter.invokeSetter(bean, beans);
+				if (injector != null) {
+					injector.injectSet(bean, ndx, beans);
+				} else {
+					Setter setter = sip.propertyDescriptor.getSetter(true);
+					setter.invokeSetter(bean, beans);
+				}
 			}
 			catch (Exception ex) {
 				throw new PetiteException("Wiring failed", ex);
@@ -213,7 +284,10 @@ public class PetiteContainer extends PetiteBeans {
 		if (def.methods == null) {
 			def.methods = petiteResolvers.resolveMethodInjectionPoint(def.type);
 		}
-		for (MethodInjectionPoint methodRef : def.methods) {
+		BeanInjector injector = lookupBeanInjector(def);
+
+		for (int ndx = 0; ndx < def.methods.length; ndx++) {
+			MethodInjectionPoint methodRef = def.methods[ndx];
 			BeanReferences[] refNames = methodRef.references;
 			Object[] args = new Object[refNames.length];
 			for (int i = 0; i < refNames.length; i++) {
@@ -244,7 +318,11 @@ public class PetiteContainer extends PetiteBeans {
 			}
 
 			try {
-				methodRef.method.invoke(bean, args);
+				if (injector != null) {
+					injector.invokeMethod(bean, ndx, args);
+				} else {
+					methodRef.method.invoke(bean, args);
+				}
 			} catch (Exception ex) {
 				throw new PetiteException(ex);
 			}
@@ -265,12 +343,19 @@ public class PetiteContainer extends PetiteBeans {
 	 * Invokes all init methods, if they exist. Also resolves destroy methods.
 	 */
 	protected void invokeInitMethods(Object bean, BeanDefinition def, InitMethodInvocationStrategy invocationStrategy) {
-		for (InitMethodPoint initMethod : def.initMethods) {
+		BeanInjector injector = lookupBeanInjector(def);
+
+		for (int ndx = 0; ndx < def.initMethods.length; ndx++) {
+			InitMethodPoint initMethod = def.initMethods[ndx];
 			if (invocationStrategy != initMethod.invocationStrategy) {
 				continue;
 			}
 			try {
-				initMethod.method.invoke(bean);
+				if (injector != null) {
+					injector.invokeInitMethod(bean, ndx);
+				} else {
+					initMethod.method.invoke(bean);
+				}
 			} catch (Exception ex) {
 				throw new PetiteException("Invalid init method: " + initMethod, ex);
 			}
@@ -314,8 +399,13 @@ public class PetiteContainer extends PetiteBeans {
 	 */
 	@SuppressWarnings({"unchecked"})
 	public <T> T getBean(Class<T> type) {
-		String name = resolveBeanName(type);
-		return (T) getBean(name);
+		BeanDefinition def = lookupBeanDefinition(type);
+
+		if (def == null) {
+			// try provider
+			return getBean(resolveBeanName(type));
+		}
+		return (T) getBean(def);
 	}
 
 	/**
@@ -362,16 +452,56 @@ public class PetiteContainer extends PetiteBeans {
 			return null;
 		}
 
+		return (T) getBean(def);
+	}
+
+	/**
+	 * Returns bean instance of the bean definition. Bean is looked up
+	 * in its scope and created if not found.
+	 * <p>
+	 * Singletons are looked up without locking. They are created under the
+	 * {@link #singletonsLock lock}, so each singleton is created only once and
+	 * other threads never get a singleton that is not completely initialized.
+	 */
+	protected Object getBean(BeanDefinition def) {
 		// Find the bean in its scope
 		Object bean = def.scopeLookup();
 
-		if (bean == null) {
-			// Create new bean in the scope
-			bean = newBeanInstance(def);
-			registerBeanAndWireAndInjectParamsAndInvokeInitMethods(def, bean);
+		if (!(def.scope instanceof SingletonScope)) {
+			if (bean == null) {
+				bean = createBeanInScope(def);
+			}
+			return bean;
 		}
 
-		return (T) bean;
+		if (bean != null && (singletonsInCreation.isEmpty() || !singletonsInCreation.contains(def.name))) {
+			return bean;
+		}
+
+		synchronized (singletonsLock) {
+			bean = def.scopeLookup();
+
+			if (bean == null) {
+				singletonsInCreation.add(def.name);
+				try {
+					bean = createBeanInScope(def);
+				}
+				finally {
+					singletonsInCreation.remove(def.name);
+				}
+			}
+		}
+		return bean;
+	}
+
+	/**
+	 * Creates new bean in the scope.
+	 */
+	protected Object createBeanInScope(BeanDefinition def) {
+		resolveBeanInjector(def);
+		Object bean = newBeanInstance(def);
+		registerBeanAndWireAndInjectParamsAndInvokeInitMethods(def, bean);
+		return bean;
 	}
 
 	/**
@@ -576,6 +706,7 @@ public class PetiteContainer extends PetiteBeans {
 		scopes.clear();
 		providers.clear();
 		beanCollections.clear();
+		beanTypes.clear();
 	}
 
 }
\ No newline at end of file
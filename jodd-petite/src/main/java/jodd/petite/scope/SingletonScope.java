@@ -29,16 +29,17 @@ import jodd.petite.BeanData;
 import jodd.petite.BeanDefinition;
 import jodd.petite.PetiteUtil;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton scope pools all bean instances so they will be created only once in
- * the container context.
+ * the container context. Instances are stored in a concurrent map, so lookups
+ * are lock-free; container takes care that each singleton is created only once.
  */
 public class SingletonScope implements Scope {
 
-	protected Map<String, BeanData> instances = new HashMap<>();
+	protected final Map<String, BeanData> instances = new ConcurrentHashMap<>();
 
 	@Override
 	public Object lookup(String name) {
@@ -0,0 +1,176 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteBean;
+import jodd.petite.meta.PetiteInitMethod;
+import jodd.petite.meta.PetiteInject;
+import jodd.petite.scope.ProtoScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BeanInjectorTest {
+
+	@PetiteBean
+	public static class Engine {
+	}
+
+	public interface Part {
+	}
+
+	@PetiteBean
+	public static class Wheel implements Part {
+	}
+
+	@PetiteBean
+	static class Door implements Part {
+	}
+
+	@PetiteBean(scope = ProtoScope.class)
+	public static class Car {
+
+		final Engine engine;
+
+		@PetiteInject
+		Engine field;
+
+		@PetiteInject
+		private Engine privateField;
+
+		Engine property;
+
+		@PetiteInject
+		Set<Part> parts;
+
+		Engine method;
+		Wheel methodWheel;
+
+		int initCount;
+
+		@PetiteInject
+		public Car(Engine engine) {
+			this.engine = engine;
+		}
+
+		@PetiteInject
+		public void setProperty(Engine property) {
+			this.property = property;
+		}
+
+		@PetiteInject
+		void wire(Engine engine, Wheel wheel) {
+			this.method = engine;
+			this.methodWheel = wheel;
+		}
+
+		@PetiteInitMethod
+		long init() {
+			return ++initCount;
+		}
+
+		Engine getPrivateField() {
+			return privateField;
+		}
+	}
+
+	@Test
+	void testGeneratedInjector() {
+		PetiteContainer pc = new PetiteContainer(new PetiteConfig().setGenerateBeanInjectors(true));
+		pc.registerPetiteBean(Engine.class, null, null, null, false, null);
+		pc.registerPetiteBean(Wheel.class, null, null, null, false, null);
+		pc.registerPetiteBean(Door.class, null, null, null, false, null);
+		pc.registerPetiteBean(Car.class, null, null, null, false, null);
+
+		BeanDefinition def = pc.lookupBeanDefinition("car");
+
+		Car car1 = pc.getBean(Car.class);
+		assertNull(def.injector);
+
+		Car car2 = pc.getBean(Car.class);
+		Car car3 = pc.getBean(Car.class);
+
+		assertNotNull(def.injector);
+		assertTrue(def.injector.getClass().getName().contains(BeanInjectorGenerator.INJECTOR_CLASS_NAME_SUFFIX));
+		assertSame(def.injector, pc.lookupBeanInjector(def));
+
+		Engine engine = pc.getBean(Engine.class);
+		Wheel wheel = pc.getBean(Wheel.class);
+
+		for (Car car : new Car[] {car1, car2, car3}) {
+			assertSame(engine, car.engine);
+			assertSame(engine, car.field);
+			assertSame(engine, car.getPrivateField());
+			assertSame(engine, car.property);
+			assertSame(engine, car.method);
+			assertSame(wheel, car.methodWheel);
+			assertEquals(2, car.parts.size());
+			assertTrue(car.parts.contains(wheel));
+			assertEquals(1, car.initCount);
+		}
+
+		assertNotSame(car2, car3);
+	}
+
+	@Test
+	void testInjectorDisabled() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.registerPetiteBean(Engine.class, null, null, null, false, null);
+		pc.registerPetiteBean(Wheel.class, null, null, null, false, null);
+		pc.registerPetiteBean(Car.class, null, null, null, false, null);
+
+		pc.getBean(Car.class);
+		Car car = pc.getBean(Car.class);
+
+		assertNull(pc.lookupBeanDefinition("car").injector);
+		assertNotNull(car.property);
+	}
+
+	@Test
+	void testStaleInjector() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.registerPetiteBean(Engine.class, null, null, null, false, null);
+		pc.registerPetiteBean(Wheel.class, null, null, null, false, null);
+		pc.registerPetiteBean(Car.class, null, null, null, false, null);
+
+		BeanDefinition def = pc.lookupBeanDefinition("car");
+		def.injector = new BeanInjector(def);
+
+		assertSame(def.injector, pc.lookupBeanInjector(def));
+
+		Car car = pc.getBean(Car.class);
+
+		assertNotNull(car.engine);
+		assertNull(pc.lookupBeanInjector(def));
+	}
+}
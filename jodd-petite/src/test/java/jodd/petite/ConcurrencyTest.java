@@ -0,0 +1,138 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.petite;
+
+import jodd.petite.meta.PetiteBean;
+import jodd.petite.meta.PetiteInitMethod;
+import jodd.petite.meta.PetiteInject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyTest {
+
+	static final AtomicInteger created = new AtomicInteger();
+
+	@PetiteBean
+	public static class Slow {
+		@PetiteInject
+		Fast fast;
+
+		volatile boolean initialized;
+
+		public Slow() {
+			created.incrementAndGet();
+		}
+
+		@PetiteInitMethod
+		void init() throws InterruptedException {
+			Thread.sleep(50);
+			initialized = true;
+		}
+	}
+
+	@PetiteBean
+	public static class Fast {
+		@PetiteInject
+		Slow slow;
+	}
+
+	@Test
+	void testConcurrentSingletonCreation() throws Exception {
+		created.set(0);
+
+		PetiteContainer pc = new PetiteContainer();
+		pc.registerPetiteBean(Slow.class, null, null, null, false, null);
+		pc.registerPetiteBean(Fast.class, null, null, null, false, null);
+
+		int threads = 16;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<Slow>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Callable<Slow> task = () -> {
+				start.await();
+				return pc.getBean(Slow.class);
+			};
+			futures.add(executorService.submit(task));
+		}
+
+		start.countDown();
+
+		Slow first = futures.get(0).get();
+		for (Future<Slow> future : futures) {
+			Slow slow = future.get();
+			assertSame(first, slow);
+			assertTrue(slow.initialized);
+		}
+		executorService.shutdown();
+
+		assertEquals(1, created.get());
+		assertSame(first, first.fast.slow);
+		assertSame(first.fast, pc.getBean(Fast.class));
+	}
+
+	@Test
+	void testResolvedTypes() {
+		PetiteContainer pc = new PetiteContainer();
+		pc.registerPetiteBean(Fast.class, null, null, WiringMode.NONE, false, null);
+
+		BeanDefinition def = pc.lookupBeanDefinition(Fast.class);
+		assertNotNull(def);
+		assertSame(def, pc.lookupBeanDefinition(Fast.class));
+
+		Fast fast = pc.getBean(Fast.class);
+		assertSame(fast, pc.getBean(Fast.class));
+
+		// re-register
+		pc.registerPetiteBean(Fast.class, null, null, WiringMode.NONE, false, null);
+
+		BeanDefinition def2 = pc.lookupBeanDefinition(Fast.class);
+		assertNotNull(def2);
+		assertTrue(def != def2);
+		assertTrue(fast != pc.getBean(Fast.class));
+
+		// remove
+		pc.removeBean(Fast.class);
+
+		assertNull(pc.lookupBeanDefinition(Fast.class));
+		assertNull(pc.getBean(Fast.class));
+	}
+}
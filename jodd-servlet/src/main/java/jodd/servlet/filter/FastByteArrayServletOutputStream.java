@@ -43,13 +43,25 @@ public class FastByteArrayServletOutputStream extends ServletOutputStream {
 		wrapped = new FastByteArrayOutputStream();
 	}
 
+	/**
+	 * Buffered stream is always ready, as writing never blocks.
+	 */
 	@Override
 	public boolean isReady() {
-		return false;
+		return true;
 	}
 
+	/**
+	 * Notifies the listener immediately, as writing never blocks.
+	 */
 	@Override
 	public void setWriteListener(WriteListener writeListener) {
+		try {
+			writeListener.onWritePossible();
+		}
+		catch (IOException ioex) {
+			writeListener.onError(ioex);
+		}
 	}
 
 	/**
@@ -67,6 +79,14 @@ public class FastByteArrayServletOutputStream extends ServletOutputStream {
 		wrapped.write(i);
 	}
 
+	/**
+	 * Writes bytes to wrapped buffer at once.
+	 */
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		wrapped.write(b, off, len);
+	}
+
 	public void reset() {
 		wrapped.reset();
 	}
@@ -42,6 +42,7 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.zip.Deflater;
 
 /**
  * Compresses output with GZIP, for browsers that supports it.
@@ -73,6 +74,17 @@ import java.io.IOException;
  * Default value is <code>gzip</code>. Set it to an empty string to turn this feature off.
  * </li>
  *
+ * <li><code>poolSize</code> - max number of pooled buffers and <code>Deflater</code>s,
+ * see {@link GzipPool}. By default set to 64. Use 0 to turn pooling off.</li>
+ *
+ * <li><code>precompressed</code> - boolean that enables serving precompressed
+ * static resources: when resource with the <code>.gz</code> extension exists
+ * next to the requested one, it is sent instead of the content of successful
+ * responses, see {@link PrecompressedResponseWrapper}. By default <code>false</code>.</li>
+ *
+ * <li><code>precompressedCacheSize</code> - max number of bytes of precompressed
+ * resources cached in memory. By default set to 4 MB.</li>
+ *
  * </ul>
  *
  * All matching is done in lowercase. You can override this class for finer control.
@@ -101,8 +113,23 @@ public class GzipFilter implements Filter {
 			return;
 		}
 
+		if (precompressedResources != null) {
+			PrecompressedResources.Resource resource = lookupPrecompressed(req);
+
+			if (resource != null) {
+				PrecompressedResponseWrapper wrappedResponse =
+					new PrecompressedResponseWrapper(res, resource, !"HEAD".equals(req.getMethod()));
+
+				chain.doFilter(request, wrappedResponse);
+
+				wrappedResponse.finishResponse();
+				return;
+			}
+		}
+
 		GzipResponseWrapper wrappedResponse = new GzipResponseWrapper(res);
 		wrappedResponse.setCompressionThreshold(threshold);
+		wrappedResponse.setGzipPool(gzipPool);
 
 		try {
 			chain.doFilter(request, wrappedResponse);
@@ -117,6 +144,8 @@ public class GzipFilter implements Filter {
 	protected boolean wildcards;
 	protected String requestParameterName;
 	protected String[] extensions;
+	protected GzipPool gzipPool;
+	protected PrecompressedResources precompressedResources;
 
 	/**
 	 * Filter initialization.
@@ -180,10 +209,83 @@ public class GzipFilter implements Filter {
 			extensions = new String[] {"html", "htm", "js", "css"};
 		}
 
+		// pool
+
+		int poolSize;
+		try {
+			poolSize = Converter.get().toIntValue(config.getInitParameter("poolSize"), GzipPool.DEFAULT_MAX_POOL_SIZE);
+		} catch (TypeConversionException ignore) {
+			poolSize = GzipPool.DEFAULT_MAX_POOL_SIZE;
+		}
+
+		if (poolSize > 0 && threshold > 0) {
+			gzipPool = new GzipPool(Math.max(threshold, MIN_POOL_BUFFER_SIZE), poolSize, Deflater.DEFAULT_COMPRESSION);
+		}
+
+		// precompressed resources
+
+		boolean precompressed;
+		try {
+			precompressed = Converter.get().toBooleanValue(config.getInitParameter("precompressed"), false);
+		} catch (TypeConversionException ignore) {
+			precompressed = false;
+		}
+
+		if (precompressed) {
+			long cacheSize;
+			try {
+				cacheSize = Converter.get().toLongValue(config.getInitParameter("precompressedCacheSize"), PrecompressedResources.DEFAULT_MAX_CACHE_SIZE);
+			} catch (TypeConversionException ignore) {
+				cacheSize = PrecompressedResources.DEFAULT_MAX_CACHE_SIZE;
+			}
+			precompressedResources = new PrecompressedResources(config.getServletContext(), cacheSize);
+		}
 	}
 
 	@Override
 	public void destroy() {
+		if (gzipPool != null) {
+			gzipPool.clear();
+		}
+		if (precompressedResources != null) {
+			precompressedResources.clear();
+		}
+	}
+
+	// ---------------------------------------------------------------- precompressed
+
+	protected static final int MIN_POOL_BUFFER_SIZE = 512;
+
+	/**
+	 * Looks up precompressed <code>.gz</code> resource for the request path.
+	 * Returns <code>null</code> if there is no such resource or if the request
+	 * is not a plain <code>GET</code> or <code>HEAD</code>. Range requests are
+	 * not served from precompressed resources, as ranges refer to the
+	 * uncompressed content.
+	 */
+	protected PrecompressedResources.Resource lookupPrecompressed(HttpServletRequest request) throws IOException {
+		String method = request.getMethod();
+
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return null;
+		}
+
+		if (request.getHeader("Range") != null) {
+			return null;
+		}
+
+		String path = request.getServletPath();
+		String pathInfo = request.getPathInfo();
+
+		if (pathInfo != null) {
+			path += pathInfo;
+		}
+
+		if (!path.startsWith(StringPool.SLASH) || path.endsWith(StringPool.SLASH)) {
+			return null;
+		}
+
+		return precompressedResources.lookup(path);
 	}
 
 	/**
@@ -0,0 +1,149 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Pool of <code>Deflater</code>s and byte buffers used by the GZIP
+ * response streams. Creating a <code>Deflater</code> allocates native
+ * memory, so instances are reset and reused instead. Pool is not bound
+ * to a thread, as asynchronous responses may be written from different
+ * threads. Number of pooled instances is capped; anything over the cap
+ * is simply released.
+ */
+public class GzipPool {
+
+	public static final int DEFAULT_MAX_POOL_SIZE = 64;
+
+	protected final int bufferSize;
+	protected final int maxPoolSize;
+	protected final int compressionLevel;
+
+	private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger deflatersCount = new AtomicInteger();
+	private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger buffersCount = new AtomicInteger();
+
+	/**
+	 * Creates pool of buffers of given size with default
+	 * max pool size and compression level.
+	 */
+	public GzipPool(int bufferSize) {
+		this(bufferSize, DEFAULT_MAX_POOL_SIZE, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	public GzipPool(int bufferSize, int maxPoolSize, int compressionLevel) {
+		this.bufferSize = bufferSize;
+		this.maxPoolSize = maxPoolSize;
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Returns size of pooled buffers.
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	// ---------------------------------------------------------------- deflater
+
+	/**
+	 * Acquires a deflater that produces raw deflate data, without
+	 * the ZLIB header.
+	 */
+	public Deflater acquireDeflater() {
+		Deflater deflater = deflaters.poll();
+
+		if (deflater == null) {
+			return new Deflater(compressionLevel, true);
+		}
+		deflatersCount.decrementAndGet();
+		return deflater;
+	}
+
+	/**
+	 * Returns deflater to the pool. Deflater is ended if the pool is full.
+	 */
+	public void releaseDeflater(Deflater deflater) {
+		if (deflatersCount.incrementAndGet() > maxPoolSize) {
+			deflatersCount.decrementAndGet();
+			deflater.end();
+			return;
+		}
+		deflater.reset();
+		deflaters.offer(deflater);
+	}
+
+	// ---------------------------------------------------------------- buffer
+
+	/**
+	 * Acquires a buffer of the {@link #getBufferSize() pool size}.
+	 */
+	public byte[] acquireBuffer() {
+		byte[] buffer = buffers.poll();
+
+		if (buffer == null) {
+			return new byte[bufferSize];
+		}
+		buffersCount.decrementAndGet();
+		return buffer;
+	}
+
+	/**
+	 * Returns buffer to the pool. Buffers of different size
+	 * and buffers over the pool cap are dropped.
+	 */
+	public void releaseBuffer(byte[] buffer) {
+		if (buffer.length != bufferSize) {
+			return;
+		}
+		if (buffersCount.incrementAndGet() > maxPoolSize) {
+			buffersCount.decrementAndGet();
+			return;
+		}
+		buffers.offer(buffer);
+	}
+
+	/**
+	 * Releases all pooled deflaters.
+	 */
+	public void clear() {
+		Deflater deflater;
+
+		while ((deflater = deflaters.poll()) != null) {
+			deflatersCount.decrementAndGet();
+			deflater.end();
+		}
+
+		while (buffers.poll() != null) {
+			buffersCount.decrementAndGet();
+		}
+	}
+}
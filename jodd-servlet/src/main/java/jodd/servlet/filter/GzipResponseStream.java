@@ -29,10 +29,14 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
- * GZIP response stream.
+ * GZIP response stream. Content is buffered only up to the compression
+ * threshold; after that it is compressed and streamed directly to the
+ * client. Small responses are written uncompressed. When {@link GzipPool}
+ * is provided, buffer and <code>Deflater</code> are taken from the pool.
  */
 public class GzipResponseStream extends ServletOutputStream {
 
@@ -40,12 +44,25 @@ public class GzipResponseStream extends ServletOutputStream {
 	 * Constructs a servlet output stream associated with the specified Response.
 	 */
 	public GzipResponseStream(HttpServletResponse response) throws IOException {
+		this(response, null);
+	}
+
+	/**
+	 * Constructs a servlet output stream that uses pooled resources.
+	 */
+	public GzipResponseStream(HttpServletResponse response, GzipPool gzipPool) throws IOException {
 		super();
 		closed = false;
 		this.response = response;
 		this.output = response.getOutputStream();
+		this.gzipPool = gzipPool;
 	}
 
+	/**
+	 * Pool of buffers and deflaters, may be <code>null</code>.
+	 */
+	protected final GzipPool gzipPool;
+
 	/**
 	 * The threshold number which decides to compress or not.
 	 */
@@ -64,7 +81,7 @@ public class GzipResponseStream extends ServletOutputStream {
 	/**
 	 * The underlying gzip output stream to which we should write data.
 	 */
-	protected GZIPOutputStream gzipstream;
+	protected OutputStream gzipstream;
 
 	/**
 	 * Has this stream been closed?
@@ -93,7 +110,12 @@ public class GzipResponseStream extends ServletOutputStream {
 	 */
 	protected void setBuffer(int threshold) {
 		compressionThreshold = threshold;
-		buffer = new byte[compressionThreshold];
+
+		if (gzipPool != null && threshold <= gzipPool.getBufferSize()) {
+			buffer = gzipPool.acquireBuffer();
+		} else {
+			buffer = new byte[compressionThreshold];
+		}
 	}
 
 	@Override
@@ -127,6 +149,11 @@ public class GzipResponseStream extends ServletOutputStream {
 		}
 		output.close();
 		closed = true;
+
+		if (gzipPool != null) {
+			gzipPool.releaseBuffer(buffer);
+			buffer = null;
+		}
 	}
 
 
@@ -162,7 +189,7 @@ public class GzipResponseStream extends ServletOutputStream {
 		if (closed) {
 			throw new IOException("Cannot write to a closed output stream");
 		}
-		if (bufferCount >= buffer.length) {
+		if (bufferCount >= compressionThreshold) {
 			flushToGZip();
 		}
 		buffer[bufferCount++] = (byte) b;
@@ -199,7 +226,7 @@ public class GzipResponseStream extends ServletOutputStream {
 		}
 
 		// Can we write into buffer ?
-		if (len <= (buffer.length - bufferCount)) {
+		if (len <= (compressionThreshold - bufferCount)) {
 			System.arraycopy(b, off, buffer, bufferCount, len);
 			bufferCount += len;
 			return;
@@ -209,7 +236,7 @@ public class GzipResponseStream extends ServletOutputStream {
 		flushToGZip();
 
 		// ... and try again. Note, that bufferCount = 0 here !
-		if (len <= (buffer.length - bufferCount)) {
+		if (len <= (compressionThreshold - bufferCount)) {
 			System.arraycopy(b, off, buffer, bufferCount, len);
 			bufferCount += len;
 			return;
@@ -220,18 +247,28 @@ public class GzipResponseStream extends ServletOutputStream {
 	}
 
 	/**
-	 * Writes byte array to gzip output stream. Creates new <code>GZIPOutputStream</code>
+	 * Writes byte array to gzip output stream. Creates new gzip output stream
 	 * if not created yet. Also sets the "Content-Encoding" header.
 	 */
 	public void writeToGZip(byte[] b, int off, int len) throws IOException {
 		if (gzipstream == null) {
-			gzipstream = new GZIPOutputStream(output);
+			gzipstream = createGzipStream(output);
 			response.setHeader("Content-Encoding", "gzip");
 		}
 		gzipstream.write(b, off, len);
 
 	}
 
+	/**
+	 * Creates gzip output stream, using pooled deflater when pool is available.
+	 */
+	protected OutputStream createGzipStream(OutputStream output) throws IOException {
+		if (gzipPool != null) {
+			return new PooledGzipOutputStream(output, gzipPool);
+		}
+		return new GZIPOutputStream(output);
+	}
+
 	/**
 	 * Returns <code>true</code> if this response stream been closed.
 	 */
@@ -74,6 +74,11 @@ public class GzipResponseWrapper extends HttpServletResponseWrapper {
 	 */
 	protected int threshold;
 
+	/**
+	 * Pool of buffers and deflaters, may be <code>null</code>.
+	 */
+	protected GzipPool gzipPool;
+
 	/**
 	 * Content type.
 	 */
@@ -97,12 +102,19 @@ public class GzipResponseWrapper extends HttpServletResponseWrapper {
 		this.threshold = threshold;
 	}
 
+	/**
+	 * Sets the pool of buffers and deflaters used by the response stream.
+	 */
+	public void setGzipPool(GzipPool gzipPool) {
+		this.gzipPool = gzipPool;
+	}
+
 	/**
 	 * Creates and returns a ServletOutputStream to write the content associated
 	 * with this Response.
 	 */
 	public ServletOutputStream createOutputStream() throws IOException {
-		GzipResponseStream gzstream = new GzipResponseStream(origResponse);
+		GzipResponseStream gzstream = new GzipResponseStream(origResponse, gzipPool);
 		gzstream.setBuffer(threshold);
 		return gzstream;
 	}
@@ -0,0 +1,144 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP output stream that borrows its <code>Deflater</code> and
+ * the output buffer from the {@link GzipPool}. Produces the same
+ * output as <code>GZIPOutputStream</code>. Deflater and buffer are
+ * returned to the pool when stream is closed.
+ */
+public class PooledGzipOutputStream extends OutputStream {
+
+	private static final byte[] HEADER = {
+		(byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+	};
+
+	protected final OutputStream out;
+	protected final GzipPool gzipPool;
+	protected final CRC32 crc = new CRC32();
+	protected Deflater deflater;
+	protected byte[] buf;
+
+	public PooledGzipOutputStream(OutputStream out, GzipPool gzipPool) throws IOException {
+		this.out = out;
+		this.gzipPool = gzipPool;
+		this.deflater = gzipPool.acquireDeflater();
+		this.buf = gzipPool.acquireBuffer();
+
+		out.write(HEADER);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] {(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (deflater == null) {
+			throw new IOException("Stream closed");
+		}
+		if (len == 0) {
+			return;
+		}
+		crc.update(b, off, len);
+		deflater.setInput(b, off, len);
+
+		while (!deflater.needsInput()) {
+			deflate();
+		}
+	}
+
+	/**
+	 * Flushes the underlying stream. Just like the <code>GZIPOutputStream</code>,
+	 * does not flush the deflater, as it would hurt the compression.
+	 */
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Finishes the compressed data and writes the GZIP trailer, without
+	 * closing the underlying stream.
+	 */
+	public void finish() throws IOException {
+		if (deflater == null || deflater.finished()) {
+			return;
+		}
+		deflater.finish();
+
+		while (!deflater.finished()) {
+			deflate();
+		}
+
+		writeInt((int) crc.getValue());
+		writeInt((int) deflater.getBytesRead());
+	}
+
+	/**
+	 * Finishes the stream, releases pooled resources and closes
+	 * the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (deflater == null) {
+			return;
+		}
+		try {
+			finish();
+		}
+		finally {
+			gzipPool.releaseDeflater(deflater);
+			gzipPool.releaseBuffer(buf);
+			deflater = null;
+			buf = null;
+
+			out.close();
+		}
+	}
+
+	protected void deflate() throws IOException {
+		int len = deflater.deflate(buf, 0, buf.length);
+
+		if (len > 0) {
+			out.write(buf, 0, len);
+		}
+	}
+
+	private void writeInt(int i) throws IOException {
+		out.write(i & 0xFF);
+		out.write((i >> 8) & 0xFF);
+		out.write((i >> 16) & 0xFF);
+		out.write((i >> 24) & 0xFF);
+	}
+}
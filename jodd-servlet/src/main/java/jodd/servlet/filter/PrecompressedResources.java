@@ -0,0 +1,220 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precompressed <code>.gz</code> resources of the web application.
+ * Resource is looked up on every request, so changed and removed resources
+ * are detected by their last modification time. Content of small resources
+ * is cached in memory; cache is bounded by the total number of bytes and
+ * the least recently used content is dropped first. Resources larger than
+ * a quarter of the cache are always read from the servlet context.
+ */
+public class PrecompressedResources {
+
+	public static final long DEFAULT_MAX_CACHE_SIZE = 4 * 1024 * 1024;
+
+	protected final ServletContext servletContext;
+	protected final long maxCacheSize;
+	protected final long maxCachedResourceSize;
+
+	private final LinkedHashMap<String, Content> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private long cacheSize;
+
+	public PrecompressedResources(ServletContext servletContext, long maxCacheSize) {
+		this.servletContext = servletContext;
+		this.maxCacheSize = maxCacheSize;
+		this.maxCachedResourceSize = maxCacheSize / 4;
+	}
+
+	/**
+	 * Returns precompressed resource for given path or <code>null</code>
+	 * if there is no <code>.gz</code> resource next to it.
+	 */
+	public Resource lookup(String path) throws IOException {
+		URL url = servletContext.getResource(path + ".gz");
+
+		if (url == null) {
+			return null;
+		}
+
+		File file = FileUtil.toFile(url);
+
+		if (file != null) {
+			if (!file.isFile()) {
+				return null;
+			}
+			return new Resource(path, url, file.lastModified(), file.length());
+		}
+
+		URLConnection urlConnection = url.openConnection();
+
+		return new Resource(path, url, urlConnection.getLastModified(), urlConnection.getContentLengthLong());
+	}
+
+	/**
+	 * Returns number of cached bytes.
+	 */
+	public synchronized long getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Clears the cache.
+	 */
+	public synchronized void clear() {
+		cache.clear();
+		cacheSize = 0;
+	}
+
+	// ---------------------------------------------------------------- cache
+
+	/**
+	 * Cached content of the resource.
+	 */
+	private static class Content {
+		private final URL url;
+		private final long lastModified;
+		private final byte[] bytes;
+
+		private Content(URL url, long lastModified, byte[] bytes) {
+			this.url = url;
+			this.lastModified = lastModified;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * Returns cached content of the resource. Content that does
+	 * not match the resource any more is removed.
+	 */
+	protected synchronized byte[] cached(Resource resource) {
+		Content content = cache.get(resource.path);
+
+		if (content == null) {
+			return null;
+		}
+		if (content.lastModified == resource.lastModified && content.url.toExternalForm().equals(resource.url.toExternalForm())) {
+			return content.bytes;
+		}
+
+		cache.remove(resource.path);
+		cacheSize -= content.bytes.length;
+		return null;
+	}
+
+	/**
+	 * Caches the content of the resource, dropping the least
+	 * recently used content until the new one fits.
+	 */
+	protected synchronized void cache(Resource resource, byte[] bytes) {
+		Content previous = cache.remove(resource.path);
+
+		if (previous != null) {
+			cacheSize -= previous.bytes.length;
+		}
+
+		Iterator<Map.Entry<String, Content>> iterator = cache.entrySet().iterator();
+
+		while (cacheSize + bytes.length > maxCacheSize && iterator.hasNext()) {
+			cacheSize -= iterator.next().getValue().bytes.length;
+			iterator.remove();
+		}
+
+		cache.put(resource.path, new Content(resource.url, resource.lastModified, bytes));
+		cacheSize += bytes.length;
+	}
+
+	// ---------------------------------------------------------------- resource
+
+	/**
+	 * Precompressed resource.
+	 */
+	public class Resource {
+		protected final String path;
+		protected final URL url;
+		protected final long lastModified;
+		protected final long length;
+
+		protected Resource(String path, URL url, long lastModified, long length) {
+			this.path = path;
+			this.url = url;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		/**
+		 * Returns length of the compressed content or -1 if it is not known.
+		 */
+		public long getLength() {
+			return length;
+		}
+
+		/**
+		 * Writes compressed content to the output.
+		 */
+		public void writeTo(OutputStream out) throws IOException {
+			byte[] bytes = cached(this);
+
+			if (bytes != null) {
+				out.write(bytes);
+				return;
+			}
+
+			InputStream in = url.openStream();
+			try {
+				if (length < 0 || length > maxCachedResourceSize) {
+					StreamUtil.copy(in, out);
+					return;
+				}
+				bytes = StreamUtil.readBytes(in);
+			}
+			finally {
+				StreamUtil.close(in);
+			}
+
+			if (bytes.length <= maxCachedResourceSize) {
+				cache(this, bytes);
+			}
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,266 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Response wrapper that replaces the content of successful responses with the
+ * {@link PrecompressedResources.Resource precompressed resource}. Request goes
+ * through the rest of the chain as usual, so security filters and the default
+ * servlet still decide on the response. Only when the response status is
+ * <code>200</code>, the content written by the chain is discarded and the
+ * precompressed content is sent instead. Any other response, like
+ * <code>304</code>, <code>206</code> or an error, is sent as it is.
+ * <p>
+ * Headers set by the chain, like <code>Last-Modified</code>, are kept.
+ * Strong <code>ETag</code> is turned into a weak one, as compressed content
+ * is not byte-equal to the uncompressed one.
+ */
+public class PrecompressedResponseWrapper extends HttpServletResponseWrapper {
+
+	private static final String CONTENT_LENGTH = "Content-Length";
+
+	protected final HttpServletResponse origResponse;
+	protected final PrecompressedResources.Resource resource;
+	protected final boolean sendContent;
+
+	/**
+	 * Content length set by the chain, sent only if
+	 * the precompressed content is not used.
+	 */
+	protected long contentLength = -1;
+
+	/**
+	 * Usage of the precompressed content, <code>null</code> until decided.
+	 */
+	protected Boolean precompressed;
+
+	protected ServletOutputStream stream;
+	protected PrintWriter writer;
+
+	public PrecompressedResponseWrapper(HttpServletResponse response, PrecompressedResources.Resource resource, boolean sendContent) {
+		super(response);
+		this.origResponse = response;
+		this.resource = resource;
+		this.sendContent = sendContent;
+	}
+
+	/**
+	 * Decides if precompressed content is going to be sent, once the chain
+	 * starts writing the content or when the response is finished.
+	 */
+	protected boolean usePrecompressed() {
+		if (precompressed != null) {
+			return precompressed.booleanValue();
+		}
+
+		if (origResponse.getStatus() != SC_OK || origResponse.isCommitted()) {
+			precompressed = Boolean.FALSE;
+
+			if (contentLength != -1) {
+				origResponse.setContentLengthLong(contentLength);
+			}
+			return false;
+		}
+
+		precompressed = Boolean.TRUE;
+
+		origResponse.setHeader("Content-Encoding", "gzip");
+		origResponse.setHeader("Vary", "Accept-Encoding");
+
+		String etag = origResponse.getHeader("ETag");
+
+		if (etag != null && !etag.startsWith("W/")) {
+			origResponse.setHeader("ETag", "W/" + etag);
+		}
+
+		if (resource.getLength() != -1) {
+			origResponse.setContentLengthLong(resource.getLength());
+		}
+		return true;
+	}
+
+	/**
+	 * Finishes a response by sending the precompressed content, if used.
+	 */
+	public void finishResponse() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		if (usePrecompressed() && sendContent) {
+			resource.writeTo(origResponse.getOutputStream());
+		}
+	}
+
+	// ---------------------------------------------------------------- content
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (!usePrecompressed()) {
+			return origResponse.getOutputStream();
+		}
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called for this response");
+		}
+		if (stream == null) {
+			stream = new DiscardingOutputStream();
+		}
+		return stream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (!usePrecompressed()) {
+			return origResponse.getWriter();
+		}
+		if (stream != null) {
+			throw new IllegalStateException("getOutputStream() has already been called for this response");
+		}
+		if (writer == null) {
+			writer = new PrintWriter(new DiscardingOutputStream());
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (!usePrecompressed()) {
+			origResponse.flushBuffer();
+		}
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		precompressed = Boolean.FALSE;
+		origResponse.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		precompressed = Boolean.FALSE;
+		origResponse.sendError(sc);
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		precompressed = Boolean.FALSE;
+		origResponse.sendRedirect(location);
+	}
+
+	@Override
+	public void reset() {
+		origResponse.reset();
+		contentLength = -1;
+		precompressed = null;
+	}
+
+	// ---------------------------------------------------------------- content length
+
+	@Override
+	public void setContentLength(int len) {
+		setContentLengthLong(len);
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+		if (precompressed == null) {
+			contentLength = len;
+		}
+		else if (!precompressed.booleanValue()) {
+			origResponse.setContentLengthLong(len);
+		}
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+			return;
+		}
+		origResponse.setHeader(name, value);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(Long.parseLong(value));
+			return;
+		}
+		origResponse.addHeader(name, value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value);
+			return;
+		}
+		origResponse.setIntHeader(name, value);
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value);
+			return;
+		}
+		origResponse.addIntHeader(name, value);
+	}
+
+	/**
+	 * Output stream of the chain, when precompressed content is sent instead.
+	 */
+	private static class DiscardingOutputStream extends ServletOutputStream {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			try {
+				writeListener.onWritePossible();
+			}
+			catch (IOException ioex) {
+				writeListener.onError(ioex);
+			}
+		}
+	}
+}
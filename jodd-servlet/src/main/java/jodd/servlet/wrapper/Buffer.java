@@ -29,7 +29,10 @@ import jodd.io.FastCharArrayWriter;
 import jodd.servlet.filter.FastByteArrayServletOutputStream;
 
 import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 
 /**
  * Facade for both <code>PrintWriter</code> and <code>ServletOutputStream</code> of servlet response.
@@ -107,4 +110,24 @@ public class Buffer {
 		return null;
 	}
 
+	/**
+	 * Writes buffered writer content to given writer, without copying
+	 * it into a new array. Does nothing if writer is not used.
+	 */
+	public void writeTo(Writer out) throws IOException {
+		if (bufferedWriter != null && bufferedWriter.size() > 0) {
+			bufferedWriter.writeTo(out);
+		}
+	}
+
+	/**
+	 * Writes buffered servlet output content to given output stream,
+	 * without copying it into a new array. Does nothing if stream is not used.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		if (bufferOutputStream != null && bufferOutputStream.getByteArrayStream().size() > 0) {
+			bufferOutputStream.getByteArrayStream().writeTo(out);
+		}
+	}
+
 }
\ No newline at end of file
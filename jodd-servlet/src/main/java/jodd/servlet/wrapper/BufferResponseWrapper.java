@@ -272,11 +272,11 @@ public class BufferResponseWrapper extends HttpServletResponseWrapper {
 		}
 		if (buffer.isUsingStream()) {
 			ServletOutputStream outputStream = getResponse().getOutputStream();
-			outputStream.write(buffer.toByteArray());
+			buffer.writeTo(outputStream);
 			outputStream.flush();
 		} else {
 			Writer out = getResponse().getWriter();
-			out.write(buffer.toCharArray());
+			buffer.writeTo(out);
 			out.flush();
 		}
 	}
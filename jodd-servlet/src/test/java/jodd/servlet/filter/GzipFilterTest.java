@@ -25,13 +25,26 @@
 
 package jodd.servlet.filter;
 
+import jodd.io.FileUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GzipFilterTest {
@@ -137,4 +150,116 @@ class GzipFilterTest {
 		when(servletRequest.getRequestURI()).thenReturn("/hello/foo/img.jpg");
 		assertFalse(gzipFilter.isGzipEligible(servletRequest));
 	}
+
+	// ---------------------------------------------------------------- precompressed
+
+	private File dir;
+	private byte[] precompressed;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		dir = FileUtil.createTempDirectory("jodd-gzip", "test");
+		precompressed = new byte[] {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 3, 1, 2, 3};
+		FileUtil.writeBytes(new File(dir, "app.js.gz"), precompressed);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		FileUtil.deleteDir(dir);
+	}
+
+	private GzipFilter precompressedFilter() throws IOException {
+		ServletContext servletContext = mock(ServletContext.class);
+		when(servletContext.getResource("/app.js.gz")).thenReturn(FileUtil.toURL(new File(dir, "app.js.gz")));
+
+		GzipFilter gzipFilter = new GzipFilter();
+		gzipFilter.threshold = 128;
+		gzipFilter.requestParameterName = "gzip";
+		gzipFilter.extensions = new String[] {"js"};
+		gzipFilter.precompressedResources = new PrecompressedResources(servletContext, 1024);
+		return gzipFilter;
+	}
+
+	private HttpServletRequest precompressedRequest() {
+		HttpServletRequest servletRequest = mock(HttpServletRequest.class);
+		when(servletRequest.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+		when(servletRequest.getRequestURI()).thenReturn("/app.js");
+		when(servletRequest.getServletPath()).thenReturn("/app.js");
+		when(servletRequest.getMethod()).thenReturn("GET");
+		return servletRequest;
+	}
+
+	@Test
+	void testPrecompressedSentAfterChain() throws Exception {
+		HttpServletRequest servletRequest = precompressedRequest();
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+		FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+		when(servletResponse.getStatus()).thenReturn(200);
+		when(servletResponse.getHeader("ETag")).thenReturn("\"1-2\"");
+		when(servletResponse.getOutputStream()).thenReturn(out);
+
+		FilterChain chain = (request, response) -> {
+			HttpServletResponse res = (HttpServletResponse) response;
+			res.setHeader("Last-Modified", "Thu, 01 Jan 2015 00:00:00 GMT");
+			res.setContentLength(9);
+			res.getOutputStream().print("alert(1);");
+		};
+
+		precompressedFilter().doFilter(servletRequest, servletResponse, chain);
+
+		assertArrayEquals(precompressed, out.getByteArrayStream().toByteArray());
+		verify(servletResponse).setHeader("Last-Modified", "Thu, 01 Jan 2015 00:00:00 GMT");
+		verify(servletResponse).setHeader("Content-Encoding", "gzip");
+		verify(servletResponse).setHeader("ETag", "W/\"1-2\"");
+		verify(servletResponse).setContentLengthLong(precompressed.length);
+		verify(servletResponse, never()).setContentLengthLong(9);
+	}
+
+	@Test
+	void testPrecompressedNotModified() throws Exception {
+		HttpServletRequest servletRequest = precompressedRequest();
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+		FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+		when(servletResponse.getStatus()).thenReturn(304);
+		when(servletResponse.getOutputStream()).thenReturn(out);
+
+		FilterChain chain = (request, response) -> ((HttpServletResponse) response).setStatus(304);
+
+		precompressedFilter().doFilter(servletRequest, servletResponse, chain);
+
+		assertEquals(0, out.getByteArrayStream().size());
+		verify(servletResponse).setStatus(304);
+		verify(servletResponse, never()).setHeader("Content-Encoding", "gzip");
+	}
+
+	@Test
+	void testPrecompressedRejectedByChain() throws Exception {
+		HttpServletRequest servletRequest = precompressedRequest();
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+		FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+		when(servletResponse.getStatus()).thenReturn(200);
+		when(servletResponse.getOutputStream()).thenReturn(out);
+
+		FilterChain chain = (request, response) -> ((HttpServletResponse) response).sendError(403);
+
+		precompressedFilter().doFilter(servletRequest, servletResponse, chain);
+
+		assertEquals(0, out.getByteArrayStream().size());
+		verify(servletResponse).sendError(403);
+		verify(servletResponse, never()).setHeader("Content-Encoding", "gzip");
+	}
+
+	@Test
+	void testPrecompressedNotUsedForRanges() throws Exception {
+		HttpServletRequest servletRequest = precompressedRequest();
+		when(servletRequest.getHeader("Range")).thenReturn("bytes=0-1");
+		HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+
+		ServletResponse[] chainResponse = new ServletResponse[1];
+		FilterChain chain = (request, response) -> chainResponse[0] = response;
+
+		precompressedFilter().doFilter(servletRequest, servletResponse, chain);
+
+		assertFalse(chainResponse[0] instanceof PrecompressedResponseWrapper);
+	}
 }
@@ -0,0 +1,94 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import jodd.io.StreamUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GzipPoolTest {
+
+	@Test
+	void testPooledGzipOutputStream() throws IOException {
+		GzipPool gzipPool = new GzipPool(128);
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			sb.append("Jodd ").append(i).append('\n');
+		}
+		byte[] content = sb.toString().getBytes("UTF-8");
+
+		for (int run = 0; run < 3; run++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			PooledGzipOutputStream gzip = new PooledGzipOutputStream(out, gzipPool);
+
+			gzip.write(content[0]);
+			gzip.write(content, 1, 1000);
+			gzip.write(content, 1001, content.length - 1001);
+			gzip.close();
+
+			assertThrows(IOException.class, () -> gzip.write(content));
+
+			byte[] unzipped = StreamUtil.readBytes(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+			assertArrayEquals(content, unzipped);
+		}
+	}
+
+	@Test
+	void testPoolReuse() {
+		GzipPool gzipPool = new GzipPool(64, 1, Deflater.BEST_SPEED);
+
+		Deflater deflater1 = gzipPool.acquireDeflater();
+		Deflater deflater2 = gzipPool.acquireDeflater();
+		assertNotSame(deflater1, deflater2);
+
+		gzipPool.releaseDeflater(deflater1);
+		gzipPool.releaseDeflater(deflater2);		// over the cap
+
+		assertSame(deflater1, gzipPool.acquireDeflater());
+		assertNotSame(deflater2, gzipPool.acquireDeflater());
+
+		byte[] buffer = gzipPool.acquireBuffer();
+		gzipPool.releaseBuffer(buffer);
+		gzipPool.releaseBuffer(new byte[10]);		// different size
+
+		assertSame(buffer, gzipPool.acquireBuffer());
+		assertNotSame(buffer, gzipPool.acquireBuffer());
+
+		gzipPool.clear();
+	}
+}
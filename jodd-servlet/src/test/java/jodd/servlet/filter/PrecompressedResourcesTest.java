@@ -0,0 +1,121 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import jodd.io.FileUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletContext;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrecompressedResourcesTest {
+
+	private File dir;
+	private ServletContext servletContext;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		dir = FileUtil.createTempDirectory("jodd-precompressed", "test");
+		servletContext = mock(ServletContext.class);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		FileUtil.deleteDir(dir);
+	}
+
+	private byte[] resource(String name, int size, int value) throws IOException {
+		byte[] bytes = new byte[size];
+		Arrays.fill(bytes, (byte) value);
+
+		File file = new File(dir, name + ".gz");
+		FileUtil.writeBytes(file, bytes);
+		when(servletContext.getResource("/" + name + ".gz")).thenReturn(FileUtil.toURL(file));
+		return bytes;
+	}
+
+	private byte[] read(PrecompressedResources precompressedResources, String path) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		precompressedResources.lookup(path).writeTo(out);
+		return out.toByteArray();
+	}
+
+	@Test
+	void testCacheBoundedBySize() throws IOException {
+		PrecompressedResources precompressedResources = new PrecompressedResources(servletContext, 200);
+
+		for (int i = 0; i < 10; i++) {
+			byte[] bytes = resource("r" + i, 40, i);
+
+			assertArrayEquals(bytes, read(precompressedResources, "/r" + i));
+			assertTrue(precompressedResources.getCacheSize() <= 200);
+		}
+		assertEquals(200, precompressedResources.getCacheSize());
+
+		// large resources are not cached
+		byte[] large = resource("large", 120, 7);
+
+		assertArrayEquals(large, read(precompressedResources, "/large"));
+		assertEquals(200, precompressedResources.getCacheSize());
+
+		assertNull(precompressedResources.lookup("/missing"));
+	}
+
+	@Test
+	void testChangedResource() throws IOException {
+		PrecompressedResources precompressedResources = new PrecompressedResources(servletContext, 200);
+
+		byte[] bytes = resource("app.js", 10, 1);
+		assertArrayEquals(bytes, read(precompressedResources, "/app.js"));
+		assertArrayEquals(bytes, read(precompressedResources, "/app.js"));
+
+		File file = new File(dir, "app.js.gz");
+		long lastModified = file.lastModified();
+
+		bytes = resource("app.js", 20, 2);
+		file.setLastModified(lastModified + 2000);
+
+		assertArrayEquals(bytes, read(precompressedResources, "/app.js"));
+		assertEquals(20, precompressedResources.getCacheSize());
+
+		assertTrue(file.delete());
+		when(servletContext.getResource("/app.js.gz")).thenReturn(null);
+
+		assertNull(precompressedResources.lookup("/app.js"));
+	}
+}